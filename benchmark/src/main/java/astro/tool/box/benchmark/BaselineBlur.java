@@ -0,0 +1,33 @@
+package astro.tool.box.benchmark;
+
+import astro.tool.box.container.FloatImage;
+
+/**
+ * The blur of the flipbook images as it was before the separable box filter (a
+ * 3x3 box with bounds checks per neighbor and an int sum, new buffer on every
+ * call), kept as the reference of the blur benchmark.
+ */
+class BaselineBlur {
+
+	static FloatImage blur(FloatImage image, int width, int height) {
+		float[] values = image.getValues();
+		float[] blurredValues = new float[width * height];
+		int rows = Math.min(height, image.getHeight());
+		int columns = Math.min(width, image.getWidth());
+		for (int i = 0; i < rows; ++i) {
+			for (int j = 0; j < columns; ++j) {
+				int sum = 0, c = 0;
+				for (int k = Math.max(0, i - 1); k <= Math.min(i + 1, rows - 1); k++) {
+					for (int u = Math.max(0, j - 1); u <= Math.min(j + 1, columns - 1); u++) {
+						sum += values[k * image.getWidth() + u];
+						c++;
+					}
+				}
+				blurredValues[i * width + j] = sum / c;
+			}
+		}
+		return new FloatImage(blurredValues, width, height, image.getSurvey(), image.getForward(),
+				image.getMjdmean(), image.isFirstEpoch());
+	}
+
+}
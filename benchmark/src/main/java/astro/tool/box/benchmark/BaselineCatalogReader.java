@@ -0,0 +1,46 @@
+package astro.tool.box.benchmark;
+
+import static astro.tool.box.util.Constants.SPLIT_CHAR;
+import static astro.tool.box.util.Constants.SPLIT_CHAR_REPLACEMENT;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import astro.tool.box.catalog.CatalogEntry;
+import astro.tool.box.util.CSVParser;
+
+/**
+ * The catalog response parsing as it was before splitting the lines into slices
+ * (CSVParser.parseLine and String.replace on every value of every line), kept
+ * as the reference of the CSV benchmark.
+ */
+class BaselineCatalogReader {
+
+	static List<CatalogEntry> transformResponseToCatalogEntries(String response, CatalogEntry catalogEntry)
+			throws IOException {
+		List<CatalogEntry> entries = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new StringReader(response))) {
+			String headerLine = reader.readLine();
+			String[] headers = CSVParser.parseLine(headerLine);
+			Map<String, Integer> columns = new HashMap<>();
+			for (int i = 0; i < headers.length; i++) {
+				columns.put(headers[i], i);
+			}
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] values = CSVParser.parseLine(line);
+				for (int i = 0; i < values.length; i++) {
+					values[i] = values[i].replace(SPLIT_CHAR, SPLIT_CHAR_REPLACEMENT);
+				}
+				entries.add(catalogEntry.getInstance(columns, values));
+			}
+		}
+		return entries;
+	}
+
+}
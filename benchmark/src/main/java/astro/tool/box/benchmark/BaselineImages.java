@@ -0,0 +1,96 @@
+package astro.tool.box.benchmark;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+
+/**
+ * The image utilities of ToolboxHelper as they were before working on the
+ * rasters (per-pixel getRGB/setRGB and Color instances), kept as the reference
+ * of the raster benchmarks.
+ */
+class BaselineImages {
+
+	static void invertColors(BufferedImage image) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int rgba = image.getRGB(x, y);
+				int a = (rgba >> 24) & 0xff;
+				int r = 255 - ((rgba >> 16) & 0xff);
+				int g = 255 - ((rgba >> 8) & 0xff);
+				int b = 255 - (rgba & 0xff);
+				image.setRGB(x, y, (a << 24) | (r << 16) | (g << 8) | b);
+			}
+		}
+	}
+
+	static BufferedImage zoomImage(BufferedImage image, int zoom) {
+		Image scaledImage = image.getScaledInstance(zoom, zoom, Image.SCALE_DEFAULT);
+		BufferedImage zoomedImage = new BufferedImage(scaledImage.getWidth(null), scaledImage.getHeight(null),
+				BufferedImage.TYPE_INT_RGB);
+		Graphics graphics = zoomedImage.createGraphics();
+		graphics.drawImage(scaledImage, 0, 0, null);
+		graphics.dispose();
+		return zoomedImage;
+	}
+
+	static BufferedImage invertImage(BufferedImage image) {
+		BufferedImage invertedImage = new BufferedImage(image.getWidth(), image.getHeight(),
+				BufferedImage.TYPE_INT_RGB);
+		for (int x = 0; x < image.getWidth(); x++) {
+			for (int y = 0; y < image.getHeight(); y++) {
+				Color c = new Color(image.getRGB(x, y), true);
+				c = new Color(255 - c.getRed(), 255 - c.getGreen(), 255 - c.getBlue());
+				invertedImage.setRGB(x, y, c.getRGB());
+			}
+		}
+		return invertedImage;
+	}
+
+	static BufferedImage convertToGrayImage(BufferedImage colorImage) {
+		int width = colorImage.getWidth();
+		int height = colorImage.getHeight();
+		BufferedImage grayscaleImage = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				Color color = new Color(colorImage.getRGB(x, y));
+				int grayscaleValue = Math.min(color.getRed() + color.getGreen() + color.getBlue(), 255);
+				grayscaleImage.setRGB(x, y, new Color(grayscaleValue, grayscaleValue, grayscaleValue).getRGB());
+			}
+		}
+		return grayscaleImage;
+	}
+
+	static BufferedImage enhanceContrast(BufferedImage grayscaleImage, double contrastFactor) {
+		int width = grayscaleImage.getWidth();
+		int height = grayscaleImage.getHeight();
+		BufferedImage contrastEnhancedImage = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int pixelValue = new Color(grayscaleImage.getRGB(x, y)).getRed();
+				int contrastEnhancedValue = (int) (contrastFactor * pixelValue);
+				contrastEnhancedValue = Math.min(Math.max(contrastEnhancedValue, 0), 255);
+				contrastEnhancedImage.setRGB(x, y,
+						new Color(contrastEnhancedValue, contrastEnhancedValue, contrastEnhancedValue).getRGB());
+			}
+		}
+		return contrastEnhancedImage;
+	}
+
+	static BufferedImage createColorImage(BufferedImage i1, BufferedImage i2, BufferedImage i3) {
+		BufferedImage colorImage = new BufferedImage(i1.getWidth(), i1.getHeight(), BufferedImage.TYPE_INT_RGB);
+		for (int x = 0; x < colorImage.getWidth(); x++) {
+			for (int y = 0; y < colorImage.getHeight(); y++) {
+				Color c1 = new Color(i1.getRGB(x, y), true);
+				Color c2 = new Color(i2.getRGB(x, y), true);
+				Color c3 = new Color(i3.getRGB(x, y), true);
+				colorImage.setRGB(x, y, new Color(c1.getRed(), c2.getRed(), c3.getRed()).getRGB());
+			}
+		}
+		return colorImage;
+	}
+
+}
@@ -0,0 +1,87 @@
+package astro.tool.box.benchmark;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * The flipbook rendering of ImageViewerTab as it was before writing into the
+ * raster (a Color and a fillRect per pixel), kept as the reference of the
+ * render benchmark.
+ */
+class BaselineRendering {
+
+	private final int naxis1;
+
+	private final int naxis2;
+
+	private final float minValue;
+
+	private final float maxValue;
+
+	private final boolean invert;
+
+	BaselineRendering(int naxis1, int naxis2, float minValue, float maxValue, boolean invert) {
+		this.naxis1 = naxis1;
+		this.naxis2 = naxis2;
+		this.minValue = minValue;
+		this.maxValue = maxValue;
+		this.invert = invert;
+	}
+
+	BufferedImage createImage(float[][] values) {
+		BufferedImage image = new BufferedImage(naxis1, naxis2, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+		for (int i = 0; i < naxis2; i++) {
+			for (int j = 0; j < naxis1; j++) {
+				try {
+					float value = processPixel(values[i][j]);
+					graphics.setColor(new Color(value, value, value));
+					graphics.fillRect(j, i, 1, 1);
+				} catch (ArrayIndexOutOfBoundsException ex) {
+				}
+			}
+		}
+		return image;
+	}
+
+	BufferedImage createColorImage(float[][] valuesW1, float[][] valuesW2) {
+		BufferedImage image = new BufferedImage(naxis1, naxis2, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+		for (int i = 0; i < naxis2; i++) {
+			for (int j = 0; j < naxis1; j++) {
+				try {
+					float red = processPixel(valuesW1[i][j]);
+					float blue = processPixel(valuesW2[i][j]);
+					float green = (red + blue) / 2;
+					Color color;
+					if (invert) {
+						color = new Color(blue, green, red);
+					} else {
+						color = new Color(red, green, blue);
+					}
+					graphics.setColor(color);
+					graphics.fillRect(j, i, 1, 1);
+				} catch (ArrayIndexOutOfBoundsException ex) {
+				}
+			}
+		}
+		return image;
+	}
+
+	private float processPixel(float value) {
+		value = normalize(value, minValue, maxValue);
+		return invert ? value : 1 - value;
+	}
+
+	private float normalize(float value, float minVal, float maxVal) {
+		value = max(value, minVal);
+		value = min(value, maxVal);
+		float lowerBound = 0, upperBound = 1;
+		return (value - minVal) * ((upperBound - lowerBound) / (maxVal - minVal)) + lowerBound;
+	}
+
+}
@@ -0,0 +1,76 @@
+package astro.tool.box.benchmark;
+
+import static astro.tool.box.util.MiscUtils.SPECTRAL_TYPES;
+import static java.lang.Math.abs;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+
+import astro.tool.box.enumeration.Color;
+import astro.tool.box.lookup.LookupResult;
+import astro.tool.box.lookup.SpectralTypeLookup;
+
+/**
+ * The spectral type lookup as it was before indexing the color intervals (all
+ * adjacent entries evaluated for each color), kept as the reference of the
+ * lookup benchmark.
+ */
+class BaselineSpectralTypeLookup {
+
+	private final List<SpectralTypeLookup> entries;
+
+	BaselineSpectralTypeLookup(List<SpectralTypeLookup> entries) {
+		this.entries = entries;
+	}
+
+	List<LookupResult> lookup(Map<Color, Double> colors) {
+		List<LookupResult> results = new ArrayList<>();
+		SpectralTypeLookup minEntry = entries.get(0);
+		for (SpectralTypeLookup maxEntry : entries) {
+			for (Entry<Color, Double> color : colors.entrySet()) {
+				LookupResult result = evaluateSpectralType(color.getKey(), color.getValue(), minEntry, maxEntry);
+				if (result != null) {
+					result.setSptNum(SPECTRAL_TYPES.get(result.getSpt().replace("V", "")));
+					results.add(result);
+				}
+			}
+			minEntry = maxEntry;
+		}
+		return results.stream().distinct().sorted(Comparator.comparing(LookupResult::getSptNum))
+				.collect(Collectors.toList());
+	}
+
+	private static LookupResult evaluateSpectralType(Color colorKey, double colorValue, SpectralTypeLookup minEntry,
+			SpectralTypeLookup maxEntry) {
+		Double minColorValue = minEntry.getColors().get(colorKey);
+		Double maxColorValue = maxEntry.getColors().get(colorKey);
+		if (minColorValue == null || maxColorValue == null || minColorValue == 0 || maxColorValue == 0
+				|| colorValue == 0) {
+			return null;
+		}
+		if (minColorValue > maxColorValue) {
+			double tempColorValue = minColorValue;
+			minColorValue = maxColorValue;
+			maxColorValue = tempColorValue;
+			SpectralTypeLookup tempEntry = minEntry;
+			minEntry = maxEntry;
+			maxEntry = tempEntry;
+		}
+		double offset = 0.5;
+		double avgColorValue = (minColorValue + maxColorValue) / 2;
+		if (colorValue >= minColorValue && colorValue < avgColorValue && colorValue <= minColorValue + offset) {
+			return new LookupResult(colorKey, colorValue, minEntry.getSpt(), minEntry.getTeff(), minEntry.getRsun(),
+					minEntry.getMsun(), minColorValue, abs(colorValue - minColorValue));
+		} else if (colorValue >= avgColorValue && colorValue <= maxColorValue && colorValue >= maxColorValue - offset) {
+			return new LookupResult(colorKey, colorValue, maxEntry.getSpt(), maxEntry.getTeff(), maxEntry.getRsun(),
+					maxEntry.getMsun(), maxColorValue, abs(colorValue - maxColorValue));
+		} else {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,132 @@
+package astro.tool.box.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import nom.tam.fits.Fits;
+import nom.tam.fits.Header;
+import nom.tam.fits.ImageData;
+import nom.tam.fits.ImageHDU;
+
+/**
+ * The stacking of the flipbook epochs as it was before the flat float images
+ * (a new FITS object with a float[][] and its header for every sum and every
+ * average), kept as the reference of the stacking benchmark.
+ */
+class BaselineStacking {
+
+	private final int naxis1;
+
+	private final int naxis2;
+
+	BaselineStacking(int naxis1, int naxis2) {
+		this.naxis1 = naxis1;
+		this.naxis2 = naxis2;
+	}
+
+	List<Fits> stackImages(List<Fits> images, int stackSize) {
+		if (stackSize < 2) {
+			return images;
+		}
+		try {
+			List<Fits> list = new ArrayList<>();
+			Fits fits = images.get(0);
+			int j = 1;
+			for (int i = 1; i < images.size(); i++) {
+				if (j < stackSize) {
+					fits = addImages(fits, images.get(i));
+					j++;
+				} else {
+					list.add(average(fits, j));
+					fits = images.get(i);
+					j = 1;
+				}
+			}
+			if (j > 1) {
+				list.add(average(fits, j));
+			}
+			if (list.isEmpty()) {
+				stackSize--;
+				return stackImages(images, stackSize);
+			}
+			return list;
+		} catch (Exception ex) {
+			return images;
+		}
+	}
+
+	private Fits addImages(Fits fits1, Fits fits2) throws Exception {
+		ImageHDU hdu = (ImageHDU) fits1.getHDU(0);
+		Header header = hdu.getHeader();
+		String survey = header.getStringValue("SURVEY");
+		double mjdmean1 = header.getDoubleValue("MJDMEAN");
+		long firstEpoch1 = header.getLongValue("FEPOCH");
+		ImageData imageData = hdu.getData();
+		float[][] values1 = (float[][]) imageData.getData();
+
+		hdu = (ImageHDU) fits2.getHDU(0);
+		header = hdu.getHeader();
+		double mjdmean2 = header.getDoubleValue("MJDMEAN");
+		long firstEpoch2 = header.getLongValue("FEPOCH");
+		imageData = hdu.getData();
+		float[][] values2 = (float[][]) imageData.getData();
+
+		float[][] addedValues = new float[naxis2][naxis1];
+		for (int i = 0; i < naxis2; i++) {
+			for (int j = 0; j < naxis1; j++) {
+				try {
+					float value1 = values1[i][j];
+					float value2 = values2[i][j];
+					value1 = isBadPixel(value1) ? value2 : value1;
+					value2 = isBadPixel(value2) ? value1 : value2;
+					addedValues[i][j] = value1 + value2;
+				} catch (ArrayIndexOutOfBoundsException ex) {
+				}
+			}
+		}
+
+		Fits fits = new Fits();
+		fits.addHDU(Fits.makeHDU(addedValues));
+		hdu = (ImageHDU) fits.getHDU(0);
+		header = hdu.getHeader();
+		double mjdmean = (mjdmean1 + mjdmean2) / 2;
+		header.addValue("MJDMEAN", mjdmean, "Mean MJD");
+		header.addValue("SURVEY", survey, "Data release");
+		header.addValue("FEPOCH", firstEpoch1 > 0 || firstEpoch2 > 0 ? 1 : 0, "First epoch");
+		return fits;
+	}
+
+	private Fits average(Fits fits, int numberOfImages) throws Exception {
+		ImageHDU hdu = (ImageHDU) fits.getHDU(0);
+		Header header = hdu.getHeader();
+		String survey = header.getStringValue("SURVEY");
+		double mjdmean = header.getDoubleValue("MJDMEAN");
+		long firstEpoch = header.getLongValue("FEPOCH");
+		ImageData imageData = hdu.getData();
+		float[][] values = (float[][]) imageData.getData();
+
+		float[][] averagedValues = new float[naxis2][naxis1];
+		for (int i = 0; i < naxis2; i++) {
+			for (int j = 0; j < naxis1; j++) {
+				try {
+					averagedValues[i][j] = values[i][j] / numberOfImages;
+				} catch (ArrayIndexOutOfBoundsException ex) {
+				}
+			}
+		}
+
+		fits = new Fits();
+		fits.addHDU(Fits.makeHDU(averagedValues));
+		hdu = (ImageHDU) fits.getHDU(0);
+		header = hdu.getHeader();
+		header.addValue("MJDMEAN", mjdmean, "Mean MJD");
+		header.addValue("SURVEY", survey, "Data release");
+		header.addValue("FEPOCH", firstEpoch, "First epoch");
+		return fits;
+	}
+
+	private boolean isBadPixel(float value) {
+		return value == 0 || Float.toString(value).equals("NaN");
+	}
+
+}
@@ -0,0 +1,82 @@
+package astro.tool.box.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import astro.tool.box.container.FloatImage;
+import astro.tool.box.util.BoxBlur;
+
+/**
+ * Blur of a flipbook image with the separable box filter (BoxBlur), compared
+ * with the baseline 3x3 box ({@link BaselineBlur}).
+ *
+ * The image is integer valued noise, for which the baseline sums are exact, so
+ * that the 3x3 blur of both is checked to differ by less than 1 (the baseline
+ * truncating the mean) before measuring.
+ *
+ * java -jar target/benchmarks.jar BlurBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlurBenchmark {
+
+	// Width and height of the image (pixels)
+	@Param({ "256", "1200" })
+	private int size;
+
+	private FloatImage image;
+
+	private BoxBlur boxBlur;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		float[] values = new float[size * size];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = Math.round(random.nextGaussian() * 100);
+		}
+		image = new FloatImage(values, size, size, "unwise", 0, 0, false);
+		boxBlur = new BoxBlur();
+
+		float[] blurredValues = boxBlur.blur(image, size, size, 1).getValues();
+		float[] baselineValues = BaselineBlur.blur(image, size, size).getValues();
+		for (int i = 0; i < blurredValues.length; i++) {
+			if (Math.abs(blurredValues[i] - baselineValues[i]) >= 1) {
+				throw new IllegalStateException("Different values at " + (i % size) + "," + (i / size) + ": "
+						+ blurredValues[i] + " and " + baselineValues[i]);
+			}
+		}
+	}
+
+	@Benchmark
+	public FloatImage blur() {
+		return boxBlur.blur(image, size, size, 1);
+	}
+
+	@Benchmark
+	public FloatImage blurRadius5() {
+		return boxBlur.blur(image, size, size, 5);
+	}
+
+	@Benchmark
+	public FloatImage blurBaseline() {
+		return BaselineBlur.blur(image, size, size);
+	}
+
+}
@@ -0,0 +1,155 @@
+package astro.tool.box.benchmark;
+
+import static astro.tool.box.util.Constants.SPLIT_CHAR;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import astro.tool.box.catalog.CatalogEntry;
+import astro.tool.box.catalog.GaiaDR3CatalogEntry;
+import astro.tool.box.util.CSVParser;
+import astro.tool.box.util.CSVReader;
+import astro.tool.box.util.MiscUtils;
+import astro.tool.box.util.ServiceHelper;
+
+/**
+ * Parsing of a Gaia DR3 cone search response with CSVReader (field slices,
+ * column projection), compared with the baseline CSVParser.parseLine
+ * ({@link BaselineCatalogReader}).
+ *
+ * The response has 50,000 rows with the columns of the Gaia DR3 catalog query
+ * of the configured TAP provider, filled with random values in the ranges of
+ * the catalog (empty values included). The catalog entries of both parsers are
+ * checked to be identical before measuring.
+ *
+ * java -jar target/benchmarks.jar CsvBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvBenchmark {
+
+	private static final int NUMBER_OF_ROWS = 50000;
+
+	// Columns requested by the projected line splitting
+	private static final int NUMBER_OF_PROJECTED_COLUMNS = 10;
+
+	private static final String[] VIZIER_COLUMNS = { "Source", "RA_ICRS", "DE_ICRS", "Plx", "e_Plx", "pmRA",
+			"e_pmRA", "pmDE", "e_pmDE", "Gmag", "e_Gmag", "BPmag", "e_BPmag", "RPmag", "e_RPmag", "BP-RP", "BP-G",
+			"G-RP", "RUWE", "RV", "e_RV", "Teff", "b_Teff", "B_Teff", "logg", "b_logg", "B_logg", "[Fe/H]",
+			"b_[Fe/H]", "B_[Fe/H]", "Dist", "b_Dist", "B_Dist", "VarFlag", "PQSO", "PGal", "PSS", "AG", "E(BP-RP)" };
+
+	private static final String[] ESA_COLUMNS = { "source_id", "ra", "dec", "parallax", "parallax_error", "pmra",
+			"pmra_error", "pmdec", "pmdec_error", "phot_g_mean_mag", "phot_bp_mean_mag", "phot_rp_mean_mag", "bp_rp",
+			"bp_g", "g_rp", "ruwe", "radial_velocity", "radial_velocity_error", "teff_gspphot", "teff_gspphot_lower",
+			"teff_gspphot_upper", "logg_gspphot", "logg_gspphot_lower", "logg_gspphot_upper", "mh_gspphot",
+			"mh_gspphot_lower", "mh_gspphot_upper", "distance_gspphot", "distance_gspphot_lower",
+			"distance_gspphot_upper", "phot_variable_flag", "classprob_dsc_combmod_quasar",
+			"classprob_dsc_combmod_galaxy", "classprob_dsc_combmod_star", "ag_gspphot", "ebpminrp_gspphot" };
+
+	private String response;
+
+	private BitSet projection;
+
+	@Setup
+	public void setup() throws IOException {
+		String[] columns = MiscUtils.isVizierTAP() ? VIZIER_COLUMNS : ESA_COLUMNS;
+		Random random = new Random(42);
+		StringBuilder lines = new StringBuilder(String.join(SPLIT_CHAR, columns)).append("\n");
+		for (int i = 0; i < NUMBER_OF_ROWS; i++) {
+			lines.append(4000000000000000000L + random.nextInt(Integer.MAX_VALUE));
+			lines.append(SPLIT_CHAR).append(random.nextDouble() * 360);
+			lines.append(SPLIT_CHAR).append(random.nextDouble() * 180 - 90);
+			for (int j = 3; j < columns.length; j++) {
+				lines.append(SPLIT_CHAR);
+				if (columns[j].equals("VarFlag") || columns[j].equals("phot_variable_flag")) {
+					lines.append(random.nextInt(10) == 0 ? "\"VARIABLE\"" : "\"NOT_AVAILABLE\"");
+				} else if (random.nextInt(4) > 0) {
+					lines.append((float) (random.nextGaussian() * 20));
+				}
+			}
+			lines.append("\n");
+		}
+		response = lines.toString();
+
+		projection = new BitSet();
+		projection.set(0, NUMBER_OF_PROJECTED_COLUMNS);
+
+		List<CatalogEntry> entries = ServiceHelper.transformResponseToCatalogEntries(response,
+				new GaiaDR3CatalogEntry());
+		List<CatalogEntry> baselineEntries = BaselineCatalogReader.transformResponseToCatalogEntries(response,
+				new GaiaDR3CatalogEntry());
+		if (entries.size() != NUMBER_OF_ROWS || baselineEntries.size() != NUMBER_OF_ROWS) {
+			throw new IllegalStateException("Different number of entries: " + entries.size() + " and "
+					+ baselineEntries.size());
+		}
+		for (int i = 0; i < NUMBER_OF_ROWS; i++) {
+			String[] values = entries.get(i).getColumnValues();
+			String[] baselineValues = baselineEntries.get(i).getColumnValues();
+			if (!Arrays.equals(values, baselineValues)) {
+				throw new IllegalStateException("Different values for row " + (i + 1) + ": " + Arrays.toString(values)
+						+ " and " + Arrays.toString(baselineValues));
+			}
+		}
+	}
+
+	@Benchmark
+	public List<CatalogEntry> readCatalogEntries() throws IOException {
+		return ServiceHelper.transformResponseToCatalogEntries(response, new GaiaDR3CatalogEntry());
+	}
+
+	@Benchmark
+	public List<CatalogEntry> readCatalogEntriesBaseline() throws IOException {
+		return BaselineCatalogReader.transformResponseToCatalogEntries(response, new GaiaDR3CatalogEntry());
+	}
+
+	@Benchmark
+	public void splitLines(Blackhole blackhole) throws IOException {
+		try (CSVReader reader = new CSVReader(new StringReader(response))) {
+			while (reader.nextLine()) {
+				blackhole.consume(reader.getFields());
+			}
+		}
+	}
+
+	@Benchmark
+	public void splitLinesProjected(Blackhole blackhole) throws IOException {
+		try (CSVReader reader = new CSVReader(new StringReader(response))) {
+			while (reader.nextLine()) {
+				blackhole.consume(reader.getFields(projection));
+			}
+		}
+	}
+
+	@Benchmark
+	public void splitLinesBaseline(Blackhole blackhole) throws IOException {
+		try (BufferedReader reader = new BufferedReader(new StringReader(response))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				blackhole.consume(CSVParser.parseLine(line));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,101 @@
+package astro.tool.box.benchmark;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import astro.tool.box.container.NumberPair;
+import astro.tool.box.enumeration.Band;
+import astro.tool.box.lookup.BrownDwarfLookupEntry;
+import astro.tool.box.lookup.DistanceLookupResult;
+import astro.tool.box.lookup.SpectralTypeLookup;
+import astro.tool.box.service.DistanceLookupService;
+import astro.tool.box.service.LookupTableRegistry;
+
+/**
+ * Photometric distances of the M, L & T dwarfs table with the spectral type
+ * index, compared with the baseline scan of all entries
+ * ({@link BaselineDistanceLookup}).
+ *
+ * The objects have the spectral type of a random table entry (with a luminosity
+ * class for some) and apparent magnitudes in all bands of the table. Both
+ * lookups are checked to return the same results before measuring.
+ *
+ * java -jar target/benchmarks.jar DistanceLookupBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceLookupBenchmark {
+
+	private static final int NUMBER_OF_OBJECTS = 1000;
+
+	private DistanceLookupService lookupService;
+
+	private BaselineDistanceLookup baselineLookup;
+
+	private List<String> objectSpts;
+
+	private List<Map<Band, NumberPair>> objectMagnitudes;
+
+	@Setup
+	public void setup() {
+		List<SpectralTypeLookup> entries = LookupTableRegistry.getBrownDwarfEntries();
+		lookupService = LookupTableRegistry.getDistanceLookupService();
+		baselineLookup = new BaselineDistanceLookup(entries);
+
+		Random random = new Random(42);
+		objectSpts = new ArrayList<>();
+		objectMagnitudes = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_OBJECTS; i++) {
+			BrownDwarfLookupEntry entry = (BrownDwarfLookupEntry) entries.get(random.nextInt(entries.size()));
+			objectSpts.add(random.nextBoolean() ? entry.getSpt() + "V" : entry.getSpt());
+			Map<Band, NumberPair> magnitudes = new EnumMap<>(Band.class);
+			for (Band band : entry.getMagnitudes().keySet()) {
+				magnitudes.put(band, new NumberPair(10 + random.nextDouble() * 8, random.nextDouble() * 0.1));
+			}
+			objectMagnitudes.add(magnitudes);
+		}
+
+		for (int i = 0; i < NUMBER_OF_OBJECTS; i++) {
+			List<DistanceLookupResult> results = lookupService.lookup(objectSpts.get(i), objectMagnitudes.get(i));
+			if (results.isEmpty()
+					|| !results.equals(baselineLookup.lookup(objectSpts.get(i), objectMagnitudes.get(i)))) {
+				throw new IllegalStateException("Different results for " + objectSpts.get(i) + ": " + results);
+			}
+		}
+	}
+
+	@Benchmark
+	public void lookup(Blackhole blackhole) {
+		for (int i = 0; i < NUMBER_OF_OBJECTS; i++) {
+			blackhole.consume(lookupService.lookup(objectSpts.get(i), objectMagnitudes.get(i)));
+		}
+	}
+
+	@Benchmark
+	public void lookupBaseline(Blackhole blackhole) {
+		for (int i = 0; i < NUMBER_OF_OBJECTS; i++) {
+			blackhole.consume(baselineLookup.lookup(objectSpts.get(i), objectMagnitudes.get(i)));
+		}
+	}
+
+}
@@ -0,0 +1,143 @@
+package astro.tool.box.benchmark;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import astro.tool.box.main.ToolboxHelper;
+
+/**
+ * Image utilities of ToolboxHelper working on the rasters, compared with the
+ * per-pixel baseline ({@link BaselineImages}).
+ *
+ * The images have the types ImageIO returns for JPEG cutouts (3 byte BGR for
+ * color images, byte gray for gray images).
+ *
+ * java -jar target/benchmarks.jar RasterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RasterBenchmark {
+
+	// Width and height of the images (pixels)
+	@Param({ "256", "1024" })
+	private int size;
+
+	private BufferedImage colorImage;
+
+	private BufferedImage grayImage1;
+
+	private BufferedImage grayImage2;
+
+	private BufferedImage grayImage3;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		colorImage = createImage(BufferedImage.TYPE_3BYTE_BGR, random);
+		grayImage1 = createImage(BufferedImage.TYPE_BYTE_GRAY, random);
+		grayImage2 = createImage(BufferedImage.TYPE_BYTE_GRAY, random);
+		grayImage3 = createImage(BufferedImage.TYPE_BYTE_GRAY, random);
+	}
+
+	private BufferedImage createImage(int type, Random random) {
+		BufferedImage image = new BufferedImage(size, size, type);
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++) {
+				image.setRGB(x, y, random.nextInt(0x1000000));
+			}
+		}
+		return image;
+	}
+
+	@Benchmark
+	public BufferedImage invertColors() {
+		ToolboxHelper.invertColors(colorImage);
+		return colorImage;
+	}
+
+	@Benchmark
+	public BufferedImage invertColorsBaseline() {
+		BaselineImages.invertColors(colorImage);
+		return colorImage;
+	}
+
+	@Benchmark
+	public BufferedImage invertGrayColors() {
+		ToolboxHelper.invertColors(grayImage1);
+		return grayImage1;
+	}
+
+	@Benchmark
+	public BufferedImage invertGrayColorsBaseline() {
+		BaselineImages.invertColors(grayImage1);
+		return grayImage1;
+	}
+
+	@Benchmark
+	public BufferedImage zoomImage() {
+		return ToolboxHelper.zoomImage(colorImage, 256);
+	}
+
+	@Benchmark
+	public BufferedImage zoomImageBaseline() {
+		return BaselineImages.zoomImage(colorImage, 256);
+	}
+
+	@Benchmark
+	public BufferedImage invertImage() {
+		return ToolboxHelper.invertImage(colorImage);
+	}
+
+	@Benchmark
+	public BufferedImage invertImageBaseline() {
+		return BaselineImages.invertImage(colorImage);
+	}
+
+	@Benchmark
+	public BufferedImage convertToGrayImage() {
+		return ToolboxHelper.convertToGrayImage(colorImage);
+	}
+
+	@Benchmark
+	public BufferedImage convertToGrayImageBaseline() {
+		return BaselineImages.convertToGrayImage(colorImage);
+	}
+
+	@Benchmark
+	public BufferedImage enhanceContrast() {
+		return ToolboxHelper.enhanceContrast(grayImage1, 1.5);
+	}
+
+	@Benchmark
+	public BufferedImage enhanceContrastBaseline() {
+		return BaselineImages.enhanceContrast(grayImage1, 1.5);
+	}
+
+	@Benchmark
+	public BufferedImage createColorImage() {
+		return ToolboxHelper.createColorImage(grayImage1, grayImage2, grayImage3);
+	}
+
+	@Benchmark
+	public BufferedImage createColorImageBaseline() {
+		return BaselineImages.createColorImage(grayImage1, grayImage2, grayImage3);
+	}
+
+}
@@ -0,0 +1,129 @@
+package astro.tool.box.benchmark;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import astro.tool.box.container.FloatImage;
+import astro.tool.box.util.FrameRenderer;
+
+/**
+ * Rendering of a 1200x1200 flipbook frame into the raster (FrameRenderer),
+ * compared with the baseline per-pixel painting ({@link BaselineRendering}).
+ *
+ * The W1 and W2 images are sky noise with stars, rendered with contrast
+ * limits like those of the flipbook. Both renderings are checked to be pixel
+ * identical before measuring.
+ *
+ * java -jar target/benchmarks.jar RenderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+	// Width and height of the frame (pixels)
+	private static final int SIZE = 1200;
+
+	private static final int NUMBER_OF_STARS = 2000;
+
+	private static final float MIN_VALUE = -20;
+
+	private static final float MAX_VALUE = 400;
+
+	private FloatImage imageW1;
+
+	private FloatImage imageW2;
+
+	private float[][] valuesW1;
+
+	private float[][] valuesW2;
+
+	private BaselineRendering baselineRendering;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		imageW1 = createImage(random);
+		imageW2 = createImage(random);
+		valuesW1 = toRows(imageW1);
+		valuesW2 = toRows(imageW2);
+		baselineRendering = new BaselineRendering(SIZE, SIZE, MIN_VALUE, MAX_VALUE, false);
+
+		checkIdentical(createImage(), baselineRendering.createImage(valuesW1));
+		checkIdentical(createColorImage(), baselineRendering.createColorImage(valuesW1, valuesW2));
+	}
+
+	private FloatImage createImage(Random random) {
+		float[] values = new float[SIZE * SIZE];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (float) (random.nextGaussian() * 10);
+		}
+		for (int k = 0; k < NUMBER_OF_STARS; k++) {
+			int x = random.nextInt(SIZE);
+			int y = random.nextInt(SIZE);
+			float flux = random.nextFloat() * 2000;
+			for (int i = Math.max(y - 3, 0); i <= Math.min(y + 3, SIZE - 1); i++) {
+				for (int j = Math.max(x - 3, 0); j <= Math.min(x + 3, SIZE - 1); j++) {
+					int distance = (i - y) * (i - y) + (j - x) * (j - x);
+					values[i * SIZE + j] += flux * Math.exp(-distance / 2.0);
+				}
+			}
+		}
+		return new FloatImage(values, SIZE, SIZE, "unwise", 0, 0, false);
+	}
+
+	private static float[][] toRows(FloatImage image) {
+		float[][] rows = new float[image.getHeight()][image.getWidth()];
+		for (int i = 0; i < rows.length; i++) {
+			System.arraycopy(image.getValues(), i * image.getWidth(), rows[i], 0, image.getWidth());
+		}
+		return rows;
+	}
+
+	private static void checkIdentical(BufferedImage image, BufferedImage baselineImage) {
+		int[] pixels = image.getRGB(0, 0, SIZE, SIZE, null, 0, SIZE);
+		int[] baselinePixels = baselineImage.getRGB(0, 0, SIZE, SIZE, null, 0, SIZE);
+		for (int i = 0; i < pixels.length; i++) {
+			if (pixels[i] != baselinePixels[i]) {
+				throw new IllegalStateException("Different pixels at " + (i % SIZE) + "," + (i / SIZE) + ": "
+						+ Integer.toHexString(pixels[i]) + " and " + Integer.toHexString(baselinePixels[i]));
+			}
+		}
+	}
+
+	@Benchmark
+	public BufferedImage createImage() {
+		return FrameRenderer.createImage(imageW1, SIZE, SIZE, MIN_VALUE, MAX_VALUE, false);
+	}
+
+	@Benchmark
+	public BufferedImage createImageBaseline() {
+		return baselineRendering.createImage(valuesW1);
+	}
+
+	@Benchmark
+	public BufferedImage createColorImage() {
+		return FrameRenderer.createColorImage(imageW1, imageW2, SIZE, SIZE, MIN_VALUE, MAX_VALUE, false);
+	}
+
+	@Benchmark
+	public BufferedImage createColorImageBaseline() {
+		return baselineRendering.createColorImage(valuesW1, valuesW2);
+	}
+
+}
@@ -0,0 +1,104 @@
+package astro.tool.box.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import astro.tool.box.enumeration.Color;
+import astro.tool.box.lookup.LookupResult;
+import astro.tool.box.lookup.SpectralTypeLookup;
+import astro.tool.box.service.LookupTableRegistry;
+import astro.tool.box.service.SpectralTypeLookupService;
+
+/**
+ * Spectral type lookup of the bundled tables with the color interval index,
+ * compared with the baseline scan of all entries
+ * ({@link BaselineSpectralTypeLookup}).
+ *
+ * The objects are table entries with noise added to their colors, so that most
+ * colors are matched by a few intervals. Both lookups are checked to return the
+ * same results before measuring.
+ *
+ * java -jar target/benchmarks.jar SpectralTypeLookupBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpectralTypeLookupBenchmark {
+
+	private static final int NUMBER_OF_OBJECTS = 1000;
+
+	@Param({ "main-sequence", "brown-dwarfs" })
+	private String table;
+
+	private SpectralTypeLookupService lookupService;
+
+	private BaselineSpectralTypeLookup baselineLookup;
+
+	private List<Map<Color, Double>> objectColors;
+
+	@Setup
+	public void setup() {
+		List<SpectralTypeLookup> entries;
+		if (table.equals("main-sequence")) {
+			entries = LookupTableRegistry.getMainSequenceEntries();
+			lookupService = LookupTableRegistry.getMainSequenceLookupService();
+		} else {
+			entries = LookupTableRegistry.getBrownDwarfEntries();
+			lookupService = LookupTableRegistry.getBrownDwarfLookupService();
+		}
+		baselineLookup = new BaselineSpectralTypeLookup(entries);
+
+		Random random = new Random(42);
+		objectColors = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_OBJECTS; i++) {
+			SpectralTypeLookup entry = entries.get(random.nextInt(entries.size()));
+			Map<Color, Double> colors = new LinkedHashMap<>();
+			entry.getColors().forEach((color, value) -> {
+				colors.put(color, value == null || value == 0 ? 0 : value + random.nextGaussian() * 0.1);
+			});
+			objectColors.add(colors);
+		}
+
+		for (Map<Color, Double> colors : objectColors) {
+			List<LookupResult> results = lookupService.lookup(colors);
+			if (!results.equals(baselineLookup.lookup(colors))) {
+				throw new IllegalStateException("Different results for " + colors + ": " + results);
+			}
+		}
+	}
+
+	@Benchmark
+	public void lookup(Blackhole blackhole) {
+		for (Map<Color, Double> colors : objectColors) {
+			blackhole.consume(lookupService.lookup(colors));
+		}
+	}
+
+	@Benchmark
+	public void lookupBaseline(Blackhole blackhole) {
+		for (Map<Color, Double> colors : objectColors) {
+			blackhole.consume(baselineLookup.lookup(colors));
+		}
+	}
+
+}
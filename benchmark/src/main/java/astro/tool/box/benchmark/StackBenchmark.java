@@ -0,0 +1,109 @@
+package astro.tool.box.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import astro.tool.box.container.FloatImage;
+import nom.tam.fits.Fits;
+import nom.tam.fits.FitsException;
+import nom.tam.fits.Header;
+import nom.tam.fits.ImageHDU;
+
+/**
+ * Stacking of flipbook epochs on flat float images (FloatImage.stack),
+ * compared with the baseline stacking of FITS objects
+ * ({@link BaselineStacking}).
+ *
+ * The epochs are sky noise with bad pixels (0 and NaN), stacked by 4. Both
+ * stackings are checked to return the same pixel values before measuring.
+ *
+ * java -jar target/benchmarks.jar StackBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackBenchmark {
+
+	private static final int NUMBER_OF_EPOCHS = 16;
+
+	private static final int STACK_SIZE = 4;
+
+	// Width and height of the epochs (pixels)
+	@Param({ "256", "1024" })
+	private int size;
+
+	private List<FloatImage> images;
+
+	private List<Fits> fitsImages;
+
+	private BaselineStacking baselineStacking;
+
+	@Setup
+	public void setup() throws FitsException, IOException {
+		Random random = new Random(42);
+		images = new ArrayList<>();
+		fitsImages = new ArrayList<>();
+		for (int k = 0; k < NUMBER_OF_EPOCHS; k++) {
+			float[][] values = new float[size][size];
+			for (int i = 0; i < size; i++) {
+				for (int j = 0; j < size; j++) {
+					int badPixel = random.nextInt(1000);
+					values[i][j] = badPixel == 0 ? 0 : badPixel == 1 ? Float.NaN : (float) (random.nextGaussian() * 10);
+				}
+			}
+			Fits fits = new Fits();
+			fits.addHDU(Fits.makeHDU(values));
+			Header header = ((ImageHDU) fits.getHDU(0)).getHeader();
+			header.addValue("MJDMEAN", 55000 + k * 180.0, "Mean MJD");
+			header.addValue("SURVEY", "unwise", "Data release");
+			header.addValue("FEPOCH", k < 2 ? 1 : 0, "First epoch");
+			fitsImages.add(fits);
+			images.add(FloatImage.fromFits(fits));
+		}
+		baselineStacking = new BaselineStacking(size, size);
+
+		List<FloatImage> stackedImages = stack();
+		List<Fits> baselineImages = stackBaseline();
+		if (stackedImages.size() != baselineImages.size()) {
+			throw new IllegalStateException("Different number of stacks: " + stackedImages.size() + " and "
+					+ baselineImages.size());
+		}
+		for (int k = 0; k < stackedImages.size(); k++) {
+			FloatImage baselineImage = FloatImage.fromFits(baselineImages.get(k));
+			if (!Arrays.equals(stackedImages.get(k).getValues(), baselineImage.getValues())
+					|| stackedImages.get(k).getMjdmean() != baselineImage.getMjdmean()) {
+				throw new IllegalStateException("Different stack " + (k + 1));
+			}
+		}
+	}
+
+	@Benchmark
+	public List<FloatImage> stack() {
+		return FloatImage.stack(images, STACK_SIZE, size, size);
+	}
+
+	@Benchmark
+	public List<Fits> stackBaseline() {
+		return baselineStacking.stackImages(fitsImages, STACK_SIZE);
+	}
+
+}
@@ -22,6 +22,7 @@ import static astro.tool.box.util.Constants.NOIRLAB_TAP_URL;
 import static astro.tool.box.util.Constants.TWO_MASS_H;
 import static astro.tool.box.util.Constants.TWO_MASS_J;
 import static astro.tool.box.util.Constants.TWO_MASS_K;
+import static astro.tool.box.util.Constants.VIZIER_UPLOAD_URL;
 import static astro.tool.box.util.Constants.WISE_1;
 import static astro.tool.box.util.Constants.WISE_2;
 import static astro.tool.box.util.ConversionFactors.DEG_ARCSEC;
@@ -29,6 +30,7 @@ import static astro.tool.box.util.MiscUtils.addRow;
 import static astro.tool.box.util.MiscUtils.encodeQuery;
 import static astro.tool.box.util.MiscUtils.isVizierTAP;
 import static astro.tool.box.util.MiscUtils.replaceNanValuesByZero;
+import static astro.tool.box.util.ServiceHelper.createVizieRUploadQuery;
 import static astro.tool.box.util.ServiceHelper.createVizieRUrl;
 
 import java.util.ArrayList;
@@ -43,7 +45,7 @@ import astro.tool.box.enumeration.Alignment;
 import astro.tool.box.enumeration.Band;
 import astro.tool.box.enumeration.Color;
 
-public class AllWiseCatalogEntry implements CatalogEntry, Extinction {
+public class AllWiseCatalogEntry implements CatalogEntry, Extinction, TapUploadCatalog {
 
 	public static final String CATALOG_NAME = "AllWISE";
 
@@ -429,6 +431,17 @@ public class AllWiseCatalogEntry implements CatalogEntry, Extinction {
 		}
 	}
 
+	@Override
+	public String getTapServiceUrl() {
+		return isVizierTAP() ? VIZIER_UPLOAD_URL : null;
+	}
+
+	@Override
+	public String getUploadQuery(String targetTable) {
+		return createVizieRUploadQuery("II/328/allwise", "RAJ2000", "DEJ2000", searchRadius / DEG_ARCSEC,
+				targetTable);
+	}
+
 	private String createAltCatalogQuery() {
 		StringBuilder query = new StringBuilder();
 		addRow(query, "SELECT designation,");
@@ -19,6 +19,7 @@ import static astro.tool.box.util.Comparators.getDoubleComparator;
 import static astro.tool.box.util.Comparators.getStringComparator;
 import static astro.tool.box.util.Constants.NOIRLAB_TAP_URL;
 import static astro.tool.box.util.Constants.VIZIER_TAP_URL;
+import static astro.tool.box.util.Constants.VIZIER_UPLOAD_URL;
 import static astro.tool.box.util.Constants.WISE_1;
 import static astro.tool.box.util.Constants.WISE_2;
 import static astro.tool.box.util.ConversionFactors.ARCSEC_MAS;
@@ -27,6 +28,7 @@ import static astro.tool.box.util.MiscUtils.addRow;
 import static astro.tool.box.util.MiscUtils.encodeQuery;
 import static astro.tool.box.util.MiscUtils.isVizierTAP;
 import static astro.tool.box.util.MiscUtils.replaceNanValuesByZero;
+import static astro.tool.box.util.ServiceHelper.addUploadJoin;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -40,7 +42,7 @@ import astro.tool.box.enumeration.Alignment;
 import astro.tool.box.enumeration.Band;
 import astro.tool.box.enumeration.Color;
 
-public class CatWiseCatalogEntry implements CatalogEntry, ProperMotionQuery, ProperMotionCatalog, Artifact, Extinction {
+public class CatWiseCatalogEntry implements CatalogEntry, ProperMotionQuery, ProperMotionCatalog, Artifact, Extinction, TapUploadCatalog {
 
 	public static final String CATALOG_NAME = "CatWISE2020";
 
@@ -294,8 +296,30 @@ public class CatWiseCatalogEntry implements CatalogEntry, ProperMotionQuery, Pro
 		}
 	}
 
+	@Override
+	public String getTapServiceUrl() {
+		return isVizierTAP() ? VIZIER_UPLOAD_URL : null;
+	}
+
+	@Override
+	public String getUploadQuery(String targetTable) {
+		StringBuilder query = new StringBuilder();
+		addCatalogColumns(query);
+		addRow(query, "FROM   \"II/365/catwise\"");
+		addUploadJoin(query, "RA_ICRS", "DE_ICRS", searchRadius / DEG_ARCSEC, targetTable);
+		return query.toString();
+	}
+
 	private String createCatalogQuery() {
 		StringBuilder query = new StringBuilder();
+		addCatalogColumns(query);
+		addRow(query, "FROM   \"II/365/catwise\"");
+		addRow(query, "WHERE  1=CONTAINS(POINT('ICRS', RA_ICRS, DE_ICRS), CIRCLE('ICRS', " + ra + ", " + dec + ", "
+				+ searchRadius / DEG_ARCSEC + "))");
+		return query.toString();
+	}
+
+	private void addCatalogColumns(StringBuilder query) {
 		addRow(query, "SELECT Name,");
 		addRow(query, "       RA_ICRS,");
 		addRow(query, "       DE_ICRS,");
@@ -318,10 +342,6 @@ public class CatWiseCatalogEntry implements CatalogEntry, ProperMotionQuery, Pro
 		addRow(query, "       e_plx2,");
 		addRow(query, "       ccf,");
 		addRow(query, "       abf");
-		addRow(query, "FROM   \"II/365/catwise\"");
-		addRow(query, "WHERE  1=CONTAINS(POINT('ICRS', RA_ICRS, DE_ICRS), CIRCLE('ICRS', " + ra + ", " + dec + ", "
-				+ searchRadius / DEG_ARCSEC + "))");
-		return query.toString();
 	}
 
 	private String createProperMotionQuery() {
@@ -18,11 +18,13 @@ import static astro.tool.box.util.Comparators.getIntegerComparator;
 import static astro.tool.box.util.Comparators.getLongComparator;
 import static astro.tool.box.util.Constants.LINE_BREAK;
 import static astro.tool.box.util.Constants.NOIRLAB_TAP_URL;
+import static astro.tool.box.util.Constants.VIZIER_UPLOAD_URL;
 import static astro.tool.box.util.ConversionFactors.DEG_ARCSEC;
 import static astro.tool.box.util.MiscUtils.addRow;
 import static astro.tool.box.util.MiscUtils.encodeQuery;
 import static astro.tool.box.util.MiscUtils.isVizierTAP;
 import static astro.tool.box.util.MiscUtils.replaceNanValuesByZero;
+import static astro.tool.box.util.ServiceHelper.createVizieRUploadQuery;
 import static astro.tool.box.util.ServiceHelper.createVizieRUrl;
 
 import java.util.ArrayList;
@@ -40,7 +42,7 @@ import astro.tool.box.enumeration.Band;
 import astro.tool.box.enumeration.Color;
 import astro.tool.box.enumeration.JColor;
 
-public class DesCatalogEntry implements CatalogEntry {
+public class DesCatalogEntry implements CatalogEntry, TapUploadCatalog {
 
 	public static final String CATALOG_NAME = "DES DR2";
 
@@ -339,6 +341,17 @@ public class DesCatalogEntry implements CatalogEntry {
 		}
 	}
 
+	@Override
+	public String getTapServiceUrl() {
+		return isVizierTAP() ? VIZIER_UPLOAD_URL : null;
+	}
+
+	@Override
+	public String getUploadQuery(String targetTable) {
+		return createVizieRUploadQuery("II/371/des_dr2", "RA_ICRS", "DE_ICRS", searchRadius / DEG_ARCSEC,
+				targetTable);
+	}
+
 	private String createAltCatalogQuery() {
 		StringBuilder query = new StringBuilder();
 		addRow(query, "SELECT coadd_object_id,");
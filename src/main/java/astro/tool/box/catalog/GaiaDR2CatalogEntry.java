@@ -25,11 +25,13 @@ import static astro.tool.box.util.Comparators.getDoubleComparator;
 import static astro.tool.box.util.Comparators.getLongComparator;
 import static astro.tool.box.util.Constants.NOIRLAB_TAP_URL;
 import static astro.tool.box.util.Constants.VIZIER_TAP_URL;
+import static astro.tool.box.util.Constants.VIZIER_UPLOAD_URL;
 import static astro.tool.box.util.ConversionFactors.DEG_ARCSEC;
 import static astro.tool.box.util.MiscUtils.addRow;
 import static astro.tool.box.util.MiscUtils.encodeQuery;
 import static astro.tool.box.util.MiscUtils.isVizierTAP;
 import static astro.tool.box.util.MiscUtils.replaceNanValuesByZero;
+import static astro.tool.box.util.ServiceHelper.addUploadJoin;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -42,7 +44,7 @@ import astro.tool.box.enumeration.Alignment;
 import astro.tool.box.enumeration.Band;
 import astro.tool.box.enumeration.Color;
 
-public class GaiaDR2CatalogEntry implements CatalogEntry, ProperMotionQuery, ProperMotionCatalog, WhiteDwarf, GaiaCmd {
+public class GaiaDR2CatalogEntry implements CatalogEntry, ProperMotionQuery, ProperMotionCatalog, WhiteDwarf, GaiaCmd, TapUploadCatalog {
 
 	public static final String CATALOG_NAME = "Gaia DR2";
 
@@ -311,8 +313,30 @@ public class GaiaDR2CatalogEntry implements CatalogEntry, ProperMotionQuery, Pro
 		}
 	}
 
+	@Override
+	public String getTapServiceUrl() {
+		return isVizierTAP() ? VIZIER_UPLOAD_URL : null;
+	}
+
+	@Override
+	public String getUploadQuery(String targetTable) {
+		StringBuilder query = new StringBuilder();
+		addCatalogColumns(query);
+		addRow(query, "FROM   \"I/345/gaia2\"");
+		addUploadJoin(query, "ra", "dec", searchRadius / DEG_ARCSEC, targetTable);
+		return query.toString();
+	}
+
 	private String createCatalogQuery() {
 		StringBuilder query = new StringBuilder();
+		addCatalogColumns(query);
+		addRow(query, "FROM   \"I/345/gaia2\"");
+		addRow(query, "WHERE  1=CONTAINS(POINT('ICRS', ra, dec), CIRCLE('ICRS', " + ra + ", " + dec + ", "
+				+ searchRadius / DEG_ARCSEC + "))");
+		return query.toString();
+	}
+
+	private void addCatalogColumns(StringBuilder query) {
 		addRow(query, "SELECT source_id,");
 		addRow(query, "       ra,");
 		addRow(query, "       dec,");
@@ -336,10 +360,6 @@ public class GaiaDR2CatalogEntry implements CatalogEntry, ProperMotionQuery, Pro
 		addRow(query, "       teff_val,");
 		addRow(query, "       radius_val,");
 		addRow(query, "       lum_val");
-		addRow(query, "FROM   \"I/345/gaia2\"");
-		addRow(query, "WHERE  1=CONTAINS(POINT('ICRS', ra, dec), CIRCLE('ICRS', " + ra + ", " + dec + ", "
-				+ searchRadius / DEG_ARCSEC + "))");
-		return query.toString();
 	}
 
 	private String createProperMotionQuery() {
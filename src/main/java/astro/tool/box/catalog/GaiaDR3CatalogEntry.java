@@ -22,12 +22,15 @@ import static astro.tool.box.function.PhotometricFunctions.calculateAbsoluteMagn
 import static astro.tool.box.util.Comparators.getDoubleComparator;
 import static astro.tool.box.util.Comparators.getLongComparator;
 import static astro.tool.box.util.Comparators.getStringComparator;
+import static astro.tool.box.util.Constants.ESA_GAIA_BASE_URL;
 import static astro.tool.box.util.Constants.ESA_GAIA_TAP_URL;
 import static astro.tool.box.util.Constants.VIZIER_TAP_URL;
+import static astro.tool.box.util.Constants.VIZIER_UPLOAD_URL;
 import static astro.tool.box.util.ConversionFactors.DEG_ARCSEC;
 import static astro.tool.box.util.MiscUtils.addRow;
 import static astro.tool.box.util.MiscUtils.encodeQuery;
 import static astro.tool.box.util.MiscUtils.isVizierTAP;
+import static astro.tool.box.util.ServiceHelper.addUploadJoin;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -40,7 +43,7 @@ import astro.tool.box.enumeration.Alignment;
 import astro.tool.box.enumeration.Band;
 import astro.tool.box.enumeration.Color;
 
-public class GaiaDR3CatalogEntry implements CatalogEntry, ProperMotionQuery, ProperMotionCatalog, WhiteDwarf, GaiaCmd {
+public class GaiaDR3CatalogEntry implements CatalogEntry, ProperMotionQuery, ProperMotionCatalog, WhiteDwarf, GaiaCmd, TapUploadCatalog {
 
 	public static final String CATALOG_NAME = "Gaia DR3";
 
@@ -419,8 +422,36 @@ public class GaiaDR3CatalogEntry implements CatalogEntry, ProperMotionQuery, Pro
 		}
 	}
 
+	@Override
+	public String getTapServiceUrl() {
+		return isVizierTAP() ? VIZIER_UPLOAD_URL : ESA_GAIA_BASE_URL;
+	}
+
+	@Override
+	public String getUploadQuery(String targetTable) {
+		StringBuilder query = new StringBuilder();
+		if (isVizierTAP()) {
+			addCatalogColumns(query);
+			addRow(query, "FROM   \"I/355/gaiadr3\"");
+			addUploadJoin(query, "RA_ICRS", "DE_ICRS", searchRadius / DEG_ARCSEC, targetTable);
+		} else {
+			addAltCatalogColumns(query);
+			addRow(query, "FROM   gaiadr3.gaia_source");
+			addUploadJoin(query, "ra", "dec", searchRadius / DEG_ARCSEC, targetTable);
+		}
+		return query.toString();
+	}
+
 	private String createCatalogQuery() {
 		StringBuilder query = new StringBuilder();
+		addCatalogColumns(query);
+		addRow(query, "FROM   \"I/355/gaiadr3\"");
+		addRow(query, "WHERE  1=CONTAINS(POINT('ICRS', RA_ICRS, DE_ICRS), CIRCLE('ICRS', " + ra + ", " + dec + ", "
+				+ searchRadius / DEG_ARCSEC + "))");
+		return query.toString();
+	}
+
+	private void addCatalogColumns(StringBuilder query) {
 		addRow(query, "SELECT Source,");
 		addRow(query, "       RA_ICRS,");
 		addRow(query, "       DE_ICRS,");
@@ -460,10 +491,6 @@ public class GaiaDR3CatalogEntry implements CatalogEntry, ProperMotionQuery, Pro
 		addRow(query, "       PSS,");
 		addRow(query, "       AG,");
 		addRow(query, "       \"E(BP-RP)\"");
-		addRow(query, "FROM   \"I/355/gaiadr3\"");
-		addRow(query, "WHERE  1=CONTAINS(POINT('ICRS', RA_ICRS, DE_ICRS), CIRCLE('ICRS', " + ra + ", " + dec + ", "
-				+ searchRadius / DEG_ARCSEC + "))");
-		return query.toString();
 	}
 
 	private String createProperMotionQuery() {
@@ -475,6 +502,14 @@ public class GaiaDR3CatalogEntry implements CatalogEntry, ProperMotionQuery, Pro
 
 	private String createAltCatalogQuery() {
 		StringBuilder query = new StringBuilder();
+		addAltCatalogColumns(query);
+		addRow(query, "FROM   gaiadr3.gaia_source");
+		addRow(query, "WHERE  1=CONTAINS(POINT('ICRS', ra, dec), CIRCLE('ICRS', " + ra + ", " + dec + ", "
+				+ searchRadius / DEG_ARCSEC + "))");
+		return query.toString();
+	}
+
+	private void addAltCatalogColumns(StringBuilder query) {
 		addRow(query, "SELECT source_id,");
 		addRow(query, "       ra,");
 		addRow(query, "       dec,");
@@ -511,10 +546,6 @@ public class GaiaDR3CatalogEntry implements CatalogEntry, ProperMotionQuery, Pro
 		addRow(query, "       classprob_dsc_combmod_star,");
 		addRow(query, "       ag_gspphot,");
 		addRow(query, "       ebpminrp_gspphot");
-		addRow(query, "FROM   gaiadr3.gaia_source");
-		addRow(query, "WHERE  1=CONTAINS(POINT('ICRS', ra, dec), CIRCLE('ICRS', " + ra + ", " + dec + ", "
-				+ searchRadius / DEG_ARCSEC + "))");
-		return query.toString();
 	}
 
 	private String createAltProperMotionQuery() {
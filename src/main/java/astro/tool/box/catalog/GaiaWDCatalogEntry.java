@@ -22,7 +22,9 @@ import static astro.tool.box.util.Constants.SDSS_I;
 import static astro.tool.box.util.Constants.SDSS_R;
 import static astro.tool.box.util.Constants.SDSS_U;
 import static astro.tool.box.util.Constants.SDSS_Z;
+import static astro.tool.box.util.Constants.VIZIER_UPLOAD_URL;
 import static astro.tool.box.util.ConversionFactors.DEG_ARCSEC;
+import static astro.tool.box.util.ServiceHelper.createVizieRUploadQuery;
 import static astro.tool.box.util.ServiceHelper.createVizieRUrl;
 
 import java.util.ArrayList;
@@ -38,7 +40,7 @@ import astro.tool.box.enumeration.Band;
 import astro.tool.box.enumeration.Color;
 import astro.tool.box.enumeration.JColor;
 
-public class GaiaWDCatalogEntry implements CatalogEntry, Extinction {
+public class GaiaWDCatalogEntry implements CatalogEntry, Extinction, TapUploadCatalog {
 
 	public static final String CATALOG_NAME = "Gaia EDR3 WD";
 
@@ -318,6 +320,17 @@ public class GaiaWDCatalogEntry implements CatalogEntry, Extinction {
 		return createVizieRUrl(ra, dec, searchRadius / DEG_ARCSEC, "J/MNRAS/508/3877/maincat", "RA_ICRS", "DE_ICRS");
 	}
 
+	@Override
+	public String getTapServiceUrl() {
+		return VIZIER_UPLOAD_URL;
+	}
+
+	@Override
+	public String getUploadQuery(String targetTable) {
+		return createVizieRUploadQuery("J/MNRAS/508/3877/maincat", "RA_ICRS", "DE_ICRS", searchRadius / DEG_ARCSEC,
+				targetTable);
+	}
+
 	@Override
 	public String[] getColumnValues() {
 		String columnValues = roundTo3DecLZ(getTargetDistance()) + "," + sourceId + "," + roundTo7Dec(ra) + ","
@@ -0,0 +1,23 @@
+package astro.tool.box.catalog;
+
+public interface TapUploadCatalog extends CatalogEntry {
+
+	/**
+	 * Get the TAP service accepting table uploads (TAP_UPLOAD)
+	 *
+	 * @return the base URL of the TAP service or null, if the selected TAP
+	 *         provider does not support table uploads for this catalog
+	 */
+	String getTapServiceUrl();
+
+	/**
+	 * Create an ADQL query returning the catalog entries within the search radius
+	 * of any target of the uploaded table
+	 *
+	 * @param targetTable (uploaded table with the columns target_ra and
+	 *                    target_dec in deg)
+	 * @return the ADQL query
+	 */
+	String getUploadQuery(String targetTable);
+
+}
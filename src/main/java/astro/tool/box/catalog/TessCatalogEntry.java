@@ -29,9 +29,11 @@ import static astro.tool.box.util.Constants.SDSS_Z;
 import static astro.tool.box.util.Constants.TWO_MASS_H;
 import static astro.tool.box.util.Constants.TWO_MASS_J;
 import static astro.tool.box.util.Constants.TWO_MASS_K;
+import static astro.tool.box.util.Constants.VIZIER_UPLOAD_URL;
 import static astro.tool.box.util.Constants.WISE_1;
 import static astro.tool.box.util.Constants.WISE_2;
 import static astro.tool.box.util.ConversionFactors.DEG_ARCSEC;
+import static astro.tool.box.util.ServiceHelper.createVizieRUploadQuery;
 import static astro.tool.box.util.ServiceHelper.createVizieRUrl;
 
 import java.util.ArrayList;
@@ -47,7 +49,7 @@ import astro.tool.box.enumeration.Band;
 import astro.tool.box.enumeration.Color;
 import astro.tool.box.enumeration.JColor;
 
-public class TessCatalogEntry implements CatalogEntry, WhiteDwarf, Extinction {
+public class TessCatalogEntry implements CatalogEntry, WhiteDwarf, Extinction, TapUploadCatalog {
 
 	public static final String CATALOG_NAME = "TESS Input Catalog";
 
@@ -478,6 +480,17 @@ public class TessCatalogEntry implements CatalogEntry, WhiteDwarf, Extinction {
 		return createVizieRUrl(ra, dec, searchRadius / DEG_ARCSEC, "IV/38/tic", "RAJ2000", "DEJ2000");
 	}
 
+	@Override
+	public String getTapServiceUrl() {
+		return VIZIER_UPLOAD_URL;
+	}
+
+	@Override
+	public String getUploadQuery(String targetTable) {
+		return createVizieRUploadQuery("IV/38/tic", "RAJ2000", "DEJ2000", searchRadius / DEG_ARCSEC,
+				targetTable);
+	}
+
 	@Override
 	public String[] getColumnValues() {
 		String columnValues = roundTo3DecLZ(getTargetDistance()) + "," + sourceId + "," + roundTo7Dec(ra) + ","
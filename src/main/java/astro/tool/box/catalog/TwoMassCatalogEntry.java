@@ -18,11 +18,13 @@ import static astro.tool.box.util.Constants.NOIRLAB_TAP_URL;
 import static astro.tool.box.util.Constants.TWO_MASS_H;
 import static astro.tool.box.util.Constants.TWO_MASS_J;
 import static astro.tool.box.util.Constants.TWO_MASS_K;
+import static astro.tool.box.util.Constants.VIZIER_UPLOAD_URL;
 import static astro.tool.box.util.ConversionFactors.DEG_ARCSEC;
 import static astro.tool.box.util.MiscUtils.addRow;
 import static astro.tool.box.util.MiscUtils.encodeQuery;
 import static astro.tool.box.util.MiscUtils.isVizierTAP;
 import static astro.tool.box.util.MiscUtils.replaceNanValuesByZero;
+import static astro.tool.box.util.ServiceHelper.createVizieRUploadQuery;
 import static astro.tool.box.util.ServiceHelper.createVizieRUrl;
 
 import java.time.LocalDateTime;
@@ -39,7 +41,7 @@ import astro.tool.box.enumeration.Band;
 import astro.tool.box.enumeration.Color;
 import astro.tool.box.enumeration.JColor;
 
-public class TwoMassCatalogEntry implements CatalogEntry, Extinction {
+public class TwoMassCatalogEntry implements CatalogEntry, Extinction, TapUploadCatalog {
 
 	public static final String CATALOG_NAME = "2MASS";
 
@@ -412,6 +414,17 @@ public class TwoMassCatalogEntry implements CatalogEntry, Extinction {
 		}
 	}
 
+	@Override
+	public String getTapServiceUrl() {
+		return isVizierTAP() ? VIZIER_UPLOAD_URL : null;
+	}
+
+	@Override
+	public String getUploadQuery(String targetTable) {
+		return createVizieRUploadQuery("II/246/out", "RAJ2000", "DEJ2000", searchRadius / DEG_ARCSEC,
+				targetTable);
+	}
+
 	private String createAltCatalogQuery() {
 		StringBuilder query = new StringBuilder();
 		addRow(query, "SELECT designation,");
@@ -21,12 +21,11 @@ import static astro.tool.box.util.Comparators.getLongComparator;
 import static astro.tool.box.util.Comparators.getStringComparator;
 import static astro.tool.box.util.ConversionFactors.ARCMIN_ARCSEC;
 import static astro.tool.box.util.ConversionFactors.DEG_ARCSEC;
+import static astro.tool.box.util.ServiceHelper.openStream;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -281,14 +280,11 @@ public class UhsCatalogEntry implements CatalogEntry, ProperMotionQuery, ProperM
 
 	private static String downloadHtmlFromUrl(String url) throws IOException {
 		StringBuilder content = new StringBuilder();
-		HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
-		try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(openStream(url)))) {
 			String line;
 			while ((line = reader.readLine()) != null) {
 				content.append(line).append("\n");
 			}
-		} finally {
-			connection.disconnect();
 		}
 		return content.toString();
 	}
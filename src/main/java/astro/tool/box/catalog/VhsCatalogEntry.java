@@ -15,11 +15,13 @@ import static astro.tool.box.util.Comparators.getDoubleComparator;
 import static astro.tool.box.util.Comparators.getLongComparator;
 import static astro.tool.box.util.Comparators.getStringComparator;
 import static astro.tool.box.util.Constants.NOIRLAB_TAP_URL;
+import static astro.tool.box.util.Constants.VIZIER_UPLOAD_URL;
 import static astro.tool.box.util.ConversionFactors.DEG_ARCSEC;
 import static astro.tool.box.util.MiscUtils.addRow;
 import static astro.tool.box.util.MiscUtils.encodeQuery;
 import static astro.tool.box.util.MiscUtils.isVizierTAP;
 import static astro.tool.box.util.MiscUtils.replaceNanValuesByZero;
+import static astro.tool.box.util.ServiceHelper.createVizieRUploadQuery;
 import static astro.tool.box.util.ServiceHelper.createVizieRUrl;
 
 import java.util.ArrayList;
@@ -35,7 +37,7 @@ import astro.tool.box.enumeration.Band;
 import astro.tool.box.enumeration.Color;
 import astro.tool.box.enumeration.JColor;
 
-public class VhsCatalogEntry implements CatalogEntry {
+public class VhsCatalogEntry implements CatalogEntry, TapUploadCatalog {
 
 	public static final String CATALOG_NAME = "VHS DR5";
 
@@ -248,6 +250,17 @@ public class VhsCatalogEntry implements CatalogEntry {
 		}
 	}
 
+	@Override
+	public String getTapServiceUrl() {
+		return isVizierTAP() ? VIZIER_UPLOAD_URL : null;
+	}
+
+	@Override
+	public String getUploadQuery(String targetTable) {
+		return createVizieRUploadQuery("II/367/vhs_dr5", "RAJ2000", "DEJ2000", searchRadius / DEG_ARCSEC,
+				targetTable);
+	}
+
 	private String createAltCatalogQuery() {
 		StringBuilder query = new StringBuilder();
 		addRow(query, "SELECT sourceid,");
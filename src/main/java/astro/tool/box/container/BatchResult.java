@@ -111,6 +111,11 @@ public class BatchResult {
 		return sb.toString();
 	}
 
+	public BatchResult withRowNumber(int rowNumber) {
+		return new BatchResult(rowNumber, objectNumber, catalogName, targetRa, targetDec, targetDistance, ra, dec,
+				sourceId, plx, pmra, pmdec, magnitudes, spectralTypes);
+	}
+
 	public String[] getColumnValues() {
 		return getValues().split(",", -1);
 	}
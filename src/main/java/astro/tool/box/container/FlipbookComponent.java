@@ -2,13 +2,11 @@ package astro.tool.box.container;
 
 import java.awt.image.BufferedImage;
 
-import nom.tam.fits.Fits;
-
 public class FlipbookComponent {
 
-	private final Fits fits1;
+	private final FloatImage image1;
 
-	private final Fits fits2;
+	private final FloatImage image2;
 
 	private final String band;
 
@@ -18,9 +16,18 @@ public class FlipbookComponent {
 
 	private BufferedImage image;
 
-	public FlipbookComponent(Fits fits1, Fits fits2, String band, String obsDate, boolean firstEpoch) {
-		this.fits1 = fits1;
-		this.fits2 = fits2;
+	// Rendering stages, valid for the parameters they were rendered with
+	private String baseImageKey;
+
+	private BufferedImage baseImage;
+
+	private String zoomedImageKey;
+
+	private BufferedImage zoomedImage;
+
+	public FlipbookComponent(FloatImage image1, FloatImage image2, String band, String obsDate, boolean firstEpoch) {
+		this.image1 = image1;
+		this.image2 = image2;
 		this.band = band;
 		this.obsDate = obsDate;
 		this.firstEpoch = firstEpoch;
@@ -30,12 +37,12 @@ public class FlipbookComponent {
 		return band + "  " + obsDate;
 	}
 
-	public Fits getFits1() {
-		return fits1;
+	public FloatImage getImage1() {
+		return image1;
 	}
 
-	public Fits getFits2() {
-		return fits2;
+	public FloatImage getImage2() {
+		return image2;
 	}
 
 	public boolean isFirstEpoch() {
@@ -50,4 +57,32 @@ public class FlipbookComponent {
 		this.image = image;
 	}
 
+	/**
+	 * @param key (rendering parameters)
+	 * @return the normalized image or null, if it has been rendered with other
+	 *         parameters
+	 */
+	public synchronized BufferedImage getBaseImage(String key) {
+		return key.equals(baseImageKey) ? baseImage : null;
+	}
+
+	public synchronized void setBaseImage(String key, BufferedImage baseImage) {
+		this.baseImageKey = key;
+		this.baseImage = baseImage;
+	}
+
+	/**
+	 * @param key (rendering parameters including the zoom)
+	 * @return the zoomed and flipped image or null, if it has been rendered with
+	 *         other parameters
+	 */
+	public synchronized BufferedImage getZoomedImage(String key) {
+		return key.equals(zoomedImageKey) ? zoomedImage : null;
+	}
+
+	public synchronized void setZoomedImage(String key, BufferedImage zoomedImage) {
+		this.zoomedImageKey = key;
+		this.zoomedImage = zoomedImage;
+	}
+
 }
@@ -0,0 +1,217 @@
+package astro.tool.box.container;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import nom.tam.fits.FitsException;
+import nom.tam.fits.Fits;
+import nom.tam.fits.Header;
+import nom.tam.fits.ImageHDU;
+
+/**
+ * Image data of a flipbook epoch, stored row by row in a flat array together
+ * with the header values used by the flipbook.
+ *
+ * Operations producing an image of a given size leave the pixels outside of
+ * the input images at 0.
+ */
+public class FloatImage {
+
+	private final float[] values;
+
+	private final int width;
+
+	private final int height;
+
+	private final String survey;
+
+	private final long forward;
+
+	private double mjdmean;
+
+	private boolean firstEpoch;
+
+	public FloatImage(float[] values, int width, int height, String survey, long forward, double mjdmean,
+			boolean firstEpoch) {
+		this.values = values;
+		this.width = width;
+		this.height = height;
+		this.survey = survey;
+		this.forward = forward;
+		this.mjdmean = mjdmean;
+		this.firstEpoch = firstEpoch;
+	}
+
+	/**
+	 * Copy the image data and header values of a FITS image
+	 *
+	 * @param fits (float image in the primary HDU)
+	 * @return the image
+	 * @throws FitsException
+	 * @throws IOException
+	 */
+	public static FloatImage fromFits(Fits fits) throws FitsException, IOException {
+		ImageHDU hdu = (ImageHDU) fits.getHDU(0);
+		Header header = hdu.getHeader();
+		float[][] data = (float[][]) hdu.getData().getData();
+		int height = data.length;
+		int width = height > 0 ? data[0].length : 0;
+		float[] values = new float[width * height];
+		for (int i = 0; i < height; i++) {
+			System.arraycopy(data[i], 0, values, i * width, Math.min(width, data[i].length));
+		}
+		return new FloatImage(values, width, height, header.getStringValue("SURVEY"),
+				header.getLongValue("FORWARD"), header.getDoubleValue("MJDMEAN"), header.getLongValue("FEPOCH") == 1);
+	}
+
+	/**
+	 * Add an image, using the pixel value of the other image where one of them
+	 * has a bad pixel
+	 *
+	 * @param other
+	 * @param width          (of the sum)
+	 * @param height         (of the sum)
+	 * @param numberOfImages (to divide the sum by, 1 for the plain sum)
+	 * @return the sum as a new image
+	 */
+	public FloatImage add(FloatImage other, int width, int height, int numberOfImages) {
+		FloatImage sum = new FloatImage(new float[width * height], width, height, survey, forward, mjdmean,
+				firstEpoch);
+		sum.addPixels(this, other, numberOfImages);
+		return sum;
+	}
+
+	/**
+	 * Add an image to this image, fused with averaging
+	 *
+	 * @param other
+	 * @param numberOfImages (to divide the sum by, 1 for the plain sum)
+	 */
+	public void addInPlace(FloatImage other, int numberOfImages) {
+		addPixels(this, other, numberOfImages);
+	}
+
+	/**
+	 * Subtract an image
+	 *
+	 * @param other
+	 * @param width  (of the difference)
+	 * @param height (of the difference)
+	 * @return the difference as a new image
+	 */
+	public FloatImage subtract(FloatImage other, int width, int height) {
+		FloatImage difference = new FloatImage(new float[width * height], width, height, survey, forward,
+				(mjdmean + other.mjdmean) / 2, firstEpoch || other.firstEpoch);
+		int rows = Math.min(height, Math.min(this.height, other.height));
+		int columns = Math.min(width, Math.min(this.width, other.width));
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < columns; j++) {
+				difference.values[i * width + j] = values[i * this.width + j] - other.values[i * other.width + j];
+			}
+		}
+		return difference;
+	}
+
+	/**
+	 * Average consecutive images in stacks, the last stack possibly smaller
+	 *
+	 * @param images
+	 * @param stackSize (reduced until there is at least one stack)
+	 * @param width     (of the stacked images)
+	 * @param height    (of the stacked images)
+	 * @return the stacked images, or the images themselves if they can't be
+	 *         stacked
+	 */
+	public static List<FloatImage> stack(List<FloatImage> images, int stackSize, int width, int height) {
+		if (stackSize < 2) {
+			return images;
+		}
+		try {
+			List<FloatImage> list = new ArrayList<>();
+			FloatImage image = images.get(0);
+			int j = 1;
+			for (int i = 1; i < images.size(); i++) {
+				if (j < stackSize) {
+					// The sum is averaged while adding the last image of the stack
+					boolean lastImage = j + 1 == stackSize || i == images.size() - 1;
+					int numberOfImages = lastImage ? j + 1 : 1;
+					if (j == 1) {
+						image = image.add(images.get(i), width, height, numberOfImages);
+					} else {
+						image.addInPlace(images.get(i), numberOfImages);
+					}
+					j++;
+				} else {
+					list.add(image);
+					image = images.get(i);
+					j = 1;
+				}
+			}
+			if (j > 1) {
+				list.add(image);
+			}
+			if (list.isEmpty()) {
+				stackSize--;
+				return stack(images, stackSize, width, height);
+			}
+			return list;
+		} catch (Exception ex) {
+			return images;
+		}
+	}
+
+	private void addPixels(FloatImage image1, FloatImage image2, int numberOfImages) {
+		int rows = Math.min(height, Math.min(image1.height, image2.height));
+		int columns = Math.min(width, Math.min(image1.width, image2.width));
+		for (int i = 0; i < height; i++) {
+			for (int j = 0; j < width; j++) {
+				if (i >= rows || j >= columns) {
+					values[i * width + j] = 0;
+					continue;
+				}
+				float value1 = image1.values[i * image1.width + j];
+				float value2 = image2.values[i * image2.width + j];
+				value1 = isBadPixel(value1) ? value2 : value1;
+				value2 = isBadPixel(value2) ? value1 : value2;
+				float sum = value1 + value2;
+				values[i * width + j] = numberOfImages > 1 ? sum / numberOfImages : sum;
+			}
+		}
+		mjdmean = (image1.mjdmean + image2.mjdmean) / 2;
+		firstEpoch = image1.firstEpoch || image2.firstEpoch;
+	}
+
+	private static boolean isBadPixel(float value) {
+		return value == 0 || Float.isNaN(value);
+	}
+
+	public float[] getValues() {
+		return values;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public String getSurvey() {
+		return survey;
+	}
+
+	public long getForward() {
+		return forward;
+	}
+
+	public double getMjdmean() {
+		return mjdmean;
+	}
+
+	public boolean isFirstEpoch() {
+		return firstEpoch;
+	}
+
+}
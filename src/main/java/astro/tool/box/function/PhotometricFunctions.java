@@ -23,26 +23,14 @@ public class PhotometricFunctions {
 	 *
 	 * @param colorKey
 	 * @param colorValue
-	 * @param minEntry
-	 * @param maxEntry
+	 * @param minEntry      (entry with the lower color value)
+	 * @param minColorValue (color value of the min entry)
+	 * @param maxEntry      (entry with the higher color value)
+	 * @param maxColorValue (color value of the max entry)
 	 * @return the spectral type
 	 */
 	public static LookupResult evaluateSpectralType(Color colorKey, double colorValue, SpectralTypeLookup minEntry,
-			SpectralTypeLookup maxEntry) {
-		Double minColorValue = minEntry.getColors().get(colorKey);
-		Double maxColorValue = maxEntry.getColors().get(colorKey);
-		if (minColorValue == null || maxColorValue == null || minColorValue == 0 || maxColorValue == 0
-				|| colorValue == 0) {
-			return null;
-		}
-		if (minColorValue > maxColorValue) {
-			double tempColorValue = minColorValue;
-			minColorValue = maxColorValue;
-			maxColorValue = tempColorValue;
-			SpectralTypeLookup tempEntry = minEntry;
-			minEntry = maxEntry;
-			maxEntry = tempEntry;
-		}
+			double minColorValue, SpectralTypeLookup maxEntry, double maxColorValue) {
 		double offset = 0.5;
 		double avgColorValue = (minColorValue + maxColorValue) / 2;
 		if (colorValue >= minColorValue && colorValue < avgColorValue && colorValue <= minColorValue + offset) {
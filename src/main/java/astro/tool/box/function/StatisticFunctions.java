@@ -107,6 +107,108 @@ public class StatisticFunctions {
 		}
 	}
 
+	/**
+	 * Determine the median of the first values of an array, sorted in ascending
+	 * order
+	 *
+	 * @param sortedValues
+	 * @param size         (number of values to consider)
+	 * @return the median, selected the same way as by
+	 *         {@link #determineMedian(List)}
+	 */
+	public static double determineMedian(double[] sortedValues, int size) {
+		if (size == 0) {
+			return 0;
+		}
+		int half = size / 2 - 1;
+		half = half < 0 ? 0 : half;
+		if (size % 2 == 0) {
+			return calculateMean(sortedValues[half], sortedValues[half + 1]);
+		} else {
+			return sortedValues[half];
+		}
+	}
+
+	/**
+	 * Collect the finite values of an image, without boxing them
+	 *
+	 * @param values (image data)
+	 * @return the finite values, in the order of the image data
+	 */
+	public static float[] collectFiniteValues(float[] values) {
+		float[] finiteValues = new float[values.length];
+		int count = 0;
+		for (float value : values) {
+			if (Float.isFinite(value)) {
+				finiteValues[count++] = value;
+			}
+		}
+		return Arrays.copyOf(finiteValues, count);
+	}
+
+	/**
+	 * Select the values at the given ranks of the values sorted in ascending
+	 * order, without sorting them (quickselect)
+	 *
+	 * The ranks are selected in ascending order, each one among the values above
+	 * the previous rank only. The values are partially reordered.
+	 *
+	 * @param values (finite values)
+	 * @param ranks  (0 to the number of values - 1, in any order)
+	 * @return the selected values, in the order of the ranks
+	 */
+	public static float[] selectValues(float[] values, int... ranks) {
+		int[] sortedRanks = ranks.clone();
+		Arrays.sort(sortedRanks);
+		int left = 0;
+		for (int rank : sortedRanks) {
+			selectValue(values, left, values.length - 1, rank);
+			left = rank;
+		}
+		float[] selectedValues = new float[ranks.length];
+		for (int i = 0; i < ranks.length; i++) {
+			selectedValues[i] = values[ranks[i]];
+		}
+		return selectedValues;
+	}
+
+	/**
+	 * Move the value of the given rank to its sorted position, with smaller or
+	 * equal values before it and greater or equal values after it
+	 */
+	private static void selectValue(float[] values, int left, int right, int rank) {
+		while (left < right) {
+			float pivot = medianOfThree(values[left], values[(left + right) >>> 1], values[right]);
+			int i = left;
+			int j = right;
+			while (i <= j) {
+				while (values[i] < pivot) {
+					i++;
+				}
+				while (values[j] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					float value = values[i];
+					values[i++] = values[j];
+					values[j--] = value;
+				}
+			}
+			if (rank <= j) {
+				right = j;
+			} else if (rank >= i) {
+				left = i;
+			} else {
+				// Between both partitions, all values equal the pivot
+				return;
+			}
+		}
+	}
+
+	private static float medianOfThree(float a, float b, float c) {
+		return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+	}
+
 	/**
 	 * Calculate the mean of a set of values
 	 *
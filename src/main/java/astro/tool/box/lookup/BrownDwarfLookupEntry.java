@@ -4,6 +4,7 @@ import static astro.tool.box.function.NumericFunctions.toDouble;
 import static astro.tool.box.tab.SettingsTab.PHOTOMETRIC_ERRORS;
 import static astro.tool.box.tab.SettingsTab.getUserSetting;
 
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -30,7 +31,7 @@ public class BrownDwarfLookupEntry implements SpectralTypeLookup {
 		// ------------------------------
 		// Absolute magnitudes
 		// ------------------------------
-		magnitudes = new HashMap<>();
+		magnitudes = new EnumMap<>(Band.class);
 		magnitudes.put(Band.g, toDouble(values[1]));
 		magnitudes.put(Band.r, toDouble(values[2]));
 		magnitudes.put(Band.i, toDouble(values[3]));
@@ -148,7 +149,7 @@ public class BrownDwarfLookupEntry implements SpectralTypeLookup {
 		// ------------------------------
 		// Errors of absolute magnitude
 		// ------------------------------
-		errors = new HashMap<>();
+		errors = new EnumMap<>(Band.class);
 		errors.put(Band.g, toDouble(values[39]));
 		errors.put(Band.r, toDouble(values[40]));
 		errors.put(Band.i, toDouble(values[41]));
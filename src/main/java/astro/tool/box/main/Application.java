@@ -8,7 +8,6 @@ import static astro.tool.box.main.ToolboxHelper.RELEASES_URL;
 import static astro.tool.box.main.ToolboxHelper.createEtchedBorder;
 import static astro.tool.box.main.ToolboxHelper.createHyperlink;
 import static astro.tool.box.main.ToolboxHelper.getToolBoxImage;
-import static astro.tool.box.main.ToolboxHelper.showExceptionDialog;
 import static astro.tool.box.tab.SettingsTab.DEST_TABS;
 import static astro.tool.box.tab.SettingsTab.SOURCE_TABS;
 import static astro.tool.box.tab.SettingsTab.USER_SETTINGS;
@@ -16,13 +15,11 @@ import static astro.tool.box.tab.SettingsTab.getLookAndFeel;
 import static astro.tool.box.tab.SettingsTab.getUserSetting;
 import static astro.tool.box.tab.SettingsTab.loadUserSettings;
 import static astro.tool.box.tab.SettingsTab.setLookAndFeel;
-import static astro.tool.box.util.ServiceHelper.establishHttpConnection;
 import static astro.tool.box.util.ServiceHelper.readResponse;
 import static java.time.temporal.ChronoUnit.DAYS;
 
 import java.awt.Color;
 import java.awt.Dimension;
-import java.io.IOException;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
@@ -175,8 +172,7 @@ public class Application {
 
 		if (!versionLoaded && checkVersion) {
 			try {
-				String response = readResponse(establishHttpConnection(RELEASES_URL + "versions.txt"),
-						PGM_NAME + " version file");
+				String response = readResponse(RELEASES_URL + "versions.txt", PGM_NAME + " version file");
 				if (!response.isEmpty()) {
 					String currentVersion = PGM_VERSION;
 					String latestVersion = "Not available!";
@@ -208,8 +204,6 @@ public class Application {
 						}
 					}
 				}
-			} catch (IOException ex) {
-				showExceptionDialog(baseFrame, ex);
 			} finally {
 				versionLoaded = true;
 			}
@@ -0,0 +1,142 @@
+package astro.tool.box.main;
+
+import static astro.tool.box.function.NumericFunctions.isNumeric;
+import static astro.tool.box.function.NumericFunctions.toDouble;
+import static astro.tool.box.function.NumericFunctions.toInteger;
+import static astro.tool.box.main.ToolboxHelper.writeErrorLog;
+import static astro.tool.box.util.Constants.SPLIT_CHAR;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+import astro.tool.box.container.NumberPair;
+import astro.tool.box.service.BatchPdfService;
+
+/**
+ * Headless batch mode, creating the image series PDFs of a target list:
+ *
+ * --batch-pdf targets.csv output-dir [field of view] [RA position] [dec
+ * position] [documents at the same time]
+ *
+ * The target list is a CSV file with a header line. The RA and dec positions
+ * are the column numbers starting at 1 (default: 1 and 2). The documents and
+ * the summary index are written to the output directory.
+ */
+public class BatchPdf {
+
+	public static final String OPTION = "--batch-pdf";
+
+	private static final int DEFAULT_FIELD_OF_VIEW = 30;
+
+	private static final String USAGE = OPTION
+			+ " targets.csv output-dir [field of view (arcsec, default: " + DEFAULT_FIELD_OF_VIEW
+			+ ")] [RA position (default: 1)] [dec position (default: 2)] [documents at the same time (default: number of processors)]";
+
+	/**
+	 * Run the batch
+	 *
+	 * @param args (starting with the option)
+	 * @return the exit status (0 if all documents have been created with images)
+	 */
+	public static int run(String[] args) {
+		if (args.length < 3) {
+			System.err.println("Usage: " + USAGE);
+			return 2;
+		}
+		File targetFile = new File(args[1]);
+		File outputDir = new File(args[2]);
+		int fieldOfView;
+		int raColumnIndex;
+		int decColumnIndex;
+		int documentThreads;
+		try {
+			fieldOfView = args.length > 3 ? toInteger(args[3]) : DEFAULT_FIELD_OF_VIEW;
+			raColumnIndex = (args.length > 4 ? toInteger(args[4]) : 1) - 1;
+			decColumnIndex = (args.length > 5 ? toInteger(args[5]) : 2) - 1;
+			documentThreads = args.length > 6 ? toInteger(args[6]) : Runtime.getRuntime().availableProcessors();
+		} catch (NumberFormatException ex) {
+			System.err.println("Usage: " + USAGE);
+			return 2;
+		}
+		if (fieldOfView <= 0 || raColumnIndex < 0 || decColumnIndex < 0 || documentThreads <= 0) {
+			System.err.println("Usage: " + USAGE);
+			return 2;
+		}
+
+		List<NumberPair> targets;
+		try {
+			targets = readTargets(targetFile, raColumnIndex, decColumnIndex);
+		} catch (IOException | IllegalArgumentException ex) {
+			System.err.println(targetFile + ": " + ex.getMessage());
+			return 2;
+		}
+
+		BatchPdfService batchPdfService = new BatchPdfService(fieldOfView, outputDir, documentThreads);
+		try {
+			File indexFile = batchPdfService.createDocuments(targets, completedDocuments -> {
+				System.out.println(batchPdfService.getThroughput());
+			});
+			System.out.println("Index: " + indexFile);
+		} catch (IOException ex) {
+			writeErrorLog(ex);
+			System.err.println(ex.getMessage());
+			return 1;
+		}
+		int degradedDocuments = batchPdfService.getDegradedDocuments();
+		if (degradedDocuments > 0) {
+			System.err.println(degradedDocuments + " document(s) with failed or empty sources, see the index");
+		}
+		int failedDocuments = batchPdfService.getFailedDocuments();
+		if (failedDocuments > 0) {
+			System.err.println(
+					failedDocuments + " document(s) failed or without images, see the index and the error log");
+			return 1;
+		}
+		return 0;
+	}
+
+	/**
+	 * Read the targets of a CSV file with a header line (also used by
+	 * {@link BatchSed})
+	 *
+	 * @param file
+	 * @param raColumnIndex  (starting at 0)
+	 * @param decColumnIndex (starting at 0)
+	 * @return the targets (deg, deg)
+	 * @throws IOException
+	 */
+	static List<NumberPair> readTargets(File file, int raColumnIndex, int decColumnIndex)
+			throws IOException {
+		List<NumberPair> targets = new ArrayList<>();
+		try (Scanner scanner = new Scanner(file)) {
+			if (!scanner.hasNextLine()) {
+				throw new IllegalArgumentException("The file has no header line.");
+			}
+			int lastColumnIndex = scanner.nextLine().split(SPLIT_CHAR).length - 1;
+			if (raColumnIndex > lastColumnIndex || decColumnIndex > lastColumnIndex) {
+				throw new IllegalArgumentException("RA and dec positions must not be greater than "
+						+ (lastColumnIndex + 1) + ".");
+			}
+			int lineNumber = 1;
+			while (scanner.hasNextLine()) {
+				String line = scanner.nextLine();
+				lineNumber++;
+				if (line.isBlank()) {
+					continue;
+				}
+				String[] columns = line.split(SPLIT_CHAR, -1);
+				String raValue = columns[raColumnIndex];
+				String decValue = columns[decColumnIndex];
+				if (!isNumeric(raValue) || !isNumeric(decValue)) {
+					throw new IllegalArgumentException("RA and dec must be numeric (line " + lineNumber + ").");
+				}
+				targets.add(new NumberPair(toDouble(raValue), toDouble(decValue)));
+			}
+		}
+		return targets;
+	}
+
+}
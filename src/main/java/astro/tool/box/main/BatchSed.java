@@ -0,0 +1,124 @@
+package astro.tool.box.main;
+
+import static astro.tool.box.function.NumericFunctions.toDouble;
+import static astro.tool.box.function.NumericFunctions.toInteger;
+import static astro.tool.box.main.ToolboxHelper.getCatalogInstances;
+import static astro.tool.box.main.ToolboxHelper.writeErrorLog;
+import static astro.tool.box.util.Constants.SPLIT_CHAR;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import astro.tool.box.catalog.AllWiseCatalogEntry;
+import astro.tool.box.catalog.CatalogEntry;
+import astro.tool.box.catalog.GaiaDR3CatalogEntry;
+import astro.tool.box.catalog.PanStarrsCatalogEntry;
+import astro.tool.box.catalog.TwoMassCatalogEntry;
+import astro.tool.box.container.NumberPair;
+import astro.tool.box.service.BatchSedService;
+import astro.tool.box.service.CatalogQueryService;
+
+/**
+ * Headless batch mode, classifying the targets of a list by their photometry
+ * and fitting their SEDs:
+ *
+ * --batch-sed targets.csv results.csv [search radius] [RA position] [dec
+ * position] [targets at the same time] [catalogs]
+ *
+ * The target list is a CSV file with a header line. The RA and dec positions
+ * are the column numbers starting at 1 (default: 1 and 2). The catalogs are
+ * separated by commas, in order of preference for the SED photometry (default:
+ * Gaia DR3, Pan-STARRS, 2MASS and AllWISE, as preselected by the SED panels).
+ */
+public class BatchSed {
+
+	public static final String OPTION = "--batch-sed";
+
+	private static final double DEFAULT_SEARCH_RADIUS = 5;
+
+	private static final int DEFAULT_OBJECT_THREADS = 8;
+
+	private static final List<String> DEFAULT_CATALOGS = List.of(GaiaDR3CatalogEntry.CATALOG_NAME,
+			PanStarrsCatalogEntry.CATALOG_NAME, TwoMassCatalogEntry.CATALOG_NAME, AllWiseCatalogEntry.CATALOG_NAME);
+
+	private static final String USAGE = OPTION + " targets.csv results.csv [search radius (arcsec, default: "
+			+ (int) DEFAULT_SEARCH_RADIUS
+			+ ")] [RA position (default: 1)] [dec position (default: 2)] [targets at the same time (default: "
+			+ DEFAULT_OBJECT_THREADS + ")] [catalogs (default: " + String.join(SPLIT_CHAR, DEFAULT_CATALOGS) + ")]";
+
+	/**
+	 * Run the batch
+	 *
+	 * @param args (starting with the option)
+	 * @return the exit status (0 if all catalog queries have succeeded)
+	 */
+	public static int run(String[] args) {
+		if (args.length < 3) {
+			System.err.println("Usage: " + USAGE);
+			return 2;
+		}
+		File targetFile = new File(args[1]);
+		File resultFile = new File(args[2]);
+		double searchRadius;
+		int raColumnIndex;
+		int decColumnIndex;
+		int objectThreads;
+		try {
+			searchRadius = args.length > 3 ? toDouble(args[3]) : DEFAULT_SEARCH_RADIUS;
+			raColumnIndex = (args.length > 4 ? toInteger(args[4]) : 1) - 1;
+			decColumnIndex = (args.length > 5 ? toInteger(args[5]) : 2) - 1;
+			objectThreads = args.length > 6 ? toInteger(args[6]) : DEFAULT_OBJECT_THREADS;
+		} catch (NumberFormatException ex) {
+			System.err.println("Usage: " + USAGE);
+			return 2;
+		}
+		if (searchRadius <= 0 || searchRadius > 100 || raColumnIndex < 0 || decColumnIndex < 0
+				|| objectThreads <= 0) {
+			System.err.println("Usage: " + USAGE);
+			return 2;
+		}
+		Map<String, CatalogEntry> catalogInstances = getCatalogInstances();
+		List<String> selectedCatalogs = args.length > 7
+				? Arrays.stream(args[7].split(SPLIT_CHAR)).map(String::trim).toList()
+				: DEFAULT_CATALOGS;
+		for (String catalogKey : selectedCatalogs) {
+			if (!catalogInstances.containsKey(catalogKey)) {
+				System.err.println("Unknown catalog: " + catalogKey + " (available: "
+						+ String.join(SPLIT_CHAR, catalogInstances.keySet()) + ")");
+				return 2;
+			}
+		}
+
+		List<NumberPair> targets;
+		try {
+			targets = BatchPdf.readTargets(targetFile, raColumnIndex, decColumnIndex);
+		} catch (IOException | IllegalArgumentException ex) {
+			System.err.println(targetFile + ": " + ex.getMessage());
+			return 2;
+		}
+
+		BatchSedService batchSedService = new BatchSedService(new CatalogQueryService(), catalogInstances,
+				selectedCatalogs, searchRadius, objectThreads);
+		try {
+			batchSedService.classifyObjects(targets, resultFile, completedObjects -> {
+				System.out.println(batchSedService.getThroughput());
+			});
+			System.out.println("Results: " + resultFile + " - " + batchSedService.getThroughput());
+		} catch (IOException ex) {
+			writeErrorLog(ex);
+			System.err.println(ex.getMessage());
+			return 1;
+		}
+		int failedObjects = batchSedService.getFailedObjects();
+		if (failedObjects > 0) {
+			System.err.println(
+					failedObjects + " target(s) with failed catalog queries, see the results and the error log");
+			return 1;
+		}
+		return 0;
+	}
+
+}
@@ -28,6 +28,7 @@ import static astro.tool.box.main.ToolboxHelper.retrieveImage;
 import static astro.tool.box.main.ToolboxHelper.retrieveNearInfraredImages;
 import static astro.tool.box.main.ToolboxHelper.retrievePs1Image;
 import static astro.tool.box.main.ToolboxHelper.showExceptionDialog;
+import static astro.tool.box.main.ToolboxHelper.writeMessageLog;
 import static astro.tool.box.tab.SettingsTab.getSelectedCatalogs;
 import static astro.tool.box.util.Constants.ALLWISE_EPOCH;
 import static astro.tool.box.util.Constants.DESI_FILTERS;
@@ -45,19 +46,22 @@ import java.awt.Cursor;
 import java.awt.Desktop;
 import java.awt.event.ActionListener;
 import java.awt.image.BufferedImage;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
 
 import javax.swing.JFrame;
 import javax.swing.JTextField;
@@ -86,12 +90,11 @@ import astro.tool.box.container.BatchResult;
 import astro.tool.box.container.Couple;
 import astro.tool.box.container.FlipbookComponent;
 import astro.tool.box.container.NirImage;
-import astro.tool.box.lookup.BrownDwarfLookupEntry;
-import astro.tool.box.lookup.SpectralTypeLookup;
-import astro.tool.box.lookup.SpectralTypeLookupEntry;
 import astro.tool.box.service.CatalogQueryService;
+import astro.tool.box.service.LookupTableRegistry;
 import astro.tool.box.service.SpectralTypeLookupService;
 import astro.tool.box.tab.ImageViewerTab;
+import astro.tool.box.util.ThreadPools;
 
 public class ImageSeriesPdf {
 
@@ -101,43 +104,59 @@ public class ImageSeriesPdf {
 	private static final Font SMALL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 6, BaseColor.BLACK);
 	private static final Font SMALL_WHITE_FONT = FontFactory.getFont(FontFactory.HELVETICA, 6, BaseColor.WHITE);
 
+	private static final int MAX_CONCURRENT_REQUESTS = 16;
+
 	private final double targetRa;
 	private final double targetDec;
 	private final int size;
 
+	// Null in headless mode, the document is then created without the WISE time
+	// series
 	private final ImageViewerTab imageViewerTab;
 
+	// Shared by the documents of a batch, null if each document uses its own
+	// thread pool
+	private final ExecutorService requestExecutor;
+
 	private final Map<String, CatalogEntry> catalogInstances;
 
 	private final CatalogQueryService catalogQueryService;
 	private final SpectralTypeLookupService mainSequenceLookupService;
 	private final SpectralTypeLookupService brownDwarfsLookupService;
 
+	// Sources that have failed or returned no images, set when the document has
+	// been written
+	private List<String> incompleteSources = List.of();
+
+	private boolean withoutImages;
+
 	public ImageSeriesPdf(double targetRa, double targetDec, int size, ImageViewerTab imageViewerTab) {
+		this(targetRa, targetDec, size, imageViewerTab, null);
+	}
+
+	/**
+	 * Create a document without Swing components (headless mode)
+	 *
+	 * @param targetRa
+	 * @param targetDec
+	 * @param size            (field of view in arcsec)
+	 * @param requestExecutor (runs the requests of the document)
+	 */
+	public ImageSeriesPdf(double targetRa, double targetDec, int size, ExecutorService requestExecutor) {
+		this(targetRa, targetDec, size, null, requestExecutor);
+	}
+
+	private ImageSeriesPdf(double targetRa, double targetDec, int size, ImageViewerTab imageViewerTab,
+			ExecutorService requestExecutor) {
 		this.targetRa = targetRa;
 		this.targetDec = targetDec;
 		this.size = size;
 		this.imageViewerTab = imageViewerTab;
+		this.requestExecutor = requestExecutor;
 		catalogInstances = getCatalogInstances();
 		catalogQueryService = new CatalogQueryService();
-		try (InputStream input = getClass().getResourceAsStream("/SpectralTypeLookupTable.csv")) {
-			Stream<String> stream = new BufferedReader(new InputStreamReader(input)).lines();
-			List<SpectralTypeLookup> entries = stream.skip(1).map(line -> {
-				return new SpectralTypeLookupEntry(line.split(",", -1));
-			}).collect(Collectors.toList());
-			mainSequenceLookupService = new SpectralTypeLookupService(entries);
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		}
-		try (InputStream input = getClass().getResourceAsStream("/BrownDwarfLookupTable.csv")) {
-			Stream<String> stream = new BufferedReader(new InputStreamReader(input)).lines();
-			List<SpectralTypeLookup> entries = stream.skip(1).map(line -> {
-				return new BrownDwarfLookupEntry(line.split(",", -1));
-			}).collect(Collectors.toList());
-			brownDwarfsLookupService = new SpectralTypeLookupService(entries);
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		}
+		mainSequenceLookupService = LookupTableRegistry.getMainSequenceLookupService();
+		brownDwarfsLookupService = LookupTableRegistry.getBrownDwarfLookupService();
 	}
 
 	public Boolean create(JFrame baseFrame) {
@@ -153,18 +172,175 @@ public class ImageSeriesPdf {
 		sizeField.setText(String.valueOf(size));
 		sizeField.addActionListener(actionListener);
 		try {
-			imageViewerTab.getZoomSlider().setValue(250);
-			imageViewerTab.getSkipIntermediateEpochs().setSelected(false);
-			imageViewerTab.createFlipbook();
-
 			baseFrame.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
 
 			File tmpFile = File.createTempFile(
 					"Target_" + roundTo2DecNZ(targetRa) + addPlusSign(roundDouble(targetDec, PATTERN_2DEC_NZ)) + "_",
 					".pdf");
+			writeDocument(tmpFile);
+
+			Desktop.getDesktop().open(tmpFile);
+		} catch (Exception ex) {
+			showExceptionDialog(baseFrame, ex);
+		} finally {
+			imageViewerTab.setWaitCursor(true);
+			baseFrame.setCursor(Cursor.getDefaultCursor());
+			coordsField.setCursor(Cursor.getDefaultCursor());
+			sizeField.setCursor(Cursor.getDefaultCursor());
+		}
+
+		return true;
+	}
+
+	/**
+	 * Write the document of the target
+	 *
+	 * A failed or empty source does not stop the document, it is listed by
+	 * {@link #getIncompleteSources()}.
+	 *
+	 * @param file
+	 * @throws Exception
+	 */
+	public void writeDocument(File file) throws Exception {
+		SourceRequests requests = new SourceRequests();
+		try (FileOutputStream output = new FileOutputStream(file)) {
+			// All images, epochs and catalog entries are requested up front and
+			// concurrently, the document is then assembled from the results in a
+			// fixed order
+			CompletableFuture<Integer> year_1b = requests.fetchEpoch("DSS", "dss", "dss_bands=poss1_blue");
+			CompletableFuture<Integer> year_1r = requests.fetchEpoch("DSS", "dss", "dss_bands=poss1_red");
+			CompletableFuture<Integer> year_2b = requests.fetchEpoch("DSS", "dss", "dss_bands=poss2ukstu_blue");
+			CompletableFuture<Integer> year_2r = requests.fetchEpoch("DSS", "dss", "dss_bands=poss2ukstu_red");
+			CompletableFuture<Integer> year_2ir = requests.fetchEpoch("DSS", "dss", "dss_bands=poss2ukstu_ir");
+			CompletableFuture<BufferedImage> dss1b = requests.fetchImage("DSS", "dss",
+					"dss_bands=poss1_blue&type=jpgurl");
+			CompletableFuture<BufferedImage> dss1r = requests.fetchImage("DSS", "dss",
+					"dss_bands=poss1_red&type=jpgurl");
+			CompletableFuture<BufferedImage> dss2b = requests.fetchImage("DSS", "dss",
+					"dss_bands=poss2ukstu_blue&type=jpgurl");
+			CompletableFuture<BufferedImage> dss2r = requests.fetchImage("DSS", "dss",
+					"dss_bands=poss2ukstu_red&type=jpgurl");
+			CompletableFuture<BufferedImage> dss2ir = requests.fetchImage("DSS", "dss",
+					"dss_bands=poss2ukstu_ir&type=jpgurl");
+			CompletableFuture<BufferedImage> dssColor = requests.fetchImage("DSS", "dss", "file_type=colorimage");
+
+			CompletableFuture<Integer> year_j = requests.fetchEpoch("2MASS", "2mass", "twomass_bands=j");
+			CompletableFuture<Integer> year_h = requests.fetchEpoch("2MASS", "2mass", "twomass_bands=h");
+			CompletableFuture<Integer> year_k = requests.fetchEpoch("2MASS", "2mass", "twomass_bands=k");
+			CompletableFuture<BufferedImage> twoMassJ = requests.fetchImage("2MASS", "2mass",
+					"twomass_bands=j&type=jpgurl");
+			CompletableFuture<BufferedImage> twoMassH = requests.fetchImage("2MASS", "2mass",
+					"twomass_bands=h&type=jpgurl");
+			CompletableFuture<BufferedImage> twoMassK = requests.fetchImage("2MASS", "2mass",
+					"twomass_bands=k&type=jpgurl");
+			CompletableFuture<BufferedImage> twoMassColor = requests.fetchImage("2MASS", "2mass",
+					"file_type=colorimage");
+
+			CompletableFuture<Integer> year_u = requests.fetchEpoch("SDSS", "sdss", "sdss_bands=u");
+			CompletableFuture<Integer> year_g = requests.fetchEpoch("SDSS", "sdss", "sdss_bands=g");
+			CompletableFuture<Integer> year_r = requests.fetchEpoch("SDSS", "sdss", "sdss_bands=r");
+			CompletableFuture<Integer> year_i = requests.fetchEpoch("SDSS", "sdss", "sdss_bands=i");
+			CompletableFuture<Integer> year_z = requests.fetchEpoch("SDSS", "sdss", "sdss_bands=z");
+			CompletableFuture<BufferedImage> sdssU = requests.fetchImage("SDSS", "sdss", "sdss_bands=u&type=jpgurl");
+			CompletableFuture<BufferedImage> sdssG = requests.fetchImage("SDSS", "sdss", "sdss_bands=g&type=jpgurl");
+			CompletableFuture<BufferedImage> sdssR = requests.fetchImage("SDSS", "sdss", "sdss_bands=r&type=jpgurl");
+			CompletableFuture<BufferedImage> sdssI = requests.fetchImage("SDSS", "sdss", "sdss_bands=i&type=jpgurl");
+			CompletableFuture<BufferedImage> sdssZ = requests.fetchImage("SDSS", "sdss", "sdss_bands=z&type=jpgurl");
+			CompletableFuture<BufferedImage> sdssColor = requests.fetchImage("SDSS", "sdss", "file_type=colorimage");
+
+			CompletableFuture<Integer> year_ch1 = requests.fetchEpoch("Spitzer", "seip",
+					"seip_bands=spitzer.seip_science:IRAC1");
+			CompletableFuture<Integer> year_ch2 = requests.fetchEpoch("Spitzer", "seip",
+					"seip_bands=spitzer.seip_science:IRAC2");
+			CompletableFuture<Integer> year_ch3 = requests.fetchEpoch("Spitzer", "seip",
+					"seip_bands=spitzer.seip_science:IRAC3");
+			CompletableFuture<Integer> year_ch4 = requests.fetchEpoch("Spitzer", "seip",
+					"seip_bands=spitzer.seip_science:IRAC4");
+			CompletableFuture<Integer> year_mips24 = requests.fetchEpoch("Spitzer", "seip",
+					"seip_bands=spitzer.seip_science:MIPS24");
+			CompletableFuture<BufferedImage> irac1 = requests.fetchImage("Spitzer", "seip",
+					"seip_bands=spitzer.seip_science:IRAC1&type=jpgurl");
+			CompletableFuture<BufferedImage> irac2 = requests.fetchImage("Spitzer", "seip",
+					"seip_bands=spitzer.seip_science:IRAC2&type=jpgurl");
+			CompletableFuture<BufferedImage> irac3 = requests.fetchImage("Spitzer", "seip",
+					"seip_bands=spitzer.seip_science:IRAC3&type=jpgurl");
+			CompletableFuture<BufferedImage> irac4 = requests.fetchImage("Spitzer", "seip",
+					"seip_bands=spitzer.seip_science:IRAC4&type=jpgurl");
+			CompletableFuture<BufferedImage> mips24 = requests.fetchImage("Spitzer", "seip",
+					"seip_bands=spitzer.seip_science:MIPS24&type=jpgurl");
+			CompletableFuture<BufferedImage> spitzerColor = requests.fetchImage("Spitzer", "seip",
+					"file_type=colorimage");
+
+			CompletableFuture<Integer> year_w1 = requests.fetchEpoch("WISE", "wise", "wise_bands=1");
+			CompletableFuture<Integer> year_w2 = requests.fetchEpoch("WISE", "wise", "wise_bands=2");
+			CompletableFuture<Integer> year_w3 = requests.fetchEpoch("WISE", "wise", "wise_bands=3");
+			CompletableFuture<Integer> year_w4 = requests.fetchEpoch("WISE", "wise", "wise_bands=4");
+			CompletableFuture<BufferedImage> wiseW1 = requests.fetchImage("WISE", "wise", "wise_bands=1&type=jpgurl");
+			CompletableFuture<BufferedImage> wiseW2 = requests.fetchImage("WISE", "wise", "wise_bands=2&type=jpgurl");
+			CompletableFuture<BufferedImage> wiseW3 = requests.fetchImage("WISE", "wise", "wise_bands=3&type=jpgurl");
+			CompletableFuture<BufferedImage> wiseW4 = requests.fetchImage("WISE", "wise", "wise_bands=4&type=jpgurl");
+			CompletableFuture<BufferedImage> wiseColor = requests.fetchImage("WISE", "wise", "file_type=colorimage");
+
+			CompletableFuture<Map<String, NirImage>> ukidssImages = targetDec > -5
+					? requests.fetchNearInfraredImages(UKIDSS_SURVEY_URL, UKIDSS_LABEL)
+					: CompletableFuture.completedFuture(Map.of());
+			CompletableFuture<Map<String, NirImage>> uhsImages = targetDec > -5
+					? requests.fetchNearInfraredImages(UHS_SURVEY_URL, UHS_LABEL)
+					: CompletableFuture.completedFuture(Map.of());
+			CompletableFuture<Map<String, NirImage>> vhsImages = targetDec < 5
+					? requests.fetchNearInfraredImages(VHS_SURVEY_URL, VHS_LABEL)
+					: CompletableFuture.completedFuture(Map.of());
+
+			CompletableFuture<Map<String, String>> ps1FileNames = requests.fetch("PS1",
+					() -> getPs1FileNames(targetRa, targetDec)).exceptionally(ex -> Map.of());
+			CompletableFuture<Map<String, Double>> ps1Years = requests.fetch("PS1",
+					() -> getPs1Epochs(targetRa, targetDec)).exceptionally(ex -> Map.of());
+			CompletableFuture<BufferedImage> ps1G = requests.fetchPs1Image(ps1FileNames,
+					fileNames -> "red=%s".formatted(fileNames.get("g")), true);
+			CompletableFuture<BufferedImage> ps1R = requests.fetchPs1Image(ps1FileNames,
+					fileNames -> "red=%s".formatted(fileNames.get("r")), true);
+			CompletableFuture<BufferedImage> ps1I = requests.fetchPs1Image(ps1FileNames,
+					fileNames -> "red=%s".formatted(fileNames.get("i")), true);
+			CompletableFuture<BufferedImage> ps1Z = requests.fetchPs1Image(ps1FileNames,
+					fileNames -> "red=%s".formatted(fileNames.get("z")), true);
+			CompletableFuture<BufferedImage> ps1Y = requests.fetchPs1Image(ps1FileNames,
+					fileNames -> "red=%s".formatted(fileNames.get("y")), true);
+			CompletableFuture<BufferedImage> ps1Color = requests.fetchPs1Image(ps1FileNames,
+					fileNames -> "red=%s&green=%s&blue=%s".formatted(fileNames.get("y"), fileNames.get("i"),
+							fileNames.get("g")),
+					false);
+
+			CompletableFuture<BufferedImage> desiG = requests.fetchImage("DESI",
+					() -> retrieveDesiImage(targetRa, targetDec, size, "g", true));
+			CompletableFuture<BufferedImage> desiR = requests.fetchImage("DESI",
+					() -> retrieveDesiImage(targetRa, targetDec, size, "r", true));
+			CompletableFuture<BufferedImage> desiZ = requests.fetchImage("DESI",
+					() -> retrieveDesiImage(targetRa, targetDec, size, "z", true));
+			CompletableFuture<BufferedImage> desiColor = requests.fetchImage("DESI",
+					() -> retrieveDesiImage(targetRa, targetDec, size, DESI_FILTERS, false));
+
+			int searchRadius = 10;
+			List<CompletableFuture<List<CatalogEntry>>> catalogQueries = new ArrayList<>();
+			List<String> selectedCatalogs = getSelectedCatalogs(catalogInstances);
+			for (CatalogEntry catalogEntry : catalogInstances.values()) {
+				if (selectedCatalogs.contains(catalogEntry.getCatalogName())) {
+					catalogEntry.setRa(targetRa);
+					catalogEntry.setDec(targetDec);
+					catalogEntry.setSearchRadius(searchRadius);
+					catalogQueries.add(requests.fetchCatalogEntries(catalogEntry));
+				}
+			}
+
+			if (imageViewerTab != null) {
+				long flipbookStart = System.currentTimeMillis();
+				imageViewerTab.getZoomSlider().setValue(250);
+				imageViewerTab.getSkipIntermediateEpochs().setSelected(false);
+				imageViewerTab.createFlipbook();
+				requests.addStep("WISE time series", System.currentTimeMillis() - flipbookStart);
+			}
 
 			Document document = new Document();
-			PdfWriter writer = PdfWriter.getInstance(document, new FileOutputStream(tmpFile));
+			PdfWriter writer = PdfWriter.getInstance(document, output);
 
 			DocumentFooter event = new DocumentFooter();
 			writer.setPageEvent(event);
@@ -180,303 +356,214 @@ public class ImageSeriesPdf {
 			List<Couple<String, NirImage>> timeSeries = new ArrayList<>();
 			List<Couple<String, BufferedImage>> images = new ArrayList<>();
 
-			int year_1b = getEpoch(targetRa, targetDec, size, "dss", "dss_bands=poss1_blue");
-			int year_1r = getEpoch(targetRa, targetDec, size, "dss", "dss_bands=poss1_red");
-			int year_2b = getEpoch(targetRa, targetDec, size, "dss", "dss_bands=poss2ukstu_blue");
-			int year_2r = getEpoch(targetRa, targetDec, size, "dss", "dss_bands=poss2ukstu_red");
-			int year_2ir = getEpoch(targetRa, targetDec, size, "dss", "dss_bands=poss2ukstu_ir");
-			// int year_2ir_1r_1b = getMeanEpoch(year_2ir, year_1r, year_1b);
-			int year_2ir_1r_1b = year_2ir;
+			// int year_2ir_1r_1b = getMeanEpoch(get(year_2ir), get(year_1r), get(year_1b));
+			int year_2ir_1r_1b = get(year_2ir);
 
-			BufferedImage bufferedImage = retrieveImage(targetRa, targetDec, size, "dss",
-					"dss_bands=poss1_blue&type=jpgurl");
+			BufferedImage bufferedImage = get(dss1b);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("DSS1 B", year_1b), bufferedImage));
+				images.add(new Couple(getImageLabel("DSS1 B", get(year_1b)), bufferedImage));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "dss", "dss_bands=poss1_red&type=jpgurl");
+			bufferedImage = get(dss1r);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("DSS1 R", year_1r), bufferedImage));
+				images.add(new Couple(getImageLabel("DSS1 R", get(year_1r)), bufferedImage));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "dss", "dss_bands=poss2ukstu_blue&type=jpgurl");
+			bufferedImage = get(dss2b);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("DSS2 B", year_2b), bufferedImage));
+				images.add(new Couple(getImageLabel("DSS2 B", get(year_2b)), bufferedImage));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "dss", "dss_bands=poss2ukstu_red&type=jpgurl");
+			bufferedImage = get(dss2r);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("DSS2 R", year_2r), bufferedImage));
+				images.add(new Couple(getImageLabel("DSS2 R", get(year_2r)), bufferedImage));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "dss", "dss_bands=poss2ukstu_ir&type=jpgurl");
+			bufferedImage = get(dss2ir);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("DSS2 IR", year_2ir), bufferedImage));
-				timeSeries.add(new Couple(getImageLabel("DSS IR", year_2ir), new NirImage(year_2ir, bufferedImage)));
+				images.add(new Couple(getImageLabel("DSS2 IR", get(year_2ir)), bufferedImage));
+				timeSeries.add(new Couple(getImageLabel("DSS IR", get(year_2ir)),
+						new NirImage(get(year_2ir), bufferedImage)));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "dss", "file_type=colorimage");
+			bufferedImage = get(dssColor);
 			if (bufferedImage != null) {
 				images.add(new Couple(getImageLabel("DSS IR-R-B", year_2ir_1r_1b), bufferedImage));
 			}
 
 			createPdfTable(images, writer, document);
 
-			int year_j = getEpoch(targetRa, targetDec, size, "2mass", "twomass_bands=j");
-			int year_h = getEpoch(targetRa, targetDec, size, "2mass", "twomass_bands=h");
-			int year_k = getEpoch(targetRa, targetDec, size, "2mass", "twomass_bands=k");
-			int year_k_h_j = getMeanEpoch(year_k, year_h, year_j);
+			int year_k_h_j = getMeanEpoch(get(year_k), get(year_h), get(year_j));
 
 			images = new ArrayList<>();
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "2mass", "twomass_bands=j&type=jpgurl");
+			bufferedImage = get(twoMassJ);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("2MASS J", year_j), bufferedImage));
+				images.add(new Couple(getImageLabel("2MASS J", get(year_j)), bufferedImage));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "2mass", "twomass_bands=h&type=jpgurl");
+			bufferedImage = get(twoMassH);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("2MASS H", year_h), bufferedImage));
+				images.add(new Couple(getImageLabel("2MASS H", get(year_h)), bufferedImage));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "2mass", "twomass_bands=k&type=jpgurl");
+			bufferedImage = get(twoMassK);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("2MASS K", year_k), bufferedImage));
-				timeSeries.add(new Couple(getImageLabel("2MASS K", year_k), new NirImage(year_k, bufferedImage)));
+				images.add(new Couple(getImageLabel("2MASS K", get(year_k)), bufferedImage));
+				timeSeries.add(
+						new Couple(getImageLabel("2MASS K", get(year_k)), new NirImage(get(year_k), bufferedImage)));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "2mass", "file_type=colorimage");
+			bufferedImage = get(twoMassColor);
 			if (bufferedImage != null) {
 				images.add(new Couple(getImageLabel("2MASS K-H-J", year_k_h_j), bufferedImage));
 			}
 
 			createPdfTable(images, writer, document);
 
-			int year_u = getEpoch(targetRa, targetDec, size, "sdss", "sdss_bands=u");
-			int year_g = getEpoch(targetRa, targetDec, size, "sdss", "sdss_bands=g");
-			int year_r = getEpoch(targetRa, targetDec, size, "sdss", "sdss_bands=r");
-			int year_i = getEpoch(targetRa, targetDec, size, "sdss", "sdss_bands=i");
-			int year_z = getEpoch(targetRa, targetDec, size, "sdss", "sdss_bands=z");
-			int year_z_g_u = getMeanEpoch(year_z, year_g, year_u);
+			int year_z_g_u = getMeanEpoch(get(year_z), get(year_g), get(year_u));
 
 			images = new ArrayList<>();
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "sdss", "sdss_bands=u&type=jpgurl");
+			bufferedImage = get(sdssU);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("SDSS u", year_u), bufferedImage));
+				images.add(new Couple(getImageLabel("SDSS u", get(year_u)), bufferedImage));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "sdss", "sdss_bands=g&type=jpgurl");
+			bufferedImage = get(sdssG);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("SDSS g", year_g), bufferedImage));
+				images.add(new Couple(getImageLabel("SDSS g", get(year_g)), bufferedImage));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "sdss", "sdss_bands=r&type=jpgurl");
+			bufferedImage = get(sdssR);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("SDSS r", year_r), bufferedImage));
+				images.add(new Couple(getImageLabel("SDSS r", get(year_r)), bufferedImage));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "sdss", "sdss_bands=i&type=jpgurl");
+			bufferedImage = get(sdssI);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("SDSS i", year_i), bufferedImage));
+				images.add(new Couple(getImageLabel("SDSS i", get(year_i)), bufferedImage));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "sdss", "sdss_bands=z&type=jpgurl");
+			bufferedImage = get(sdssZ);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("SDSS z", year_z), bufferedImage));
-				timeSeries.add(new Couple(getImageLabel("SDSS z", year_z), new NirImage(year_z, bufferedImage)));
+				images.add(new Couple(getImageLabel("SDSS z", get(year_z)), bufferedImage));
+				timeSeries.add(
+						new Couple(getImageLabel("SDSS z", get(year_z)), new NirImage(get(year_z), bufferedImage)));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "sdss", "file_type=colorimage");
+			bufferedImage = get(sdssColor);
 			if (bufferedImage != null) {
 				images.add(new Couple(getImageLabel("SDSS z-g-u", year_z_g_u), bufferedImage));
 			}
 
 			createPdfTable(images, writer, document);
 
-			int year_ch1 = getEpoch(targetRa, targetDec, size, "seip", "seip_bands=spitzer.seip_science:IRAC1");
-			int year_ch2 = getEpoch(targetRa, targetDec, size, "seip", "seip_bands=spitzer.seip_science:IRAC2");
-			int year_ch3 = getEpoch(targetRa, targetDec, size, "seip", "seip_bands=spitzer.seip_science:IRAC3");
-			int year_ch4 = getEpoch(targetRa, targetDec, size, "seip", "seip_bands=spitzer.seip_science:IRAC4");
-			int year_mips24 = getEpoch(targetRa, targetDec, size, "seip", "seip_bands=spitzer.seip_science:MIPS24");
-			int year_ch3_ch2_ch1 = getMeanEpoch(year_ch3, year_ch2, year_ch1);
+			int year_ch3_ch2_ch1 = getMeanEpoch(get(year_ch3), get(year_ch2), get(year_ch1));
 
 			images = new ArrayList<>();
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "seip",
-					"seip_bands=spitzer.seip_science:IRAC1&type=jpgurl");
+			bufferedImage = get(irac1);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("IRAC1", year_ch1), bufferedImage));
+				images.add(new Couple(getImageLabel("IRAC1", get(year_ch1)), bufferedImage));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "seip",
-					"seip_bands=spitzer.seip_science:IRAC2&type=jpgurl");
+			bufferedImage = get(irac2);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("IRAC2", year_ch2), bufferedImage));
+				images.add(new Couple(getImageLabel("IRAC2", get(year_ch2)), bufferedImage));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "seip",
-					"seip_bands=spitzer.seip_science:IRAC3&type=jpgurl");
+			bufferedImage = get(irac3);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("IRAC3", year_ch3), bufferedImage));
+				images.add(new Couple(getImageLabel("IRAC3", get(year_ch3)), bufferedImage));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "seip",
-					"seip_bands=spitzer.seip_science:IRAC4&type=jpgurl");
+			bufferedImage = get(irac4);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("IRAC4", year_ch4), bufferedImage));
-				timeSeries
-						.add(new Couple(getImageLabel("IRAC4", year_ch4), new NirImage(SPITZER_EPOCH, bufferedImage)));
+				images.add(new Couple(getImageLabel("IRAC4", get(year_ch4)), bufferedImage));
+				timeSeries.add(new Couple(getImageLabel("IRAC4", get(year_ch4)),
+						new NirImage(SPITZER_EPOCH, bufferedImage)));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "seip",
-					"seip_bands=spitzer.seip_science:MIPS24&type=jpgurl");
+			bufferedImage = get(mips24);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("MIPS24", year_mips24), bufferedImage));
+				images.add(new Couple(getImageLabel("MIPS24", get(year_mips24)), bufferedImage));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "seip", "file_type=colorimage");
+			bufferedImage = get(spitzerColor);
 			if (bufferedImage != null) {
 				images.add(new Couple(getImageLabel("IRAC3-2-1", year_ch3_ch2_ch1), bufferedImage));
 			}
 
 			createPdfTable(images, writer, document);
 
-			int year_w1 = getEpoch(targetRa, targetDec, size, "wise", "wise_bands=1");
-			int year_w2 = getEpoch(targetRa, targetDec, size, "wise", "wise_bands=2");
-			int year_w3 = getEpoch(targetRa, targetDec, size, "wise", "wise_bands=3");
-			int year_w4 = getEpoch(targetRa, targetDec, size, "wise", "wise_bands=4");
-			int year_w4_w2_w1 = getMeanEpoch(year_w4, year_w2, year_w1);
+			int year_w4_w2_w1 = getMeanEpoch(get(year_w4), get(year_w2), get(year_w1));
 
 			images = new ArrayList<>();
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "wise", "wise_bands=1&type=jpgurl");
+			bufferedImage = get(wiseW1);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("WISE W1", year_w1), bufferedImage));
+				images.add(new Couple(getImageLabel("WISE W1", get(year_w1)), bufferedImage));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "wise", "wise_bands=2&type=jpgurl");
+			bufferedImage = get(wiseW2);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("WISE W2", year_w2), bufferedImage));
-				timeSeries
-						.add(new Couple(getImageLabel("WISE W2", year_w2), new NirImage(ALLWISE_EPOCH, bufferedImage)));
+				images.add(new Couple(getImageLabel("WISE W2", get(year_w2)), bufferedImage));
+				timeSeries.add(new Couple(getImageLabel("WISE W2", get(year_w2)),
+						new NirImage(ALLWISE_EPOCH, bufferedImage)));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "wise", "wise_bands=3&type=jpgurl");
+			bufferedImage = get(wiseW3);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("WISE W3", year_w3), bufferedImage));
+				images.add(new Couple(getImageLabel("WISE W3", get(year_w3)), bufferedImage));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "wise", "wise_bands=4&type=jpgurl");
+			bufferedImage = get(wiseW4);
 			if (bufferedImage != null) {
-				images.add(new Couple(getImageLabel("WISE W4", year_w4), bufferedImage));
+				images.add(new Couple(getImageLabel("WISE W4", get(year_w4)), bufferedImage));
 			}
-			bufferedImage = retrieveImage(targetRa, targetDec, size, "wise", "file_type=colorimage");
+			bufferedImage = get(wiseColor);
 			if (bufferedImage != null) {
 				images.add(new Couple(getImageLabel("WISE W4-W2-W1", year_w4_w2_w1), bufferedImage));
 			}
 
 			createPdfTable(images, writer, document);
 
-			if (targetDec > -5) {
-				images = new ArrayList<>();
-				Map<String, NirImage> nirImages = retrieveNearInfraredImages(targetRa, targetDec, size,
-						UKIDSS_SURVEY_URL, UKIDSS_LABEL);
-				if (!nirImages.isEmpty()) {
-					for (Entry<String, NirImage> entry : nirImages.entrySet()) {
-						String band = entry.getKey();
-						NirImage nirImage = entry.getValue();
-						bufferedImage = nirImage.getImage();
-						int year = nirImage.getYear();
-						if (bufferedImage != null) {
-							String imageLabel = UKIDSS_LABEL + " " + band;
-							images.add(new Couple(getImageLabel(imageLabel, year), bufferedImage));
-							if (band.equals("K")) {
-								timeSeries.add(
-										new Couple(getImageLabel(imageLabel, year), new NirImage(year, bufferedImage)));
-							}
-						}
-					}
-					createPdfTable(images, writer, document);
-				}
-			}
+			addNearInfraredImages(get(ukidssImages), UKIDSS_LABEL, timeSeries, writer, document);
+			addNearInfraredImages(get(uhsImages), UHS_LABEL, timeSeries, writer, document);
+			addNearInfraredImages(get(vhsImages), VHS_LABEL, timeSeries, writer, document);
 
-			if (targetDec > -5) {
-				images = new ArrayList<>();
-				Map<String, NirImage> nirImages = retrieveNearInfraredImages(targetRa, targetDec, size, UHS_SURVEY_URL,
-						UHS_LABEL);
-				if (!nirImages.isEmpty()) {
-					for (Entry<String, NirImage> entry : nirImages.entrySet()) {
-						String band = entry.getKey();
-						NirImage nirImage = entry.getValue();
-						bufferedImage = nirImage.getImage();
-						int year = nirImage.getYear();
-						if (bufferedImage != null) {
-							String imageLabel = UHS_LABEL + " " + band;
-							images.add(new Couple(getImageLabel(imageLabel, year), bufferedImage));
-							if (band.equals("K")) {
-								timeSeries.add(
-										new Couple(getImageLabel(imageLabel, year), new NirImage(year, bufferedImage)));
-							}
-						}
-					}
-					createPdfTable(images, writer, document);
-				}
-			}
+			Map<String, Double> years = get(ps1Years);
+			if (!get(ps1FileNames).isEmpty() && !years.isEmpty()) {
+				int ps1Year_g = years.get("g").intValue();
+				int ps1Year_r = years.get("r").intValue();
+				int ps1Year_i = years.get("i").intValue();
+				int ps1Year_z = years.get("z").intValue();
+				int ps1Year_y = years.get("y").intValue();
+				int ps1Year_y_i_g = getMeanEpoch(ps1Year_y, ps1Year_i, ps1Year_g);
 
-			if (targetDec < 5) {
 				images = new ArrayList<>();
-				Map<String, NirImage> nirImages = retrieveNearInfraredImages(targetRa, targetDec, size, VHS_SURVEY_URL,
-						VHS_LABEL);
-				if (!nirImages.isEmpty()) {
-					for (Entry<String, NirImage> entry : nirImages.entrySet()) {
-						String band = entry.getKey();
-						NirImage nirImage = entry.getValue();
-						bufferedImage = nirImage.getImage();
-						int year = nirImage.getYear();
-						if (bufferedImage != null) {
-							String imageLabel = VHS_LABEL + " " + band;
-							images.add(new Couple(getImageLabel(imageLabel, year), bufferedImage));
-							if (band.equals("K")) {
-								timeSeries.add(
-										new Couple(getImageLabel(imageLabel, year), new NirImage(year, bufferedImage)));
-							}
-						}
-					}
-					createPdfTable(images, writer, document);
+				bufferedImage = get(ps1G);
+				if (bufferedImage != null) {
+					images.add(new Couple(getImageLabel("PS1 g", ps1Year_g), bufferedImage));
+				}
+				bufferedImage = get(ps1R);
+				if (bufferedImage != null) {
+					images.add(new Couple(getImageLabel("PS1 r", ps1Year_r), bufferedImage));
+				}
+				bufferedImage = get(ps1I);
+				if (bufferedImage != null) {
+					images.add(new Couple(getImageLabel("PS1 i", ps1Year_i), bufferedImage));
+				}
+				bufferedImage = get(ps1Z);
+				if (bufferedImage != null) {
+					images.add(new Couple(getImageLabel("PS1 z", ps1Year_z), bufferedImage));
+					timeSeries.add(
+							new Couple(getImageLabel("PS1 z", ps1Year_z), new NirImage(ps1Year_z, bufferedImage)));
+				}
+				bufferedImage = get(ps1Y);
+				if (bufferedImage != null) {
+					images.add(new Couple(getImageLabel("PS1 y", ps1Year_y), bufferedImage));
+				}
+				bufferedImage = get(ps1Color);
+				if (bufferedImage != null) {
+					images.add(new Couple(getImageLabel("PS1 y-i-g", ps1Year_y_i_g), bufferedImage));
 				}
-			}
-
-			Map<String, String> imageInfos = getPs1FileNames(targetRa, targetDec);
-			if (!imageInfos.isEmpty()) {
-				Map<String, Double> years = getPs1Epochs(targetRa, targetDec);
-				year_g = years.get("g").intValue();
-				year_r = years.get("r").intValue();
-				year_i = years.get("i").intValue();
-				year_z = years.get("z").intValue();
-				int year_y = years.get("y").intValue();
-				int year_y_i_g = getMeanEpoch(year_y, year_i, year_g);
-
-				images = new ArrayList<>();
-				bufferedImage = retrievePs1Image("red=%s".formatted(imageInfos.get("g")), targetRa, targetDec, size,
-						true);
-				images.add(new Couple(getImageLabel("PS1 g", year_g), bufferedImage));
-
-				bufferedImage = retrievePs1Image("red=%s".formatted(imageInfos.get("r")), targetRa, targetDec, size,
-						true);
-				images.add(new Couple(getImageLabel("PS1 r", year_r), bufferedImage));
-
-				bufferedImage = retrievePs1Image("red=%s".formatted(imageInfos.get("i")), targetRa, targetDec, size,
-						true);
-				images.add(new Couple(getImageLabel("PS1 i", year_i), bufferedImage));
-
-				bufferedImage = retrievePs1Image("red=%s".formatted(imageInfos.get("z")), targetRa, targetDec, size,
-						true);
-				images.add(new Couple(getImageLabel("PS1 z", year_z), bufferedImage));
-				timeSeries.add(new Couple(getImageLabel("PS1 z", year_z), new NirImage(year_z, bufferedImage)));
-
-				bufferedImage = retrievePs1Image("red=%s".formatted(imageInfos.get("y")), targetRa, targetDec, size,
-						true);
-				images.add(new Couple(getImageLabel("PS1 y", year_y), bufferedImage));
-
-				bufferedImage = retrievePs1Image("red=%s&green=%s&blue=%s".formatted(imageInfos.get("y"),
-						imageInfos.get("i"), imageInfos.get("g")), targetRa, targetDec, size, false);
-				images.add(new Couple(getImageLabel("PS1 y-i-g", year_y_i_g), bufferedImage));
 
 				createPdfTable(images, writer, document);
 			}
 
 			images = new ArrayList<>();
-			bufferedImage = retrieveDesiImage(targetRa, targetDec, size, "g", true);
+			bufferedImage = get(desiG);
 			if (bufferedImage != null) {
 				images.add(new Couple(getImageLabel("DESI g", DESI_LS_DR_LABEL), bufferedImage));
 			}
-			bufferedImage = retrieveDesiImage(targetRa, targetDec, size, "r", true);
+			bufferedImage = get(desiR);
 			if (bufferedImage != null) {
 				images.add(new Couple(getImageLabel("DESI r", DESI_LS_DR_LABEL), bufferedImage));
 			}
-			bufferedImage = retrieveDesiImage(targetRa, targetDec, size, "z", true);
+			bufferedImage = get(desiZ);
 			if (bufferedImage != null) {
 				images.add(new Couple(getImageLabel("DESI z", DESI_LS_DR_LABEL), bufferedImage));
 				timeSeries.add(new Couple(getImageLabel("DESI z", DESI_LS_DR_LABEL),
 						new NirImage(DESI_LS_EPOCH, bufferedImage)));
 			}
-			bufferedImage = retrieveDesiImage(targetRa, targetDec, size, DESI_FILTERS, false);
+			bufferedImage = get(desiColor);
 			if (bufferedImage != null) {
 				images.add(new Couple(getImageLabel("DECaLS", DESI_LS_DR_LABEL), bufferedImage));
 			}
@@ -493,30 +580,29 @@ public class ImageSeriesPdf {
 			createPdfTable(images, writer, document);
 
 			// WISE time series
-			images = new ArrayList<>();
-			List<FlipbookComponent> flipbook = imageViewerTab.getFlipbook();
-			for (int i = 0; i < flipbook.size(); i++) {
-				FlipbookComponent component = flipbook.get(i);
-				images.add(new Couple(component.getTitle(), imageViewerTab.processImage(component, i)));
-			}
+			if (imageViewerTab != null) {
+				images = new ArrayList<>();
+				List<FlipbookComponent> flipbook = imageViewerTab.getFlipbook();
+				for (int i = 0; i < flipbook.size(); i++) {
+					FlipbookComponent component = flipbook.get(i);
+					images.add(new Couple(component.getTitle(), imageViewerTab.processImage(component, i)));
+				}
 
-			createPdfTable(images, writer, document);
+				createPdfTable(images, writer, document);
+			}
 
-			int searchRadius = 10;
 			List<CatalogEntry> catalogEntries = new ArrayList<>();
-			List<String> selectedCatalogs = getSelectedCatalogs(catalogInstances);
-			for (CatalogEntry catalogEntry : catalogInstances.values()) {
-				if (selectedCatalogs.contains(catalogEntry.getCatalogName())) {
-					catalogEntry.setRa(targetRa);
-					catalogEntry.setDec(targetDec);
-					catalogEntry.setSearchRadius(searchRadius);
-					List<CatalogEntry> results = performQuery(catalogEntry);
-					if (results != null) {
-						catalogEntries.addAll(results);
-					}
+			for (CompletableFuture<List<CatalogEntry>> catalogQuery : catalogQueries) {
+				List<CatalogEntry> results = get(catalogQuery);
+				if (results != null) {
+					catalogEntries.addAll(results);
 				}
 			}
 
+			requests.logTimings();
+			incompleteSources = requests.getIncompleteSources();
+			withoutImages = requests.isWithoutImages();
+
 			String mainHeader = "CATALOG ENTRIES (Search radius = " + roundTo1DecNZ(searchRadius) + "\")";
 
 			document.add(createCatalogEntriesTable(mainSequenceLookupService, catalogEntries,
@@ -532,18 +618,54 @@ public class ImageSeriesPdf {
 					SMALL_FONT));
 
 			document.close();
-
-			Desktop.getDesktop().open(tmpFile);
-		} catch (Exception ex) {
-			showExceptionDialog(baseFrame, ex);
 		} finally {
-			imageViewerTab.setWaitCursor(true);
-			baseFrame.setCursor(Cursor.getDefaultCursor());
-			coordsField.setCursor(Cursor.getDefaultCursor());
-			sizeField.setCursor(Cursor.getDefaultCursor());
+			requests.shutdown();
 		}
+	}
 
-		return true;
+	/**
+	 * @return the sources that have failed (with the error) or returned no images
+	 *         (empty if the document is complete)
+	 */
+	public List<String> getIncompleteSources() {
+		return incompleteSources;
+	}
+
+	/**
+	 * @return true if no source has returned an image
+	 */
+	public boolean isWithoutImages() {
+		return withoutImages;
+	}
+
+	private void addNearInfraredImages(Map<String, NirImage> nirImages, String surveyLabel,
+			List<Couple<String, NirImage>> timeSeries, PdfWriter writer, Document document) throws Exception {
+		if (nirImages.isEmpty()) {
+			return;
+		}
+		List<Couple<String, BufferedImage>> images = new ArrayList<>();
+		for (Entry<String, NirImage> entry : nirImages.entrySet()) {
+			String band = entry.getKey();
+			NirImage nirImage = entry.getValue();
+			BufferedImage bufferedImage = nirImage.getImage();
+			int year = nirImage.getYear();
+			if (bufferedImage != null) {
+				String imageLabel = surveyLabel + " " + band;
+				images.add(new Couple(getImageLabel(imageLabel, year), bufferedImage));
+				if (band.equals("K")) {
+					timeSeries.add(new Couple(getImageLabel(imageLabel, year), new NirImage(year, bufferedImage)));
+				}
+			}
+		}
+		createPdfTable(images, writer, document);
+	}
+
+	private static <T> T get(CompletableFuture<T> request) throws Exception {
+		try {
+			return request.join();
+		} catch (CompletionException ex) {
+			throw ex.getCause() instanceof Exception cause ? cause : ex;
+		}
 	}
 
 	private PdfPTable createCatalogEntriesTable(SpectralTypeLookupService spectralTypeLookupService,
@@ -708,7 +830,11 @@ public class ImageSeriesPdf {
 	}
 
 	private List<CatalogEntry> performQuery(CatalogEntry catalogQuery) throws IOException {
-		List<CatalogEntry> catalogEntries = catalogQueryService.getCatalogEntriesByCoords(catalogQuery);
+		// Failed queries are reported by the service in the UI, and thrown in
+		// headless mode
+		List<CatalogEntry> catalogEntries = imageViewerTab != null
+				? catalogQueryService.getCatalogEntriesByCoords(catalogQuery)
+				: catalogQueryService.queryCatalogEntriesByCoords(catalogQuery);
 		catalogEntries.forEach(catalogEntry -> {
 			catalogEntry.setTargetRa(catalogQuery.getRa());
 			catalogEntry.setTargetDec(catalogQuery.getDec());
@@ -720,6 +846,141 @@ public class ImageSeriesPdf {
 		return null;
 	}
 
+	/**
+	 * Requests of the document, run concurrently and timed by source (survey or
+	 * catalog). Failed requests and image sources without any image are recorded
+	 * by source.
+	 *
+	 * The images, epochs and catalog entries of a failed request are left out of
+	 * the document (no image, epoch 0, no entries) instead of failing it.
+	 */
+	class SourceRequests {
+
+		private final ExecutorService executor = requestExecutor != null ? requestExecutor
+				: ThreadPools.createFixedThreadPool("image-series-pdf", MAX_CONCURRENT_REQUESTS);
+
+		private final long start = System.currentTimeMillis();
+
+		private final Map<String, Integer> requestCounts = new ConcurrentHashMap<>();
+
+		// Time elapsed until the last request of a source has completed
+		private final Map<String, Long> completionTimes = new ConcurrentHashMap<>();
+
+		// First error by source
+		private final Map<String, String> errors = new ConcurrentHashMap<>();
+
+		private final Set<String> imageSources = ConcurrentHashMap.newKeySet();
+
+		private final Set<String> sourcesWithImages = ConcurrentHashMap.newKeySet();
+
+		// Duration of the steps run by the document itself, apart from the requests
+		private final Map<String, Long> stepDurations = new ConcurrentHashMap<>();
+
+		<T> CompletableFuture<T> fetch(String source, Callable<T> request) {
+			return CompletableFuture.supplyAsync(() -> {
+				try {
+					return request.call();
+				} catch (Exception ex) {
+					errors.putIfAbsent(source, ex.toString().replaceAll("\\R", " "));
+					throw new CompletionException(ex);
+				} finally {
+					addCompletion(source);
+				}
+			}, executor);
+		}
+
+		CompletableFuture<Integer> fetchEpoch(String source, String survey, String band) {
+			return fetch(source, () -> getEpoch(targetRa, targetDec, size, survey, band)).exceptionally(ex -> 0);
+		}
+
+		CompletableFuture<BufferedImage> fetchImage(String source, String survey, String band) {
+			return fetchImage(source, () -> retrieveImage(targetRa, targetDec, size, survey, band));
+		}
+
+		CompletableFuture<BufferedImage> fetchImage(String source, Callable<BufferedImage> request) {
+			imageSources.add(source);
+			return fetch(source, request).thenApply(image -> {
+				if (image != null) {
+					sourcesWithImages.add(source);
+				}
+				return image;
+			}).exceptionally(ex -> null);
+		}
+
+		CompletableFuture<Map<String, NirImage>> fetchNearInfraredImages(String surveyUrl, String surveyLabel) {
+			imageSources.add(surveyLabel);
+			return fetch(surveyLabel,
+					() -> retrieveNearInfraredImages(targetRa, targetDec, size, surveyUrl, surveyLabel))
+					.thenApply(images -> {
+						if (images.values().stream().anyMatch(image -> image.getImage() != null)) {
+							sourcesWithImages.add(surveyLabel);
+						}
+						return images;
+					}).exceptionally(ex -> Map.of());
+		}
+
+		CompletableFuture<BufferedImage> fetchPs1Image(CompletableFuture<Map<String, String>> fileNames,
+				Function<Map<String, String>, String> images, boolean inverted) {
+			imageSources.add("PS1");
+			return fileNames.thenCompose(names -> names.isEmpty() ? CompletableFuture.completedFuture(null)
+					: fetchImage("PS1",
+							() -> retrievePs1Image(images.apply(names), targetRa, targetDec, size, inverted)));
+		}
+
+		/**
+		 * Fetch the entries of a catalog, a failed query is recorded and leaves the
+		 * document without the catalog's entries
+		 */
+		CompletableFuture<List<CatalogEntry>> fetchCatalogEntries(CatalogEntry catalogEntry) {
+			return fetch(catalogEntry.getCatalogName(), () -> performQuery(catalogEntry)).exceptionally(ex -> null);
+		}
+
+		void addCompletion(String source) {
+			requestCounts.merge(source, 1, Integer::sum);
+			completionTimes.merge(source, System.currentTimeMillis() - start, Math::max);
+		}
+
+		void addStep(String step, long duration) {
+			stepDurations.put(step, duration);
+		}
+
+		void logTimings() {
+			StringBuilder timings = new StringBuilder();
+			timings.append("Image series PDF ").append(roundTo6DecNZ(targetRa)).append(" ")
+					.append(addPlusSign(roundDouble(targetDec, PATTERN_6DEC_NZ))).append(" completed after ")
+					.append(System.currentTimeMillis() - start).append(" ms");
+			completionTimes.entrySet().stream().sorted(Entry.<String, Long>comparingByValue().reversed())
+					.forEach(entry -> timings.append(", ").append(entry.getKey()).append(": ")
+							.append(requestCounts.get(entry.getKey())).append(" request(s) completed after ")
+							.append(entry.getValue()).append(" ms"));
+			stepDurations.forEach((step, duration) -> timings.append(", ").append(step).append(": built in ")
+					.append(duration).append(" ms"));
+			writeMessageLog(timings.toString());
+		}
+
+		/**
+		 * @return the failed sources (with the error) and the image sources without
+		 *         any image, by source name
+		 */
+		List<String> getIncompleteSources() {
+			Set<String> sources = new TreeSet<>(errors.keySet());
+			imageSources.stream().filter(source -> !sourcesWithImages.contains(source)).forEach(sources::add);
+			return sources.stream().map(source -> errors.containsKey(source) ? source + ": " + errors.get(source)
+					: source + ": no images").toList();
+		}
+
+		boolean isWithoutImages() {
+			return sourcesWithImages.isEmpty();
+		}
+
+		void shutdown() {
+			if (executor != requestExecutor) {
+				executor.shutdownNow();
+			}
+		}
+
+	}
+
 	class DocumentFooter extends PdfPageEventHelper {
 
 		@Override
@@ -12,6 +12,11 @@ public class Run {
 		InputStream input = Run.class.getResourceAsStream("/logging.properties");
 		LogManager.getLogManager().readConfiguration(input);
 		Locale.setDefault(Locale.US);
+		if (args.length > 0 && (args[0].equals(BatchPdf.OPTION) || args[0].equals(BatchSed.OPTION))) {
+			// Without any window, set before AWT is initialized
+			System.setProperty("java.awt.headless", "true");
+			System.exit(args[0].equals(BatchPdf.OPTION) ? BatchPdf.run(args) : BatchSed.run(args));
+		}
 		Application application = new Application();
 		application.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
 		application.init();
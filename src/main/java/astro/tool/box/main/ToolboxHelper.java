@@ -26,7 +26,7 @@ import static astro.tool.box.util.Constants.SPLIT_CHAR;
 import static astro.tool.box.util.Constants.UHS_LABEL;
 import static astro.tool.box.util.Constants.UKIDSS_LABEL;
 import static astro.tool.box.util.ExternalResources.getTygoFormUrl;
-import static astro.tool.box.util.ServiceHelper.establishHttpConnection;
+import static astro.tool.box.util.ServiceHelper.openStream;
 import static astro.tool.box.util.ServiceHelper.readResponse;
 
 import java.awt.Color;
@@ -36,6 +36,7 @@ import java.awt.Desktop;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
 import java.awt.Image;
 import java.awt.Toolkit;
 import java.awt.datatransfer.Clipboard;
@@ -50,6 +51,8 @@ import java.awt.geom.Rectangle2D;
 import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
 import java.awt.image.WritableRaster;
 import java.io.BufferedInputStream;
 import java.io.File;
@@ -58,7 +61,6 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
@@ -74,6 +76,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -164,11 +169,14 @@ import astro.tool.box.lookup.LookupResult;
 import astro.tool.box.service.CatalogQueryService;
 import astro.tool.box.service.DistanceLookupService;
 import astro.tool.box.service.NameResolverService;
+import astro.tool.box.service.Ps1MetadataService;
 import astro.tool.box.service.SpectralTypeLookupService;
 import astro.tool.box.shape.Circle;
 import astro.tool.box.shape.Drawable;
 import astro.tool.box.util.FileTypeFilter;
 import astro.tool.box.util.GifSequencer;
+import astro.tool.box.util.InFlightRequests;
+import astro.tool.box.util.ThreadPools;
 
 public class ToolboxHelper {
 
@@ -185,6 +193,18 @@ public class ToolboxHelper {
 	private static final String ERROR_FILE_NAME = "/AstroToolBoxError.txt";
 	private static final String ERROR_FILE_PATH = USER_HOME + ERROR_FILE_NAME;
 
+	// Gray level stored by setRGB in a TYPE_BYTE_GRAY image for each sRGB gray value
+	private static final byte[] GRAY_LEVELS = createGrayLevels();
+
+	// sRGB gray value returned by getRGB for each gray level of a TYPE_BYTE_GRAY image
+	private static final int[] SRGB_GRAYS = createSrgbGrays();
+
+	private static final ExecutorService NIR_IMAGE_POOL = ThreadPools.createFixedThreadPool("nir-images", 12);
+	private static final InFlightRequests<NirImage> NIR_IMAGE_LOOKUPS = new InFlightRequests<>();
+	private static final InFlightRequests<BufferedImage> NIR_IMAGE_DOWNLOADS = new InFlightRequests<>();
+
+	private static final Ps1MetadataService PS1_METADATA_SERVICE = new Ps1MetadataService();
+
 	public static int BASE_FRAME_WIDTH = 1275;
 	public static int BASE_FRAME_HEIGHT = 875;
 
@@ -265,27 +285,45 @@ public class ToolboxHelper {
 	}
 
 	public static void showScrollableDialog(JFrame baseFrame, String title, String message) {
+		if (logWithoutDisplay(title, message)) {
+			return;
+		}
 		JOptionPane.showMessageDialog(baseFrame, createMessagePanel(message), title, JOptionPane.PLAIN_MESSAGE);
 	}
 
 	public static void showInfoDialog(JFrame baseFrame, String message) {
+		if (logWithoutDisplay("Info", message)) {
+			return;
+		}
 		JOptionPane.showMessageDialog(baseFrame, message, "Info", JOptionPane.INFORMATION_MESSAGE);
 	}
 
 	public static void showWarnDialog(JFrame baseFrame, String message) {
+		if (logWithoutDisplay("Warning", message)) {
+			return;
+		}
 		JOptionPane.showMessageDialog(baseFrame, message, "Warning", JOptionPane.WARNING_MESSAGE);
 	}
 
 	public static void showErrorDialog(JFrame baseFrame, String message) {
+		if (logWithoutDisplay("Error", message)) {
+			return;
+		}
 		JOptionPane.showMessageDialog(baseFrame, message, "Error", JOptionPane.ERROR_MESSAGE);
 	}
 
 	public static void showScrollableErrorDialog(JFrame baseFrame, String message) {
+		if (logWithoutDisplay("Error", message)) {
+			return;
+		}
 		JOptionPane.showMessageDialog(baseFrame, createMessagePanel(message), "Error", JOptionPane.ERROR_MESSAGE);
 	}
 
 	public static void showExceptionDialog(JFrame baseFrame, Exception error) {
 		writeErrorLog(error);
+		if (GraphicsEnvironment.isHeadless()) {
+			return;
+		}
 		JOptionPane.showMessageDialog(baseFrame, createMessagePanel(formatError(error)), "Error",
 				JOptionPane.ERROR_MESSAGE);
 	}
@@ -298,6 +336,16 @@ public class ToolboxHelper {
 		writeLogEntry(formatMessage(message));
 	}
 
+	// Without a display (headless batch mode), messages are written to the log
+	// instead of being shown in a dialog
+	private static boolean logWithoutDisplay(String title, String message) {
+		if (!GraphicsEnvironment.isHeadless()) {
+			return false;
+		}
+		writeMessageLog(title + ": " + message);
+		return true;
+	}
+
 	private static void writeLogEntry(String entry) {
 		try {
 			Files.write(Paths.get(ERROR_FILE_PATH), entry.getBytes(), StandardOpenOption.CREATE,
@@ -883,7 +931,7 @@ public class ToolboxHelper {
 
 	public static Tiles getWiseTiles(double degRA, double degDE) throws IOException {
 		String url = "http://byw.tools/tiles?ra=%f&dec=%f".formatted(degRA, degDE);
-		String response = readResponse(establishHttpConnection(url), "WiseView");
+		String response = readResponse(url, "WiseView");
 		return new Gson().fromJson(response, Tiles.class);
 	}
 
@@ -891,7 +939,7 @@ public class ToolboxHelper {
 		List<JLabel> subjects = new ArrayList();
 		try {
 			String url = "http://byw.tools/xref?ra=%f&dec=%f".formatted(degRA, degDE);
-			String response = readResponse(establishHttpConnection(url), "Zooniverse");
+			String response = readResponse(url, "Zooniverse");
 			if (!response.isEmpty()) {
 				JsonElement jelement = JsonParser.parseString(response).getAsJsonObject();
 				JsonObject jobject = jelement.getAsJsonObject();
@@ -903,7 +951,7 @@ public class ToolboxHelper {
 									+ id));
 				}
 			}
-		} catch (JsonSyntaxException | IOException ex) {
+		} catch (JsonSyntaxException ex) {
 		}
 		return subjects;
 	}
@@ -932,7 +980,7 @@ public class ToolboxHelper {
 		try {
 			String downloadUrl = "https://irsa.ipac.caltech.edu/applications/finderchart/servlet/api?RA=%f&DEC=%f&subsetsize=%s&survey=%s&%s"
 					.formatted(targetRa, targetDec, roundTo2DecNZ(size / 60f), survey, band);
-			String response = readResponse(establishHttpConnection(downloadUrl), "IRSA");
+			String response = readResponse(downloadUrl, "IRSA");
 			try (Scanner scanner = new Scanner(response)) {
 				while (scanner.hasNextLine()) {
 					String line = scanner.nextLine();
@@ -943,7 +991,7 @@ public class ToolboxHelper {
 					}
 				}
 			}
-		} catch (IOException | NumberFormatException ex) {
+		} catch (NumberFormatException ex) {
 		}
 		return 0;
 	}
@@ -952,9 +1000,7 @@ public class ToolboxHelper {
 		BufferedImage bi;
 		String imageUrl = "https://irsa.ipac.caltech.edu/applications/finderchart/servlet/api?mode=getImage&RA=%f&DEC=%f&subsetsize=%s&thumbnail_size=small&survey=%s&%s"
 				.formatted(targetRa, targetDec, roundTo2DecNZ(size / 60f), survey, band);
-		try {
-			HttpURLConnection connection = establishHttpConnection(imageUrl);
-			BufferedInputStream stream = new BufferedInputStream(connection.getInputStream(), BUFFER_SIZE);
+		try (BufferedInputStream stream = new BufferedInputStream(openStream(imageUrl), BUFFER_SIZE)) {
 			bi = ImageIO.read(stream);
 			if (!band.contains("colorimage")) {
 				invertColors(bi);
@@ -968,116 +1014,43 @@ public class ToolboxHelper {
 	public static void invertColors(BufferedImage image) {
 		int width = image.getWidth();
 		int height = image.getHeight();
-
-		for (int y = 0; y < height; y++) {
-			for (int x = 0; x < width; x++) {
-				int rgba = image.getRGB(x, y);
-				int a = (rgba >> 24) & 0xff;
-				int r = (rgba >> 16) & 0xff;
-				int g = (rgba >> 8) & 0xff;
-				int b = rgba & 0xff;
-
-				// Invert each color component
-				r = 255 - r;
-				g = 255 - g;
-				b = 255 - b;
-
-				// Reconstruct the pixel with the inverted colors
-				rgba = (a << 24) | (r << 16) | (g << 8) | b;
-				image.setRGB(x, y, rgba);
+		switch (hasOwnRaster(image) ? image.getType() : BufferedImage.TYPE_CUSTOM) {
+		case BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB -> {
+			int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+			for (int i = 0; i < pixels.length; i++) {
+				pixels[i] ^= 0x00ffffff;
 			}
 		}
-	}
-
-	public static int getPs1Epoch(double targetRa, double targetDec, String filters) {
-		try {
-			String downloadUrl = "http://ps1images.stsci.edu/cgi-bin/ps1filenames.py?RA=%f&DEC=%f&filters=%s&type=warp&sep=comma"
-					.formatted(targetRa, targetDec, filters);
-			String response = readResponse(establishHttpConnection(downloadUrl), "Pan-STARRS");
-			try (Scanner scanner = new Scanner(response)) {
-				String[] columnNames = scanner.nextLine().split(SPLIT_CHAR);
-				int mjd = 0;
-				for (int i = 0; i < columnNames.length; i++) {
-					if (columnNames[i].equals("mjd")) {
-						mjd = i;
-						break;
-					}
-				}
-				int i = 0;
-				double epoch = 0;
-				while (scanner.hasNextLine()) {
-					String[] columnValues = scanner.nextLine().split(SPLIT_CHAR);
-					epoch += toDouble(columnValues[mjd]);
-					i++;
+		case BufferedImage.TYPE_BYTE_GRAY -> {
+			byte[] invertedLevels = new byte[256];
+			for (int level = 0; level < 256; level++) {
+				invertedLevels[level] = GRAY_LEVELS[255 - SRGB_GRAYS[level]];
+			}
+			applyGrayLevels(image, invertedLevels);
+		}
+		default -> {
+			int[] row = new int[width];
+			for (int y = 0; y < height; y++) {
+				image.getRGB(0, y, width, 1, row, 0, width);
+				for (int x = 0; x < width; x++) {
+					row[x] ^= 0x00ffffff;
 				}
-				return convertMJDToDate(epoch / i).get(ChronoField.YEAR);
+				image.setRGB(0, y, width, 1, row, 0, width);
 			}
-		} catch (IOException ex) {
 		}
-		return 0;
+		}
 	}
 
-	public static Map<String, Double> getPs1Epochs(double targetRa, double targetDec) {
-		try {
-			String downloadUrl = "http://ps1images.stsci.edu/cgi-bin/ps1filenames.py?RA=%f&DEC=%f&filters=grizy&type=warp&sep=comma"
-					.formatted(targetRa, targetDec);
-			String response = readResponse(establishHttpConnection(downloadUrl), "Pan-STARRS");
-			try (Scanner scanner = new Scanner(response)) {
-				String[] columnNames = scanner.nextLine().split(SPLIT_CHAR);
-				int filter = 0;
-				int mjd = 0;
-				for (int i = 0; i < columnNames.length; i++) {
-					if (columnNames[i].equals("filter")) {
-						filter = i;
-					}
-					if (columnNames[i].equals("mjd")) {
-						mjd = i;
-					}
-				}
-				List<MjdEpoch> epochs = new ArrayList();
-				while (scanner.hasNextLine()) {
-					String[] columnValues = scanner.nextLine().split(SPLIT_CHAR);
-					String band = columnValues[filter];
-					double epoch = toDouble(columnValues[mjd]);
-					epochs.add(new MjdEpoch(band, convertMJDToDate(epoch).get(ChronoField.YEAR)));
-
-				}
-				return epochs.stream()
-						.collect(Collectors.groupingBy(MjdEpoch::getBand, Collectors.averagingInt(MjdEpoch::getEpoch)));
+	public static int getPs1Epoch(double targetRa, double targetDec, String filters) {
+		return PS1_METADATA_SERVICE.getEpoch(targetRa, targetDec, filters);
+	}
 
-			}
-		} catch (IOException ex) {
-		}
-		return new HashMap();
+	public static Map<String, Double> getPs1Epochs(double targetRa, double targetDec) {
+		return PS1_METADATA_SERVICE.getEpochs(targetRa, targetDec);
 	}
 
 	public static Map<String, String> getPs1FileNames(double targetRa, double targetDec) {
-		Map<String, String> fileNames = new LinkedHashMap();
-		try {
-			String downloadUrl = "http://ps1images.stsci.edu/cgi-bin/ps1filenames.py?RA=%f&DEC=%f&filters=grizy&sep=comma"
-					.formatted(targetRa, targetDec);
-			String response = readResponse(establishHttpConnection(downloadUrl), "Pan-STARRS");
-			try (Scanner scanner = new Scanner(response)) {
-				String[] columnNames = scanner.nextLine().split(SPLIT_CHAR);
-				int filter = 0;
-				int fileName = 0;
-				for (int i = 0; i < columnNames.length; i++) {
-					if (columnNames[i].equals("filter")) {
-						filter = i;
-					}
-					if (columnNames[i].equals("filename")) {
-						fileName = i;
-					}
-				}
-				while (scanner.hasNextLine()) {
-					String[] columnValues = scanner.nextLine().split(SPLIT_CHAR);
-					fileNames.put(columnValues[filter], columnValues[fileName]);
-				}
-			}
-		} catch (IOException ex) {
-			writeErrorLog(ex);
-		}
-		return fileNames;
+		return PS1_METADATA_SERVICE.getFileNames(targetRa, targetDec);
 	}
 
 	public static BufferedImage retrievePs1Image(String fileNames, double targetRa, double targetDec, int size,
@@ -1085,9 +1058,7 @@ public class ToolboxHelper {
 		BufferedImage bi;
 		String imageUrl = "http://ps1images.stsci.edu/cgi-bin/fitscut.cgi?%s&ra=%f&dec=%f&size=%d&output_size=%d&autoscale=95.0&invert=%s"
 				.formatted(fileNames, targetRa, targetDec, size * 4, 256, invert);
-		try {
-			HttpURLConnection connection = establishHttpConnection(imageUrl);
-			BufferedInputStream stream = new BufferedInputStream(connection.getInputStream(), BUFFER_SIZE);
+		try (BufferedInputStream stream = new BufferedInputStream(openStream(imageUrl), BUFFER_SIZE)) {
 			bi = ImageIO.read(stream);
 		} catch (IOException ex) {
 			bi = new BufferedImage(256, 256, BufferedImage.TYPE_INT_RGB);
@@ -1111,9 +1082,7 @@ public class ToolboxHelper {
 		}
 		String imageUrl = "https://www.legacysurvey.org/viewer/jpeg-cutout?ra=%f&dec=%f&pixscale=%f&layer=%s&size=%d%s"
 				.formatted(targetRa, targetDec, PIXEL_SCALE_DECAM, layer, size * 4, band);
-		try {
-			HttpURLConnection connection = establishHttpConnection(imageUrl);
-			BufferedInputStream stream = new BufferedInputStream(connection.getInputStream(), BUFFER_SIZE);
+		try (BufferedInputStream stream = new BufferedInputStream(openStream(imageUrl), BUFFER_SIZE)) {
 			image = ImageIO.read(stream);
 			if (invert) {
 				image = convertToGrayImage(image);
@@ -1129,44 +1098,38 @@ public class ToolboxHelper {
 	public static Map<String, NirImage> retrieveNearInfraredImages(double targetRa, double targetDec, double size,
 			String surveyUrl, String surveyLabel) throws Exception {
 		String imageSize = roundTo2DecNZ(size / 60f);
-		List<NirImage> nirImages = new ArrayList();
+		// Lookups and downloads of all filters run concurrently
+		List<CompletableFuture<NirImage>> requests = new ArrayList();
 		String[] filterIds = new String[] { "2", "3", "4", "5" };
 		for (String filterId : filterIds) {
 			String downloadUrl = surveyUrl.formatted(targetRa, targetDec, filterId, imageSize, imageSize);
-			String response = readResponse(establishHttpConnection(downloadUrl), surveyLabel);
-			int i = 0;
-			String imageUrl = "";
-			String extNo = "";
-			String year = "";
-			try (Scanner scanner = new Scanner(response)) {
-				while (scanner.hasNextLine()) {
-					String line = scanner.nextLine();
-					if (line.contains("href")) {
-						String[] parts = line.split("href=\"");
-						parts = parts[1].split("\"");
-						imageUrl = parts[0].replace("getImage", "getJImage");
-						parts = line.split("extNo=");
-						parts = parts[1].split("&");
-						extNo = parts[0];
-						i = 1;
-					}
-					if (i == 7) {
-						try {
-							String[] parts = line.split("<td nowrap>");
-							parts = parts[1].split("-");
-							year = parts[0];
-						} catch (Exception ex) {
-							year = "2010";
+			requests.add(NIR_IMAGE_LOOKUPS
+					.send(downloadUrl, () -> lookupNearInfraredImage(downloadUrl, surveyLabel, filterId), NIR_IMAGE_POOL)
+					.thenCompose(nirImage -> {
+						if (nirImage == null) {
+							return CompletableFuture.completedFuture(null);
 						}
-						break;
-					}
-					if (i > 0) {
-						i++;
-					}
+						String imageUrl = nirImage.getImageUrl();
+						return NIR_IMAGE_DOWNLOADS
+								.send(imageUrl, () -> downloadNearInfraredImage(imageUrl), NIR_IMAGE_POOL)
+								.thenApply(image -> {
+									// Lookups are shared, the image is not
+									NirImage downloadedImage = new NirImage(nirImage.getFilderId(),
+											nirImage.getExtNo(), nirImage.getYear(), imageUrl);
+									downloadedImage.setImage(image);
+									return downloadedImage;
+								});
+					}));
+		}
+		List<NirImage> nirImages = new ArrayList();
+		for (CompletableFuture<NirImage> request : requests) {
+			try {
+				NirImage nirImage = request.join();
+				if (nirImage != null) {
+					nirImages.add(nirImage);
 				}
-			}
-			if (!imageUrl.isEmpty()) {
-				nirImages.add(new NirImage(filterId, extNo, Integer.parseInt(year), imageUrl));
+			} catch (CompletionException ex) {
+				throw ex.getCause() instanceof Exception cause ? cause : ex;
 			}
 		}
 		Map<String, NirImage> images = new LinkedHashMap();
@@ -1176,34 +1139,31 @@ public class ToolboxHelper {
 		for (NirImage nirImage : nirImages) {
 			String band = getBand(nirImage.getFilderId());
 			String extNo = nirImage.getExtNo();
-			String imageUrl = nirImage.getImageUrl();
-			try {
-				HttpURLConnection connection = establishHttpConnection(imageUrl);
-				BufferedInputStream stream = new BufferedInputStream(connection.getInputStream(), BUFFER_SIZE);
-				BufferedImage image = ImageIO.read(stream);
-				int width = image.getWidth();
-				int height = image.getHeight();
-				int offset = 2;
-				if (width > height + offset || width < height - offset) {
-					return new LinkedHashMap();
+			BufferedImage image = nirImage.getImage();
+			if (image == null) {
+				continue;
+			}
+			int width = image.getWidth();
+			int height = image.getHeight();
+			int offset = 2;
+			if (width > height + offset || width < height - offset) {
+				return new LinkedHashMap();
+			}
+			if (surveyLabel.equals(UHS_LABEL) || surveyLabel.equals(UKIDSS_LABEL)) {
+				// Rotate image
+				switch (extNo) {
+				case "1" -> image = rotateImage(image, 1);
+				case "2" -> {
 				}
-				if (surveyLabel.equals(UHS_LABEL) || surveyLabel.equals(UKIDSS_LABEL)) {
-					// Rotate image
-					switch (extNo) {
-					case "1" -> image = rotateImage(image, 1);
-					case "2" -> {
-					}
-					case "3" -> image = rotateImage(image, 3);
-					case "4" -> image = rotateImage(image, 2);
-					}
-					// No rotation necessary
+				case "3" -> image = rotateImage(image, 3);
+				case "4" -> image = rotateImage(image, 2);
 				}
-				// Flip image
-				image = flipImage(image);
-				nirImage.setImage(image);
-				images.put(band, nirImage);
-			} catch (IOException ex) {
+				// No rotation necessary
 			}
+			// Flip image
+			image = flipImage(image);
+			nirImage.setImage(image);
+			images.put(band, nirImage);
 		}
 		NirImage nir1 = images.get("K");
 		NirImage nir2 = images.get("H");
@@ -1237,6 +1197,53 @@ public class ToolboxHelper {
 		return images;
 	}
 
+	private static NirImage lookupNearInfraredImage(String downloadUrl, String surveyLabel, String filterId) {
+		String response = readResponse(downloadUrl, surveyLabel);
+		int i = 0;
+		String imageUrl = "";
+		String extNo = "";
+		String year = "";
+		try (Scanner scanner = new Scanner(response)) {
+			while (scanner.hasNextLine()) {
+				String line = scanner.nextLine();
+				if (line.contains("href")) {
+					String[] parts = line.split("href=\"");
+					parts = parts[1].split("\"");
+					imageUrl = parts[0].replace("getImage", "getJImage");
+					parts = line.split("extNo=");
+					parts = parts[1].split("&");
+					extNo = parts[0];
+					i = 1;
+				}
+				if (i == 7) {
+					try {
+						String[] parts = line.split("<td nowrap>");
+						parts = parts[1].split("-");
+						year = parts[0];
+					} catch (Exception ex) {
+						year = "2010";
+					}
+					break;
+				}
+				if (i > 0) {
+					i++;
+				}
+			}
+		}
+		if (imageUrl.isEmpty()) {
+			return null;
+		}
+		return new NirImage(filterId, extNo, Integer.parseInt(year), imageUrl);
+	}
+
+	private static BufferedImage downloadNearInfraredImage(String imageUrl) {
+		try (BufferedInputStream stream = new BufferedInputStream(openStream(imageUrl), BUFFER_SIZE)) {
+			return ImageIO.read(stream);
+		} catch (IOException ex) {
+			return null;
+		}
+	}
+
 	private static String getBand(String filterId) {
 		return switch (filterId) {
 		case "2" -> "Y";
@@ -1260,25 +1267,49 @@ public class ToolboxHelper {
 	}
 
 	private static BufferedImage resizeImage(BufferedImage image, int width, int height) {
-		Image scaledImage = image.getScaledInstance(width, height, Image.SCALE_DEFAULT);
-		BufferedImage zoomedImage = new BufferedImage(scaledImage.getWidth(null), scaledImage.getHeight(null),
-				BufferedImage.TYPE_INT_RGB);
-		Graphics graphics = zoomedImage.createGraphics();
-		graphics.drawImage(scaledImage, 0, 0, null);
-		graphics.dispose();
+		if (image.getColorModel().hasAlpha()) {
+			Image scaledImage = image.getScaledInstance(width, height, Image.SCALE_DEFAULT);
+			BufferedImage zoomedImage = new BufferedImage(scaledImage.getWidth(null), scaledImage.getHeight(null),
+					BufferedImage.TYPE_INT_RGB);
+			Graphics graphics = zoomedImage.createGraphics();
+			graphics.drawImage(scaledImage, 0, 0, null);
+			graphics.dispose();
+			return zoomedImage;
+		}
+		// Pixel replication, sampling the same source pixels as Image.SCALE_DEFAULT
+		int sourceWidth = image.getWidth();
+		int sourceHeight = image.getHeight();
+		int[] sourceColumns = new int[width];
+		for (int x = 0; x < width; x++) {
+			sourceColumns[x] = (int) ((2L * x * sourceWidth + sourceWidth) / (2L * width));
+		}
+		int[] sourcePixels = getRgbPixels(image);
+		BufferedImage zoomedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		int[] pixels = ((DataBufferInt) zoomedImage.getRaster().getDataBuffer()).getData();
+		int previousRow = -1;
+		for (int y = 0; y < height; y++) {
+			int sourceRow = (int) ((2L * y * sourceHeight + sourceHeight) / (2L * height));
+			int offset = y * width;
+			if (sourceRow == previousRow) {
+				System.arraycopy(pixels, offset - width, pixels, offset, width);
+				continue;
+			}
+			int sourceOffset = sourceRow * sourceWidth;
+			for (int x = 0; x < width; x++) {
+				pixels[offset + x] = sourcePixels[sourceOffset + sourceColumns[x]];
+			}
+			previousRow = sourceRow;
+		}
 		return zoomedImage;
 	}
 
 	public static BufferedImage invertImage(BufferedImage image) {
+		int[] sourcePixels = getRgbPixels(image);
 		BufferedImage invertedImage = new BufferedImage(image.getWidth(), image.getHeight(),
 				BufferedImage.TYPE_INT_RGB);
-		for (int x = 0; x < image.getWidth(); x++) {
-			for (int y = 0; y < image.getHeight(); y++) {
-				int rgb = image.getRGB(x, y);
-				Color c = new Color(rgb, true);
-				c = new Color(255 - c.getRed(), 255 - c.getGreen(), 255 - c.getBlue());
-				invertedImage.setRGB(x, y, c.getRGB());
-			}
+		int[] pixels = ((DataBufferInt) invertedImage.getRaster().getDataBuffer()).getData();
+		for (int i = 0; i < pixels.length; i++) {
+			pixels[i] = ~sourcePixels[i] & 0x00ffffff;
 		}
 		return invertedImage;
 	}
@@ -1310,67 +1341,52 @@ public class ToolboxHelper {
 	}
 
 	public static BufferedImage convertToGrayImage(BufferedImage colorImage) {
-		int width = colorImage.getWidth();
-		int height = colorImage.getHeight();
-
-		// Create a new BufferedImage with the same dimensions and grayscale color space
-		BufferedImage grayscaleImage = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
-
-		// Iterate through each pixel of the color image and set the grayscale value
-		for (int y = 0; y < height; y++) {
-			for (int x = 0; x < width; x++) {
-				// Get the RGB components of the pixel
-				Color color = new Color(colorImage.getRGB(x, y));
-				int red = color.getRed();
-				int green = color.getGreen();
-				int blue = color.getBlue();
-
-				// Calculate the grayscale value as the average of RGB components
-				// int grayscaleValue = (red + green + blue) / 3;
-				int grayscaleValue = Math.min(red + green + blue, 255);
-
-				// Set the grayscale value to the pixel in the new BufferedImage
-				grayscaleImage.setRGB(x, y, new Color(grayscaleValue, grayscaleValue, grayscaleValue).getRGB());
-			}
+		int[] sourcePixels = getRgbPixels(colorImage);
+		BufferedImage grayscaleImage = new BufferedImage(colorImage.getWidth(), colorImage.getHeight(),
+				BufferedImage.TYPE_BYTE_GRAY);
+		byte[] pixels = ((DataBufferByte) grayscaleImage.getRaster().getDataBuffer()).getData();
+		for (int i = 0; i < pixels.length; i++) {
+			int rgb = sourcePixels[i];
+			int red = (rgb >> 16) & 0xff;
+			int green = (rgb >> 8) & 0xff;
+			int blue = rgb & 0xff;
+			// Sum of the RGB components, their average would be (red + green + blue) / 3
+			pixels[i] = GRAY_LEVELS[Math.min(red + green + blue, 255)];
 		}
-
 		return grayscaleImage;
 	}
 
 	public static BufferedImage enhanceContrast(BufferedImage grayscaleImage, double contrastFactor) {
-		int width = grayscaleImage.getWidth();
-		int height = grayscaleImage.getHeight();
-
-		// Create a new BufferedImage with enhanced contrast
-		BufferedImage contrastEnhancedImage = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
-
-		// Apply the contrast enhancement with the custom contrast factor to each pixel
-		for (int y = 0; y < height; y++) {
-			for (int x = 0; x < width; x++) {
-				int pixelValue = new Color(grayscaleImage.getRGB(x, y)).getRed();
-				int contrastEnhancedValue = (int) (contrastFactor * pixelValue);
-				contrastEnhancedValue = Math.min(Math.max(contrastEnhancedValue, 0), 255);
-				contrastEnhancedImage.setRGB(x, y,
-						new Color(contrastEnhancedValue, contrastEnhancedValue, contrastEnhancedValue).getRGB());
-			}
+		byte[] enhancedLevels = new byte[256];
+		for (int level = 0; level < 256; level++) {
+			int enhancedLevel = (int) (contrastFactor * level);
+			enhancedLevels[level] = GRAY_LEVELS[Math.min(Math.max(enhancedLevel, 0), 255)];
+		}
+		int[] sourcePixels = getRgbPixels(grayscaleImage);
+		BufferedImage contrastEnhancedImage = new BufferedImage(grayscaleImage.getWidth(),
+				grayscaleImage.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+		byte[] pixels = ((DataBufferByte) contrastEnhancedImage.getRaster().getDataBuffer()).getData();
+		for (int i = 0; i < pixels.length; i++) {
+			pixels[i] = enhancedLevels[(sourcePixels[i] >> 16) & 0xff];
 		}
-
 		return contrastEnhancedImage;
 	}
 
 	public static BufferedImage createColorImage(BufferedImage i1, BufferedImage i2) {
 		BufferedImage colorImage = new BufferedImage(i1.getWidth(), i1.getHeight(), BufferedImage.TYPE_INT_RGB);
-		for (int x = 0; x < colorImage.getWidth(); x++) {
-			for (int y = 0; y < colorImage.getHeight(); y++) {
-				try {
-					int rgb1 = i1.getRGB(x, y);
-					int rgb2 = i2.getRGB(x, y);
-					Color c1 = new Color(rgb1, true);
-					Color c2 = new Color(rgb2, true);
-					Color color = new Color(c1.getRed(), (c1.getRed() + c2.getRed()) / 2, c2.getRed());
-					colorImage.setRGB(x, y, color.getRGB());
-				} catch (ArrayIndexOutOfBoundsException ex) {
-				}
+		int width = Math.min(i1.getWidth(), i2.getWidth());
+		int height = Math.min(i1.getHeight(), i2.getHeight());
+		int[] pixels = ((DataBufferInt) colorImage.getRaster().getDataBuffer()).getData();
+		int[] row1 = new int[width];
+		int[] row2 = new int[width];
+		for (int y = 0; y < height; y++) {
+			i1.getRGB(0, y, width, 1, row1, 0, width);
+			i2.getRGB(0, y, width, 1, row2, 0, width);
+			int offset = y * colorImage.getWidth();
+			for (int x = 0; x < width; x++) {
+				int red = (row1[x] >> 16) & 0xff;
+				int blue = (row2[x] >> 16) & 0xff;
+				pixels[offset + x] = red << 16 | ((red + blue) / 2) << 8 | blue;
 			}
 		}
 		return colorImage;
@@ -1378,24 +1394,88 @@ public class ToolboxHelper {
 
 	public static BufferedImage createColorImage(BufferedImage i1, BufferedImage i2, BufferedImage i3) {
 		BufferedImage colorImage = new BufferedImage(i1.getWidth(), i1.getHeight(), BufferedImage.TYPE_INT_RGB);
-		for (int x = 0; x < colorImage.getWidth(); x++) {
-			for (int y = 0; y < colorImage.getHeight(); y++) {
-				try {
-					int rgb1 = i1.getRGB(x, y);
-					int rgb2 = i2.getRGB(x, y);
-					int rgb3 = i3.getRGB(x, y);
-					Color c1 = new Color(rgb1, true);
-					Color c2 = new Color(rgb2, true);
-					Color c3 = new Color(rgb3, true);
-					Color color = new Color(c1.getRed(), c2.getRed(), c3.getRed());
-					colorImage.setRGB(x, y, color.getRGB());
-				} catch (ArrayIndexOutOfBoundsException ex) {
-				}
+		int width = Math.min(i1.getWidth(), Math.min(i2.getWidth(), i3.getWidth()));
+		int height = Math.min(i1.getHeight(), Math.min(i2.getHeight(), i3.getHeight()));
+		int[] pixels = ((DataBufferInt) colorImage.getRaster().getDataBuffer()).getData();
+		int[] row1 = new int[width];
+		int[] row2 = new int[width];
+		int[] row3 = new int[width];
+		for (int y = 0; y < height; y++) {
+			i1.getRGB(0, y, width, 1, row1, 0, width);
+			i2.getRGB(0, y, width, 1, row2, 0, width);
+			i3.getRGB(0, y, width, 1, row3, 0, width);
+			int offset = y * colorImage.getWidth();
+			for (int x = 0; x < width; x++) {
+				pixels[offset + x] = row1[x] & 0xff0000 | (row2[x] >> 8) & 0xff00 | (row3[x] >> 16) & 0xff;
 			}
 		}
 		return colorImage;
 	}
 
+	/**
+	 * Get the pixels of an image as sRGB values, the same way as
+	 * {@link BufferedImage#getRGB(int, int)}
+	 *
+	 * @param image
+	 * @return the pixels, row by row
+	 */
+	private static int[] getRgbPixels(BufferedImage image) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		if (!hasOwnRaster(image)) {
+			return image.getRGB(0, 0, width, height, null, 0, width);
+		}
+		if (image.getType() == BufferedImage.TYPE_INT_ARGB) {
+			return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		}
+		if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+			int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData().clone();
+			for (int i = 0; i < pixels.length; i++) {
+				pixels[i] |= 0xff000000;
+			}
+			return pixels;
+		}
+		return image.getRGB(0, 0, width, height, null, 0, width);
+	}
+
+	private static byte[] createGrayLevels() {
+		BufferedImage image = new BufferedImage(256, 1, BufferedImage.TYPE_BYTE_GRAY);
+		for (int gray = 0; gray < 256; gray++) {
+			image.setRGB(gray, 0, new Color(gray, gray, gray).getRGB());
+		}
+		return ((DataBufferByte) image.getRaster().getDataBuffer()).getData().clone();
+	}
+
+	private static int[] createSrgbGrays() {
+		BufferedImage image = new BufferedImage(256, 1, BufferedImage.TYPE_BYTE_GRAY);
+		for (int level = 0; level < 256; level++) {
+			image.getRaster().setSample(level, 0, 0, level);
+		}
+		int[] grays = image.getRGB(0, 0, 256, 1, null, 0, 256);
+		for (int level = 0; level < 256; level++) {
+			grays[level] &= 0xff;
+		}
+		return grays;
+	}
+
+	/**
+	 * @param image
+	 * @return true, if the data buffer of the image holds its pixels only (i.e.
+	 *         the image is not a subimage)
+	 */
+	private static boolean hasOwnRaster(BufferedImage image) {
+		WritableRaster raster = image.getRaster();
+		return raster.getParent() == null
+				&& raster.getDataBuffer().getSize() == image.getWidth() * image.getHeight();
+	}
+
+	private static void applyGrayLevels(BufferedImage image, byte[] levels) {
+		byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+		for (int i = 0; i < pixels.length; i++) {
+			pixels[i] = levels[pixels[i] & 0xff];
+		}
+	}
+
 	public static BufferedImage drawCenterShape(BufferedImage image) {
 		image = zoomImage(image, 175);
 		double x = image.getWidth() / 2;
@@ -10,8 +10,6 @@ import static astro.tool.box.function.NumericFunctions.toDouble;
 import static astro.tool.box.function.PhotometricFunctions.convertMagnitudeToFluxDensity;
 import static astro.tool.box.function.PhotometricFunctions.convertMagnitudeToFluxJansky;
 import static astro.tool.box.function.PhotometricFunctions.convertMagnitudeToFluxLambda;
-import static astro.tool.box.function.StatisticFunctions.calculateMean;
-import static astro.tool.box.function.StatisticFunctions.determineMedian;
 import static astro.tool.box.main.ToolboxHelper.createPDF;
 import static astro.tool.box.main.ToolboxHelper.getInfoIcon;
 import static astro.tool.box.main.ToolboxHelper.html;
@@ -20,7 +18,6 @@ import static astro.tool.box.main.ToolboxHelper.showScrollableDialog;
 import static astro.tool.box.main.ToolboxHelper.writeErrorLog;
 import static astro.tool.box.util.Constants.LINE_BREAK;
 import static astro.tool.box.util.Constants.LINE_SEP;
-import static java.lang.Math.abs;
 
 import java.awt.BasicStroke;
 import java.awt.Color;
@@ -36,7 +33,6 @@ import java.awt.event.MouseEvent;
 import java.awt.geom.Ellipse2D;
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -87,12 +83,15 @@ import astro.tool.box.enumeration.SpectralType;
 import astro.tool.box.lookup.BrownDwarfLookupEntry;
 import astro.tool.box.lookup.SpectralTypeLookup;
 import astro.tool.box.service.CatalogQueryService;
+import astro.tool.box.service.LookupTableRegistry;
+import astro.tool.box.service.SedFitService;
 
 public class SedUcdPanel extends JPanel {
 
 	private static final String FONT_NAME = "Tahoma";
 
 	private final List<SpectralTypeLookup> brownDwarfLookupEntries;
+	private final Map<String, Map<Band, Double>> referenceMagnitudes;
 	private final CatalogQueryService catalogQueryService;
 	private final JFrame baseFrame;
 
@@ -123,6 +122,11 @@ public class SedUcdPanel extends JPanel {
 	public SedUcdPanel(List<SpectralTypeLookup> brownDwarfLookupEntries, CatalogQueryService catalogQueryService,
 			CatalogEntry catalogEntry, JFrame baseFrame) {
 		this.brownDwarfLookupEntries = brownDwarfLookupEntries;
+		referenceMagnitudes = new HashMap<>();
+		for (SpectralTypeLookup lookupEntry : brownDwarfLookupEntries) {
+			BrownDwarfLookupEntry entry = (BrownDwarfLookupEntry) lookupEntry;
+			referenceMagnitudes.put(entry.getSpt(), entry.getMagnitudes());
+		}
 		this.catalogQueryService = catalogQueryService;
 		this.baseFrame = baseFrame;
 
@@ -706,50 +710,22 @@ public class SedUcdPanel extends JPanel {
 
 	private void addReferenceSeds(Map<Band, Double> sedPhotometry, XYSeriesCollection collection) {
 		SpectralType selectedType = (SpectralType) spectralTypes.getSelectedItem();
-		List<SedBestMatch> matches = new ArrayList();
-		for (SpectralTypeLookup lookupEntry : brownDwarfLookupEntries) {
-			BrownDwarfLookupEntry entry = (BrownDwarfLookupEntry) lookupEntry;
-			Map<Band, Double> bands = entry.getMagnitudes();
-			String spectralType = entry.getSpt();
-			List<Double> diffMags = new ArrayList();
-			Band.getSedBands().forEach(band -> {
-				if (sedPhotometry.get(band) != null && sedPhotometry.get(band) != 0 && bands.get(band) != 0) {
-					double diffMag = sedPhotometry.get(band) - bands.get(band);
-					diffMags.add(diffMag);
-				}
-			});
-			double medianDiffMag = determineMedian(diffMags);
-			if (selectedType.equals(SpectralType.SELECT)) {
-				int totalMags = diffMags.size();
-				if (totalMags < 4) {
-					continue;
-				}
-				int selectedMags = 0;
-				List<Double> correctedDiffMags = new ArrayList();
-				for (Double diffMag : diffMags) {
-					double correctedDiffMag = abs(diffMag - medianDiffMag);
-					correctedDiffMags.add(correctedDiffMag);
-					if (correctedDiffMag < 0.3) {
-						selectedMags++;
-					}
-				}
-				if (selectedMags < totalMags - 2) {
-					continue;
-				}
-				double meanDiffMag = calculateMean(correctedDiffMags);
-				matches.add(new SedBestMatch(spectralType, medianDiffMag, meanDiffMag));
-			} else if (selectedType.equals(SpectralType.valueOf(spectralType))) {
-				createReferenceSed(spectralType, collection, medianDiffMag);
-				return;
-			}
-		}
-		if (!matches.isEmpty()) {
-			matches.sort(Comparator.comparing(SedBestMatch::getMeanDiffMag));
+		SedFitService sedFitService = LookupTableRegistry.getBrownDwarfSedFitService();
+		if (selectedType.equals(SpectralType.SELECT)) {
 			int j = bestMatch.isSelected() ? 1 : 3;
-			for (int i = 0; i < j && i < matches.size(); i++) {
-				SedBestMatch match = matches.get(i);
+			for (SedBestMatch match : sedFitService.findBestMatches(sedPhotometry, Band.getSedBands(), j)) {
 				createReferenceSed(match.getSpt(), collection, match.getMedianDiffMag());
 			}
+			return;
+		}
+		List<String> templateNames = sedFitService.getTemplateNames();
+		for (int i = 0; i < templateNames.size(); i++) {
+			String spectralType = templateNames.get(i);
+			if (selectedType.equals(SpectralType.valueOf(spectralType))) {
+				double medianDiffMag = sedFitService.determineMedianDiffMag(i, sedPhotometry, Band.getSedBands());
+				createReferenceSed(spectralType, collection, medianDiffMag);
+				return;
+			}
 		}
 	}
 
@@ -909,14 +885,7 @@ public class SedUcdPanel extends JPanel {
 	}
 
 	private Map<Band, Double> provideReferenceMagnitudes(String spt) {
-		Map<Band, Double> absoluteMagnitudes = null;
-		for (SpectralTypeLookup lookupEntry : brownDwarfLookupEntries) {
-			BrownDwarfLookupEntry entry = (BrownDwarfLookupEntry) lookupEntry;
-			if (entry.getSpt().equals(spt)) {
-				absoluteMagnitudes = entry.getMagnitudes();
-			}
-		}
-		return absoluteMagnitudes;
+		return referenceMagnitudes.get(spt);
 	}
 
 }
@@ -7,12 +7,9 @@ import static astro.tool.box.function.NumericFunctions.roundTo2DecNZ;
 import static astro.tool.box.function.NumericFunctions.roundTo3DecNZ;
 import static astro.tool.box.function.NumericFunctions.roundTo3DecSN;
 import static astro.tool.box.function.NumericFunctions.toDouble;
-import static astro.tool.box.function.NumericFunctions.toInteger;
 import static astro.tool.box.function.PhotometricFunctions.convertMagnitudeToFluxDensity;
 import static astro.tool.box.function.PhotometricFunctions.convertMagnitudeToFluxJansky;
 import static astro.tool.box.function.PhotometricFunctions.convertMagnitudeToFluxLambda;
-import static astro.tool.box.function.StatisticFunctions.calculateMean;
-import static astro.tool.box.function.StatisticFunctions.determineMedian;
 import static astro.tool.box.main.ToolboxHelper.createHyperlink;
 import static astro.tool.box.main.ToolboxHelper.createPDF;
 import static astro.tool.box.main.ToolboxHelper.getInfoIcon;
@@ -22,7 +19,6 @@ import static astro.tool.box.main.ToolboxHelper.showScrollableDialog;
 import static astro.tool.box.main.ToolboxHelper.writeErrorLog;
 import static astro.tool.box.util.Constants.LINE_BREAK;
 import static astro.tool.box.util.Constants.LINE_SEP;
-import static java.lang.Math.abs;
 
 import java.awt.BasicStroke;
 import java.awt.Color;
@@ -37,13 +33,10 @@ import java.awt.event.ActionEvent;
 import java.awt.event.MouseEvent;
 import java.awt.geom.Ellipse2D;
 import java.io.File;
-import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
@@ -88,13 +81,14 @@ import astro.tool.box.container.WhiteDwarfEntry;
 import astro.tool.box.enumeration.Band;
 import astro.tool.box.enumeration.Sed;
 import astro.tool.box.service.CatalogQueryService;
-import astro.tool.box.util.CSVParser;
+import astro.tool.box.service.LookupTableRegistry;
 
 public final class SedWdPanel extends JPanel {
 
 	private static final String FONT_NAME = "Tahoma";
 
 	private final List<WhiteDwarfEntry> whiteDwarfEntries;
+	private final Map<String, Map<Band, Double>> referenceMagnitudes;
 	private final CatalogQueryService catalogQueryService;
 	private final JFrame baseFrame;
 
@@ -125,8 +119,11 @@ public final class SedWdPanel extends JPanel {
 	private boolean useGaiaPhotometry;
 
 	public SedWdPanel(CatalogQueryService catalogQueryService, CatalogEntry catalogEntry, JFrame baseFrame) {
-		whiteDwarfEntries = new ArrayList();
-		createWhiteDwarfSedEntries();
+		whiteDwarfEntries = LookupTableRegistry.getWhiteDwarfEntries();
+		referenceMagnitudes = new HashMap<>();
+		for (WhiteDwarfEntry entry : whiteDwarfEntries) {
+			referenceMagnitudes.put(entry.getInfo(), entry.getBands());
+		}
 
 		this.catalogQueryService = catalogQueryService;
 		this.baseFrame = baseFrame;
@@ -746,45 +743,11 @@ public final class SedWdPanel extends JPanel {
 	}
 
 	private void addReferenceSeds(Map<Band, Double> sedPhotometry, XYSeriesCollection collection) {
-		List<SedBestMatch> matches = new ArrayList();
-		for (WhiteDwarfEntry entry : whiteDwarfEntries) {
-			Map<Band, Double> bands = entry.getBands();
-			String spectralType = entry.getInfo();
-			List<Double> diffMags = new ArrayList();
-			List<Band> sedBands = useGaiaPhotometry ? Band.getWdSedBands() : Band.getSedBands();
-			sedBands.forEach(band -> {
-				if (sedPhotometry.get(band) != null && sedPhotometry.get(band) != 0 && bands.get(band) != 0) {
-					double diffMag = sedPhotometry.get(band) - bands.get(band);
-					diffMags.add(diffMag);
-				}
-			});
-			double medianDiffMag = determineMedian(diffMags);
-			int totalMags = diffMags.size();
-			if (totalMags < 4) {
-				continue;
-			}
-			int selectedMags = 0;
-			List<Double> correctedDiffMags = new ArrayList();
-			for (Double diffMag : diffMags) {
-				double correctedDiffMag = abs(diffMag - medianDiffMag);
-				correctedDiffMags.add(correctedDiffMag);
-				if (correctedDiffMag < 0.3) {
-					selectedMags++;
-				}
-			}
-			if (selectedMags < totalMags - 2) {
-				continue;
-			}
-			double meanDiffMag = calculateMean(correctedDiffMags);
-			matches.add(new SedBestMatch(spectralType, medianDiffMag, meanDiffMag));
-		}
-		if (!matches.isEmpty()) {
-			matches.sort(Comparator.comparing(SedBestMatch::getMeanDiffMag));
-			int j = bestMatch.isSelected() ? 1 : 3;
-			for (int i = 0; i < j && i < matches.size(); i++) {
-				SedBestMatch match = matches.get(i);
-				createReferenceSed(match.getSpt(), collection, match.getMedianDiffMag());
-			}
+		List<Band> sedBands = useGaiaPhotometry ? Band.getWdSedBands() : Band.getSedBands();
+		int j = bestMatch.isSelected() ? 1 : 3;
+		for (SedBestMatch match : LookupTableRegistry.getWhiteDwarfSedFitService().findBestMatches(sedPhotometry,
+				sedBands, j)) {
+			createReferenceSed(match.getSpt(), collection, match.getMedianDiffMag());
 		}
 	}
 
@@ -960,66 +923,7 @@ public final class SedWdPanel extends JPanel {
 	}
 
 	private Map<Band, Double> provideReferenceMagnitudes(String spt) {
-		Map<Band, Double> absoluteMagnitudes = null;
-		for (WhiteDwarfEntry entry : whiteDwarfEntries) {
-			if (entry.getInfo().equals(spt)) {
-				absoluteMagnitudes = entry.getBands();
-			}
-		}
-		return absoluteMagnitudes;
-	}
-
-	public void createWhiteDwarfSedEntries() {
-		InputStream input = getClass().getResourceAsStream("/WhiteDwarfLookupTable.csv");
-		try (Scanner fileScanner = new Scanner(input)) {
-			String headerLine = fileScanner.nextLine();
-			String[] headers = CSVParser.parseLine(headerLine);
-			Map<String, Integer> columns = new HashMap<>();
-			for (int i = 0; i < headers.length; i++) {
-				columns.put(headers[i], i);
-			}
-			while (fileScanner.hasNextLine()) {
-				String bodyLine = fileScanner.nextLine();
-				String[] values = CSVParser.parseLine(bodyLine);
-				String type = values[columns.get("Type")];
-				int teff = toInteger(values[columns.get("Teff")]);
-				double logG = toDouble(values[columns.get("log g")]);
-				double mass = toDouble(values[columns.get("M/Mo")]);
-				String age = values[columns.get("Age")];
-				double Gmag = toDouble(values[columns.get("G3")]);
-				double BPmag = toDouble(values[columns.get("G3_BP")]);
-				double RPmag = toDouble(values[columns.get("G3_RP")]);
-				double g_mag = toDouble(values[columns.get("PS1_g")]);
-				double r_mag = toDouble(values[columns.get("PS1_r")]);
-				double i_mag = toDouble(values[columns.get("PS1_i")]);
-				double z_mag = toDouble(values[columns.get("PS1_z")]);
-				double y_mag = toDouble(values[columns.get("PS1_y")]);
-				double Jmag = toDouble(values[columns.get("2MASS_J")]);
-				double Hmag = toDouble(values[columns.get("2MASS_H")]);
-				double Kmag = toDouble(values[columns.get("2MASS_Ks")]);
-				double W1mag = toDouble(values[columns.get("W1")]);
-				double W2mag = toDouble(values[columns.get("W2")]);
-				double W3mag = toDouble(values[columns.get("W3")]);
-				double W4mag = toDouble(values[columns.get("W4")]);
-				Map<Band, Double> bands = new HashMap();
-				bands.put(Band.G, Gmag);
-				bands.put(Band.BP, BPmag);
-				bands.put(Band.RP, RPmag);
-				bands.put(Band.g, g_mag);
-				bands.put(Band.r, r_mag);
-				bands.put(Band.i, i_mag);
-				bands.put(Band.z, z_mag);
-				bands.put(Band.y, y_mag);
-				bands.put(Band.J, Jmag);
-				bands.put(Band.H, Hmag);
-				bands.put(Band.K, Kmag);
-				bands.put(Band.W1, W1mag);
-				bands.put(Band.W2, W2mag);
-				bands.put(Band.W3, W3mag);
-				bands.put(Band.W4, W4mag);
-				whiteDwarfEntries.add(new WhiteDwarfEntry(type, teff, logG, mass, age, bands));
-			}
-		}
+		return referenceMagnitudes.get(spt);
 	}
 
 }
@@ -13,7 +13,6 @@ import static astro.tool.box.main.ToolboxHelper.showExceptionDialog;
 import static astro.tool.box.main.ToolboxHelper.writeErrorLog;
 import static astro.tool.box.util.Constants.SPLIT_CHAR;
 import static astro.tool.box.util.ConversionFactors.DEG_ARCSEC;
-import static astro.tool.box.util.ServiceHelper.establishHttpConnection;
 import static astro.tool.box.util.ServiceHelper.readResponse;
 import static java.lang.Math.round;
 import static java.util.stream.Collectors.groupingBy;
@@ -156,7 +155,7 @@ public class WiseLcPanel extends JPanel {
 		double dec = catalogEntry.getDec();
 
 		String queryUrl = ServiceHelper.createIrsaUrl(ra, dec, radius / DEG_ARCSEC, "allwise_p3as_mep");
-		String response = readResponse(establishHttpConnection(queryUrl), "AllWISE");
+		String response = readResponse(queryUrl, "AllWISE");
 
 		data = new ArrayList();
 		try (Scanner scanner = new Scanner(response)) {
@@ -193,7 +192,7 @@ public class WiseLcPanel extends JPanel {
 		}
 
 		queryUrl = ServiceHelper.createIrsaUrl(ra, dec, radius / DEG_ARCSEC, "neowiser_p1bs_psd");
-		response = readResponse(establishHttpConnection(queryUrl), "NeoWISE");
+		response = readResponse(queryUrl, "NeoWISE");
 		try (Scanner scanner = new Scanner(response)) {
 			String[] columnNames = scanner.nextLine().split(SPLIT_CHAR);
 			int col1 = 0;
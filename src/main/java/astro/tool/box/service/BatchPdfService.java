@@ -0,0 +1,165 @@
+package astro.tool.box.service;
+
+import static astro.tool.box.function.NumericFunctions.PATTERN_1DEC;
+import static astro.tool.box.function.NumericFunctions.PATTERN_2DEC_NZ;
+import static astro.tool.box.function.NumericFunctions.addPlusSign;
+import static astro.tool.box.function.NumericFunctions.formatDouble;
+import static astro.tool.box.function.NumericFunctions.roundDouble;
+import static astro.tool.box.function.NumericFunctions.roundTo2DecNZ;
+import static astro.tool.box.main.ToolboxHelper.writeErrorLog;
+import static astro.tool.box.util.Constants.LINE_SEP;
+import static astro.tool.box.util.Constants.SPLIT_CHAR;
+import static astro.tool.box.util.Constants.SPLIT_CHAR_REPLACEMENT;
+import static astro.tool.box.util.ThreadPools.createFixedThreadPool;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import astro.tool.box.container.NumberPair;
+import astro.tool.box.main.ImageSeriesPdf;
+
+/**
+ * Creates the image series PDFs (finder charts) of a target list without Swing
+ * components.
+ *
+ * Several documents are created at the same time, while the image, epoch and
+ * catalog requests of all documents in progress share one request pool, so
+ * that the number of open connections stays bounded. A summary index (CSV) of
+ * all targets is written next to the documents.
+ *
+ * A document is DEGRADED if a source (survey or catalog) has failed or returned
+ * no images, and FAILED if it could not be written or contains no images at
+ * all. The error column lists the incomplete sources.
+ */
+public class BatchPdfService {
+
+	public static final String INDEX_FILE_NAME = "index.csv";
+
+	// Maximum number of concurrent requests of all documents in progress
+	private static final int REQUEST_THREADS = 32;
+
+	private static final String INDEX_HEADER = "number,ra,dec,file,status,seconds,error";
+
+	private final int size;
+	private final File outputDir;
+	private final int documentThreads;
+
+	private final AtomicInteger completedDocuments = new AtomicInteger();
+	private final AtomicInteger failedDocuments = new AtomicInteger();
+	private final AtomicInteger degradedDocuments = new AtomicInteger();
+
+	private int numberOfTargets;
+	private long startTime;
+
+	/**
+	 * @param size            (field of view in arcsec)
+	 * @param outputDir
+	 * @param documentThreads (maximum number of documents created at the same
+	 *                        time)
+	 */
+	public BatchPdfService(int size, File outputDir, int documentThreads) {
+		this.size = size;
+		this.outputDir = outputDir;
+		this.documentThreads = documentThreads;
+	}
+
+	/**
+	 * Create the documents of all targets and write the summary index
+	 *
+	 * A failed document is recorded in the index and does not stop the batch.
+	 *
+	 * @param targets          (deg, deg)
+	 * @param progressListener (called with the number of completed documents)
+	 * @return the index file
+	 * @throws IOException
+	 */
+	public File createDocuments(List<NumberPair> targets, IntConsumer progressListener) throws IOException {
+		Files.createDirectories(outputDir.toPath());
+		numberOfTargets = targets.size();
+		String[] indexLines = new String[targets.size()];
+
+		startTime = System.nanoTime();
+		ExecutorService requestExecutor = createFixedThreadPool("batch-pdf-request", REQUEST_THREADS);
+		ExecutorService documentExecutor = createFixedThreadPool("batch-pdf", documentThreads);
+		try {
+			List<CompletableFuture<Void>> documents = new ArrayList<>();
+			for (int i = 0; i < targets.size(); i++) {
+				int objectIndex = i;
+				documents.add(CompletableFuture.runAsync(() -> {
+					indexLines[objectIndex] = createDocument(objectIndex + 1, targets.get(objectIndex),
+							requestExecutor);
+					progressListener.accept(completedDocuments.incrementAndGet());
+				}, documentExecutor));
+			}
+			CompletableFuture.allOf(documents.toArray(CompletableFuture[]::new)).join();
+		} finally {
+			documentExecutor.shutdown();
+			requestExecutor.shutdown();
+		}
+
+		File indexFile = new File(outputDir, INDEX_FILE_NAME);
+		List<String> lines = new ArrayList<>();
+		lines.add(INDEX_HEADER);
+		lines.addAll(List.of(indexLines));
+		Files.write(indexFile.toPath(), String.join(LINE_SEP, lines).getBytes(StandardCharsets.UTF_8));
+		return indexFile;
+	}
+
+	public int getFailedDocuments() {
+		return failedDocuments.get();
+	}
+
+	public int getDegradedDocuments() {
+		return degradedDocuments.get();
+	}
+
+	public String getThroughput() {
+		double elapsedMinutes = (System.nanoTime() - startTime) / 6e10;
+		int documents = completedDocuments.get();
+		double documentsPerMinute = elapsedMinutes > 0 ? documents / elapsedMinutes : 0;
+		return documents + "/" + numberOfTargets + " documents (" + formatDouble(documentsPerMinute, PATTERN_1DEC)
+				+ " documents/min)";
+	}
+
+	private String createDocument(int objectNumber, NumberPair target, ExecutorService requestExecutor) {
+		double ra = target.getX();
+		double dec = target.getY();
+		String fileName = "Target_" + objectNumber + "_" + roundTo2DecNZ(ra)
+				+ addPlusSign(roundDouble(dec, PATTERN_2DEC_NZ)) + ".pdf";
+		String status = "OK";
+		String error = "";
+		long documentStart = System.nanoTime();
+		File file = new File(outputDir, fileName);
+		try {
+			ImageSeriesPdf imageSeriesPdf = new ImageSeriesPdf(ra, dec, size, requestExecutor);
+			imageSeriesPdf.writeDocument(file);
+			List<String> incompleteSources = imageSeriesPdf.getIncompleteSources();
+			if (imageSeriesPdf.isWithoutImages()) {
+				failedDocuments.incrementAndGet();
+				status = "FAILED";
+			} else if (!incompleteSources.isEmpty()) {
+				degradedDocuments.incrementAndGet();
+				status = "DEGRADED";
+			}
+			error = String.join("; ", incompleteSources).replace(SPLIT_CHAR, SPLIT_CHAR_REPLACEMENT);
+		} catch (Exception ex) {
+			writeErrorLog(ex);
+			file.delete();
+			failedDocuments.incrementAndGet();
+			status = "FAILED";
+			error = ex.toString().replace(SPLIT_CHAR, SPLIT_CHAR_REPLACEMENT).replaceAll("\\R", " ");
+		}
+		double seconds = (System.nanoTime() - documentStart) / 1e9;
+		return String.join(SPLIT_CHAR, String.valueOf(objectNumber), String.valueOf(ra), String.valueOf(dec),
+				fileName, status, formatDouble(seconds, PATTERN_1DEC), error);
+	}
+
+}
@@ -0,0 +1,499 @@
+package astro.tool.box.service;
+
+import static astro.tool.box.function.AstrometricFunctions.calculateAngularDistance;
+import static astro.tool.box.function.NumericFunctions.roundTo1Dec;
+import static astro.tool.box.function.NumericFunctions.roundTo2Dec;
+import static astro.tool.box.function.PhotometricFunctions.isAPossibleAGN;
+import static astro.tool.box.function.PhotometricFunctions.isAPossibleWD;
+import static astro.tool.box.main.ToolboxHelper.AGN_WARNING;
+import static astro.tool.box.main.ToolboxHelper.WD_WARNING;
+import static astro.tool.box.main.ToolboxHelper.lookupSpectralTypes;
+import static astro.tool.box.main.ToolboxHelper.writeErrorLog;
+import static astro.tool.box.util.ConversionFactors.DEG_ARCSEC;
+import static astro.tool.box.util.ThreadPools.createFixedThreadPool;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+import astro.tool.box.catalog.AllWiseCatalogEntry;
+import astro.tool.box.catalog.CatalogEntry;
+import astro.tool.box.catalog.SimbadCatalogEntry;
+import astro.tool.box.catalog.TapUploadCatalog;
+import astro.tool.box.catalog.WhiteDwarf;
+import astro.tool.box.container.BatchResult;
+import astro.tool.box.container.NumberPair;
+import astro.tool.box.enumeration.AsynchResult;
+
+public class BatchQueryService {
+
+	private static final int QUERY_THREADS = 16;
+
+	// Maximum number of concurrent requests sent to the same host
+	private static final int HOST_CONCURRENCY = 4;
+
+	// Maximum number of work items submitted but not yet completed
+	private static final int MAX_PENDING_ITEMS = QUERY_THREADS * 4;
+
+	// Number of targets uploaded per crossmatch query
+	private static final int UPLOAD_CHUNK_SIZE = 500;
+
+	// Crossmatch results with this many rows are considered truncated
+	private static final int UPLOAD_MAX_RECORDS = 100000;
+
+	private static final String SEPARATOR = "\t";
+
+	private static final BatchResult NO_MATCH = new BatchResult(0, 0, 0, 0);
+
+	private final CatalogQueryService catalogQueryService;
+	private final SpectralTypeLookupService spectralTypeLookupService;
+	private final Map<String, CatalogEntry> catalogInstances;
+	private final List<String> selectedCatalogs;
+	private final double searchRadius;
+	private final boolean includeColors;
+	private final boolean useTapUpload;
+
+	private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+	private final Map<String, String> catalogHosts = new HashMap<>();
+	private final Map<String, LongAdder> queryTimes = new ConcurrentHashMap<>();
+	private final Map<String, LongAdder> queryCounts = new ConcurrentHashMap<>();
+
+	private final AtomicInteger completedRows = new AtomicInteger();
+	private final AtomicInteger failedQueries = new AtomicInteger();
+
+	private List<NumberPair> targets;
+	private BatchResult[][] results;
+	private AtomicInteger[] pendingQueries;
+	private PrintWriter checkpointWriter;
+	private int resumedRows;
+	private long startTime;
+
+	public BatchQueryService(CatalogQueryService catalogQueryService,
+			SpectralTypeLookupService spectralTypeLookupService, Map<String, CatalogEntry> catalogInstances,
+			List<String> selectedCatalogs, double searchRadius, boolean includeColors, boolean useTapUpload) {
+		this.catalogQueryService = catalogQueryService;
+		this.spectralTypeLookupService = spectralTypeLookupService;
+		this.catalogInstances = catalogInstances;
+		this.selectedCatalogs = selectedCatalogs;
+		this.searchRadius = searchRadius;
+		this.includeColors = includeColors;
+		this.useTapUpload = useTapUpload;
+	}
+
+	/**
+	 * Query the selected catalogs for all targets
+	 *
+	 * If TAP upload is enabled, catalogs supporting it are first crossmatched with
+	 * the whole target list, a few hundred targets per query. Targets of failed
+	 * crossmatch queries and all other catalogs are then queried target by
+	 * target.
+	 *
+	 * Work items (target x catalog) run concurrently. Each completed work item is
+	 * appended to the checkpoint file, so that a cancelled or aborted batch
+	 * resumes where it stopped when started again with the same signature. The
+	 * checkpoint file is deleted once all work items have been completed.
+	 *
+	 * @param targets             (deg, deg)
+	 * @param checkpointFile
+	 * @param checkpointSignature (identifies the batch parameters)
+	 * @param toCancel
+	 * @param progressListener    (called with the number of completed rows)
+	 * @return the result of the batch
+	 * @throws IOException
+	 */
+	public AsynchResult queryCatalogs(List<NumberPair> targets, File checkpointFile, String checkpointSignature,
+			BooleanSupplier toCancel, IntConsumer progressListener) throws IOException {
+		this.targets = targets;
+		int numberOfCatalogs = selectedCatalogs.size();
+		results = new BatchResult[targets.size()][numberOfCatalogs];
+		pendingQueries = new AtomicInteger[targets.size()];
+		for (int i = 0; i < targets.size(); i++) {
+			pendingQueries[i] = new AtomicInteger(numberOfCatalogs);
+		}
+		for (String catalogKey : selectedCatalogs) {
+			catalogHosts.put(catalogKey, getHost(catalogKey));
+		}
+
+		boolean resume = readCheckpoint(checkpointFile, checkpointSignature);
+		resumedRows = (int) Arrays.stream(pendingQueries).filter(pending -> pending.get() == 0).count();
+		completedRows.set(resumedRows);
+		progressListener.accept(resumedRows);
+
+		checkpointWriter = new PrintWriter(new FileWriter(checkpointFile, resume));
+		if (!resume) {
+			checkpointWriter.println(checkpointSignature);
+			checkpointWriter.flush();
+		}
+
+		startTime = System.nanoTime();
+		ExecutorService executor = createFixedThreadPool("batch-query", QUERY_THREADS);
+		Semaphore pendingItems = new Semaphore(MAX_PENDING_ITEMS);
+		boolean cancelled = false;
+		try {
+			if (useTapUpload) {
+				crossmatchCatalogs(executor, toCancel, progressListener);
+			}
+			submit: for (int i = 0; i < targets.size(); i++) {
+				for (int j = 0; j < numberOfCatalogs; j++) {
+					if (results[i][j] != null) {
+						continue;
+					}
+					if (toCancel.getAsBoolean()) {
+						cancelled = true;
+						break submit;
+					}
+					pendingItems.acquire();
+					int objectIndex = i;
+					int catalogIndex = j;
+					executor.execute(() -> {
+						try {
+							if (!toCancel.getAsBoolean()) {
+								queryCatalog(objectIndex, catalogIndex, progressListener);
+							}
+						} finally {
+							pendingItems.release();
+						}
+					});
+				}
+			}
+			// Wait for all submitted work items to complete
+			pendingItems.acquire(MAX_PENDING_ITEMS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			cancelled = true;
+		} finally {
+			executor.shutdown();
+			checkpointWriter.close();
+		}
+
+		if (cancelled || toCancel.getAsBoolean()) {
+			return AsynchResult.CANCELLED;
+		}
+		if (failedQueries.get() == 0) {
+			Files.deleteIfExists(checkpointFile.toPath());
+		}
+		return AsynchResult.SUCCESS;
+	}
+
+	/**
+	 * Assemble the batch results in input order, numbering the rows
+	 *
+	 * @return the batch results
+	 */
+	public List<BatchResult> getBatchResults() {
+		List<BatchResult> batchResults = new ArrayList<>();
+		int rowNumber = 1;
+		for (int i = 0; i < targets.size(); i++) {
+			int objectNumber = i + 1;
+			int resultCount = 0;
+			for (BatchResult result : results[i]) {
+				if (result != null && result != NO_MATCH) {
+					batchResults.add(result.withRowNumber(rowNumber++));
+					resultCount++;
+				}
+			}
+			if (resultCount == 0) {
+				NumberPair target = targets.get(i);
+				batchResults.add(new BatchResult(rowNumber++, objectNumber, target.getX(), target.getY()));
+			}
+		}
+		return batchResults;
+	}
+
+	public int getFailedQueries() {
+		return failedQueries.get();
+	}
+
+	public String getThroughput() {
+		double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+		int rows = completedRows.get() - resumedRows;
+		double rowsPerSecond = elapsedSeconds > 0 ? rows / elapsedSeconds : 0;
+		return completedRows.get() + "/" + targets.size() + " rows (" + roundTo1Dec(rowsPerSecond) + " rows/s)";
+	}
+
+	public String getQueryLatencies() {
+		return selectedCatalogs.stream().filter(catalogKey -> queryCounts.containsKey(catalogKey))
+				.map(catalogKey -> {
+					double meanTime = queryTimes.get(catalogKey).sum() / 1e9 / queryCounts.get(catalogKey).sum();
+					return catalogKey + ": " + roundTo2Dec(meanTime) + " s";
+				}).collect(Collectors.joining("; "));
+	}
+
+	private void queryCatalog(int objectIndex, int catalogIndex, IntConsumer progressListener) {
+		String catalogKey = selectedCatalogs.get(catalogIndex);
+		NumberPair target = targets.get(objectIndex);
+		CatalogEntry catalogQuery = createCatalogQuery(catalogKey);
+		catalogQuery.setRa(target.getX());
+		catalogQuery.setDec(target.getY());
+		catalogQuery.setSearchRadius(searchRadius);
+		Semaphore permits = getHostPermits(catalogKey);
+		CatalogEntry catalogEntry;
+		try {
+			permits.acquire();
+			long queryStart = System.nanoTime();
+			try {
+				catalogEntry = performQuery(catalogQuery);
+			} finally {
+				permits.release();
+				recordQueryTime(catalogKey, queryStart);
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return;
+		} catch (Exception ex) {
+			// Failed work items are not checkpointed, so that they are retried on resume
+			writeErrorLog(ex);
+			failedQueries.incrementAndGet();
+			completeRow(objectIndex, progressListener);
+			return;
+		}
+		completeWorkItem(objectIndex, catalogIndex, catalogEntry, progressListener);
+	}
+
+	private void crossmatchCatalogs(ExecutorService executor, BooleanSupplier toCancel,
+			IntConsumer progressListener) {
+		List<CompletableFuture<Void>> crossmatches = new ArrayList<>();
+		for (int j = 0; j < selectedCatalogs.size(); j++) {
+			CatalogEntry catalogQuery = createCatalogQuery(selectedCatalogs.get(j));
+			if (!(catalogQuery instanceof TapUploadCatalog uploadCatalog) || uploadCatalog.getTapServiceUrl() == null) {
+				continue;
+			}
+			List<Integer> objectIndexes = new ArrayList<>();
+			for (int i = 0; i < targets.size(); i++) {
+				if (results[i][j] == null) {
+					objectIndexes.add(i);
+				}
+			}
+			int catalogIndex = j;
+			for (int k = 0; k < objectIndexes.size(); k += UPLOAD_CHUNK_SIZE) {
+				List<Integer> chunk = objectIndexes.subList(k, Math.min(k + UPLOAD_CHUNK_SIZE, objectIndexes.size()));
+				crossmatches.add(CompletableFuture.runAsync(() -> {
+					if (!toCancel.getAsBoolean()) {
+						crossmatchCatalog(catalogIndex, chunk, progressListener);
+					}
+				}, executor));
+			}
+		}
+		try {
+			CompletableFuture.allOf(crossmatches.toArray(CompletableFuture[]::new)).join();
+		} catch (CompletionException ex) {
+			writeErrorLog(ex);
+		}
+	}
+
+	private void crossmatchCatalog(int catalogIndex, List<Integer> objectIndexes, IntConsumer progressListener) {
+		String catalogKey = selectedCatalogs.get(catalogIndex);
+		TapUploadCatalog catalogQuery = (TapUploadCatalog) createCatalogQuery(catalogKey);
+		catalogQuery.setSearchRadius(searchRadius);
+		List<NumberPair> chunkTargets = objectIndexes.stream().map(targets::get).collect(Collectors.toList());
+		Semaphore permits = getHostPermits(catalogKey);
+		List<CatalogEntry> catalogEntries;
+		try {
+			permits.acquire();
+			long queryStart = System.nanoTime();
+			try {
+				catalogEntries = catalogQueryService.getCatalogEntriesByTargets(catalogQuery, chunkTargets,
+						UPLOAD_MAX_RECORDS);
+			} finally {
+				permits.release();
+				recordQueryTime(catalogKey, queryStart);
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return;
+		} catch (Exception ex) {
+			// The targets of this chunk are left to the per target queries
+			writeErrorLog(ex);
+			return;
+		}
+		for (int objectIndex : objectIndexes) {
+			CatalogEntry catalogEntry = findNearestEntry(catalogEntries, targets.get(objectIndex));
+			completeWorkItem(objectIndex, catalogIndex, catalogEntry, progressListener);
+		}
+	}
+
+	private CatalogEntry findNearestEntry(List<CatalogEntry> catalogEntries, NumberPair target) {
+		CatalogEntry nearestEntry = null;
+		double nearestDistance = Double.MAX_VALUE;
+		for (CatalogEntry catalogEntry : catalogEntries) {
+			double distance = calculateAngularDistance(target,
+					new NumberPair(catalogEntry.getRa(), catalogEntry.getDec()), DEG_ARCSEC);
+			if (distance <= searchRadius && distance < nearestDistance) {
+				nearestEntry = catalogEntry;
+				nearestDistance = distance;
+			}
+		}
+		if (nearestEntry != null) {
+			nearestEntry.setTargetRa(target.getX());
+			nearestEntry.setTargetDec(target.getY());
+		}
+		return nearestEntry;
+	}
+
+	private void completeWorkItem(int objectIndex, int catalogIndex, CatalogEntry catalogEntry,
+			IntConsumer progressListener) {
+		BatchResult result = catalogEntry == null ? NO_MATCH
+				: createBatchResult(objectIndex + 1, targets.get(objectIndex), catalogEntry);
+		results[objectIndex][catalogIndex] = result;
+		writeCheckpoint(objectIndex, selectedCatalogs.get(catalogIndex), result);
+		completeRow(objectIndex, progressListener);
+	}
+
+	private void completeRow(int objectIndex, IntConsumer progressListener) {
+		if (pendingQueries[objectIndex].decrementAndGet() == 0) {
+			progressListener.accept(completedRows.incrementAndGet());
+		}
+	}
+
+	private Semaphore getHostPermits(String catalogKey) {
+		return hostPermits.computeIfAbsent(catalogHosts.get(catalogKey), host -> new Semaphore(HOST_CONCURRENCY));
+	}
+
+	private void recordQueryTime(String catalogKey, long queryStart) {
+		queryTimes.computeIfAbsent(catalogKey, key -> new LongAdder()).add(System.nanoTime() - queryStart);
+		queryCounts.computeIfAbsent(catalogKey, key -> new LongAdder()).increment();
+	}
+
+	private CatalogEntry performQuery(CatalogEntry catalogQuery) throws IOException {
+		List<CatalogEntry> catalogEntries = catalogQueryService.queryCatalogEntriesByCoords(catalogQuery);
+		catalogEntries.forEach(catalogEntry -> {
+			catalogEntry.setTargetRa(catalogQuery.getRa());
+			catalogEntry.setTargetDec(catalogQuery.getDec());
+		});
+		if (!catalogEntries.isEmpty()) {
+			catalogEntries.sort(Comparator.comparingDouble(CatalogEntry::getTargetDistance));
+			return catalogEntries.get(0);
+		}
+		return null;
+	}
+
+	private BatchResult createBatchResult(int objectNumber, NumberPair target, CatalogEntry catalogEntry) {
+		List<String> spectralTypes = lookupSpectralTypes(catalogEntry.getColors(true), spectralTypeLookupService,
+				includeColors);
+		if (catalogEntry instanceof SimbadCatalogEntry simbadEntry) {
+			StringBuilder simbadType = new StringBuilder();
+			simbadType.append(simbadEntry.getObjectType());
+			if (!simbadEntry.getSpectralType().isEmpty()) {
+				simbadType.append(" ").append(simbadEntry.getSpectralType());
+			}
+			simbadType.append("; ");
+			spectralTypes.add(0, simbadType.toString());
+		}
+		if (catalogEntry instanceof AllWiseCatalogEntry entry) {
+			if (isAPossibleAGN(entry.getW1_W2(), entry.getW2_W3())) {
+				spectralTypes.add(AGN_WARNING);
+			}
+		}
+		if (catalogEntry instanceof WhiteDwarf entry) {
+			if (isAPossibleWD(entry.getAbsoluteGmag(), entry.getBP_RP())) {
+				spectralTypes.add(WD_WARNING);
+			}
+		}
+		return new BatchResult.Builder().setObjectNumber(objectNumber).setCatalogName(catalogEntry.getCatalogName())
+				.setTargetRa(target.getX()).setTargetDec(target.getY())
+				.setTargetDistance(catalogEntry.getTargetDistance()).setRa(catalogEntry.getRa())
+				.setDec(catalogEntry.getDec()).setSourceId(catalogEntry.getSourceId() + " ")
+				.setPlx(catalogEntry.getPlx()).setPmra(catalogEntry.getPmra()).setPmdec(catalogEntry.getPmdec())
+				.setMagnitudes(catalogEntry.getMagnitudes()).setSpectralTypes(spectralTypes).build();
+	}
+
+	private CatalogEntry createCatalogQuery(String catalogKey) {
+		try {
+			return catalogInstances.get(catalogKey).getClass().getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private String getHost(String catalogKey) {
+		try {
+			CatalogEntry catalogQuery = createCatalogQuery(catalogKey);
+			catalogQuery.setSearchRadius(searchRadius);
+			String url = catalogQuery.getCatalogQueryUrl();
+			if (url != null) {
+				return new URL(url).getHost();
+			}
+		} catch (Exception ex) {
+		}
+		return catalogKey;
+	}
+
+	private boolean readCheckpoint(File checkpointFile, String checkpointSignature) throws IOException {
+		if (!checkpointFile.exists()) {
+			return false;
+		}
+		List<String> lines = Files.readAllLines(checkpointFile.toPath());
+		if (lines.isEmpty() || !lines.get(0).equals(checkpointSignature)) {
+			return false;
+		}
+		for (int i = 1; i < lines.size(); i++) {
+			String[] values = lines.get(i).split(SEPARATOR, -1);
+			try {
+				int objectIndex = Integer.parseInt(values[0]);
+				int catalogIndex = selectedCatalogs.indexOf(values[1]);
+				if (objectIndex >= targets.size() || catalogIndex < 0 || results[objectIndex][catalogIndex] != null) {
+					continue;
+				}
+				results[objectIndex][catalogIndex] = values.length == 2 ? NO_MATCH : parseBatchResult(values);
+				pendingQueries[objectIndex].decrementAndGet();
+			} catch (RuntimeException ex) {
+				// Incomplete line written before a crash, the work item is queried again
+			}
+		}
+		return true;
+	}
+
+	private synchronized void writeCheckpoint(int objectIndex, String catalogKey, BatchResult result) {
+		List<String> values = new ArrayList<>();
+		values.add(String.valueOf(objectIndex));
+		values.add(catalogKey);
+		if (result != NO_MATCH) {
+			values.add(String.valueOf(result.getObjectNumber()));
+			values.add(result.getCatalogName());
+			values.add(String.valueOf(result.getTargetRa()));
+			values.add(String.valueOf(result.getTargetDec()));
+			values.add(String.valueOf(result.getTargetDistance()));
+			values.add(String.valueOf(result.getRa()));
+			values.add(String.valueOf(result.getDec()));
+			values.add(result.getSourceId());
+			values.add(String.valueOf(result.getPlx()));
+			values.add(String.valueOf(result.getPmra()));
+			values.add(String.valueOf(result.getPmdec()));
+			values.add(result.getMagnitudes());
+			values.addAll(result.getSpectralTypes());
+		}
+		checkpointWriter.println(values.stream().map(value -> value.replace(SEPARATOR, " "))
+				.collect(Collectors.joining(SEPARATOR)));
+		checkpointWriter.flush();
+	}
+
+	private BatchResult parseBatchResult(String[] values) {
+		return new BatchResult.Builder().setObjectNumber(Integer.parseInt(values[2])).setCatalogName(values[3])
+				.setTargetRa(Double.parseDouble(values[4])).setTargetDec(Double.parseDouble(values[5]))
+				.setTargetDistance(Double.parseDouble(values[6])).setRa(Double.parseDouble(values[7]))
+				.setDec(Double.parseDouble(values[8])).setSourceId(values[9]).setPlx(Double.parseDouble(values[10]))
+				.setPmra(Double.parseDouble(values[11])).setPmdec(Double.parseDouble(values[12]))
+				.setMagnitudes(values[13])
+				.setSpectralTypes(new ArrayList<>(Arrays.asList(values).subList(14, values.length))).build();
+	}
+
+}
@@ -0,0 +1,332 @@
+package astro.tool.box.service;
+
+import static astro.tool.box.function.NumericFunctions.PATTERN_1DEC;
+import static astro.tool.box.function.NumericFunctions.PATTERN_3DEC;
+import static astro.tool.box.function.NumericFunctions.formatDouble;
+import static astro.tool.box.function.NumericFunctions.roundTo3Dec;
+import static astro.tool.box.function.PhotometricFunctions.isAPossibleAGN;
+import static astro.tool.box.function.PhotometricFunctions.isAPossibleWD;
+import static astro.tool.box.main.ToolboxHelper.AGN_WARNING;
+import static astro.tool.box.main.ToolboxHelper.WD_WARNING;
+import static astro.tool.box.main.ToolboxHelper.writeErrorLog;
+import static astro.tool.box.util.Constants.LINE_SEP;
+import static astro.tool.box.util.Constants.SPLIT_CHAR;
+import static astro.tool.box.util.Constants.SPLIT_CHAR_REPLACEMENT;
+import static astro.tool.box.util.MiscUtils.SPECTRAL_TYPES;
+import static astro.tool.box.util.ThreadPools.createFixedThreadPool;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+import astro.tool.box.catalog.AllWiseCatalogEntry;
+import astro.tool.box.catalog.CatalogEntry;
+import astro.tool.box.catalog.WhiteDwarf;
+import astro.tool.box.container.NumberPair;
+import astro.tool.box.container.SedBestMatch;
+import astro.tool.box.container.SpectralType;
+import astro.tool.box.enumeration.Band;
+import astro.tool.box.lookup.LookupResult;
+
+/**
+ * Photometric classification and SED fitting of a target list without Swing
+ * components.
+ *
+ * The selected catalogs are first queried for all targets, several targets at
+ * the same time, while the queries of all targets in progress share one
+ * request pool. The nearest entry of each catalog is then classified by its
+ * colors, as by the photometric classifier, and the photometry of all targets
+ * is fitted with the M, L & T dwarf and the white dwarf SED templates at once.
+ * A band of the SED photometry is taken from the first selected catalog with a
+ * magnitude in that band.
+ */
+public class BatchSedService {
+
+	// Maximum number of concurrent catalog queries of all targets in progress
+	private static final int REQUEST_THREADS = 32;
+
+	private static final String RESULT_HEADER = "number,ra,dec,catalogs,main_sequence,ucd,warnings,ucd_sed,ucd_sed_offset,ucd_sed_deviation,wd_sed,wd_sed_offset,wd_sed_deviation,status,seconds,error";
+
+	private final CatalogQueryService catalogQueryService;
+	private final Map<String, CatalogEntry> catalogInstances;
+	private final List<String> selectedCatalogs;
+	private final double searchRadius;
+	private final int objectThreads;
+
+	private final AtomicInteger completedObjects = new AtomicInteger();
+	private final AtomicInteger failedObjects = new AtomicInteger();
+
+	private int numberOfTargets;
+	private long startTime;
+
+	/**
+	 * @param catalogQueryService
+	 * @param catalogInstances
+	 * @param selectedCatalogs    (in order of preference for the SED
+	 *                            photometry)
+	 * @param searchRadius        (arcsec)
+	 * @param objectThreads       (maximum number of targets queried at the same
+	 *                            time)
+	 */
+	public BatchSedService(CatalogQueryService catalogQueryService, Map<String, CatalogEntry> catalogInstances,
+			List<String> selectedCatalogs, double searchRadius, int objectThreads) {
+		this.catalogQueryService = catalogQueryService;
+		this.catalogInstances = catalogInstances;
+		this.selectedCatalogs = selectedCatalogs;
+		this.searchRadius = searchRadius;
+		this.objectThreads = objectThreads;
+	}
+
+	/**
+	 * Classify all targets and write the results table
+	 *
+	 * A failed catalog query is recorded in the results table and does not stop
+	 * the batch, the target is classified with the other catalogs.
+	 *
+	 * @param targets          (deg, deg)
+	 * @param resultFile
+	 * @param progressListener (called with the number of queried targets)
+	 * @throws IOException
+	 */
+	public void classifyObjects(List<NumberPair> targets, File resultFile, IntConsumer progressListener)
+			throws IOException {
+		numberOfTargets = targets.size();
+		ObjectData[] objects = new ObjectData[targets.size()];
+
+		startTime = System.nanoTime();
+		ExecutorService requestExecutor = createFixedThreadPool("batch-sed-request", REQUEST_THREADS);
+		ExecutorService objectExecutor = createFixedThreadPool("batch-sed", objectThreads);
+		try {
+			List<CompletableFuture<Void>> queries = new ArrayList<>();
+			for (int i = 0; i < targets.size(); i++) {
+				int objectIndex = i;
+				queries.add(CompletableFuture.runAsync(() -> {
+					objects[objectIndex] = queryCatalogs(targets.get(objectIndex), requestExecutor);
+					progressListener.accept(completedObjects.incrementAndGet());
+				}, objectExecutor));
+			}
+			CompletableFuture.allOf(queries.toArray(CompletableFuture[]::new)).join();
+		} finally {
+			objectExecutor.shutdown();
+			requestExecutor.shutdown();
+		}
+
+		// White dwarfs are fitted with the Gaia bands if available
+		List<Map<Band, Double>> photometries = new ArrayList<>();
+		List<Integer> gaiaObjects = new ArrayList<>();
+		List<Integer> otherObjects = new ArrayList<>();
+		for (int i = 0; i < objects.length; i++) {
+			photometries.add(objects[i].photometry);
+			(objects[i].photometry.containsKey(Band.G) ? gaiaObjects : otherObjects).add(i);
+		}
+		List<List<SedBestMatch>> ucdMatches = LookupTableRegistry.getBrownDwarfSedFitService()
+				.findBestMatches(photometries, Band.getSedBands(), 1);
+		List<List<SedBestMatch>> wdMatches = new ArrayList<>(Collections.nCopies(photometries.size(), null));
+		fitWhiteDwarfs(photometries, gaiaObjects, Band.getWdSedBands(), wdMatches);
+		fitWhiteDwarfs(photometries, otherObjects, Band.getSedBands(), wdMatches);
+
+		SpectralTypeLookupService mainSequenceLookupService = LookupTableRegistry.getMainSequenceLookupService();
+		SpectralTypeLookupService brownDwarfLookupService = LookupTableRegistry.getBrownDwarfLookupService();
+		List<String> lines = new ArrayList<>();
+		lines.add(RESULT_HEADER);
+		for (int i = 0; i < objects.length; i++) {
+			ObjectData object = objects[i];
+			NumberPair target = targets.get(i);
+			Set<String> matchedColors = new HashSet<>();
+			List<String> values = new ArrayList<>();
+			values.add(String.valueOf(i + 1));
+			values.add(String.valueOf(target.getX()));
+			values.add(String.valueOf(target.getY()));
+			values.add(object.catalogEntries.stream().map(CatalogEntry::getCatalogName)
+					.collect(Collectors.joining(" ")));
+			values.add(classify(object.catalogEntries, mainSequenceLookupService, matchedColors));
+			values.add(classify(object.catalogEntries, brownDwarfLookupService, matchedColors));
+			values.add(String.join(" ", getWarnings(object.catalogEntries)));
+			addBestMatch(ucdMatches.get(i), values);
+			addBestMatch(wdMatches.get(i), values);
+			values.add(object.error.isEmpty() ? "OK" : "FAILED");
+			values.add(formatDouble(object.seconds, PATTERN_1DEC));
+			values.add(object.error);
+			lines.add(values.stream().map(value -> value.replace(SPLIT_CHAR, SPLIT_CHAR_REPLACEMENT))
+					.collect(Collectors.joining(SPLIT_CHAR)));
+		}
+		Files.write(resultFile.toPath(), String.join(LINE_SEP, lines).getBytes(StandardCharsets.UTF_8));
+	}
+
+	public int getFailedObjects() {
+		return failedObjects.get();
+	}
+
+	public String getThroughput() {
+		double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+		int objects = completedObjects.get();
+		double objectsPerSecond = elapsedSeconds > 0 ? objects / elapsedSeconds : 0;
+		return objects + "/" + numberOfTargets + " objects (" + formatDouble(objectsPerSecond, PATTERN_1DEC)
+				+ " objects/s)";
+	}
+
+	private ObjectData queryCatalogs(NumberPair target, ExecutorService requestExecutor) {
+		long objectStart = System.nanoTime();
+		List<CompletableFuture<CatalogEntry>> queries = new ArrayList<>();
+		for (String catalogKey : selectedCatalogs) {
+			queries.add(CompletableFuture.supplyAsync(() -> {
+				try {
+					return performQuery(catalogKey, target);
+				} catch (IOException ex) {
+					throw new CompletionException(ex);
+				}
+			}, requestExecutor));
+		}
+		ObjectData object = new ObjectData();
+		List<String> errors = new ArrayList<>();
+		for (int i = 0; i < queries.size(); i++) {
+			try {
+				CatalogEntry catalogEntry = queries.get(i).join();
+				if (catalogEntry != null) {
+					object.catalogEntries.add(catalogEntry);
+				}
+			} catch (CompletionException ex) {
+				Exception cause = ex.getCause() instanceof Exception queryException ? queryException : ex;
+				writeErrorLog(cause);
+				errors.add(selectedCatalogs.get(i) + ": " + cause.toString().replaceAll("\\R", " "));
+			}
+		}
+		if (!errors.isEmpty()) {
+			failedObjects.incrementAndGet();
+			object.error = String.join("; ", errors);
+		}
+		for (CatalogEntry catalogEntry : object.catalogEntries) {
+			catalogEntry.getBands().forEach((band, magnitude) -> {
+				// Measured magnitudes only (some catalogs have no errors)
+				if (magnitude.getX() > 0 && magnitude.getY() >= 0) {
+					object.photometry.putIfAbsent(band, magnitude.getX());
+				}
+			});
+		}
+		object.seconds = (System.nanoTime() - objectStart) / 1e9;
+		return object;
+	}
+
+	private CatalogEntry performQuery(String catalogKey, NumberPair target) throws IOException {
+		CatalogEntry catalogQuery = createCatalogQuery(catalogKey);
+		catalogQuery.setRa(target.getX());
+		catalogQuery.setDec(target.getY());
+		catalogQuery.setSearchRadius(searchRadius);
+		List<CatalogEntry> catalogEntries = catalogQueryService.queryCatalogEntriesByCoords(catalogQuery);
+		catalogEntries.forEach(catalogEntry -> {
+			catalogEntry.setTargetRa(catalogQuery.getRa());
+			catalogEntry.setTargetDec(catalogQuery.getDec());
+		});
+		if (!catalogEntries.isEmpty()) {
+			catalogEntries.sort(Comparator.comparingDouble(CatalogEntry::getTargetDistance));
+			return catalogEntries.get(0);
+		}
+		return null;
+	}
+
+	private CatalogEntry createCatalogQuery(String catalogKey) {
+		try {
+			return catalogInstances.get(catalogKey).getClass().getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private void fitWhiteDwarfs(List<Map<Band, Double>> photometries, List<Integer> objectIndexes, List<Band> bands,
+			List<List<SedBestMatch>> matches) {
+		List<List<SedBestMatch>> bestMatches = LookupTableRegistry.getWhiteDwarfSedFitService()
+				.findBestMatches(objectIndexes.stream().map(photometries::get).toList(), bands, 1);
+		for (int i = 0; i < objectIndexes.size(); i++) {
+			matches.set(objectIndexes.get(i), bestMatches.get(i));
+		}
+	}
+
+	/**
+	 * Spectral types matching the colors of all catalog entries, as counted by
+	 * the photometric classifier: a color value matching the same spectral type
+	 * in several catalogs counts once.
+	 *
+	 * @return the spectral types with their occurrences, most frequent first
+	 */
+	private String classify(List<CatalogEntry> catalogEntries, SpectralTypeLookupService spectralTypeLookupService,
+			Set<String> matchedColors) {
+		Map<String, Integer> sptOccurrences = new HashMap<>();
+		for (CatalogEntry catalogEntry : catalogEntries) {
+			for (LookupResult result : spectralTypeLookupService.lookup(catalogEntry.getColors(true))) {
+				String spectralType = result.getSpt();
+				if (matchedColors.add(result.getColorKey().val + roundTo3Dec(result.getColorValue()) + spectralType)) {
+					sptOccurrences.merge(spectralType, 1, Integer::sum);
+				}
+			}
+		}
+		List<SpectralType> spectralTypes = new ArrayList<>();
+		sptOccurrences.forEach((spt, occurrences) -> {
+			Double sptNum = SPECTRAL_TYPES.get(spt);
+			spectralTypes.add(new SpectralType(spt, occurrences, sptNum == null ? -1 : sptNum));
+		});
+		spectralTypes.sort(Comparator.comparing(SpectralType::getOccurrences, Comparator.reverseOrder())
+				.thenComparing(SpectralType::getSptNum));
+		return spectralTypes.stream().map(spectralType -> spectralType.getSpt() + "(" + spectralType.getOccurrences()
+				+ ")").collect(Collectors.joining(" "));
+	}
+
+	private Set<String> getWarnings(List<CatalogEntry> catalogEntries) {
+		Set<String> warnings = new LinkedHashSet<>();
+		for (CatalogEntry catalogEntry : catalogEntries) {
+			if (catalogEntry instanceof AllWiseCatalogEntry entry) {
+				if (isAPossibleAGN(entry.getW1_W2(), entry.getW2_W3())) {
+					warnings.add(AGN_WARNING);
+				}
+			}
+			if (catalogEntry instanceof WhiteDwarf entry) {
+				if (isAPossibleWD(entry.getAbsoluteGmag(), entry.getBP_RP())) {
+					warnings.add(WD_WARNING);
+				}
+			}
+		}
+		return warnings;
+	}
+
+	private void addBestMatch(List<SedBestMatch> matches, List<String> values) {
+		if (matches.isEmpty()) {
+			values.add("");
+			values.add("");
+			values.add("");
+		} else {
+			SedBestMatch match = matches.get(0);
+			values.add(match.getSpt());
+			values.add(formatDouble(match.getMedianDiffMag(), PATTERN_3DEC));
+			values.add(formatDouble(match.getMeanDiffMag(), PATTERN_3DEC));
+		}
+	}
+
+	private static class ObjectData {
+
+		private final List<CatalogEntry> catalogEntries = new ArrayList<>();
+
+		private final Map<Band, Double> photometry = new EnumMap<>(Band.class);
+
+		private String error = "";
+
+		private double seconds;
+
+	}
+
+}
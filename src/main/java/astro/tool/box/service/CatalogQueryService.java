@@ -1,30 +1,73 @@
 package astro.tool.box.service;
 
-import static astro.tool.box.util.ServiceHelper.establishHttpConnection;
-import static astro.tool.box.util.ServiceHelper.readResponse;
-import static astro.tool.box.util.ServiceHelper.transformResponseToCatalogEntries;
+import static astro.tool.box.function.AstrometricFunctions.calculateAngularDistance;
+import static astro.tool.box.tab.SettingsTab.DEFAULT_TAP_PROVIDER;
+import static astro.tool.box.tab.SettingsTab.TAP_PROVIDER;
+import static astro.tool.box.tab.SettingsTab.getUserSetting;
+import static astro.tool.box.util.ConversionFactors.DEG_ARCSEC;
+import static astro.tool.box.util.ServiceHelper.getResponseBody;
+import static astro.tool.box.util.ServiceHelper.openStream;
+import static astro.tool.box.util.ServiceHelper.readCatalogEntries;
+import static astro.tool.box.util.ServiceHelper.showServiceError;
+import static astro.tool.box.util.ServiceHelper.uploadTargets;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import astro.tool.box.catalog.CatalogEntry;
 import astro.tool.box.catalog.MocaCatalogEntry;
 import astro.tool.box.catalog.ProperMotionQuery;
+import astro.tool.box.catalog.TapUploadCatalog;
 import astro.tool.box.catalog.UhsCatalogEntry;
 import astro.tool.box.catalog.UkidssCatalogEntry;
 import astro.tool.box.catalog.UkidssCatalogEntry.Survey;
+import astro.tool.box.container.NumberPair;
+import astro.tool.box.util.CatalogCache;
 
 public class CatalogQueryService {
 
+	private static final CatalogCache CATALOG_CACHE = new CatalogCache();
+
+	private static final String UPLOAD_TABLE_NAME = "targets";
+
 	public List<CatalogEntry> getCatalogEntriesByCoords(CatalogEntry catalogEntry) throws IOException {
+		return getCatalogEntriesByCoords(catalogEntry, false);
+	}
+
+	/**
+	 * Query a catalog by coordinates without any dialog, for batch queries
+	 *
+	 * Unlike {@link #getCatalogEntriesByCoords(CatalogEntry)}, a failed request
+	 * is thrown instead of being reported as a service error with an empty
+	 * result, so that it is not taken for a target without catalog entries.
+	 * UHS and MOCA are queried by their catalog entries, which still report
+	 * their own errors.
+	 *
+	 * @param catalogEntry
+	 * @return the catalog entries
+	 * @throws IOException if the request fails or the server returns an error
+	 */
+	public List<CatalogEntry> queryCatalogEntriesByCoords(CatalogEntry catalogEntry) throws IOException {
+		return getCatalogEntriesByCoords(catalogEntry, true);
+	}
+
+	private List<CatalogEntry> getCatalogEntriesByCoords(CatalogEntry catalogEntry, boolean throwErrors)
+			throws IOException {
 		if (catalogEntry instanceof UkidssCatalogEntry entry) {
 			List<CatalogEntry> catalogEntries = new ArrayList();
 			for (Survey survey : UkidssCatalogEntry.Survey.values()) {
 				entry.setSurvey(survey);
-				catalogEntries.addAll(transformResponseToCatalogEntries(
-						readResponse(establishHttpConnection(entry.getCatalogQueryUrl()), entry.getCatalogName()),
-						entry));
+				catalogEntries.addAll(queryCatalog(entry, createScope(entry) + "|" + survey.name(), throwErrors));
 			}
 			return catalogEntries;
 		}
@@ -34,9 +77,7 @@ public class CatalogQueryService {
 		if (catalogEntry instanceof MocaCatalogEntry entry) {
 			return entry.findCatalogEntries();
 		}
-		return transformResponseToCatalogEntries(
-				readResponse(establishHttpConnection(catalogEntry.getCatalogQueryUrl()), catalogEntry.getCatalogName()),
-				catalogEntry);
+		return queryCatalog(catalogEntry, createScope(catalogEntry), throwErrors);
 	}
 
 	public List<CatalogEntry> getCatalogEntriesByCoordsAndTpm(ProperMotionQuery catalogEntry) throws IOException {
@@ -44,17 +85,110 @@ public class CatalogQueryService {
 			List<CatalogEntry> catalogEntries = new ArrayList();
 			for (Survey survey : UkidssCatalogEntry.Survey.motionSurveys()) {
 				entry.setSurvey(survey);
-				catalogEntries.addAll(transformResponseToCatalogEntries(
-						readResponse(establishHttpConnection(entry.getMotionQueryUrl()), entry.getCatalogName()),
-						entry));
+				catalogEntries.addAll(readCatalogEntries(entry.getMotionQueryUrl(), entry));
 			}
 			return catalogEntries;
 		} else if (catalogEntry instanceof UhsCatalogEntry entry) {
 			return entry.filterCatalogEntries(); 
 		}
-		return transformResponseToCatalogEntries(
-				readResponse(establishHttpConnection(catalogEntry.getMotionQueryUrl()), catalogEntry.getCatalogName()),
-				catalogEntry);
+		return readCatalogEntries(catalogEntry.getMotionQueryUrl(), catalogEntry);
+	}
+
+	/**
+	 * Crossmatch a catalog with a list of targets in a single query, uploading the
+	 * targets to the TAP service
+	 *
+	 * @param catalogQuery (search radius set)
+	 * @param targets      (deg, deg)
+	 * @param maxRecords   (maximum number of catalog entries returned)
+	 * @return the catalog entries within the search radius of any target
+	 * @throws IOException if the query fails or its result has been truncated
+	 */
+	public List<CatalogEntry> getCatalogEntriesByTargets(TapUploadCatalog catalogQuery, List<NumberPair> targets,
+			int maxRecords) throws IOException {
+		String query = catalogQuery.getUploadQuery("TAP_UPLOAD." + UPLOAD_TABLE_NAME);
+		HttpResponse<InputStream> response = uploadTargets(catalogQuery.getTapServiceUrl(), UPLOAD_TABLE_NAME,
+				query, targets, maxRecords);
+		String contentType = response.headers().firstValue("Content-Type").orElse("");
+		if (contentType.contains("xml")) {
+			// Errors are returned as VOTable
+			response.body().close();
+			throw new IOException(catalogQuery.getCatalogName() + " crossmatch failed with " + contentType);
+		}
+		List<CatalogEntry> catalogEntries = new ArrayList<>();
+		readCatalogEntries(getResponseBody(response), catalogQuery, null, catalogEntry -> {
+			catalogEntries.add(catalogEntry);
+			return catalogEntries.size() < maxRecords;
+		});
+		if (catalogEntries.size() >= maxRecords) {
+			throw new IOException(catalogQuery.getCatalogName() + " crossmatch result has been truncated");
+		}
+		return catalogEntries;
+	}
+
+	private List<CatalogEntry> queryCatalog(CatalogEntry catalogQuery, String scope, boolean throwErrors)
+			throws IOException {
+		String url = catalogQuery.getCatalogQueryUrl();
+		List<CatalogEntry> catalogEntries = readCachedResponse(CATALOG_CACHE.getResponseFile(url), catalogQuery);
+		if (catalogEntries != null) {
+			return catalogEntries;
+		}
+		double ra = catalogQuery.getRa();
+		double dec = catalogQuery.getDec();
+		double radius = catalogQuery.getSearchRadius();
+		catalogEntries = readCachedResponse(CATALOG_CACHE.getSupersetResponseFile(scope, ra, dec, radius),
+				catalogQuery);
+		if (catalogEntries != null) {
+			NumberPair center = new NumberPair(ra, dec);
+			return catalogEntries.stream()
+					.filter(entry -> calculateAngularDistance(center, new NumberPair(entry.getRa(), entry.getDec()),
+							DEG_ARCSEC) <= radius)
+					.collect(Collectors.toList());
+		}
+		Path responseFile = CATALOG_CACHE.createResponseFile();
+		if (responseFile == null) {
+			if (!throwErrors) {
+				return readCatalogEntries(url, catalogQuery);
+			}
+			List<CatalogEntry> responseEntries = new ArrayList<>();
+			readCatalogEntries(openStream(url), catalogQuery, null, responseEntries::add);
+			return responseEntries;
+		}
+		// The response is parsed while it is being written to the cache
+		List<CatalogEntry> responseEntries = new ArrayList<>();
+		try {
+			try (OutputStream copy = new BufferedOutputStream(Files.newOutputStream(responseFile))) {
+				readCatalogEntries(openStream(url), catalogQuery, copy, responseEntries::add);
+			}
+			CATALOG_CACHE.putResponseFile(url, scope, ra, dec, radius, responseFile);
+		} catch (IOException ex) {
+			if (throwErrors) {
+				throw ex;
+			}
+			showServiceError(ex, catalogQuery.getCatalogName());
+			responseEntries.clear();
+		} finally {
+			Files.deleteIfExists(responseFile);
+		}
+		return responseEntries;
+	}
+
+	private List<CatalogEntry> readCachedResponse(Path responseFile, CatalogEntry catalogQuery) {
+		if (responseFile == null) {
+			return null;
+		}
+		List<CatalogEntry> catalogEntries = new ArrayList<>();
+		try (Reader reader = Files.newBufferedReader(responseFile, Charset.defaultCharset())) {
+			readCatalogEntries(reader, catalogQuery, catalogEntries::add);
+			return catalogEntries;
+		} catch (IOException ex) {
+			// Evicted in the meantime, the catalog is queried instead
+			return null;
+		}
+	}
+
+	private String createScope(CatalogEntry catalogQuery) {
+		return catalogQuery.getCatalogName() + "|" + getUserSetting(TAP_PROVIDER, DEFAULT_TAP_PROVIDER);
 	}
 
 }
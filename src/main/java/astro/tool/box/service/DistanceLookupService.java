@@ -4,6 +4,7 @@ import static astro.tool.box.function.PhotometricFunctions.calculatePhotometricD
 import static astro.tool.box.function.PhotometricFunctions.calculatePhotometricDistanceError;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,12 +14,25 @@ import astro.tool.box.lookup.BrownDwarfLookupEntry;
 import astro.tool.box.lookup.DistanceLookupResult;
 import astro.tool.box.lookup.SpectralTypeLookup;
 
+/**
+ * Photometric distances from the absolute magnitudes of the M, L & T dwarfs
+ * table.
+ *
+ * The entries are indexed by spectral type when the service is created and
+ * never changed afterwards, so the service can be shared between threads.
+ */
 public class DistanceLookupService {
 
-	private final List<SpectralTypeLookup> entries;
+	// The last entry of a spectral type wins, as with the former table scan
+	private final Map<String, BrownDwarfLookupEntry> entriesBySpt;
 
 	public DistanceLookupService(List<SpectralTypeLookup> entries) {
-		this.entries = entries;
+		Map<String, BrownDwarfLookupEntry> entriesBySpt = new HashMap<>();
+		for (SpectralTypeLookup lookupEntry : entries) {
+			BrownDwarfLookupEntry entry = (BrownDwarfLookupEntry) lookupEntry;
+			entriesBySpt.put(entry.getSpt(), entry);
+		}
+		this.entriesBySpt = Map.copyOf(entriesBySpt);
 	}
 
 	public List<DistanceLookupResult> lookup(String spt, Map<Band, NumberPair> apparentMagnitudes) {
@@ -27,18 +41,12 @@ public class DistanceLookupService {
 			return results;
 		}
 		spt = spt.replace("V", "");
-		Map<Band, Double> absoluteMagnitudes = null;
-		Map<Band, Double> absoluteMagnitudesErrors = null;
-		for (SpectralTypeLookup lookupEntry : entries) {
-			BrownDwarfLookupEntry entry = (BrownDwarfLookupEntry) lookupEntry;
-			if (entry.getSpt().equals(spt)) {
-				absoluteMagnitudes = entry.getMagnitudes();
-				absoluteMagnitudesErrors = entry.getErrors();
-			}
-		}
-		if (absoluteMagnitudes == null) {
+		BrownDwarfLookupEntry lookupEntry = entriesBySpt.get(spt);
+		if (lookupEntry == null) {
 			return results;
 		}
+		Map<Band, Double> absoluteMagnitudes = lookupEntry.getMagnitudes();
+		Map<Band, Double> absoluteMagnitudesErrors = lookupEntry.getErrors();
 		for (Map.Entry<Band, NumberPair> entry : apparentMagnitudes.entrySet()) {
 			double apparentMagnitude = entry.getValue().getX();
 			if (apparentMagnitude == 0) {
@@ -14,7 +14,6 @@ import static astro.tool.box.util.Constants.TWO_MASS_J;
 import static astro.tool.box.util.Constants.TWO_MASS_K;
 import static astro.tool.box.util.Constants.WISE_1;
 import static astro.tool.box.util.Constants.WISE_2;
-import static astro.tool.box.util.ServiceHelper.establishHttpConnection;
 import static astro.tool.box.util.ServiceHelper.readResponse;
 
 import java.io.StringReader;
@@ -39,7 +38,7 @@ public class DustExtinctionService {
 		Map<String, Double> extinctionsByBand = new HashMap<>();
 
 		String response = readResponse(
-				establishHttpConnection(BASE_URL + "?locstr=" + degRA + "+" + degDE + "&regSize=" + degSize),
+				BASE_URL + "?locstr=" + degRA + "+" + degDE + "&regSize=" + degSize,
 				SERVICE_PROVIDER);
 		if (response.isEmpty()) {
 			return extinctionsByBand;
@@ -50,7 +49,7 @@ public class DustExtinctionService {
 		Document document = builder.parse(new InputSource(new StringReader(response)));
 		Element root = document.getDocumentElement();
 		String tableLink = root.getElementsByTagName("table").item(0).getTextContent().trim();
-		response = readResponse(establishHttpConnection(tableLink), SERVICE_PROVIDER);
+		response = readResponse(tableLink, SERVICE_PROVIDER);
 		if (response.isEmpty()) {
 			return extinctionsByBand;
 		}
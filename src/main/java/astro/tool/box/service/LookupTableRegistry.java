@@ -0,0 +1,199 @@
+package astro.tool.box.service;
+
+import static astro.tool.box.function.NumericFunctions.toDouble;
+import static astro.tool.box.function.NumericFunctions.toInteger;
+import static astro.tool.box.tab.SettingsTab.PHOTOMETRIC_ERRORS;
+import static astro.tool.box.tab.SettingsTab.getUserSetting;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import astro.tool.box.container.WhiteDwarfEntry;
+import astro.tool.box.enumeration.Band;
+import astro.tool.box.lookup.BrownDwarfLookupEntry;
+import astro.tool.box.lookup.SpectralTypeLookup;
+import astro.tool.box.lookup.SpectralTypeLookupEntry;
+import astro.tool.box.util.CSVParser;
+
+/**
+ * Lookup tables bundled with the application, each parsed once on first use
+ * and shared by all tabs, panels and services.
+ *
+ * The spectral type tables include the photometric error colors only if the
+ * corresponding setting is enabled, so they are kept per setting value. The
+ * returned lists are unmodifiable.
+ */
+public class LookupTableRegistry {
+
+	private static final Map<Boolean, List<SpectralTypeLookup>> MAIN_SEQUENCE_ENTRIES = new ConcurrentHashMap<>();
+
+	private static final Map<Boolean, List<SpectralTypeLookup>> BROWN_DWARF_ENTRIES = new ConcurrentHashMap<>();
+
+	private static final Map<Boolean, SpectralTypeLookupService> MAIN_SEQUENCE_SERVICES = new ConcurrentHashMap<>();
+
+	private static final Map<Boolean, SpectralTypeLookupService> BROWN_DWARF_SERVICES = new ConcurrentHashMap<>();
+
+	private static final Map<Boolean, DistanceLookupService> DISTANCE_SERVICES = new ConcurrentHashMap<>();
+
+	private static final Map<Boolean, SedFitService> BROWN_DWARF_SED_SERVICES = new ConcurrentHashMap<>();
+
+	private LookupTableRegistry() {
+	}
+
+	/**
+	 * @return the entries of the main sequence table (Mamajek)
+	 */
+	public static List<SpectralTypeLookup> getMainSequenceEntries() {
+		return MAIN_SEQUENCE_ENTRIES.computeIfAbsent(withPhotometricErrors(),
+				key -> readEntries("/SpectralTypeLookupTable.csv", SpectralTypeLookupEntry::new));
+	}
+
+	/**
+	 * @return the entries of the M, L & T dwarfs table
+	 */
+	public static List<SpectralTypeLookup> getBrownDwarfEntries() {
+		return BROWN_DWARF_ENTRIES.computeIfAbsent(withPhotometricErrors(),
+				key -> readEntries("/BrownDwarfLookupTable.csv", BrownDwarfLookupEntry::new));
+	}
+
+	/**
+	 * @return the entries of the white dwarfs table (Montreal cooling sequences)
+	 */
+	public static List<WhiteDwarfEntry> getWhiteDwarfEntries() {
+		return WhiteDwarfEntries.ENTRIES;
+	}
+
+	public static SpectralTypeLookupService getMainSequenceLookupService() {
+		List<SpectralTypeLookup> entries = getMainSequenceEntries();
+		return MAIN_SEQUENCE_SERVICES.computeIfAbsent(withPhotometricErrors(),
+				key -> new SpectralTypeLookupService(entries));
+	}
+
+	public static SpectralTypeLookupService getBrownDwarfLookupService() {
+		List<SpectralTypeLookup> entries = getBrownDwarfEntries();
+		return BROWN_DWARF_SERVICES.computeIfAbsent(withPhotometricErrors(),
+				key -> new SpectralTypeLookupService(entries));
+	}
+
+	public static DistanceLookupService getDistanceLookupService() {
+		List<SpectralTypeLookup> entries = getBrownDwarfEntries();
+		return DISTANCE_SERVICES.computeIfAbsent(withPhotometricErrors(), key -> new DistanceLookupService(entries));
+	}
+
+	/**
+	 * @return the SED templates of the M, L & T dwarfs table, named by spectral
+	 *         type
+	 */
+	public static SedFitService getBrownDwarfSedFitService() {
+		List<SpectralTypeLookup> entries = getBrownDwarfEntries();
+		return BROWN_DWARF_SED_SERVICES.computeIfAbsent(withPhotometricErrors(), key -> {
+			List<String> names = new ArrayList<>();
+			List<Map<Band, Double>> magnitudes = new ArrayList<>();
+			for (SpectralTypeLookup lookupEntry : entries) {
+				BrownDwarfLookupEntry entry = (BrownDwarfLookupEntry) lookupEntry;
+				names.add(entry.getSpt());
+				magnitudes.add(entry.getMagnitudes());
+			}
+			return new SedFitService(names, magnitudes);
+		});
+	}
+
+	/**
+	 * @return the SED templates of the white dwarfs table, named by model (see
+	 *         {@link WhiteDwarfEntry#getInfo()})
+	 */
+	public static SedFitService getWhiteDwarfSedFitService() {
+		return WhiteDwarfEntries.SED_FIT_SERVICE;
+	}
+
+	private static boolean withPhotometricErrors() {
+		return Boolean.parseBoolean(getUserSetting(PHOTOMETRIC_ERRORS, "false"));
+	}
+
+	private static List<SpectralTypeLookup> readEntries(String resource,
+			Function<String[], SpectralTypeLookup> entryFactory) {
+		try (InputStream input = LookupTableRegistry.class.getResourceAsStream(resource)) {
+			return new BufferedReader(new InputStreamReader(input)).lines().skip(1)
+					.map(line -> entryFactory.apply(line.split(",", -1))).toList();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	// Parsed when first accessed
+	private static class WhiteDwarfEntries {
+
+		private static final List<WhiteDwarfEntry> ENTRIES = readWhiteDwarfEntries();
+
+		private static final SedFitService SED_FIT_SERVICE = new SedFitService(
+				ENTRIES.stream().map(WhiteDwarfEntry::getInfo).toList(),
+				ENTRIES.stream().map(WhiteDwarfEntry::getBands).toList());
+
+		private static List<WhiteDwarfEntry> readWhiteDwarfEntries() {
+			List<WhiteDwarfEntry> entries = new ArrayList<>();
+			InputStream input = LookupTableRegistry.class.getResourceAsStream("/WhiteDwarfLookupTable.csv");
+			try (Scanner fileScanner = new Scanner(input)) {
+				String headerLine = fileScanner.nextLine();
+				String[] headers = CSVParser.parseLine(headerLine);
+				Map<String, Integer> columns = new HashMap<>();
+				for (int i = 0; i < headers.length; i++) {
+					columns.put(headers[i], i);
+				}
+				while (fileScanner.hasNextLine()) {
+					String bodyLine = fileScanner.nextLine();
+					String[] values = CSVParser.parseLine(bodyLine);
+					String type = values[columns.get("Type")];
+					int teff = toInteger(values[columns.get("Teff")]);
+					double logG = toDouble(values[columns.get("log g")]);
+					double mass = toDouble(values[columns.get("M/Mo")]);
+					String age = values[columns.get("Age")];
+					double Gmag = toDouble(values[columns.get("G3")]);
+					double BPmag = toDouble(values[columns.get("G3_BP")]);
+					double RPmag = toDouble(values[columns.get("G3_RP")]);
+					double g_mag = toDouble(values[columns.get("PS1_g")]);
+					double r_mag = toDouble(values[columns.get("PS1_r")]);
+					double i_mag = toDouble(values[columns.get("PS1_i")]);
+					double z_mag = toDouble(values[columns.get("PS1_z")]);
+					double y_mag = toDouble(values[columns.get("PS1_y")]);
+					double Jmag = toDouble(values[columns.get("2MASS_J")]);
+					double Hmag = toDouble(values[columns.get("2MASS_H")]);
+					double Kmag = toDouble(values[columns.get("2MASS_Ks")]);
+					double W1mag = toDouble(values[columns.get("W1")]);
+					double W2mag = toDouble(values[columns.get("W2")]);
+					double W3mag = toDouble(values[columns.get("W3")]);
+					double W4mag = toDouble(values[columns.get("W4")]);
+					Map<Band, Double> bands = new EnumMap<>(Band.class);
+					bands.put(Band.G, Gmag);
+					bands.put(Band.BP, BPmag);
+					bands.put(Band.RP, RPmag);
+					bands.put(Band.g, g_mag);
+					bands.put(Band.r, r_mag);
+					bands.put(Band.i, i_mag);
+					bands.put(Band.z, z_mag);
+					bands.put(Band.y, y_mag);
+					bands.put(Band.J, Jmag);
+					bands.put(Band.H, Hmag);
+					bands.put(Band.K, Kmag);
+					bands.put(Band.W1, W1mag);
+					bands.put(Band.W2, W2mag);
+					bands.put(Band.W3, W3mag);
+					bands.put(Band.W4, W4mag);
+					entries.add(new WhiteDwarfEntry(type, teff, logG, mass, age, bands));
+				}
+			}
+			return List.copyOf(entries);
+		}
+
+	}
+
+}
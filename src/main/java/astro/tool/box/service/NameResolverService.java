@@ -1,6 +1,5 @@
 package astro.tool.box.service;
 
-import static astro.tool.box.util.ServiceHelper.establishHttpConnection;
 import static astro.tool.box.util.ServiceHelper.readResponse;
 
 import java.io.StringReader;
@@ -19,7 +18,7 @@ public class NameResolverService {
 	private static final String BASE_URL = "http://cdsweb.u-strasbg.fr/cgi-bin/nph-sesame/";
 
 	public String getCoordinatesByName(String name) throws Exception {
-		String response = readResponse(establishHttpConnection(BASE_URL + "-oxp/~SNV?" + name.replaceAll(" +", "%20")),
+		String response = readResponse(BASE_URL + "-oxp/~SNV?" + name.replaceAll(" +", "%20"),
 				SERVICE_PROVIDER);
 		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
 		DocumentBuilder builder = factory.newDocumentBuilder();
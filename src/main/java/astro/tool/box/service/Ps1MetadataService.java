@@ -0,0 +1,164 @@
+package astro.tool.box.service;
+
+import static astro.tool.box.function.AstrometricFunctions.convertMJDToDate;
+import static astro.tool.box.function.NumericFunctions.toDouble;
+import static astro.tool.box.util.Constants.SPLIT_CHAR;
+import static astro.tool.box.util.ServiceHelper.readResponse;
+
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * Image metadata of Pan-STARRS (file names and observation dates) by target.
+ *
+ * The metadata of all filters is requested at once per target and image type
+ * (stack images for the file names, warp images for the observation dates),
+ * and kept for the most recent targets. Concurrent callers asking for the same
+ * target share the same request.
+ */
+public class Ps1MetadataService {
+
+	private static final String SERVICE_PROVIDER = "Pan-STARRS";
+	private static final String BASE_URL = "http://ps1images.stsci.edu/cgi-bin/ps1filenames.py";
+	private static final int MAX_TARGETS = 100;
+
+	// Access ordered, the eldest entry is the least recently used one
+	private final Map<String, CompletableFuture<List<Ps1Image>>> images = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<List<Ps1Image>>> eldest) {
+			return size() > MAX_TARGETS;
+		}
+	};
+
+	/**
+	 * Get the file names of the stack images
+	 *
+	 * @param targetRa
+	 * @param targetDec
+	 * @return the file names by filter
+	 */
+	public Map<String, String> getFileNames(double targetRa, double targetDec) {
+		Map<String, String> fileNames = new LinkedHashMap<>();
+		getImages(targetRa, targetDec, "stack").forEach(image -> fileNames.put(image.filter, image.fileName));
+		return fileNames;
+	}
+
+	/**
+	 * Get the mean observation year of the warp images
+	 *
+	 * @param targetRa
+	 * @param targetDec
+	 * @param filters   (e.g. grizy)
+	 * @return the mean year of the given filters
+	 */
+	public int getEpoch(double targetRa, double targetDec, String filters) {
+		int i = 0;
+		double epoch = 0;
+		for (Ps1Image image : getImages(targetRa, targetDec, "warp")) {
+			if (filters.contains(image.filter)) {
+				epoch += toDouble(image.mjd);
+				i++;
+			}
+		}
+		return convertMJDToDate(epoch / i).get(ChronoField.YEAR);
+	}
+
+	/**
+	 * Get the mean observation year of the warp images by filter
+	 *
+	 * @param targetRa
+	 * @param targetDec
+	 * @return the mean years by filter
+	 */
+	public Map<String, Double> getEpochs(double targetRa, double targetDec) {
+		return getImages(targetRa, targetDec, "warp").stream().collect(Collectors.groupingBy(image -> image.filter,
+				Collectors.averagingInt(image -> convertMJDToDate(toDouble(image.mjd)).get(ChronoField.YEAR))));
+	}
+
+	private List<Ps1Image> getImages(double targetRa, double targetDec, String type) {
+		String url = "%s?RA=%f&DEC=%f&filters=grizy&type=%s&sep=comma".formatted(BASE_URL, targetRa, targetDec, type);
+		CompletableFuture<List<Ps1Image>> request;
+		boolean newRequest = false;
+		synchronized (images) {
+			request = images.get(url);
+			if (request == null) {
+				request = new CompletableFuture<>();
+				images.put(url, request);
+				newRequest = true;
+			}
+		}
+		if (newRequest) {
+			try {
+				List<Ps1Image> result = readImages(url);
+				if (result.isEmpty()) {
+					// No coverage or the service is not available, asked again next time
+					synchronized (images) {
+						images.remove(url, request);
+					}
+				}
+				request.complete(result);
+			} catch (RuntimeException ex) {
+				// Not kept, so that the next caller tries again
+				synchronized (images) {
+					images.remove(url, request);
+				}
+				request.completeExceptionally(ex);
+			}
+		}
+		try {
+			return request.join();
+		} catch (CompletionException ex) {
+			throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+		}
+	}
+
+	private static List<Ps1Image> readImages(String url) {
+		String response = readResponse(url, SERVICE_PROVIDER);
+		List<Ps1Image> images = new ArrayList<>();
+		if (response.isEmpty()) {
+			return images;
+		}
+		try (Scanner scanner = new Scanner(response)) {
+			String[] columnNames = scanner.nextLine().split(SPLIT_CHAR);
+			int filter = 0;
+			int fileName = 0;
+			int mjd = 0;
+			for (int i = 0; i < columnNames.length; i++) {
+				switch (columnNames[i]) {
+				case "filter" -> filter = i;
+				case "filename" -> fileName = i;
+				case "mjd" -> mjd = i;
+				}
+			}
+			while (scanner.hasNextLine()) {
+				String[] columnValues = scanner.nextLine().split(SPLIT_CHAR);
+				images.add(new Ps1Image(columnValues[filter], columnValues[fileName], columnValues[mjd]));
+			}
+		}
+		return images;
+	}
+
+	private static class Ps1Image {
+
+		private final String filter;
+
+		private final String fileName;
+
+		private final String mjd;
+
+		private Ps1Image(String filter, String fileName, String mjd) {
+			this.filter = filter;
+			this.fileName = fileName;
+			this.mjd = mjd;
+		}
+
+	}
+
+}
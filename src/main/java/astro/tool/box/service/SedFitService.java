@@ -0,0 +1,197 @@
+package astro.tool.box.service;
+
+import static astro.tool.box.function.StatisticFunctions.determineMedian;
+import static java.lang.Math.abs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import astro.tool.box.container.SedBestMatch;
+import astro.tool.box.enumeration.Band;
+
+/**
+ * Best matching SED templates of an object's photometry.
+ *
+ * The template magnitudes are kept as a matrix of primitive values, one column
+ * per band and one row per template, with NaN for missing magnitudes. A
+ * template is scored in a single pass over the bands with photometry: the
+ * median difference between the object and the template magnitudes, and the
+ * mean deviation from that median. Templates matching fewer than four bands,
+ * or with more than two bands deviating by 0.3 mag or more, are rejected.
+ *
+ * The matrix is never modified after construction, so the service can be
+ * shared between threads.
+ */
+public class SedFitService {
+
+	private static final int MIN_BANDS = 4;
+
+	private static final int MAX_OUTLIERS = 2;
+
+	private static final double MAX_DEVIATION = 0.3;
+
+	private final List<String> templateNames;
+
+	// Template magnitudes by band (ordinal) and template
+	private final double[][] magnitudes;
+
+	/**
+	 * @param templateNames
+	 * @param templateMagnitudes (in the order of the names, 0 for missing
+	 *                           magnitudes)
+	 */
+	public SedFitService(List<String> templateNames, List<Map<Band, Double>> templateMagnitudes) {
+		this.templateNames = List.copyOf(templateNames);
+		magnitudes = new double[Band.values().length][templateNames.size()];
+		for (Band band : Band.values()) {
+			double[] column = magnitudes[band.ordinal()];
+			for (int i = 0; i < column.length; i++) {
+				Double magnitude = templateMagnitudes.get(i).get(band);
+				column[i] = magnitude == null || magnitude == 0 ? Double.NaN : magnitude;
+			}
+		}
+	}
+
+	public List<String> getTemplateNames() {
+		return templateNames;
+	}
+
+	/**
+	 * Find the best matching templates
+	 *
+	 * @param photometry (0 or no value for missing magnitudes)
+	 * @param bands      (the bands to compare)
+	 * @param maxMatches
+	 * @return up to the given number of matches, sorted by the mean deviation
+	 *         (ties in template order)
+	 */
+	public List<SedBestMatch> findBestMatches(Map<Band, Double> photometry, List<Band> bands, int maxMatches) {
+		ObjectMagnitudes object = new ObjectMagnitudes(photometry, bands);
+		int size = object.size;
+		double[] diffMags = new double[size];
+		double[] correctedDiffMags = new double[size];
+		int[] matchTemplates = new int[maxMatches];
+		double[] matchMedians = new double[maxMatches];
+		double[] matchMeans = new double[maxMatches];
+		int matches = 0;
+		for (int template = 0; template < templateNames.size(); template++) {
+			int totalMags = object.collectDiffMags(template, diffMags);
+			if (totalMags < MIN_BANDS) {
+				continue;
+			}
+			Arrays.sort(diffMags, 0, totalMags);
+			double medianDiffMag = determineMedian(diffMags, totalMags);
+			int selectedMags = 0;
+			for (int j = 0; j < totalMags; j++) {
+				correctedDiffMags[j] = abs(diffMags[j] - medianDiffMag);
+				if (correctedDiffMags[j] < MAX_DEVIATION) {
+					selectedMags++;
+				}
+			}
+			if (selectedMags < totalMags - MAX_OUTLIERS) {
+				continue;
+			}
+			double meanDiffMag = Arrays.stream(correctedDiffMags, 0, totalMags).average().getAsDouble();
+
+			// Insert after the matches with an equal or lower mean deviation
+			int position = matches;
+			while (position > 0 && Double.compare(matchMeans[position - 1], meanDiffMag) > 0) {
+				position--;
+			}
+			if (position == maxMatches) {
+				continue;
+			}
+			int last = Math.min(matches, maxMatches - 1);
+			for (int j = last; j > position; j--) {
+				matchTemplates[j] = matchTemplates[j - 1];
+				matchMedians[j] = matchMedians[j - 1];
+				matchMeans[j] = matchMeans[j - 1];
+			}
+			matchTemplates[position] = template;
+			matchMedians[position] = medianDiffMag;
+			matchMeans[position] = meanDiffMag;
+			matches = last + 1;
+		}
+		List<SedBestMatch> bestMatches = new ArrayList<>();
+		for (int i = 0; i < matches; i++) {
+			bestMatches.add(new SedBestMatch(templateNames.get(matchTemplates[i]), matchMedians[i], matchMeans[i]));
+		}
+		return bestMatches;
+	}
+
+	/**
+	 * Find the best matching templates of several objects, using all processors
+	 *
+	 * @param photometries (0 or no value for missing magnitudes)
+	 * @param bands        (the bands to compare)
+	 * @param maxMatches   (per object)
+	 * @return the matches of each object, in the order of the objects
+	 */
+	public List<List<SedBestMatch>> findBestMatches(List<Map<Band, Double>> photometries, List<Band> bands,
+			int maxMatches) {
+		return IntStream.range(0, photometries.size()).parallel()
+				.mapToObj(i -> findBestMatches(photometries.get(i), bands, maxMatches)).toList();
+	}
+
+	/**
+	 * Determine the median difference between the object and a template
+	 * magnitudes, without rejecting the template
+	 *
+	 * @param template   (position of the template name)
+	 * @param photometry (0 or no value for missing magnitudes)
+	 * @param bands      (the bands to compare)
+	 * @return the median difference (0 if no band can be compared)
+	 */
+	public double determineMedianDiffMag(int template, Map<Band, Double> photometry, List<Band> bands) {
+		ObjectMagnitudes object = new ObjectMagnitudes(photometry, bands);
+		double[] diffMags = new double[object.size];
+		int totalMags = object.collectDiffMags(template, diffMags);
+		Arrays.sort(diffMags, 0, totalMags);
+		return determineMedian(diffMags, totalMags);
+	}
+
+	/**
+	 * The object magnitudes of the bands to compare, with the matching template
+	 * columns
+	 */
+	private class ObjectMagnitudes {
+
+		private final double[][] columns;
+
+		private final double[] values;
+
+		private int size;
+
+		private ObjectMagnitudes(Map<Band, Double> photometry, List<Band> bands) {
+			columns = new double[bands.size()][];
+			values = new double[bands.size()];
+			for (Band band : bands) {
+				Double magnitude = photometry.get(band);
+				if (magnitude != null && magnitude != 0) {
+					columns[size] = magnitudes[band.ordinal()];
+					values[size] = magnitude;
+					size++;
+				}
+			}
+		}
+
+		/**
+		 * @return the number of differences (bands with a template magnitude)
+		 */
+		private int collectDiffMags(int template, double[] diffMags) {
+			int count = 0;
+			for (int j = 0; j < size; j++) {
+				double templateMagnitude = columns[j][template];
+				if (!Double.isNaN(templateMagnitude)) {
+					diffMags[count++] = values[j] - templateMagnitude;
+				}
+			}
+			return count;
+		}
+
+	}
+
+}
@@ -7,7 +7,6 @@ import static astro.tool.box.util.Constants.VIZIER_TAP_URL;
 import static astro.tool.box.util.MiscUtils.addRow;
 import static astro.tool.box.util.MiscUtils.encodeQuery;
 import static astro.tool.box.util.MiscUtils.removeFirstAndLastCharacter;
-import static astro.tool.box.util.ServiceHelper.establishHttpConnection;
 import static astro.tool.box.util.ServiceHelper.getSimbadBaseUrl;
 import static astro.tool.box.util.ServiceHelper.readResponse;
 
@@ -32,7 +31,7 @@ public class SimbadQueryService {
 		addRow(query, "where  i.oidref = b.oid");
 		addRow(query, "and    b.main_id = '" + mainIdentifier + "'");
 		String queryUrl = getSimbadBaseUrl() + encodeQuery(query.toString());
-		String response = readResponse(establishHttpConnection(queryUrl), SERVICE_PROVIDER);
+		String response = readResponse(queryUrl, SERVICE_PROVIDER);
 		try (Scanner scanner = new Scanner(response)) {
 			scanner.nextLine();
 			if (scanner.hasNext()) {
@@ -53,7 +52,7 @@ public class SimbadQueryService {
 		addRow(query, "and    b.main_id = '" + mainIdentifier + "'");
 		addRow(query, "order by bibcode desc");
 		String queryUrl = getSimbadBaseUrl() + encodeQuery(query.toString());
-		String response = readResponse(establishHttpConnection(queryUrl), SERVICE_PROVIDER);
+		String response = readResponse(queryUrl, SERVICE_PROVIDER);
 		List<String[]> references = new ArrayList();
 		try (Scanner scanner = new Scanner(response)) {
 			scanner.nextLine();
@@ -71,7 +70,7 @@ public class SimbadQueryService {
 		addRow(query, "from   ref");
 		addRow(query, "where  oidbib = " + bibRef);
 		String queryUrl = getSimbadBaseUrl() + encodeQuery(query.toString());
-		String response = readResponse(establishHttpConnection(queryUrl), SERVICE_PROVIDER);
+		String response = readResponse(queryUrl, SERVICE_PROVIDER);
 		try (Scanner scanner = new Scanner(response)) {
 			scanner.nextLine();
 			if (scanner.hasNext()) {
@@ -88,7 +87,7 @@ public class SimbadQueryService {
 		addRow(query, "where  oidbibref = " + bibRef);
 		addRow(query, "order by pos asc");
 		String queryUrl = getSimbadBaseUrl() + encodeQuery(query.toString());
-		String response = readResponse(establishHttpConnection(queryUrl), SERVICE_PROVIDER);
+		String response = readResponse(queryUrl, SERVICE_PROVIDER);
 		List<String[]> authors = new ArrayList();
 		try (Scanner scanner = new Scanner(response)) {
 			scanner.nextLine();
@@ -107,7 +106,7 @@ public class SimbadQueryService {
 		addRow(query, "where  bibcode = '" + bibcode + "'");
 		addRow(query, "order by name asc");
 		String queryUrl = VIZIER_TAP_URL + encodeQuery(query.toString());
-		String response = readResponse(establishHttpConnection(queryUrl), SERVICE_PROVIDER);
+		String response = readResponse(queryUrl, SERVICE_PROVIDER);
 		List<String> catalogs = new ArrayList();
 		try (Scanner scanner = new Scanner(response)) {
 			scanner.nextLine();
@@ -239,7 +238,7 @@ public class SimbadQueryService {
 
 	private List<String[]> executeQuery(String query) throws IOException {
 		String queryUrl = getSimbadBaseUrl() + encodeQuery(query);
-		String response = readResponse(establishHttpConnection(queryUrl), SERVICE_PROVIDER);
+		String response = readResponse(queryUrl, SERVICE_PROVIDER);
 		List<String[]> results = new ArrayList();
 		try (Scanner scanner = new Scanner(response)) {
 			scanner.nextLine();
@@ -4,42 +4,206 @@ import static astro.tool.box.function.PhotometricFunctions.evaluateSpectralType;
 import static astro.tool.box.util.MiscUtils.SPECTRAL_TYPES;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import astro.tool.box.enumeration.Color;
 import astro.tool.box.lookup.LookupResult;
 import astro.tool.box.lookup.SpectralTypeLookup;
 
+/**
+ * Spectral type lookup by colors.
+ *
+ * Each pair of adjacent lookup table entries spans a color interval, whose
+ * lower half matches the entry with the lower color value and whose upper half
+ * matches the entry with the higher color value (see
+ * {@link astro.tool.box.function.PhotometricFunctions#evaluateSpectralType}).
+ * The intervals are indexed per color when the service is created, so that a
+ * color value is only evaluated against the intervals containing it, found by
+ * binary search.
+ */
 public class SpectralTypeLookupService {
 
 	private final List<SpectralTypeLookup> entries;
 
+	// Numeric spectral types by spectral type
+	private final Map<String, Double> sptNums = new HashMap<>();
+
+	private final Map<Color, ColorIndex> colorIndexes = new EnumMap<>(Color.class);
+
 	public SpectralTypeLookupService(List<SpectralTypeLookup> entries) {
 		this.entries = entries;
+		for (SpectralTypeLookup entry : entries) {
+			sptNums.put(entry.getSpt(), SPECTRAL_TYPES.get(entry.getSpt().replace("V", "")));
+		}
+		for (Color color : Color.values()) {
+			ColorIndex colorIndex = new ColorIndex(entries, color);
+			if (colorIndex.size() > 0) {
+				colorIndexes.put(color, colorIndex);
+			}
+		}
 	}
 
 	public List<LookupResult> lookup(Map<Color, Double> colors) {
-		List<LookupResult> results = new ArrayList<>();
-		SpectralTypeLookup minEntry = entries.get(0);
-		for (SpectralTypeLookup maxEntry : entries) {
-			for (Entry<Color, Double> color : colors.entrySet()) {
-				Color colorKey = color.getKey();
-				Double colorValue = color.getValue();
-				LookupResult result = evaluateSpectralType(colorKey, colorValue, minEntry, maxEntry);
+		// Results in table order (interval by interval, color by color), as
+		// duplicates and equal spectral types are resolved in that order
+		List<IndexedResult> results = new ArrayList<>();
+		int colorPosition = 0;
+		for (Entry<Color, Double> color : colors.entrySet()) {
+			ColorIndex colorIndex = colorIndexes.get(color.getKey());
+			if (colorIndex != null) {
+				colorIndex.lookup(color.getKey(), color.getValue(), colorPosition, results);
+			}
+			colorPosition++;
+		}
+		results.sort(Comparator.comparingInt((IndexedResult result) -> result.interval)
+				.thenComparingInt(result -> result.colorPosition));
+		return results.stream().map(result -> result.result).distinct()
+				.sorted(Comparator.comparing(LookupResult::getSptNum)).collect(Collectors.toList());
+	}
+
+	private static class IndexedResult {
+
+		private final int interval;
+
+		private final int colorPosition;
+
+		private final LookupResult result;
+
+		private IndexedResult(int interval, int colorPosition, LookupResult result) {
+			this.interval = interval;
+			this.colorPosition = colorPosition;
+			this.result = result;
+		}
+
+	}
+
+	/**
+	 * Color intervals of one color, spanned by adjacent entries (the first entry
+	 * spans an interval with itself).
+	 *
+	 * The distinct interval bounds split the color axis into points (the bounds)
+	 * and the gaps in between. For each point and gap, the intervals containing
+	 * it are precomputed.
+	 */
+	private class ColorIndex {
+
+		// Lower and upper bound of each interval, with the matching entries
+		private final double[] minValues;
+		private final double[] maxValues;
+		private final int[] minEntries;
+		private final int[] maxEntries;
+
+		// Position of each interval in the table
+		private final int[] intervals;
+
+		// Distinct interval bounds in ascending order
+		private final double[] bounds;
+
+		// Intervals containing a bound, and the gap above it
+		private final int[][] boundIntervals;
+		private final int[][] gapIntervals;
+
+		private ColorIndex(List<SpectralTypeLookup> entries, Color color) {
+			int size = 0;
+			double[] minValues = new double[entries.size()];
+			double[] maxValues = new double[entries.size()];
+			int[] minEntries = new int[entries.size()];
+			int[] maxEntries = new int[entries.size()];
+			int[] intervals = new int[entries.size()];
+			for (int i = 0; i < entries.size(); i++) {
+				int minEntry = Math.max(i - 1, 0);
+				int maxEntry = i;
+				Double minColorValue = entries.get(minEntry).getColors().get(color);
+				Double maxColorValue = entries.get(maxEntry).getColors().get(color);
+				if (minColorValue == null || maxColorValue == null || minColorValue == 0 || maxColorValue == 0
+						|| minColorValue.isNaN() || maxColorValue.isNaN()) {
+					continue;
+				}
+				if (minColorValue > maxColorValue) {
+					double tempColorValue = minColorValue;
+					minColorValue = maxColorValue;
+					maxColorValue = tempColorValue;
+					int tempEntry = minEntry;
+					minEntry = maxEntry;
+					maxEntry = tempEntry;
+				}
+				minValues[size] = minColorValue;
+				maxValues[size] = maxColorValue;
+				minEntries[size] = minEntry;
+				maxEntries[size] = maxEntry;
+				intervals[size] = i;
+				size++;
+			}
+			this.minValues = Arrays.copyOf(minValues, size);
+			this.maxValues = Arrays.copyOf(maxValues, size);
+			this.minEntries = Arrays.copyOf(minEntries, size);
+			this.maxEntries = Arrays.copyOf(maxEntries, size);
+			this.intervals = Arrays.copyOf(intervals, size);
+
+			TreeSet<Double> distinctBounds = new TreeSet<>();
+			for (int k = 0; k < size; k++) {
+				distinctBounds.add(this.minValues[k]);
+				distinctBounds.add(this.maxValues[k]);
+			}
+			bounds = distinctBounds.stream().mapToDouble(Double::doubleValue).toArray();
+			boundIntervals = new int[bounds.length][];
+			gapIntervals = new int[bounds.length][];
+			for (int j = 0; j < bounds.length; j++) {
+				double bound = bounds[j];
+				double nextBound = j + 1 < bounds.length ? bounds[j + 1] : Double.POSITIVE_INFINITY;
+				List<Integer> atBound = new ArrayList<>();
+				List<Integer> inGap = new ArrayList<>();
+				for (int k = 0; k < size; k++) {
+					if (this.minValues[k] <= bound && bound <= this.maxValues[k]) {
+						atBound.add(k);
+					}
+					if (this.minValues[k] <= bound && nextBound <= this.maxValues[k]) {
+						inGap.add(k);
+					}
+				}
+				boundIntervals[j] = atBound.stream().mapToInt(Integer::intValue).toArray();
+				gapIntervals[j] = inGap.stream().mapToInt(Integer::intValue).toArray();
+			}
+		}
+
+		private int size() {
+			return intervals.length;
+		}
+
+		private void lookup(Color color, double colorValue, int colorPosition, List<IndexedResult> results) {
+			if (colorValue == 0 || Double.isNaN(colorValue)) {
+				return;
+			}
+			int j = Arrays.binarySearch(bounds, colorValue);
+			int[] candidates;
+			if (j >= 0) {
+				candidates = boundIntervals[j];
+			} else {
+				// Gap above the greatest bound below the color value
+				int lowerBound = -j - 2;
+				if (lowerBound < 0) {
+					return;
+				}
+				candidates = gapIntervals[lowerBound];
+			}
+			for (int k : candidates) {
+				LookupResult result = evaluateSpectralType(color, colorValue, entries.get(minEntries[k]), minValues[k],
+						entries.get(maxEntries[k]), maxValues[k]);
 				if (result != null) {
-					Double sptNum = SPECTRAL_TYPES.get(result.getSpt().replace("V", ""));
-					result.setSptNum(sptNum);
-					results.add(result);
+					result.setSptNum(sptNums.get(result.getSpt()));
+					results.add(new IndexedResult(intervals[k], colorPosition, result));
 				}
 			}
-			minEntry = maxEntry;
 		}
-		return results.stream().distinct().sorted(Comparator.comparing(LookupResult::getSptNum))
-				.collect(Collectors.toList());
+
 	}
 
 }
@@ -23,7 +23,6 @@ import static astro.tool.box.tab.SettingsTab.setUserSetting;
 import static astro.tool.box.util.Constants.LINE_SEP_TEXT_AREA;
 import static astro.tool.box.util.MiscUtils.encodeQuery;
 import static astro.tool.box.util.MiscUtils.omitQueryComments;
-import static astro.tool.box.util.ServiceHelper.establishHttpConnection;
 import static astro.tool.box.util.ServiceHelper.readResponse;
 
 import java.awt.BorderLayout;
@@ -264,7 +263,7 @@ public class AdqlQueryTab implements Tab {
 				// Validate query
 				if (!TapProvider.NOIRLAB.equals(getTapProvider())) {
 					try {
-						response = readResponse(establishHttpConnection(createValidatorUrl(encodeQuery(query))),
+						response = readResponse(createValidatorUrl(encodeQuery(query)),
 								"Query validator");
 						if (!response.isEmpty()) {
 							JsonElement jelement = JsonParser.parseString(response).getAsJsonObject();
@@ -279,7 +278,7 @@ public class AdqlQueryTab implements Tab {
 								return;
 							}
 						}
-					} catch (JsonSyntaxException | IOException ex) {
+					} catch (JsonSyntaxException ex) {
 					}
 				}
 				// Execute query
@@ -543,7 +542,7 @@ public class AdqlQueryTab implements Tab {
 				String query = "select schema_name, table_name, table_type, description from tap_schema.tables where schema_name != 'mydb' order by table_name";
 				String encodedQuery = query.replaceAll(" +", "%20");
 				try {
-					String result = readResponse(establishHttpConnection(createSynchQueryUrl(encodedQuery)),
+					String result = readResponse(createSynchQueryUrl(encodedQuery),
 							QUERY_SERVICE);
 					if (TapProvider.ESA_GAIA.equals(getTapProvider())) {
 						result = result.replace("\n\"\r\n", "").replace("\n\"", "[br]").replace("\r\n", " ")
@@ -582,8 +581,6 @@ public class AdqlQueryTab implements Tab {
 					});
 
 					baseFrame.setVisible(true);
-				} catch (IOException ex) {
-					showExceptionDialog(baseFrame, ex);
 				} finally {
 					browseButton.setCursor(Cursor.getDefaultCursor());
 				}
@@ -724,7 +721,7 @@ public class AdqlQueryTab implements Tab {
 							+ "' order by column_name";
 					String encodedQuery = query.replaceAll(" +", "%20");
 					try {
-						String result = readResponse(establishHttpConnection(createSynchQueryUrl(encodedQuery)),
+						String result = readResponse(createSynchQueryUrl(encodedQuery),
 								QUERY_SERVICE);
 
 						JPanel catalogColumnPanel = new JPanel();
@@ -756,8 +753,6 @@ public class AdqlQueryTab implements Tab {
 						});
 
 						baseFrame.setVisible(true);
-					} catch (IOException ex) {
-						showExceptionDialog(baseFrame, ex);
 					} finally {
 						resultTable.setCursor(Cursor.getDefaultCursor());
 					}
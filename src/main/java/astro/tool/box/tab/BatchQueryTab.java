@@ -4,17 +4,15 @@ import static astro.tool.box.function.NumericFunctions.isNumeric;
 import static astro.tool.box.function.NumericFunctions.roundTo2DecNZ;
 import static astro.tool.box.function.NumericFunctions.toDouble;
 import static astro.tool.box.function.NumericFunctions.toInteger;
-import static astro.tool.box.function.PhotometricFunctions.isAPossibleAGN;
-import static astro.tool.box.function.PhotometricFunctions.isAPossibleWD;
-import static astro.tool.box.main.ToolboxHelper.AGN_WARNING;
-import static astro.tool.box.main.ToolboxHelper.WD_WARNING;
 import static astro.tool.box.main.ToolboxHelper.alignResultColumns;
 import static astro.tool.box.main.ToolboxHelper.createResultTableSorter;
 import static astro.tool.box.main.ToolboxHelper.getCatalogInstances;
-import static astro.tool.box.main.ToolboxHelper.lookupSpectralTypes;
 import static astro.tool.box.main.ToolboxHelper.resizeColumnWidth;
 import static astro.tool.box.main.ToolboxHelper.showErrorDialog;
 import static astro.tool.box.main.ToolboxHelper.showExceptionDialog;
+import static astro.tool.box.tab.SettingsTab.DEFAULT_TAP_PROVIDER;
+import static astro.tool.box.tab.SettingsTab.TAP_PROVIDER;
+import static astro.tool.box.tab.SettingsTab.getUserSetting;
 import static astro.tool.box.util.Constants.LINE_SEP;
 import static astro.tool.box.util.Constants.SPLIT_CHAR;
 
@@ -24,23 +22,17 @@ import java.awt.Desktop;
 import java.awt.FlowLayout;
 import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -56,22 +48,20 @@ import javax.swing.JTabbedPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
 import javax.swing.border.TitledBorder;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.table.DefaultTableModel;
 
-import astro.tool.box.catalog.AllWiseCatalogEntry;
 import astro.tool.box.catalog.CatalogEntry;
-import astro.tool.box.catalog.SimbadCatalogEntry;
-import astro.tool.box.catalog.WhiteDwarf;
 import astro.tool.box.container.BatchResult;
+import astro.tool.box.container.NumberPair;
 import astro.tool.box.enumeration.AsynchResult;
 import astro.tool.box.enumeration.JColor;
 import astro.tool.box.enumeration.LookupTable;
-import astro.tool.box.lookup.BrownDwarfLookupEntry;
-import astro.tool.box.lookup.SpectralTypeLookup;
-import astro.tool.box.lookup.SpectralTypeLookupEntry;
+import astro.tool.box.service.BatchQueryService;
 import astro.tool.box.service.CatalogQueryService;
+import astro.tool.box.service.LookupTableRegistry;
 import astro.tool.box.service.SpectralTypeLookupService;
 import astro.tool.box.util.FileTypeFilter;
 
@@ -80,6 +70,7 @@ public class BatchQueryTab implements Tab {
 	public static final String TAB_NAME = "Batch Search";
 	private static final int MAX_SEARCH_RADIUS = 10;
 	private static final int MAX_INPUT_ROWS = 50000;
+	private static final String CHECKPOINT_FILE_EXTENSION = ".checkpoint";
 
 	private final JFrame baseFrame;
 	private final JTabbedPane tabbedPane;
@@ -90,6 +81,7 @@ public class BatchQueryTab implements Tab {
 	private JPanel centerPanel;
 	private JTextField echoField;
 	private JCheckBox includeColors;
+	private JCheckBox useTapUpload;
 	private JComboBox lookupTables;
 	private JProgressBar progressBar;
 	private JButton cancelButton;
@@ -104,7 +96,7 @@ public class BatchQueryTab implements Tab {
 	private final Map<String, CatalogEntry> catalogInstances;
 
 	private boolean isProcessing;
-	private boolean toCancel;
+	private volatile boolean toCancel;
 
 	private int raColumnIndex;
 	private int decColumnIndex;
@@ -184,6 +176,14 @@ public class BatchQueryTab implements Tab {
 			lookupTables = new JComboBox(new LookupTable[] { LookupTable.MAIN_SEQUENCE, LookupTable.MLT_DWARFS });
 			centerRow.add(lookupTables);
 
+			centerRow.add(new JLabel("TAP upload:"));
+
+			useTapUpload = new JCheckBox();
+			useTapUpload.setToolTipText("Crossmatch VizieR and Gaia archive catalogs with all objects at once"
+					+ " instead of one query per object (chunks the TAP service fails or truncates"
+					+ " are queried per object)");
+			centerRow.add(useTapUpload);
+
 			JButton queryButton = new JButton("Start query");
 			centerRow.add(queryButton);
 			queryButton.addActionListener((ActionEvent evt) -> {
@@ -343,38 +343,15 @@ public class BatchQueryTab implements Tab {
 		echoField.setBackground(JColor.LIGHT_BLUE.val);
 		CompletableFuture<AsynchResult> future = new CompletableFuture();
 		batchResults = new ArrayList<>();
-		int rowNumber = 1;
-		int objectNumber = 1;
 
 		LookupTable selectedTable = (LookupTable) lookupTables.getSelectedItem();
 		switch (selectedTable) {
-		case MAIN_SEQUENCE -> {
-			try (InputStream input = getClass().getResourceAsStream("/SpectralTypeLookupTable.csv")) {
-				Stream<String> stream = new BufferedReader(new InputStreamReader(input)).lines();
-				List<SpectralTypeLookup> entries = stream.skip(1).map(line -> {
-					return new SpectralTypeLookupEntry(line.split(",", -1));
-				}).collect(Collectors.toList());
-				spectralTypeLookupService = new SpectralTypeLookupService(entries);
-			} catch (IOException e) {
-				showExceptionDialog(baseFrame, e);
-				throw new RuntimeException(e);
-			}
-		}
-		case MLT_DWARFS -> {
-			try (InputStream input = getClass().getResourceAsStream("/BrownDwarfLookupTable.csv")) {
-				Stream<String> stream = new BufferedReader(new InputStreamReader(input)).lines();
-				List<SpectralTypeLookup> entries = stream.skip(1).map(line -> {
-					return new BrownDwarfLookupEntry(line.split(",", -1));
-				}).collect(Collectors.toList());
-				spectralTypeLookupService = new SpectralTypeLookupService(entries);
-			} catch (IOException e) {
-				showExceptionDialog(baseFrame, e);
-				throw new RuntimeException(e);
-			}
-		}
+		case MAIN_SEQUENCE -> spectralTypeLookupService = LookupTableRegistry.getMainSequenceLookupService();
+		case MLT_DWARFS -> spectralTypeLookupService = LookupTableRegistry.getBrownDwarfLookupService();
 		default -> throw new IllegalArgumentException("Unexpected value: " + selectedTable);
 		}
 
+		List<NumberPair> targets = new ArrayList<>();
 		try (Scanner scanner = new Scanner(file)) {
 			String[] columns = scanner.nextLine().split(SPLIT_CHAR);
 			StringBuilder errors = new StringBuilder();
@@ -393,13 +370,6 @@ public class BatchQueryTab implements Tab {
 				return future;
 			}
 			while (scanner.hasNextLine()) {
-				if (toCancel) {
-					echoField.setText("Query cancelled!");
-					echoField.setBackground(JColor.LIGHT_YELLOW.val);
-					future.complete(AsynchResult.CANCELLED);
-					isProcessing = false;
-					return future;
-				}
 				columns = scanner.nextLine().split(",", -1);
 				String raValue = columns[raColumnIndex];
 				String decValue = columns[decColumnIndex];
@@ -407,73 +377,68 @@ public class BatchQueryTab implements Tab {
 					handleError(future, "RA and dec must be numeric!");
 					return future;
 				}
-				double targetRa = toDouble(raValue);
-				double targetDec = toDouble(decValue);
-				int resultCount = 0;
-				Iterator<String> iter = selectedCatalogs.listIterator();
-				while (iter.hasNext()) {
-					CatalogEntry catalogEntry = catalogInstances.get(iter.next());
-					catalogEntry.setRa(targetRa);
-					catalogEntry.setDec(targetDec);
-					catalogEntry.setSearchRadius(searchRadius);
-					catalogEntry = performQuery(catalogEntry);
-					if (catalogEntry == null) {
-						continue;
-					}
-					List<String> spectralTypes = lookupSpectralTypes(catalogEntry.getColors(true),
-							spectralTypeLookupService, includeColors.isSelected());
-					if (catalogEntry instanceof SimbadCatalogEntry simbadEntry) {
-						StringBuilder simbadType = new StringBuilder();
-						simbadType.append(simbadEntry.getObjectType());
-						if (!simbadEntry.getSpectralType().isEmpty()) {
-							simbadType.append(" ").append(simbadEntry.getSpectralType());
-						}
-						simbadType.append("; ");
-						spectralTypes.add(0, simbadType.toString());
-					}
-					if (catalogEntry instanceof AllWiseCatalogEntry entry) {
-						if (isAPossibleAGN(entry.getW1_W2(), entry.getW2_W3())) {
-							spectralTypes.add(AGN_WARNING);
-						}
-					}
-					if (catalogEntry instanceof WhiteDwarf entry) {
-						if (isAPossibleWD(entry.getAbsoluteGmag(), entry.getBP_RP())) {
-							spectralTypes.add(WD_WARNING);
-						}
-					}
-					BatchResult batchResult = new BatchResult.Builder().setRowNumber(rowNumber)
-							.setObjectNumber(objectNumber).setCatalogName(catalogEntry.getCatalogName())
-							.setTargetRa(targetRa).setTargetDec(targetDec)
-							.setTargetDistance(catalogEntry.getTargetDistance()).setRa(catalogEntry.getRa())
-							.setDec(catalogEntry.getDec()).setSourceId(catalogEntry.getSourceId() + " ")
-							.setPlx(catalogEntry.getPlx()).setPmra(catalogEntry.getPmra())
-							.setPmdec(catalogEntry.getPmdec()).setMagnitudes(catalogEntry.getMagnitudes())
-							.setSpectralTypes(spectralTypes).build();
-					batchResults.add(batchResult);
-					resultCount++;
-					rowNumber++;
-				}
-				if (resultCount == 0) {
-					batchResults.add(new BatchResult(rowNumber, objectNumber, targetRa, targetDec));
-					rowNumber++;
-				}
-				// batchResults.add(new BatchResult(rowNumber, 0, 0, 0));
-				// rowNumber++;
-				progressBar.setValue(++objectNumber);
-
+				targets.add(new NumberPair(toDouble(raValue), toDouble(decValue)));
 			}
 		} catch (Exception ex) {
 			handleError(future, ex.toString());
 			return future;
 		}
 
-		displayQueryResults();
+		// Catalogs are queried concurrently; completed queries are checkpointed to
+		// a file next to the input file, so that an interrupted batch can be resumed
+		boolean withColors = includeColors.isSelected();
+		BatchQueryService batchQueryService = new BatchQueryService(catalogQueryService, spectralTypeLookupService,
+				catalogInstances, selectedCatalogs, searchRadius, withColors, useTapUpload.isSelected());
+		File checkpointFile = new File(file.getPath() + CHECKPOINT_FILE_EXTENSION);
+		String checkpointSignature = String.join("|", file.getAbsolutePath(), String.valueOf(file.lastModified()),
+				String.valueOf(raColumnIndex), String.valueOf(decColumnIndex), String.valueOf(searchRadius),
+				selectedTable.name(), String.valueOf(withColors), String.join(SPLIT_CHAR, selectedCatalogs),
+				getUserSetting(TAP_PROVIDER, DEFAULT_TAP_PROVIDER));
+		SwingUtilities.invokeLater(() -> {
+			progressBar.setMaximum(targets.size());
+		});
+		AsynchResult result;
+		try {
+			result = batchQueryService.queryCatalogs(targets, checkpointFile, checkpointSignature, () -> toCancel,
+					completedRows -> {
+						SwingUtilities.invokeLater(() -> {
+							progressBar.setValue(completedRows);
+							progressBar.setString(batchQueryService.getThroughput());
+							progressBar.setToolTipText(batchQueryService.getQueryLatencies());
+						});
+					});
+		} catch (Exception ex) {
+			handleError(future, ex.toString());
+			return future;
+		}
+
+		if (AsynchResult.CANCELLED.equals(result)) {
+			echoField.setText("Query cancelled! Restart the query to resume it.");
+			echoField.setBackground(JColor.LIGHT_YELLOW.val);
+			future.complete(AsynchResult.CANCELLED);
+			isProcessing = false;
+			return future;
+		}
 
-		echoField.setText("Query completed successfully!");
-		echoField.setBackground(JColor.LIGHT_GREEN.val);
+		batchResults = batchQueryService.getBatchResults();
+		if (!batchResults.isEmpty()) {
+			SwingUtilities.invokeLater(() -> {
+				displayQueryResults();
+				baseFrame.setVisible(true);
+			});
+		}
+
+		String latencies = "Mean query time: " + batchQueryService.getQueryLatencies();
+		int failedQueries = batchQueryService.getFailedQueries();
+		if (failedQueries > 0) {
+			echoField.setText("Failed queries: " + failedQueries + ". Restart the query to retry them. " + latencies);
+			echoField.setBackground(JColor.LIGHT_YELLOW.val);
+		} else {
+			echoField.setText("Query completed successfully! " + latencies);
+			echoField.setBackground(JColor.LIGHT_GREEN.val);
+		}
 		future.complete(AsynchResult.SUCCESS);
 
-		baseFrame.setVisible(true);
 		isProcessing = false;
 		return future;
 	}
@@ -485,19 +450,6 @@ public class BatchQueryTab implements Tab {
 		isProcessing = false;
 	}
 
-	private CatalogEntry performQuery(CatalogEntry catalogQuery) throws IOException {
-		List<CatalogEntry> catalogEntries = catalogQueryService.getCatalogEntriesByCoords(catalogQuery);
-		catalogEntries.forEach(catalogEntry -> {
-			catalogEntry.setTargetRa(catalogQuery.getRa());
-			catalogEntry.setTargetDec(catalogQuery.getDec());
-		});
-		if (!catalogEntries.isEmpty()) {
-			catalogEntries.sort(Comparator.comparingDouble(CatalogEntry::getTargetDistance));
-			return catalogEntries.get(0);
-		}
-		return null;
-	}
-
 	private void displayQueryResults() {
 		List<Object[]> list = new ArrayList<>();
 		batchResults.forEach(entry -> {
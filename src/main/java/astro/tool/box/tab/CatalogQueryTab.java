@@ -36,6 +36,7 @@ import static astro.tool.box.main.ToolboxHelper.showErrorDialog;
 import static astro.tool.box.main.ToolboxHelper.showExceptionDialog;
 import static astro.tool.box.main.ToolboxHelper.writeErrorLog;
 import static astro.tool.box.util.Constants.LINE_SEP;
+import static astro.tool.box.util.ThreadPools.createFixedThreadPool;
 
 import java.awt.BorderLayout;
 import java.awt.Color;
@@ -48,19 +49,21 @@ import java.awt.HeadlessException;
 import java.awt.event.ActionEvent;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
@@ -76,6 +79,7 @@ import javax.swing.JTabbedPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 import javax.swing.WindowConstants;
 import javax.swing.border.LineBorder;
@@ -96,11 +100,9 @@ import astro.tool.box.container.NumberPair;
 import astro.tool.box.enumeration.JColor;
 import astro.tool.box.enumeration.ObjectType;
 import astro.tool.box.exception.ExtinctionException;
-import astro.tool.box.lookup.BrownDwarfLookupEntry;
 import astro.tool.box.lookup.DistanceLookupResult;
 import astro.tool.box.lookup.LookupResult;
 import astro.tool.box.lookup.SpectralTypeLookup;
-import astro.tool.box.lookup.SpectralTypeLookupEntry;
 import astro.tool.box.panel.GaiaCmdPanel;
 import astro.tool.box.panel.ReferencesPanel;
 import astro.tool.box.panel.SedUcdPanel;
@@ -110,6 +112,7 @@ import astro.tool.box.panel.WiseLcPanel;
 import astro.tool.box.service.CatalogQueryService;
 import astro.tool.box.service.DistanceLookupService;
 import astro.tool.box.service.DustExtinctionService;
+import astro.tool.box.service.LookupTableRegistry;
 import astro.tool.box.service.SpectralTypeLookupService;
 
 public class CatalogQueryTab implements Tab {
@@ -118,6 +121,12 @@ public class CatalogQueryTab implements Tab {
 
 	private static final int BOTTOM_PANEL_HEIGHT = 375;
 
+	private static final int QUERY_THREADS = 8;
+
+	private static final int QUERY_TIMEOUT = 60; // seconds
+
+	private static final ExecutorService QUERY_EXECUTOR = createFixedThreadPool("catalog-query", QUERY_THREADS);
+
 	private final JFrame baseFrame;
 	private final JTabbedPane tabbedPane;
 
@@ -143,6 +152,8 @@ public class CatalogQueryTab implements Tab {
 
 	private CatalogEntry selectedEntry;
 
+	private final AtomicInteger searchCounter = new AtomicInteger();
+
 	private double targetRa;
 	private double targetDec;
 	private double searchRadius;
@@ -155,27 +166,10 @@ public class CatalogQueryTab implements Tab {
 		catalogInstances = getCatalogInstances();
 		catalogQueryService = new CatalogQueryService();
 		dustExtinctionService = new DustExtinctionService();
-		try (InputStream input = getClass().getResourceAsStream("/SpectralTypeLookupTable.csv")) {
-			Stream<String> stream = new BufferedReader(new InputStreamReader(input)).lines();
-			List<SpectralTypeLookup> entries = stream.skip(1).map(line -> {
-				return new SpectralTypeLookupEntry(line.split(",", -1));
-			}).collect(Collectors.toList());
-			mainSequenceSpectralTypeLookupService = new SpectralTypeLookupService(entries);
-		} catch (IOException e) {
-			showExceptionDialog(baseFrame, e);
-			throw new RuntimeException(e);
-		}
-		try (InputStream input = getClass().getResourceAsStream("/BrownDwarfLookupTable.csv");) {
-			Stream<String> stream = new BufferedReader(new InputStreamReader(input)).lines();
-			brownDwarfLookupEntries = stream.skip(1).map(line -> {
-				return new BrownDwarfLookupEntry(line.split(",", -1));
-			}).collect(Collectors.toList());
-			brownDwarfsSpectralTypeLookupService = new SpectralTypeLookupService(brownDwarfLookupEntries);
-			distanceLookupService = new DistanceLookupService(brownDwarfLookupEntries);
-		} catch (IOException e) {
-			showExceptionDialog(baseFrame, e);
-			throw new RuntimeException(e);
-		}
+		mainSequenceSpectralTypeLookupService = LookupTableRegistry.getMainSequenceLookupService();
+		brownDwarfLookupEntries = LookupTableRegistry.getBrownDwarfEntries();
+		brownDwarfsSpectralTypeLookupService = LookupTableRegistry.getBrownDwarfLookupService();
+		distanceLookupService = LookupTableRegistry.getDistanceLookupService();
 	}
 
 	@Override
@@ -311,43 +305,72 @@ public class CatalogQueryTab implements Tab {
 				removeAndRecreateCenterPanel();
 				removeAndRecreateBottomPanel();
 
-				CompletableFuture.supplyAsync(() -> {
-					baseFrame.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-					coordsField.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-					radiusField.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-					try {
-						int count = 0;
-						StringBuilder resultsPerCatalog = new StringBuilder();
-						Iterator<String> iter = selectedCatalogs.listIterator();
-						while (iter.hasNext()) {
-							CatalogEntry catalogQuery = catalogInstances.get(iter.next());
-							catalogQuery.setRa(targetRa);
-							catalogQuery.setDec(targetDec);
-							catalogQuery.setSearchRadius(searchRadius);
-							int results = queryCatalog(catalogQuery);
-							count += results;
-							resultsPerCatalog.append(catalogQuery.getCatalogName()).append(": ").append(results);
-							if (iter.hasNext()) {
-								resultsPerCatalog.append("; ");
+				int searchId = searchCounter.incrementAndGet();
+				baseFrame.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+				coordsField.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+				radiusField.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+				// Query all selected catalogs concurrently, each catalog's results are
+				// displayed as soon as they arrive
+				Map<String, CatalogEntry> catalogQueries = getCatalogInstances();
+				Map<String, String> resultsPerCatalog = new ConcurrentHashMap<>();
+				AtomicInteger count = new AtomicInteger();
+				List<CompletableFuture<Void>> queries = new ArrayList<>();
+				for (String catalogKey : selectedCatalogs) {
+					CatalogEntry catalogQuery = catalogQueries.get(catalogKey);
+					catalogQuery.setRa(targetRa);
+					catalogQuery.setDec(targetDec);
+					catalogQuery.setSearchRadius(searchRadius);
+					CompletableFuture<Void> query = submitQuery(catalogQuery).handle((catalogEntries, error) -> {
+						String result;
+						if (error == null) {
+							count.addAndGet(catalogEntries.size());
+							result = String.valueOf(catalogEntries.size());
+							if (!catalogEntries.isEmpty()) {
+								SwingUtilities.invokeLater(() -> {
+									if (searchId == searchCounter.get()) {
+										displayCatalogResults(catalogEntries);
+										baseFrame.setVisible(true);
+									}
+								});
+							}
+						} else {
+							Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+							if (cause instanceof TimeoutException) {
+								result = "timed out";
+							} else {
+								writeErrorLog(cause instanceof Exception ex ? ex : new Exception(cause));
+								result = "failed";
 							}
 						}
+						resultsPerCatalog.put(catalogKey, result);
+						return null;
+					});
+					queries.add(query);
+				}
+
+				CompletableFuture.allOf(queries.toArray(CompletableFuture<?>[]::new)).whenComplete((result, error) -> {
+					SwingUtilities.invokeLater(() -> {
+						if (searchId != searchCounter.get()) {
+							return;
+						}
 						String searchLabelText = "RA=" + targetRa + "° dec=" + targetDec + "° radius=" + searchRadius
 								+ " arcsec";
-						if (count > 0) {
-							searchLabel.setText(
-									count + " result(s) for " + searchLabelText + " (" + resultsPerCatalog + ")");
+						String resultText = selectedCatalogs.stream()
+								.map(catalogKey -> catalogQueries.get(catalogKey).getCatalogName() + ": "
+										+ resultsPerCatalog.get(catalogKey))
+								.collect(Collectors.joining("; "));
+						if (count.get() > 0) {
+							searchLabel
+									.setText(count.get() + " result(s) for " + searchLabelText + " (" + resultText + ")");
 						} else {
 							searchLabel.setText("No results for " + searchLabelText);
 						}
 						baseFrame.setVisible(true);
-					} catch (IOException ex) {
-						showExceptionDialog(baseFrame, ex);
-					} finally {
 						baseFrame.setCursor(Cursor.getDefaultCursor());
 						coordsField.setCursor(Cursor.getPredefinedCursor(Cursor.TEXT_CURSOR));
 						radiusField.setCursor(Cursor.getPredefinedCursor(Cursor.TEXT_CURSOR));
-					}
-					return null;
+					});
 				});
 			}
 		} catch (Exception ex) {
@@ -355,18 +378,42 @@ public class CatalogQueryTab implements Tab {
 		}
 	}
 
-	private int queryCatalog(CatalogEntry catalogQuery) throws IOException {
-		List<CatalogEntry> catalogEntries = catalogQueryService.getCatalogEntriesByCoords(catalogQuery);
-		catalogEntries.forEach(catalogEntry -> {
-			catalogEntry.setTargetRa(catalogQuery.getRa());
-			catalogEntry.setTargetDec(catalogQuery.getDec());
-			catalogEntry.loadCatalogElements();
+	/**
+	 * Submit a catalog query, timed out after {@link #QUERY_TIMEOUT} seconds from
+	 * the start of the query (not while it is queued). A timed out query is
+	 * interrupted, which aborts its HTTP request and frees the pool thread.
+	 */
+	private CompletableFuture<List<CatalogEntry>> submitQuery(CatalogEntry catalogQuery) {
+		CompletableFuture<List<CatalogEntry>> query = new CompletableFuture<>();
+		Future<?> task = QUERY_EXECUTOR.submit(() -> {
+			query.orTimeout(QUERY_TIMEOUT, TimeUnit.SECONDS);
+			try {
+				query.complete(queryCatalog(catalogQuery));
+			} catch (Exception ex) {
+				query.completeExceptionally(ex);
+			}
 		});
-		if (!catalogEntries.isEmpty()) {
-			displayCatalogResults(catalogEntries);
-			baseFrame.setVisible(true);
+		query.exceptionally(error -> {
+			if (error instanceof TimeoutException) {
+				task.cancel(true);
+			}
+			return null;
+		});
+		return query;
+	}
+
+	private List<CatalogEntry> queryCatalog(CatalogEntry catalogQuery) {
+		try {
+			List<CatalogEntry> catalogEntries = catalogQueryService.queryCatalogEntriesByCoords(catalogQuery);
+			catalogEntries.forEach(catalogEntry -> {
+				catalogEntry.setTargetRa(catalogQuery.getRa());
+				catalogEntry.setTargetDec(catalogQuery.getDec());
+				catalogEntry.loadCatalogElements();
+			});
+			return catalogEntries;
+		} catch (IOException ex) {
+			throw new CompletionException(ex);
 		}
-		return catalogEntries.size();
 	}
 
 	private void displayCatalogResults(List<CatalogEntry> catalogEntries) {
@@ -15,7 +15,9 @@ import static astro.tool.box.function.NumericFunctions.toDouble;
 import static astro.tool.box.function.NumericFunctions.toInteger;
 import static astro.tool.box.function.PhotometricFunctions.isAPossibleAGN;
 import static astro.tool.box.function.PhotometricFunctions.isAPossibleWD;
-import static astro.tool.box.function.StatisticFunctions.determineMedian;
+import static astro.tool.box.function.StatisticFunctions.calculateMean;
+import static astro.tool.box.function.StatisticFunctions.collectFiniteValues;
+import static astro.tool.box.function.StatisticFunctions.selectValues;
 import static astro.tool.box.main.ToolboxHelper.AGN_WARNING;
 import static astro.tool.box.main.ToolboxHelper.BASE_FRAME_HEIGHT;
 import static astro.tool.box.main.ToolboxHelper.BASE_FRAME_WIDTH;
@@ -109,7 +111,7 @@ import static astro.tool.box.util.ExternalResources.getVizierUrl;
 import static astro.tool.box.util.ExternalResources.getWiseViewUrl;
 import static astro.tool.box.util.MiscUtils.encodeQuery;
 import static astro.tool.box.util.ServiceHelper.createVizieRUrl;
-import static astro.tool.box.util.ServiceHelper.establishHttpConnection;
+import static astro.tool.box.util.ServiceHelper.openStream;
 import static astro.tool.box.util.ServiceHelper.readResponse;
 import static java.lang.Math.abs;
 import static java.lang.Math.asin;
@@ -133,7 +135,6 @@ import java.awt.Desktop;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Graphics;
-import java.awt.Graphics2D;
 import java.awt.GridLayout;
 import java.awt.HeadlessException;
 import java.awt.Image;
@@ -151,17 +152,14 @@ import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.RasterFormatException;
 import java.io.BufferedInputStream;
-import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.LocalDate;
@@ -171,12 +169,24 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Stream;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 import javax.imageio.ImageIO;
 import javax.swing.AbstractAction;
@@ -256,6 +266,7 @@ import astro.tool.box.container.Couple;
 import astro.tool.box.container.CustomOverlay;
 import astro.tool.box.container.Epoch;
 import astro.tool.box.container.FlipbookComponent;
+import astro.tool.box.container.FloatImage;
 import astro.tool.box.container.ImageContainer;
 import astro.tool.box.container.NirImage;
 import astro.tool.box.container.NumberPair;
@@ -267,11 +278,9 @@ import astro.tool.box.enumeration.ObjectType;
 import astro.tool.box.enumeration.Shape;
 import astro.tool.box.enumeration.WiseBand;
 import astro.tool.box.exception.ExtinctionException;
-import astro.tool.box.lookup.BrownDwarfLookupEntry;
 import astro.tool.box.lookup.DistanceLookupResult;
 import astro.tool.box.lookup.LookupResult;
 import astro.tool.box.lookup.SpectralTypeLookup;
-import astro.tool.box.lookup.SpectralTypeLookupEntry;
 import astro.tool.box.main.Application;
 import astro.tool.box.main.ImageSeriesPdf;
 import astro.tool.box.panel.GaiaCmdPanel;
@@ -283,6 +292,7 @@ import astro.tool.box.panel.WiseLcPanel;
 import astro.tool.box.service.CatalogQueryService;
 import astro.tool.box.service.DistanceLookupService;
 import astro.tool.box.service.DustExtinctionService;
+import astro.tool.box.service.LookupTableRegistry;
 import astro.tool.box.service.SpectralTypeLookupService;
 import astro.tool.box.shape.Arrow;
 import astro.tool.box.shape.Circle;
@@ -294,10 +304,14 @@ import astro.tool.box.shape.Drawable;
 import astro.tool.box.shape.Square;
 import astro.tool.box.shape.Triangle;
 import astro.tool.box.shape.XCross;
+import astro.tool.box.util.BoxBlur;
 import astro.tool.box.util.CSVParser;
 import astro.tool.box.util.Counter;
+import astro.tool.box.util.CutoutCache;
 import astro.tool.box.util.FileTypeFilter;
+import astro.tool.box.util.FrameRenderer;
 import astro.tool.box.util.GifSequencer;
+import astro.tool.box.util.ThreadPools;
 import nom.tam.fits.Fits;
 import nom.tam.fits.FitsException;
 import nom.tam.fits.Header;
@@ -317,6 +331,19 @@ public class ImageViewerTab implements Tab {
 	public static final int PANEL_WIDTH = 180;
 	public static final int ROW_HEIGHT = 25;
 	public static final int EPOCH_GAP = 6;
+	public static final int PARALLEL_EPOCH_DOWNLOADS = 8;
+
+	// FITS cutouts on disk, shared by all sessions
+	private static final CutoutCache CUTOUT_CACHE = new CutoutCache();
+
+	// Flipbook frames and their row tiles, kept apart from the common pool, which
+	// runs the catalog requests of the overlays
+	private static final ForkJoinPool FRAME_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+	// Blur buffers of each rendering thread, one per band
+	private static final ThreadLocal<BoxBlur[]> BLUR_KERNELS = ThreadLocal
+			.withInitial(() -> new BoxBlur[] { new BoxBlur(), new BoxBlur() });
+	private static final int BLUR_RADIUS = 1;
 	public static final int SPEED = 200;
 	public static final int ZOOM = 500;
 	public static final int SIZE = 100;
@@ -513,6 +540,7 @@ public class ImageViewerTab implements Tab {
 	private int contrast;
 	private int minValue;
 	private int maxValue;
+	private final AtomicLong frameGeneration = new AtomicLong();
 	private int speed = SPEED;
 	private int zoom = ZOOM;
 	private int size = SIZE;
@@ -546,7 +574,7 @@ public class ImageViewerTab implements Tab {
 	private double previousDec;
 
 	private boolean loadImages;
-	private boolean stopDownloadProcess;
+	private volatile boolean stopDownloadProcess;
 	private boolean flipbookComplete;
 	private boolean imageCutOff;
 	private boolean timerStopped;
@@ -567,27 +595,10 @@ public class ImageViewerTab implements Tab {
 		this.tabbedPane = tabbedPane;
 		catalogQueryService = new CatalogQueryService();
 		dustExtinctionService = new DustExtinctionService();
-		try (InputStream input = getClass().getResourceAsStream("/SpectralTypeLookupTable.csv")) {
-			Stream<String> stream = new BufferedReader(new InputStreamReader(input)).lines();
-			List<SpectralTypeLookup> entries = stream.skip(1).map(line -> {
-				return new SpectralTypeLookupEntry(line.split(",", -1));
-			}).collect(toList());
-			mainSequenceSpectralTypeLookupService = new SpectralTypeLookupService(entries);
-		} catch (IOException e) {
-			showExceptionDialog(baseFrame, e);
-			throw new RuntimeException(e);
-		}
-		try (InputStream input = getClass().getResourceAsStream("/BrownDwarfLookupTable.csv")) {
-			Stream<String> stream = new BufferedReader(new InputStreamReader(input)).lines();
-			brownDwarfLookupEntries = stream.skip(1).map(line -> {
-				return new BrownDwarfLookupEntry(line.split(",", -1));
-			}).collect(toList());
-			brownDwarfsSpectralTypeLookupService = new SpectralTypeLookupService(brownDwarfLookupEntries);
-			distanceLookupService = new DistanceLookupService(brownDwarfLookupEntries);
-		} catch (IOException e) {
-			showExceptionDialog(baseFrame, e);
-			throw new RuntimeException(e);
-		}
+		mainSequenceSpectralTypeLookupService = LookupTableRegistry.getMainSequenceLookupService();
+		brownDwarfLookupEntries = LookupTableRegistry.getBrownDwarfEntries();
+		brownDwarfsSpectralTypeLookupService = LookupTableRegistry.getBrownDwarfLookupService();
+		distanceLookupService = LookupTableRegistry.getDistanceLookupService();
 		overlays = new Overlays();
 		overlays.deserialize(getUserSetting(OVERLAYS_KEY, overlays.serialize()));
 		nearestBywSubjects = Boolean.parseBoolean(getUserSetting(NEAREST_BYW_SUBJECTS, "true"));
@@ -3042,17 +3053,16 @@ public class ImageViewerTab implements Tab {
 					epochsW1.sort(Comparator.comparingInt(Epoch::getEpoch).thenComparingInt(Epoch::getForward));
 					epochsW2.sort(Comparator.comparingInt(Epoch::getEpoch).thenComparingInt(Epoch::getForward));
 				}
+				Map<Integer, List<Epoch>> requestedEpochs = new LinkedHashMap();
 				switch (wiseBand) {
-				case W1 -> downloadRequestedEpochs(null, WiseBand.W1.val, epochsW1, imagesW1);
-				case W2 -> downloadRequestedEpochs(null, WiseBand.W2.val, epochsW2, imagesW2);
+				case W1 -> requestedEpochs.put(WiseBand.W1.val, epochsW1);
+				case W2 -> requestedEpochs.put(WiseBand.W2.val, epochsW2);
 				case W1W2 -> {
-					downloadRequestedEpochs(null, WiseBand.W1.val, epochsW1, imagesW1);
-					if (stopDownloadProcess) {
-						break;
-					}
-					downloadRequestedEpochs(null, WiseBand.W2.val, epochsW2, imagesW2);
+					requestedEpochs.put(WiseBand.W1.val, epochsW1);
+					requestedEpochs.put(WiseBand.W2.val, epochsW2);
 				}
 				}
+				downloadRequestedEpochs(requestedEpochs);
 				if (stopDownloadProcess) {
 					writeLogEntry("Download process stopped.");
 					return false;
@@ -3060,7 +3070,8 @@ public class ImageViewerTab implements Tab {
 					writeLogEntry("Finished.");
 				}
 				if (asyncDownloads) {
-					downloadLog.setCaretPosition(0);
+					// After the queued log entries
+					SwingUtilities.invokeLater(() -> downloadLog.setCaretPosition(0));
 				}
 				if (epochCount < 2) {
 					showInfoDialog(baseFrame, "No images found for the given coordinates.");
@@ -3070,27 +3081,25 @@ public class ImageViewerTab implements Tab {
 			}
 			loadImages = false;
 
-			List<Fits> band1Scan1Images = new ArrayList();
-			List<Fits> band1Scan2Images = new ArrayList();
+			List<FloatImage> band1Scan1Images = new ArrayList();
+			List<FloatImage> band1Scan2Images = new ArrayList();
 			for (Fits fits : band1Images) {
-				ImageHDU hdu = (ImageHDU) fits.getHDU(0);
-				long forward = hdu.getHeader().getLongValue("FORWARD");
-				if (forward == 0) {
-					band1Scan1Images.add(fits);
+				FloatImage image = FloatImage.fromFits(fits);
+				if (image.getForward() == 0) {
+					band1Scan1Images.add(image);
 				} else {
-					band1Scan2Images.add(fits);
+					band1Scan2Images.add(image);
 				}
 			}
 
-			List<Fits> band2Scan1Images = new ArrayList();
-			List<Fits> band2Scan2Images = new ArrayList();
+			List<FloatImage> band2Scan1Images = new ArrayList();
+			List<FloatImage> band2Scan2Images = new ArrayList();
 			for (Fits fits : band2Images) {
-				ImageHDU hdu = (ImageHDU) fits.getHDU(0);
-				long forward = hdu.getHeader().getLongValue("FORWARD");
-				if (forward == 0) {
-					band2Scan1Images.add(fits);
+				FloatImage image = FloatImage.fromFits(fits);
+				if (image.getForward() == 0) {
+					band2Scan1Images.add(image);
 				} else {
-					band2Scan2Images.add(fits);
+					band2Scan2Images.add(image);
 				}
 			}
 
@@ -3106,26 +3115,26 @@ public class ImageViewerTab implements Tab {
 				band2Scan2Images = stackImages(band2Scan2Images, stackSize);
 			}
 
-			List<Fits> band1GroupedImages = new ArrayList();
-			List<Fits> band2GroupedImages = new ArrayList();
+			List<FloatImage> band1GroupedImages = new ArrayList();
+			List<FloatImage> band2GroupedImages = new ArrayList();
 
 			if (sep) {
 				if (diff) {
 					// Band W1 -> Scan ASC
 					for (int i = 0; i < band1Scan1Images.size() - 1; i++) {
-						band1GroupedImages.add(subtractImages(band1Scan1Images.get(0), band1Scan1Images.get(i + 1)));
+						band1GroupedImages.add(band1Scan1Images.get(0).subtract(band1Scan1Images.get(i + 1), naxis1, naxis2));
 					}
 					// Band W1 -> Scan DESC
 					for (int i = 0; i < band1Scan2Images.size() - 1; i++) {
-						band1GroupedImages.add(subtractImages(band1Scan2Images.get(i + 1), band1Scan2Images.get(0)));
+						band1GroupedImages.add(band1Scan2Images.get(i + 1).subtract(band1Scan2Images.get(0), naxis1, naxis2));
 					}
 					// Band W2 -> Scan ASC
 					for (int i = 0; i < band2Scan1Images.size() - 1; i++) {
-						band2GroupedImages.add(subtractImages(band2Scan1Images.get(0), band2Scan1Images.get(i + 1)));
+						band2GroupedImages.add(band2Scan1Images.get(0).subtract(band2Scan1Images.get(i + 1), naxis1, naxis2));
 					}
 					// Band W2 -> Scan DESC
 					for (int i = 0; i < band2Scan2Images.size() - 1; i++) {
-						band2GroupedImages.add(subtractImages(band2Scan2Images.get(i + 1), band2Scan2Images.get(0)));
+						band2GroupedImages.add(band2Scan2Images.get(i + 1).subtract(band2Scan2Images.get(0), naxis1, naxis2));
 					}
 				} else {
 					// Band W1 -> Scan ASC
@@ -3148,11 +3157,11 @@ public class ImageViewerTab implements Tab {
 			} else {
 				// Band W1 -> Scan ASC+DESC
 				for (int i = 0; i < band1Scan1Images.size() && i < band1Scan2Images.size(); i++) {
-					band1GroupedImages.add(addImages(band1Scan1Images.get(i), band1Scan2Images.get(i)));
+					band1GroupedImages.add(band1Scan1Images.get(i).add(band1Scan2Images.get(i), naxis1, naxis2, 1));
 				}
 				// Band W2 -> Scan ASC+DESC
 				for (int i = 0; i < band2Scan1Images.size() && i < band2Scan2Images.size(); i++) {
-					band2GroupedImages.add(addImages(band2Scan1Images.get(i), band2Scan2Images.get(i)));
+					band2GroupedImages.add(band2Scan1Images.get(i).add(band2Scan2Images.get(i), naxis1, naxis2, 1));
 				}
 			}
 
@@ -3169,9 +3178,9 @@ public class ImageViewerTab implements Tab {
 					band = "W1";
 				}
 				for (int i = 0; i < band1GroupedImages.size(); i++) {
-					Fits fits = band1GroupedImages.get(i);
-					flipbook.add(new FlipbookComponent(fits, null, band,
-							desi ? getDataRelease(fits) : getMeanObsDate(fits), isFirstEpoch(fits)));
+					FloatImage image = band1GroupedImages.get(i);
+					flipbook.add(new FlipbookComponent(image, null, band,
+							desi ? image.getSurvey() : formatDate(image.getMjdmean()), image.isFirstEpoch()));
 				}
 			}
 			case W2 -> {
@@ -3183,9 +3192,9 @@ public class ImageViewerTab implements Tab {
 					band = "W2";
 				}
 				for (int i = 0; i < band2GroupedImages.size(); i++) {
-					Fits fits = band2GroupedImages.get(i);
-					flipbook.add(new FlipbookComponent(null, fits, band,
-							desi ? getDataRelease(fits) : getMeanObsDate(fits), isFirstEpoch(fits)));
+					FloatImage image = band2GroupedImages.get(i);
+					flipbook.add(new FlipbookComponent(null, image, band,
+							desi ? image.getSurvey() : formatDate(image.getMjdmean()), image.isFirstEpoch()));
 				}
 			}
 			case W1W2 -> {
@@ -3199,10 +3208,10 @@ public class ImageViewerTab implements Tab {
 				int size1 = band1GroupedImages.size();
 				int size2 = band2GroupedImages.size();
 				for (int i = 0; i < min(size1, size2); i++) {
-					Fits fits1 = band1GroupedImages.get(i);
-					Fits fits2 = band2GroupedImages.get(i);
-					flipbook.add(new FlipbookComponent(fits1, fits2, band,
-							desi ? getDataRelease(fits1) : getMeanObsDate(fits1), isFirstEpoch(fits1)));
+					FloatImage image1 = band1GroupedImages.get(i);
+					FloatImage image2 = band2GroupedImages.get(i);
+					flipbook.add(new FlipbookComponent(image1, image2, band,
+							desi ? image1.getSurvey() : formatDate(image1.getMjdmean()), image1.isFirstEpoch()));
 				}
 			}
 			}
@@ -3256,41 +3265,8 @@ public class ImageViewerTab implements Tab {
 		return result;
 	}
 
-	private boolean isFirstEpoch(Fits fits) throws Exception {
-		ImageHDU hdu = (ImageHDU) fits.getHDU(0);
-		long firstEpoch = hdu.getHeader().getLongValue("FEPOCH");
-		return firstEpoch == 1;
-	}
-
-	private List<Fits> stackImages(List<Fits> images, int stackSize) {
-		if (stackSize < 2) {
-			return images;
-		}
-		try {
-			List<Fits> list = new ArrayList();
-			Fits fits = images.get(0);
-			int j = 1;
-			for (int i = 1; i < images.size(); i++) {
-				if (j < stackSize) {
-					fits = addImages(fits, images.get(i));
-					j++;
-				} else {
-					list.add(average(fits, j));
-					fits = images.get(i);
-					j = 1;
-				}
-			}
-			if (j > 1) {
-				list.add(average(fits, j));
-			}
-			if (list.isEmpty()) {
-				stackSize--;
-				return stackImages(images, stackSize);
-			}
-			return list;
-		} catch (Exception ex) {
-			return images;
-		}
+	private List<FloatImage> stackImages(List<FloatImage> images, int stackSize) {
+		return FloatImage.stack(images, stackSize, naxis1, naxis2);
 	}
 
 	private void enableAll() {
@@ -3311,28 +3287,11 @@ public class ImageViewerTab implements Tab {
 	}
 
 	private NumberPair getRefValues(FlipbookComponent component) throws Exception {
-		Fits fits;
-		fits = component.getFits2();
-		if (fits != null) {
-			ImageHDU hdu = (ImageHDU) fits.getHDU(0);
-			ImageData imageData = hdu.getData();
-			float[][] values = (float[][]) imageData.getData();
-			NumberPair refValues = determineRefValues(values);
-			double minVal = refValues.getX();
-			double maxVal = refValues.getY();
-			return new NumberPair(minVal, maxVal);
-		}
-		fits = component.getFits1();
-		if (fits != null) {
-			ImageHDU hdu = (ImageHDU) fits.getHDU(0);
-			ImageData imageData = hdu.getData();
-			float[][] values = (float[][]) imageData.getData();
-			NumberPair refValues = determineRefValues(values);
-			double minVal = refValues.getX();
-			double maxVal = refValues.getY();
-			return new NumberPair(minVal, maxVal);
+		FloatImage image = component.getImage2() == null ? component.getImage1() : component.getImage2();
+		if (image == null) {
+			return null;
 		}
-		return null;
+		return determineRefValues(image.getValues());
 	}
 
 	private void processImages() {
@@ -3357,12 +3316,53 @@ public class ImageViewerTab implements Tab {
 		if (flipbook.isEmpty() || !flipbookComplete) {
 			return;
 		}
+		List<FlipbookComponent> components = new ArrayList<>(flipbook);
+		int frameCount = components.size();
+		long generation = frameGeneration.incrementAndGet();
+
+		// The frame shown next comes first. Being processed alone, it also starts
+		// the catalog requests of the overlays before frames are drawn concurrently.
+		int nextFrame = Math.floorMod(imageNumber, frameCount);
+		BufferedImage[] images = new BufferedImage[frameCount];
+		images[nextFrame] = FRAME_POOL.submit(() -> processImage(components.get(nextFrame), nextFrame)).join();
 		timer.stop();
-		for (int i = 0; i < flipbook.size(); i++) {
-			FlipbookComponent component = flipbook.get(i);
-			component.setImage(processImage(component, i));
-		}
+		publishFrames(components, images, generation);
 		timer.restart();
+
+		FRAME_POOL.submit(() -> {
+			try {
+				IntStream.range(0, frameCount).parallel().forEach(i -> {
+					if (i != nextFrame && generation == frameGeneration.get()) {
+						images[i] = processImage(components.get(i), i);
+					}
+				});
+				publishFrames(components, images, generation);
+			} catch (Exception ex) {
+				showExceptionDialog(baseFrame, ex);
+			}
+		});
+	}
+
+	/**
+	 * Replace the frames of the flipbook at once on the event dispatch thread,
+	 * unless they have been superseded by a later call of processImages
+	 */
+	private void publishFrames(List<FlipbookComponent> components, BufferedImage[] images, long generation) {
+		Runnable publish = () -> {
+			if (generation != frameGeneration.get()) {
+				return;
+			}
+			for (int i = 0; i < images.length; i++) {
+				if (images[i] != null) {
+					components.get(i).setImage(images[i]);
+				}
+			}
+		};
+		if (SwingUtilities.isEventDispatchThread()) {
+			publish.run();
+		} else {
+			SwingUtilities.invokeLater(publish);
+		}
 	}
 
 	public void initCatalogEntries() {
@@ -3456,14 +3456,27 @@ public class ImageViewerTab implements Tab {
 	}
 
 	public BufferedImage processImage(FlipbookComponent component, int epoch) {
-		BufferedImage image;
-		if (wiseBand.equals(WiseBand.W1W2)) {
-			image = createColorImage(component.getFits1(), component.getFits2());
-		} else {
-			image = createImage(component.getFits1() == null ? component.getFits2() : component.getFits1());
+		// Normalizing and zooming are redone only if their parameters have changed,
+		// overlays are drawn on a copy of the zoomed image
+		String baseImageKey = String.join("|", String.valueOf(minValue), String.valueOf(maxValue),
+				String.valueOf(invertColors.isSelected()), String.valueOf(blurImages.isSelected()), wiseBand.name());
+		String zoomedImageKey = baseImageKey + "|" + zoom;
+		BufferedImage zoomedImage = component.getZoomedImage(zoomedImageKey);
+		if (zoomedImage == null) {
+			BufferedImage baseImage = component.getBaseImage(baseImageKey);
+			if (baseImage == null) {
+				if (wiseBand.equals(WiseBand.W1W2)) {
+					baseImage = createColorImage(component.getImage1(), component.getImage2());
+				} else {
+					baseImage = createImage(
+							component.getImage1() == null ? component.getImage2() : component.getImage1());
+				}
+				component.setBaseImage(baseImageKey, baseImage);
+			}
+			zoomedImage = flipImage(zoomImage(baseImage, zoom));
+			component.setZoomedImage(zoomedImageKey, zoomedImage);
 		}
-		image = zoomImage(image, zoom);
-		image = flipImage(image);
+		BufferedImage image = copyImage(zoomedImage);
 		addOverlaysAndPMVectors(image, epoch);
 		return image;
 	}
@@ -3857,88 +3870,198 @@ public class ImageViewerTab implements Tab {
 		}
 	}
 
-	private void downloadRequestedEpochs(Integer forward, int band, List<Epoch> epochs,
-			Map<String, ImageContainer> images) throws Exception {
-		if (epochs == null) {
-			writeLogEntry("No images found for band " + band + ".");
-			return;
-		}
-		if (desiCutouts.isSelected()) {
-			retrieveDesiImages(band, images);
-		} else if (ps1Cutouts.isSelected()) {
-			retrievePs1Images(band, images);
-		} else {
-			for (Epoch epoch : epochs) {
+	private void downloadRequestedEpochs(Map<Integer, List<Epoch>> requestedEpochs) throws Exception {
+		requestedEpochs.entrySet().removeIf(entry -> {
+			if (entry.getValue() == null) {
+				writeLogEntry("No images found for band " + entry.getKey() + ".");
+				return true;
+			}
+			return false;
+		});
+		if (desiCutouts.isSelected() || ps1Cutouts.isSelected()) {
+			for (int band : requestedEpochs.keySet()) {
 				if (stopDownloadProcess) {
 					return;
 				}
-				int requestedEpoch = epoch.getEpoch();
-				String imageKey = band + "_" + requestedEpoch;
-				ImageContainer container = images.get(imageKey);
-				if (container != null) {
-					writeLogEntry("band " + band + " | epoch " + requestedEpoch + " | cached");
-					continue;
+				if (desiCutouts.isSelected()) {
+					retrieveDesiImages(band, getImages(band));
+				} else {
+					retrievePs1Images(band, getImages(band));
 				}
-				if (unwiseCutouts.isSelected()) {
-					if (requestedEpoch % 2 > 0) {
-						container = images.get(band + "_" + (requestedEpoch - 1));
+			}
+		} else {
+			downloadWiseEpochs(requestedEpochs);
+		}
+		if (stopDownloadProcess) {
+			return;
+		}
+		for (int band : requestedEpochs.keySet()) {
+			addDownloadedImages(band, getImages(band));
+		}
+	}
+
+	/**
+	 * Download the epochs of all requested bands concurrently
+	 *
+	 * Each epoch is logged as soon as it has been downloaded. A failed download
+	 * stops the remaining epochs of its band from being requested, and the epochs
+	 * of its band completed after it are discarded, so that each band keeps the
+	 * epochs before its first failure, as when downloading one epoch after the
+	 * other. Stopping the download process cancels the requests in progress.
+	 *
+	 * @param requestedEpochs (epochs by band)
+	 * @throws Exception
+	 */
+	private void downloadWiseEpochs(Map<Integer, List<Epoch>> requestedEpochs) throws Exception {
+		ExecutorService executor = ThreadPools.createFixedThreadPool("epoch-download", PARALLEL_EPOCH_DOWNLOADS);
+		try {
+			Map<String, CompletableFuture<ImageContainer>> downloads = new LinkedHashMap();
+			for (Entry<Integer, List<Epoch>> entry : requestedEpochs.entrySet()) {
+				int band = entry.getKey();
+				Map<String, ImageContainer> images = getImages(band);
+				AtomicBoolean downloadFailed = new AtomicBoolean();
+				for (Epoch epoch : entry.getValue()) {
+					int requestedEpoch = epoch.getEpoch();
+					String imageKey = band + "_" + requestedEpoch;
+					if (images.containsKey(imageKey)) {
+						writeLogEntry("band " + band + " | epoch " + requestedEpoch + " | cached");
+						continue;
+					}
+					if (unwiseCutouts.isSelected() && requestedEpoch % 2 > 0) {
+						// Both scan directions share the same unWISE image
+						String previousKey = band + "_" + (requestedEpoch - 1);
+						ImageContainer container = images.get(previousKey);
 						if (container != null) {
-							Fits fits = new Fits();
-							fits.addHDU(Fits.makeHDU(container.getImage().getHDU(0).getData().getData()));
-							Header header = fits.getHDU(0).getHeader();
-							header.addValue("FORWARD", epoch.getForward(), "Scan direction");
-							header.addValue("MJDMEAN", epoch.getMjdmean(), "Mean MJD");
-							images.put(imageKey, new ImageContainer(requestedEpoch, fits, false));
-							writeLogEntry("band " + band + " | epoch " + requestedEpoch + " | "
-									+ formatDate(epoch.getMjdmean()) + " | downloaded");
+							downloads.put(imageKey,
+									CompletableFuture.completedFuture(copyUnwiseImage(band, epoch, container)));
+							continue;
+						}
+						CompletableFuture<ImageContainer> download = downloads.get(previousKey);
+						if (download != null) {
+							downloads.put(imageKey, download.thenApply(previous -> {
+								try {
+									return previous == null ? null : copyUnwiseImage(band, epoch, previous);
+								} catch (Exception ex) {
+									throw new CompletionException(ex);
+								}
+							}));
 							continue;
 						}
 					}
+					downloads.put(imageKey, CompletableFuture.supplyAsync(() -> {
+						if (stopDownloadProcess || downloadFailed.get()) {
+							return null;
+						}
+						try {
+							return downloadEpoch(band, epoch, downloadFailed);
+						} catch (Exception ex) {
+							throw new CompletionException(ex);
+						}
+					}, executor));
 				}
-				Fits fits;
-				ImageHDU hdu;
+			}
+			CompletableFuture<Void> allDownloads = CompletableFuture
+					.allOf(downloads.values().toArray(new CompletableFuture[0]));
+			while (true) {
 				try {
-					fits = new Fits(getImageData(band, requestedEpoch));
-					hdu = (ImageHDU) fits.getHDU(0);
-					fits.close();
-				} catch (IOException ex) {
-					writeLogEntry("band " + band + " | epoch " + requestedEpoch + " | " + ex.getMessage());
+					allDownloads.get(100, TimeUnit.MILLISECONDS);
 					break;
+				} catch (TimeoutException ex) {
+					if (stopDownloadProcess) {
+						return;
+					}
+				} catch (ExecutionException ex) {
+					if (ex.getCause() instanceof Exception cause) {
+						throw cause;
+					}
+					throw ex;
 				}
-				double mjdmean;
-				Header header = hdu.getHeader();
-				if (wiseviewCutouts.isSelected()) {
-					mjdmean = getMjdmean(header);
+			}
+			// The downloads of each band are in epoch order
+			Set<Integer> failedBands = new HashSet<>();
+			for (Entry<String, CompletableFuture<ImageContainer>> download : downloads.entrySet()) {
+				int band = Integer.parseInt(download.getKey().split("_")[0]);
+				if (failedBands.contains(band)) {
+					continue;
+				}
+				ImageContainer container = download.getValue().join();
+				if (container == null) {
+					failedBands.add(band);
 				} else {
-					mjdmean = epoch.getMjdmean();
-				}
-				header.addValue("FORWARD", epoch.getForward(), "Scan direction");
-				header.addValue("MJDMEAN", mjdmean, "Mean MJD");
-				String meanObsDate = formatDate(mjdmean);
-				if (skipBadImages.isSelected()) {
-					ImageData imageData = hdu.getData();
-					float[][] data = (float[][]) imageData.getData();
-					double y = data.length;
-					double x = y > 0 ? data[0].length : 0;
-					int badPixels = 0;
-					for (int i = 0; i < y; i++) {
-						for (int j = 0; j < x; j++) {
-							if (data[i][j] == 0) {
-								badPixels++;
-							}
-						}
-					}
-					if (badPixels > x * y * 0.5) {
-						writeLogEntry("band " + band + " | epoch " + requestedEpoch + " | " + meanObsDate
-								+ " | skipped (poor quality image)");
-						images.put(imageKey, new ImageContainer(requestedEpoch, fits, true));
-						continue;
+					getImages(band).put(download.getKey(), container);
+				}
+			}
+		} finally {
+			// Interrupts the requests still in progress
+			executor.shutdownNow();
+		}
+	}
+
+	private ImageContainer downloadEpoch(int band, Epoch epoch, AtomicBoolean downloadFailed) throws Exception {
+		int requestedEpoch = epoch.getEpoch();
+		Fits fits;
+		ImageHDU hdu;
+		try {
+			fits = new Fits(getImageData(band, requestedEpoch));
+			hdu = (ImageHDU) fits.getHDU(0);
+			fits.close();
+		} catch (IOException ex) {
+			if (!stopDownloadProcess) {
+				writeLogEntry("band " + band + " | epoch " + requestedEpoch + " | " + ex.getMessage());
+			}
+			downloadFailed.set(true);
+			return null;
+		}
+		double mjdmean;
+		Header header = hdu.getHeader();
+		if (wiseviewCutouts.isSelected()) {
+			mjdmean = getMjdmean(header);
+		} else {
+			mjdmean = epoch.getMjdmean();
+		}
+		header.addValue("FORWARD", epoch.getForward(), "Scan direction");
+		header.addValue("MJDMEAN", mjdmean, "Mean MJD");
+		String meanObsDate = formatDate(mjdmean);
+		if (skipBadImages.isSelected()) {
+			ImageData imageData = hdu.getData();
+			float[][] data = (float[][]) imageData.getData();
+			double y = data.length;
+			double x = y > 0 ? data[0].length : 0;
+			int badPixels = 0;
+			for (int i = 0; i < y; i++) {
+				for (int j = 0; j < x; j++) {
+					if (data[i][j] == 0) {
+						badPixels++;
 					}
 				}
-				images.put(imageKey, new ImageContainer(requestedEpoch, fits, false));
-				writeLogEntry("band " + band + " | epoch " + requestedEpoch + " | " + meanObsDate + " | downloaded");
+			}
+			if (badPixels > x * y * 0.5) {
+				writeLogEntry("band " + band + " | epoch " + requestedEpoch + " | " + meanObsDate
+						+ " | skipped (poor quality image)");
+				return new ImageContainer(requestedEpoch, fits, true);
 			}
 		}
+		writeLogEntry("band " + band + " | epoch " + requestedEpoch + " | " + meanObsDate + " | downloaded");
+		return new ImageContainer(requestedEpoch, fits, false);
+	}
+
+	private ImageContainer copyUnwiseImage(int band, Epoch epoch, ImageContainer container) throws Exception {
+		int requestedEpoch = epoch.getEpoch();
+		Fits fits = new Fits();
+		fits.addHDU(Fits.makeHDU(container.getImage().getHDU(0).getData().getData()));
+		Header header = fits.getHDU(0).getHeader();
+		header.addValue("FORWARD", epoch.getForward(), "Scan direction");
+		header.addValue("MJDMEAN", epoch.getMjdmean(), "Mean MJD");
+		writeLogEntry("band " + band + " | epoch " + requestedEpoch + " | " + formatDate(epoch.getMjdmean())
+				+ " | downloaded");
+		return new ImageContainer(requestedEpoch, fits, false);
+	}
+
+	private Map<String, ImageContainer> getImages(int band) {
+		return band == WiseBand.W1.val ? imagesW1 : imagesW2;
+	}
+
+	private void addDownloadedImages(int band, Map<String, ImageContainer> images) throws Exception {
 		if (images.isEmpty()) {
 			return;
 		}
@@ -3974,19 +4097,6 @@ public class ImageViewerTab implements Tab {
 		return obsDate.format(DATE_FORMATTER);
 	}
 
-	private String getMeanObsDate(Fits fits) throws Exception {
-		ImageHDU hdu = (ImageHDU) fits.getHDU(0);
-		Header header = hdu.getHeader();
-		double mjdmean = header.getDoubleValue("MJDMEAN");
-		return formatDate(mjdmean);
-	}
-
-	private String getDataRelease(Fits fits) throws Exception {
-		ImageHDU hdu = (ImageHDU) fits.getHDU(0);
-		Header header = hdu.getHeader();
-		return header.getStringValue("SURVEY");
-	}
-
 	private void extractHeaderInfo(Fits fits) throws Exception {
 		if (fits != null) {
 			ImageHDU hdu = (ImageHDU) fits.getHDU(0);
@@ -4006,11 +4116,45 @@ public class ImageViewerTab implements Tab {
 
 	private void writeLogEntry(String log) {
 		if (asyncDownloads) {
-			downloadLog.append(log + LINE_SEP_TEXT_AREA);
+			// Also called by the download threads
+			SwingUtilities.invokeLater(() -> downloadLog.append(log + LINE_SEP_TEXT_AREA));
 		}
 	}
 
 	private InputStream getImageData(int band, int epoch) throws Exception {
+		boolean unwise = unwiseCutouts.isSelected();
+		// WiseView cutouts are cached per service, as the service URL can be changed
+		String survey = unwise ? "unwise" : "wiseview " + getUserSetting(CUTOUT_SERVICE, CUTOUT_SERVICE_URL);
+		byte[] cutout = CUTOUT_CACHE.getCutout(survey, band, epoch, targetRa, targetDec, size);
+		if (cutout == null) {
+			try (InputStream stream = downloadImageData(band, epoch)) {
+				cutout = stream.readAllBytes();
+			} catch (Exception ex) {
+				// A missing unWISE epoch is replaced by the previous one (2 flipbook
+				// epochs earlier, as each unWISE epoch covers 2 of them), cached under
+				// its own epoch
+				if (unwise && epoch / 2 > 0) {
+					return getImageData(band, epoch - 2);
+				}
+				throw ex;
+			}
+			CUTOUT_CACHE.putCutout(survey, band, epoch, targetRa, targetDec, size, cutout);
+		}
+		return new ByteArrayInputStream(cutout);
+	}
+
+	private InputStream openCutout(String survey, int band, int epoch, String imageUrl) throws IOException {
+		byte[] cutout = CUTOUT_CACHE.getCutout(survey, band, epoch, targetRa, targetDec, size);
+		if (cutout == null) {
+			try (InputStream stream = openStream(imageUrl)) {
+				cutout = stream.readAllBytes();
+			}
+			CUTOUT_CACHE.putCutout(survey, band, epoch, targetRa, targetDec, size, cutout);
+		}
+		return new ByteArrayInputStream(cutout);
+	}
+
+	private InputStream downloadImageData(int band, int epoch) throws Exception {
 		if (unwiseCutouts.isSelected()) {
 			epoch /= 2;
 			String unwiseEpoch;
@@ -4021,7 +4165,7 @@ public class ImageViewerTab implements Tab {
 			}
 			String unwiseURL = "https://unwise.me/cutout_fits?version=%s&ra=%f&dec=%f&size=%d&bands=%d&file_img_m=on"
 					.formatted(unwiseEpoch, targetRa, targetDec, size, band);
-			try (InputStream fi = establishHttpConnection(unwiseURL).getInputStream();
+			try (InputStream fi = openStream(unwiseURL);
 					InputStream bi = new BufferedInputStream(fi, BUFFER_SIZE);
 					InputStream gzi = new GzipCompressorInputStream(bi);
 					ArchiveInputStream ti = new TarArchiveInputStream(gzi)) {
@@ -4036,14 +4180,11 @@ public class ImageViewerTab implements Tab {
 				sizes.sort(Comparator.reverseOrder());
 				long largest = sizes.get(0);
 				return new ByteArrayInputStream(entries.get(largest));
-			} catch (Exception e) {
-				return getImageData(band, epoch - 1);
 			}
 		} else {
 			String imageUrl = getUserSetting(CUTOUT_SERVICE, CUTOUT_SERVICE_URL) + "?ra=" + targetRa + "&dec="
 					+ targetDec + "&size=" + size + "&band=" + band + "&epoch=" + epoch;
-			HttpURLConnection connection = establishHttpConnection(imageUrl);
-			return connection.getInputStream();
+			return openStream(imageUrl);
 		}
 	}
 
@@ -4077,8 +4218,7 @@ public class ImageViewerTab implements Tab {
 		String imageUrl = baseUrl.formatted(targetRa, targetDec, PIXEL_SCALE_DECAM, survey, size, selectedBand);
 		try {
 			// Ascending scan
-			HttpURLConnection connection = establishHttpConnection(imageUrl);
-			Fits fits = new Fits(connection.getInputStream());
+			Fits fits = new Fits(openCutout(survey, band, requestedEpoch, imageUrl));
 			Header header = fits.getHDU(0).getHeader();
 			header.addValue("FORWARD", 0, "Scan direction");
 			header.addValue("MJDMEAN", 55256.0, "Mean MJD");
@@ -4108,25 +4248,21 @@ public class ImageViewerTab implements Tab {
 	private void retrievePs1Images(int band, Map<String, ImageContainer> images) throws Exception {
 		List<String> fileNames = new ArrayList();
 		String selectedBand = band == 1 ? "r" : "y";
-		try {
-			String downloadUrl = "http://ps1images.stsci.edu/cgi-bin/ps1filenames.py?RA=%f&DEC=%f&filters=%s&type=warp&sep=comma"
-					.formatted(targetRa, targetDec, selectedBand);
-			String response = readResponse(establishHttpConnection(downloadUrl), "Pan-STARRS");
-			try (Scanner scanner = new Scanner(response)) {
-				String[] columnNames = scanner.nextLine().split(SPLIT_CHAR);
-				int fileName = 0;
-				for (int i = 0; i < columnNames.length; i++) {
-					if (columnNames[i].equals("filename")) {
-						fileName = i;
-					}
-				}
-				while (scanner.hasNextLine()) {
-					String[] columnValues = scanner.nextLine().split(SPLIT_CHAR);
-					fileNames.add(columnValues[fileName]);
+		String downloadUrl = "http://ps1images.stsci.edu/cgi-bin/ps1filenames.py?RA=%f&DEC=%f&filters=%s&type=warp&sep=comma"
+				.formatted(targetRa, targetDec, selectedBand);
+		String response = readResponse(downloadUrl, "Pan-STARRS");
+		try (Scanner scanner = new Scanner(response)) {
+			String[] columnNames = scanner.nextLine().split(SPLIT_CHAR);
+			int fileName = 0;
+			for (int i = 0; i < columnNames.length; i++) {
+				if (columnNames[i].equals("filename")) {
+					fileName = i;
 				}
 			}
-		} catch (IOException ex) {
-			writeErrorLog(ex);
+			while (scanner.hasNextLine()) {
+				String[] columnValues = scanner.nextLine().split(SPLIT_CHAR);
+				fileNames.add(columnValues[fileName]);
+			}
 		}
 		int i = 0;
 		for (String fileName : fileNames) {
@@ -4150,8 +4286,7 @@ public class ImageViewerTab implements Tab {
 				.formatted(targetRa, targetDec, size, fileName);
 		try {
 			// Ascending scan
-			HttpURLConnection connection = establishHttpConnection(imageUrl);
-			Fits fits = new Fits(connection.getInputStream());
+			Fits fits = new Fits(openCutout(fileName, band, requestedEpoch, imageUrl));
 			Header header = fits.getHDU(0).getHeader();
 			double mjdmean = header.getDoubleValue("MJD-OBS");
 			String meanObsDate = formatDate(mjdmean);
@@ -4209,182 +4344,21 @@ public class ImageViewerTab implements Tab {
 		return value == 0 || Float.toString(value).equals("NaN");
 	}
 
-	private BufferedImage createImage(Fits fits) {
-		try {
-			ImageHDU hdu = (ImageHDU) fits.getHDU(0);
-			ImageData imageData = hdu.getData();
-			float[][] values = (float[][]) imageData.getData();
-
-			if (blurImages.isSelected()) {
-				values = blur(values);
-			}
-
-			BufferedImage image = new BufferedImage(naxis1, naxis2, BufferedImage.TYPE_INT_RGB);
-			Graphics2D graphics = image.createGraphics();
-			for (int i = 0; i < naxis2; i++) {
-				for (int j = 0; j < naxis1; j++) {
-					try {
-						float value = processPixel(values[i][j]);
-						graphics.setColor(new Color(value, value, value));
-						graphics.fillRect(j, i, 1, 1);
-					} catch (ArrayIndexOutOfBoundsException ex) {
-					}
-				}
-			}
-
-			return image;
-		} catch (IOException | IndexOutOfBoundsException | FitsException ex) {
-			throw new RuntimeException(ex);
-		}
-	}
-
-	private BufferedImage createColorImage(Fits fits1, Fits fits2) {
-		try {
-			ImageHDU hdu = (ImageHDU) fits1.getHDU(0);
-			ImageData imageData = hdu.getData();
-			float[][] valuesW1 = (float[][]) imageData.getData();
-
-			hdu = (ImageHDU) fits2.getHDU(0);
-			imageData = hdu.getData();
-			float[][] valuesW2 = (float[][]) imageData.getData();
-
-			if (blurImages.isSelected()) {
-				valuesW1 = blur(valuesW1);
-				valuesW2 = blur(valuesW2);
-			}
-
-			BufferedImage image = new BufferedImage(naxis1, naxis2, BufferedImage.TYPE_INT_RGB);
-			Graphics2D graphics = image.createGraphics();
-			for (int i = 0; i < naxis2; i++) {
-				for (int j = 0; j < naxis1; j++) {
-					try {
-						float red = processPixel(valuesW1[i][j]);
-						float blue = processPixel(valuesW2[i][j]);
-						float green = (red + blue) / 2;
-						Color color;
-						if (invertColors.isSelected()) {
-							color = new Color(blue, green, red);
-						} else {
-							color = new Color(red, green, blue);
-						}
-						graphics.setColor(color);
-						graphics.fillRect(j, i, 1, 1);
-					} catch (ArrayIndexOutOfBoundsException ex) {
-					}
-				}
-			}
-
-			return image;
-		} catch (IOException | IndexOutOfBoundsException | FitsException ex) {
-			throw new RuntimeException(ex);
-		}
-	}
-
-	private Fits addImages(Fits fits1, Fits fits2) throws Exception {
-		ImageHDU hdu = (ImageHDU) fits1.getHDU(0);
-		Header header = hdu.getHeader();
-		String survey = header.getStringValue("SURVEY");
-		double mjdmean1 = header.getDoubleValue("MJDMEAN");
-		long firstEpoch1 = header.getLongValue("FEPOCH");
-		ImageData imageData = hdu.getData();
-		float[][] values1 = (float[][]) imageData.getData();
-
-		hdu = (ImageHDU) fits2.getHDU(0);
-		header = hdu.getHeader();
-		double mjdmean2 = header.getDoubleValue("MJDMEAN");
-		long firstEpoch2 = header.getLongValue("FEPOCH");
-		imageData = hdu.getData();
-		float[][] values2 = (float[][]) imageData.getData();
-
-		float[][] addedValues = new float[naxis2][naxis1];
-		for (int i = 0; i < naxis2; i++) {
-			for (int j = 0; j < naxis1; j++) {
-				try {
-					float value1 = values1[i][j];
-					float value2 = values2[i][j];
-					value1 = isBadPixel(value1) ? value2 : value1;
-					value2 = isBadPixel(value2) ? value1 : value2;
-					addedValues[i][j] = value1 + value2;
-				} catch (ArrayIndexOutOfBoundsException ex) {
-				}
-			}
-		}
-
-		Fits fits = new Fits();
-		fits.addHDU(Fits.makeHDU(addedValues));
-		hdu = (ImageHDU) fits.getHDU(0);
-		header = hdu.getHeader();
-		double mjdmean = (mjdmean1 + mjdmean2) / 2;
-		header.addValue("MJDMEAN", mjdmean, "Mean MJD");
-		header.addValue("SURVEY", survey, "Data release");
-		header.addValue("FEPOCH", firstEpoch1 > 0 || firstEpoch2 > 0 ? 1 : 0, "First epoch");
-		return fits;
-	}
-
-	private Fits subtractImages(Fits fits1, Fits fits2) throws Exception {
-		ImageHDU hdu = (ImageHDU) fits1.getHDU(0);
-		Header header = hdu.getHeader();
-		String survey = header.getStringValue("SURVEY");
-		double mjdmean1 = header.getDoubleValue("MJDMEAN");
-		long firstEpoch1 = header.getLongValue("FEPOCH");
-		ImageData imageData = hdu.getData();
-		float[][] values1 = (float[][]) imageData.getData();
-
-		hdu = (ImageHDU) fits2.getHDU(0);
-		header = hdu.getHeader();
-		double mjdmean2 = header.getDoubleValue("MJDMEAN");
-		long firstEpoch2 = header.getLongValue("FEPOCH");
-		imageData = hdu.getData();
-		float[][] values2 = (float[][]) imageData.getData();
-
-		float[][] subtractedValues = new float[naxis2][naxis1];
-		for (int i = 0; i < naxis2; i++) {
-			for (int j = 0; j < naxis1; j++) {
-				try {
-					subtractedValues[i][j] = values1[i][j] - values2[i][j];
-				} catch (ArrayIndexOutOfBoundsException ex) {
-				}
-			}
+	private BufferedImage createImage(FloatImage floatImage) {
+		if (blurImages.isSelected()) {
+			floatImage = BLUR_KERNELS.get()[0].blur(floatImage, naxis1, naxis2, BLUR_RADIUS);
 		}
-
-		Fits fits = new Fits();
-		fits.addHDU(Fits.makeHDU(subtractedValues));
-		hdu = (ImageHDU) fits.getHDU(0);
-		header = hdu.getHeader();
-		double mjdmean = (mjdmean1 + mjdmean2) / 2;
-		header.addValue("MJDMEAN", mjdmean, "Mean MJD");
-		header.addValue("SURVEY", survey, "Data release");
-		header.addValue("FEPOCH", firstEpoch1 > 0 || firstEpoch2 > 0 ? 1 : 0, "First epoch");
-		return fits;
+		return FrameRenderer.createImage(floatImage, naxis1, naxis2, minValue, maxValue, invertColors.isSelected());
 	}
 
-	private Fits average(Fits fits, int numberOfImages) throws Exception {
-		ImageHDU hdu = (ImageHDU) fits.getHDU(0);
-		Header header = hdu.getHeader();
-		String survey = header.getStringValue("SURVEY");
-		double mjdmean = header.getDoubleValue("MJDMEAN");
-		long firstEpoch = header.getLongValue("FEPOCH");
-		ImageData imageData = hdu.getData();
-		float[][] values = (float[][]) imageData.getData();
-
-		float[][] averagedValues = new float[naxis2][naxis1];
-		for (int i = 0; i < naxis2; i++) {
-			for (int j = 0; j < naxis1; j++) {
-				try {
-					averagedValues[i][j] = values[i][j] / numberOfImages;
-				} catch (ArrayIndexOutOfBoundsException ex) {
-				}
-			}
+	private BufferedImage createColorImage(FloatImage imageW1, FloatImage imageW2) {
+		if (blurImages.isSelected()) {
+			BoxBlur[] blurKernels = BLUR_KERNELS.get();
+			imageW1 = blurKernels[0].blur(imageW1, naxis1, naxis2, BLUR_RADIUS);
+			imageW2 = blurKernels[1].blur(imageW2, naxis1, naxis2, BLUR_RADIUS);
 		}
-
-		fits = new Fits();
-		fits.addHDU(Fits.makeHDU(averagedValues));
-		hdu = (ImageHDU) fits.getHDU(0);
-		header = hdu.getHeader();
-		header.addValue("MJDMEAN", mjdmean, "Mean MJD");
-		header.addValue("SURVEY", survey, "Data release");
-		header.addValue("FEPOCH", firstEpoch, "First epoch");
-		return fits;
+		return FrameRenderer.createColorImage(imageW1, imageW2, naxis1, naxis2, minValue, maxValue,
+				invertColors.isSelected());
 	}
 
 	private void enhanceImage(Fits fits, int enhanceFactor) throws Exception {
@@ -4402,23 +4376,6 @@ public class ImageViewerTab implements Tab {
 		}
 	}
 
-	private float[][] blur(float[][] values) {
-		float[][] blurredValues = new float[naxis2][naxis1];
-		for (int i = 0; i < naxis2; ++i) {
-			for (int j = 0; j < naxis1; ++j) {
-				int sum = 0, c = 0;
-				for (int k = max(0, i - 1); k <= min(i + 1, naxis2 - 1); k++) {
-					for (int u = max(0, j - 1); u <= min(j + 1, naxis1 - 1); u++) {
-						sum += values[k][u];
-						c++;
-					}
-				}
-				blurredValues[i][j] = sum / c;
-			}
-		}
-		return blurredValues;
-	}
-
 	private void addImage(int band, Fits fits) {
 		if (band == 1) {
 			band1Images.add(fits);
@@ -4428,53 +4385,50 @@ public class ImageViewerTab implements Tab {
 		}
 	}
 
-	private float processPixel(float value) {
-		value = normalize(value, minValue, maxValue);
-		return invertColors.isSelected() ? value : 1 - value;
-	}
-
-	private float normalize(float value, float minVal, float maxVal) {
-		value = max(value, minVal);
-		value = min(value, maxVal);
-		float lowerBound = 0, upperBound = 1;
-		return (value - minVal) * ((upperBound - lowerBound) / (maxVal - minVal)) + lowerBound;
-	}
-
-	private NumberPair determineRefValues(float[][] values) {
-		List<Double> imageData = new ArrayList<>();
-		for (float[] row : values) {
-			for (float value : row) {
-				if (value != Float.POSITIVE_INFINITY && value != Float.NEGATIVE_INFINITY && value != Float.NaN) {
-					imageData.add((double) value);
-				}
-			}
+	private NumberPair determineRefValues(float[] values) {
+		// All limits are selected from the finite values in one quickselect run
+		float[] finiteValues = collectFiniteValues(values);
+		int size = finiteValues.length;
+		if (size == 0) {
+			return new NumberPair(Double.NaN, Double.NaN);
 		}
-		imageData.sort(Comparator.naturalOrder());
 		double lowerBound;
 		double upperBound;
 		if (differenceImaging.isSelected()) {
-			NumberPair limits = determineLimits(imageData, contrast / 10f, 100 - contrast / 10f);
-			lowerBound = limits.getX();
-			upperBound = limits.getY();
+			int[] limits = determineLimitRanks(size, contrast / 10f, 100 - contrast / 10f);
+			float[] selectedValues = selectValues(finiteValues, limits[0], limits[1]);
+			lowerBound = selectedValues[0];
+			upperBound = selectedValues[1];
 		} else {
-			NumberPair limits = determineLimits(imageData, brightness, 1);
-			lowerBound = limits.getX();
-			limits = determineLimits(imageData, 1, 1);
-			double min = limits.getX();
-			double max = limits.getY();
-			double dev = max - min;
-			double med = determineMedian(imageData);
+			int[] brightnessLimits = determineLimitRanks(size, brightness, 1);
+			int[] limits = determineLimitRanks(size, 1, 1);
+			// Median ranks, selected the same way as by StatisticFunctions.determineMedian
+			int half = max(size / 2 - 1, 0);
+			int nextHalf = min(half + 1, size - 1);
+			float[] selectedValues = selectValues(finiteValues, brightnessLimits[0], limits[0], limits[1], half,
+					nextHalf);
+			lowerBound = selectedValues[0];
+			double dev = selectedValues[2] - selectedValues[1];
+			double med = size % 2 == 0 ? calculateMean(selectedValues[3], selectedValues[4]) : selectedValues[3];
 			upperBound = med + ((100 - contrast) / 10f) * dev;
 		}
 		return new NumberPair(lowerBound, upperBound);
 	}
 
-	public static NumberPair determineLimits(List<Double> values, double lowPercentile, double highPercentile) {
-		int size = values.size();
+	/**
+	 * Determine the ranks of the lower and upper limits of the values sorted in
+	 * ascending order
+	 *
+	 * @param size           (number of values)
+	 * @param lowPercentile  (of the lower half of the values)
+	 * @param highPercentile (of the upper half of the values)
+	 * @return the ranks of the lower and the upper limit
+	 */
+	private static int[] determineLimitRanks(int size, double lowPercentile, double highPercentile) {
 		int half = size / 2;
 		int min = (int) (half * lowPercentile / 100);
 		int max = (int) (half * (100 - highPercentile) / 100);
-		return new NumberPair(values.get(min), values.get((size - 1) - max));
+		return new int[] { min, (size - 1) - max };
 	}
 
 	private boolean openNewCatalogSearch(double targetRa, double targetDec) {
@@ -4565,9 +4519,8 @@ public class ImageViewerTab implements Tab {
 			}
 			String imageUrl = "https://www.legacysurvey.org/viewer/jpeg-cutout?ra=%f&dec=%f&pixscale=%f&size=%d&bands=%s&layer=%s"
 					.formatted(targetRa, targetDec, PIXEL_SCALE_DECAM, imageSize, DESI_FILTERS, DESI_LS_DR_PARAM);
-			HttpURLConnection connection = establishHttpConnection(imageUrl);
 			BufferedImage image;
-			try (BufferedInputStream stream = new BufferedInputStream(connection.getInputStream(), BUFFER_SIZE)) {
+			try (BufferedInputStream stream = new BufferedInputStream(openStream(imageUrl), BUFFER_SIZE)) {
 				image = ImageIO.read(stream);
 			}
 			return isSameTarget(targetRa, targetDec, size, this.targetRa, this.targetDec, this.size) ? image : null;
@@ -4581,7 +4534,7 @@ public class ImageViewerTab implements Tab {
 			List<String> fileNames = new ArrayList<>();
 			String imageUrl = "http://ps1images.stsci.edu/cgi-bin/ps1filenames.py?RA=%f&DEC=%f&filters=giy&sep=comma"
 					.formatted(targetRa, targetDec);
-			String response = readResponse(establishHttpConnection(imageUrl), "Pan-STARRS");
+			String response = readResponse(imageUrl, "Pan-STARRS");
 			try (Scanner scanner = new Scanner(response)) {
 				String[] columnNames = scanner.nextLine().split(SPLIT_CHAR);
 				int fileName = 0;
@@ -4599,9 +4552,8 @@ public class ImageViewerTab implements Tab {
 			imageUrl = "http://ps1images.stsci.edu/cgi-bin/fitscut.cgi?red=%s&green=%s&blue=%s&ra=%f&dec=%f&size=%d&output_size=%d&autoscale=99.8"
 					.formatted(fileNames.get(2), fileNames.get(1), fileNames.get(0), targetRa, targetDec,
 							(int) round(size * pixelScale * 4), 1024);
-			HttpURLConnection connection = establishHttpConnection(imageUrl);
 			BufferedImage image;
-			try (BufferedInputStream stream = new BufferedInputStream(connection.getInputStream(), BUFFER_SIZE)) {
+			try (BufferedInputStream stream = new BufferedInputStream(openStream(imageUrl), BUFFER_SIZE)) {
 				image = ImageIO.read(stream);
 			}
 			Map<String, Double> years = getPs1Epochs(targetRa, targetDec);
@@ -4690,9 +4642,8 @@ public class ImageViewerTab implements Tab {
 			String imageUrl = (SDSS_BASE_URL
 					+ "/SkyserverWS/ImgCutout/getjpeg?ra=%f&dec=%f&width=%d&height=%d&scale=%f")
 					.formatted(targetRa, targetDec, resolution, resolution, size * pixelScale / resolution);
-			HttpURLConnection connection = establishHttpConnection(imageUrl);
 			BufferedImage image;
-			try (BufferedInputStream stream = new BufferedInputStream(connection.getInputStream(), BUFFER_SIZE)) {
+			try (BufferedInputStream stream = new BufferedInputStream(openStream(imageUrl), BUFFER_SIZE)) {
 				image = ImageIO.read(stream);
 			}
 			// BufferedImage image = retrieveImage(targetRa, targetDec, (int) round(size *
@@ -5629,14 +5580,8 @@ public class ImageViewerTab implements Tab {
 			queryUrl = customOverlay.getTapUrl() + TAP_URL_PARAMS + encodeQuery(adqlQuery);
 		}
 		if (isCatalogSearch) {
-			try {
-				results = readResponse(establishHttpConnection(queryUrl), customOverlay.getName());
-				if (results.isEmpty()) {
-					baseFrame.setCursor(Cursor.getDefaultCursor());
-					return null;
-				}
-			} catch (IOException ex) {
-				showExceptionDialog(baseFrame, ex);
+			results = readResponse(queryUrl, customOverlay.getName());
+			if (results.isEmpty()) {
 				baseFrame.setCursor(Cursor.getDefaultCursor());
 				return null;
 			}
@@ -5748,9 +5693,8 @@ public class ImageViewerTab implements Tab {
 		try {
 			SdssCatalogEntry SDSSCatalogEntry = (SdssCatalogEntry) catalogEntry;
 			String spectrumUrl = SDSS_BASE_URL + "/en/get/specById.ashx?ID=" + SDSSCatalogEntry.getSpecObjID();
-			HttpURLConnection connection = establishHttpConnection(spectrumUrl);
 			BufferedImage spectrum;
-			try (BufferedInputStream stream = new BufferedInputStream(connection.getInputStream(), BUFFER_SIZE)) {
+			try (BufferedInputStream stream = new BufferedInputStream(openStream(spectrumUrl), BUFFER_SIZE)) {
 				spectrum = ImageIO.read(stream);
 			}
 			if (spectrum != null) {
@@ -29,10 +29,7 @@ import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -41,8 +38,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -76,11 +71,9 @@ import astro.tool.box.container.ClassifierData;
 import astro.tool.box.container.NumberPair;
 import astro.tool.box.container.SpectralType;
 import astro.tool.box.enumeration.JColor;
-import astro.tool.box.lookup.BrownDwarfLookupEntry;
 import astro.tool.box.lookup.LookupResult;
-import astro.tool.box.lookup.SpectralTypeLookup;
-import astro.tool.box.lookup.SpectralTypeLookupEntry;
 import astro.tool.box.service.CatalogQueryService;
+import astro.tool.box.service.LookupTableRegistry;
 import astro.tool.box.service.SpectralTypeLookupService;
 
 public class PhotometricClassifierTab implements Tab {
@@ -140,26 +133,8 @@ public class PhotometricClassifierTab implements Tab {
 		catalogInstances.remove(TessCatalogEntry.CATALOG_NAME);
 
 		catalogQueryService = new CatalogQueryService();
-		try (InputStream input = getClass().getResourceAsStream("/SpectralTypeLookupTable.csv")) {
-			Stream<String> stream = new BufferedReader(new InputStreamReader(input)).lines();
-			List<SpectralTypeLookup> entries = stream.skip(1).map(line -> {
-				return new SpectralTypeLookupEntry(line.split(",", -1));
-			}).collect(Collectors.toList());
-			mainSequenceLookupService = new SpectralTypeLookupService(entries);
-		} catch (IOException e) {
-			showExceptionDialog(baseFrame, e);
-			throw new RuntimeException(e);
-		}
-		try (InputStream input = getClass().getResourceAsStream("/BrownDwarfLookupTable.csv");) {
-			Stream<String> stream = new BufferedReader(new InputStreamReader(input)).lines();
-			List<SpectralTypeLookup> entries = stream.skip(1).map(line -> {
-				return new BrownDwarfLookupEntry(line.split(",", -1));
-			}).collect(Collectors.toList());
-			brownDwarfsLookupService = new SpectralTypeLookupService(entries);
-		} catch (IOException e) {
-			showExceptionDialog(baseFrame, e);
-			throw new RuntimeException(e);
-		}
+		mainSequenceLookupService = LookupTableRegistry.getMainSequenceLookupService();
+		brownDwarfsLookupService = LookupTableRegistry.getBrownDwarfLookupService();
 	}
 
 	@Override
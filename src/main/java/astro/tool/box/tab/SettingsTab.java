@@ -67,6 +67,9 @@ import astro.tool.box.enumeration.TapProvider;
 import astro.tool.box.enumeration.WiseBand;
 import astro.tool.box.main.Application;
 import astro.tool.box.panel.DualListBox;
+import astro.tool.box.util.CatalogCache;
+import astro.tool.box.util.CutoutCache;
+import astro.tool.box.util.ServiceHelper;
 
 public class SettingsTab implements Tab {
 
@@ -91,6 +94,7 @@ public class SettingsTab implements Tab {
 	public static final String PROXY_ADDRESS = "proxyAddress";
 	public static final String PROXY_PORT = "proxyPort";
 	public static final String USE_PROXY = "useProxy";
+	public static final String READ_TIMEOUT = "readTimeout";
 	public static final String USE_SIMBAD_MIRROR = "useSimbadMirror";
 	public static final String PHOTOMETRIC_ERRORS = "photometricErrors";
 	public static final String CUTOUT_SERVICE = "cutoutService";
@@ -101,6 +105,7 @@ public class SettingsTab implements Tab {
 	private String proxyAddress;
 	private int proxyPort;
 	private boolean useProxy;
+	private int readTimeout;
 	private boolean useSimbadMirror;
 	private boolean photometricErrors;
 	private String cutoutService;
@@ -117,6 +122,8 @@ public class SettingsTab implements Tab {
 	public static final String FINDER_CHART_FOV = "finderChartFOV";
 	public static final String SHOW_TOOL_TIPS = "showToolTips";
 	public static final String DISALBED_TOOL_TIPS = "disabledToolTips";
+	public static final String CATALOG_CACHE_SIZE = "catalogCacheSize";
+	public static final String CUTOUT_CACHE_SIZE = "cutoutCacheSize";
 
 	private boolean copyCoordsToClipboard;
 	private int searchRadius;
@@ -125,6 +132,8 @@ public class SettingsTab implements Tab {
 	private int wiseViewFOV;
 	private int finderChartFOV;
 	private boolean showToolTips;
+	private int catalogCacheSize;
+	private int cutoutCacheSize;
 
 	// Image viewer settings
 	private static final String WISE_BAND = "wiseBand";
@@ -204,6 +213,8 @@ public class SettingsTab implements Tab {
 			String port = USER_SETTINGS.getProperty(PROXY_PORT, "0");
 			proxyPort = port.isEmpty() ? 0 : Integer.parseInt(port);
 			useProxy = Boolean.parseBoolean(USER_SETTINGS.getProperty(USE_PROXY, "false"));
+			readTimeout = Integer.parseInt(USER_SETTINGS.getProperty(READ_TIMEOUT,
+					String.valueOf(ServiceHelper.DEFAULT_READ_TIMEOUT)));
 			useSimbadMirror = Boolean.parseBoolean(USER_SETTINGS.getProperty(USE_SIMBAD_MIRROR, "false"));
 			photometricErrors = Boolean.parseBoolean(USER_SETTINGS.getProperty(PHOTOMETRIC_ERRORS, "false"));
 			cutoutService = USER_SETTINGS.getProperty(CUTOUT_SERVICE);
@@ -254,6 +265,10 @@ public class SettingsTab implements Tab {
 			useProxyCheckBox.setSelected(useProxy);
 			globalSettings.add(useProxyCheckBox);
 
+			globalSettings.add(new JLabel("Read timeout (s): ", SwingConstants.RIGHT));
+			JTextField readTimeoutField = new JTextField(String.valueOf(readTimeout));
+			globalSettings.add(readTimeoutField);
+
 			globalSettings.add(new JLabel("Use SIMBAD mirror: ", SwingConstants.RIGHT));
 			JCheckBox useSimbadMirrorCheckBox = new JCheckBox();
 			useSimbadMirrorCheckBox.setSelected(useSimbadMirror);
@@ -291,6 +306,10 @@ public class SettingsTab implements Tab {
 			String userName = USER_SETTINGS.getProperty(USER_NAME, "");
 			String userEmail = USER_SETTINGS.getProperty(USER_EMAIL, "");
 			showToolTips = Boolean.parseBoolean(USER_SETTINGS.getProperty(SHOW_TOOL_TIPS, "true"));
+			catalogCacheSize = Integer.parseInt(USER_SETTINGS.getProperty(CATALOG_CACHE_SIZE,
+					String.valueOf(CatalogCache.DEFAULT_CACHE_SIZE)));
+			cutoutCacheSize = Integer.parseInt(USER_SETTINGS.getProperty(CUTOUT_CACHE_SIZE,
+					String.valueOf(CutoutCache.DEFAULT_CACHE_SIZE)));
 
 			catalogQueryTab.getRadiusField().setText(String.valueOf(searchRadius));
 			catalogQueryTab.setCopyCoordsToClipboard(copyCoordsToClipboard);
@@ -349,6 +368,14 @@ public class SettingsTab implements Tab {
 			JButton enableToolTipButton = new JButton("Re-enable all tooltips");
 			catalogQuerySettings.add(enableToolTipButton);
 			catalogQuerySettings.add(toolTipMessage);
+
+			catalogQuerySettings.add(new JLabel("Cache size (MB) catalogs/cutouts: ", SwingConstants.RIGHT));
+			JPanel cacheSizePanel = new JPanel(new GridLayout(1, 2));
+			catalogQuerySettings.add(cacheSizePanel);
+			JTextField catalogCacheSizeField = new JTextField(String.valueOf(catalogCacheSize));
+			cacheSizePanel.add(catalogCacheSizeField);
+			JTextField cutoutCacheSizeField = new JTextField(String.valueOf(cutoutCacheSize));
+			cacheSizePanel.add(cutoutCacheSizeField);
 			enableToolTipButton.addActionListener((ActionEvent evt) -> {
 				USER_SETTINGS.setProperty(DISALBED_TOOL_TIPS, "");
 				saveSettings();
@@ -550,6 +577,7 @@ public class SettingsTab implements Tab {
 							return;
 						}
 					}
+					readTimeout = Integer.parseInt(readTimeoutField.getText());
 					useSimbadMirror = useSimbadMirrorCheckBox.isSelected();
 					if (photometricErrors != photometricErrorsBox.isSelected()) {
 						requiresRestart = true;
@@ -564,6 +592,8 @@ public class SettingsTab implements Tab {
 					wiseViewFOV = Integer.parseInt(wiseViewFovField.getText());
 					finderChartFOV = Integer.parseInt(finderChartFovField.getText());
 					showToolTips = toolTipCheckBox.isSelected();
+					catalogCacheSize = Integer.parseInt(catalogCacheSizeField.getText());
+					cutoutCacheSize = Integer.parseInt(cutoutCacheSizeField.getText());
 
 					// Image viewer settings
 					wiseBand = (WiseBand) wiseBands.getSelectedItem();
@@ -598,6 +628,8 @@ public class SettingsTab implements Tab {
 				USER_SETTINGS.setProperty(PROXY_ADDRESS, proxyAddressField.getText());
 				USER_SETTINGS.setProperty(PROXY_PORT, proxyPortField.getText());
 				USER_SETTINGS.setProperty(USE_PROXY, String.valueOf(useProxy));
+				USER_SETTINGS.setProperty(READ_TIMEOUT, readTimeoutField.getText());
+				ServiceHelper.resetHttpClient();
 				USER_SETTINGS.setProperty(USE_SIMBAD_MIRROR, String.valueOf(useSimbadMirror));
 				USER_SETTINGS.setProperty(PHOTOMETRIC_ERRORS, String.valueOf(photometricErrors));
 				USER_SETTINGS.setProperty(CUTOUT_SERVICE, cutoutServiceField.getText());
@@ -622,6 +654,8 @@ public class SettingsTab implements Tab {
 				USER_SETTINGS.setProperty(USER_NAME, userNameField.getText());
 				USER_SETTINGS.setProperty(USER_EMAIL, userEmailField.getText());
 				USER_SETTINGS.setProperty(SHOW_TOOL_TIPS, String.valueOf(showToolTips));
+				USER_SETTINGS.setProperty(CATALOG_CACHE_SIZE, catalogCacheSizeField.getText());
+				USER_SETTINGS.setProperty(CUTOUT_CACHE_SIZE, cutoutCacheSizeField.getText());
 
 				// Image viewer settings
 				imageViewerTab.initCatalogEntries();
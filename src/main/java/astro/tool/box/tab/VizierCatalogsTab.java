@@ -11,7 +11,7 @@ import static astro.tool.box.main.ToolboxHelper.showWarnDialog;
 import static astro.tool.box.util.Constants.LINE_SEP;
 import static astro.tool.box.util.Constants.LINE_SEP_TEXT_AREA;
 import static astro.tool.box.util.ExternalResources.getVizierUrl;
-import static astro.tool.box.util.ServiceHelper.establishHttpConnection;
+import static astro.tool.box.util.ServiceHelper.openStream;
 
 import java.awt.BorderLayout;
 import java.awt.Cursor;
@@ -24,7 +24,6 @@ import java.awt.event.ActionEvent;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -235,9 +234,8 @@ public class VizierCatalogsTab implements Tab {
 								String url = "http://vizier.u-strasbg.fr/viz-bin/asu-txt?-c=%s%s&-c.rs=%f&-out.max=%d&-sort=_r&-out.meta=hu&-oc.form=d&-out.add=_r&-out.form=mini%s";
 								url = url.formatted(Double.toString(targetRa), addPlusSign(targetDec), searchRadius,
 										numberOfRows, outAll);
-								HttpURLConnection connection = establishHttpConnection(url);
 								try (BufferedReader reader = new BufferedReader(
-										new InputStreamReader(connection.getInputStream()))) {
+										new InputStreamReader(openStream(url)))) {
 									reader.lines().forEach(line -> {
 										line = line.replaceAll("\\s+$", "");
 										if (line.startsWith("#RESOURCE")) {
@@ -0,0 +1,138 @@
+package astro.tool.box.util;
+
+import java.util.Arrays;
+
+import astro.tool.box.container.FloatImage;
+
+/**
+ * Box filter for flipbook images, separated into a horizontal and a vertical
+ * pass of running sums.
+ *
+ * The box is cut at the image borders, so that border pixels are averaged over
+ * the neighbors inside the image only. Non-finite pixel values count as 0.
+ *
+ * The buffers are reused between calls, so an instance must not be shared
+ * between threads, and a blurred image is only valid until the next call of
+ * {@link #blur}.
+ */
+public class BoxBlur {
+
+	private float[] rowValues = new float[0];
+
+	private double[] columnSums = new double[0];
+
+	private float[] blurredValues = new float[0];
+
+	/**
+	 * Blur an image
+	 *
+	 * @param image
+	 * @param width  (of the blurred image)
+	 * @param height (of the blurred image)
+	 * @param radius (of the box, 1 for a 3x3 box)
+	 * @return the blurred image
+	 */
+	public FloatImage blur(FloatImage image, int width, int height, int radius) {
+		int rows = Math.min(height, image.getHeight());
+		int columns = Math.min(width, image.getWidth());
+		if (rowValues.length < rows * columns) {
+			rowValues = new float[rows * columns];
+		}
+		if (columnSums.length < columns) {
+			columnSums = new double[columns];
+		}
+		if (blurredValues.length < width * height) {
+			blurredValues = new float[width * height];
+		}
+
+		float[] values = image.getValues();
+		int imageWidth = image.getWidth();
+		for (int i = 0; i < rows; i++) {
+			blurRow(values, i * imageWidth, rowValues, i * columns, columns, radius);
+		}
+		blurColumns(rows, columns, width, radius);
+
+		// Pixels outside of the input image
+		if (columns < width) {
+			for (int i = 0; i < rows; i++) {
+				Arrays.fill(blurredValues, i * width + columns, (i + 1) * width, 0);
+			}
+		}
+		Arrays.fill(blurredValues, rows * width, width * height, 0);
+
+		return new FloatImage(blurredValues, width, height, image.getSurvey(), image.getForward(),
+				image.getMjdmean(), image.isFirstEpoch());
+	}
+
+	private static void blurRow(float[] values, int offset, float[] target, int targetOffset, int columns,
+			int radius) {
+		// Border pixels, whose box is cut on the left or on the right
+		int leftBorder = Math.min(radius, columns);
+		int rightBorder = Math.max(leftBorder, columns - 1 - radius);
+
+		double sum = 0;
+		for (int k = 0; k <= Math.min(radius, columns - 1); k++) {
+			sum += toFinite(values[offset + k]);
+		}
+		for (int j = 0; j < leftBorder; j++) {
+			sum = moveBox(values, offset, target, targetOffset, columns, radius, j, sum);
+		}
+		int count = 2 * radius + 1;
+		for (int j = leftBorder; j < rightBorder; j++) {
+			target[targetOffset + j] = (float) (sum / count);
+			sum += toFinite(values[offset + j + radius + 1]) - toFinite(values[offset + j - radius]);
+		}
+		for (int j = rightBorder; j < columns; j++) {
+			sum = moveBox(values, offset, target, targetOffset, columns, radius, j, sum);
+		}
+	}
+
+	private static double moveBox(float[] values, int offset, float[] target, int targetOffset, int columns,
+			int radius, int j, double sum) {
+		int first = j - radius;
+		int last = j + radius;
+		int count = Math.min(last, columns - 1) - Math.max(first, 0) + 1;
+		target[targetOffset + j] = (float) (sum / count);
+		if (last + 1 < columns) {
+			sum += toFinite(values[offset + last + 1]);
+		}
+		if (first >= 0) {
+			sum -= toFinite(values[offset + first]);
+		}
+		return sum;
+	}
+
+	private void blurColumns(int rows, int columns, int width, int radius) {
+		Arrays.fill(columnSums, 0, columns, 0);
+		for (int k = 0; k <= Math.min(radius, rows - 1); k++) {
+			addRow(k, columns, 1);
+		}
+		for (int i = 0; i < rows; i++) {
+			int first = i - radius;
+			int last = i + radius;
+			int count = Math.min(last, rows - 1) - Math.max(first, 0) + 1;
+			int offset = i * width;
+			for (int j = 0; j < columns; j++) {
+				blurredValues[offset + j] = (float) (columnSums[j] / count);
+			}
+			if (last + 1 < rows) {
+				addRow(last + 1, columns, 1);
+			}
+			if (first >= 0) {
+				addRow(first, columns, -1);
+			}
+		}
+	}
+
+	private void addRow(int row, int columns, int sign) {
+		int offset = row * columns;
+		for (int j = 0; j < columns; j++) {
+			columnSums[j] += sign * rowValues[offset + j];
+		}
+	}
+
+	private static float toFinite(float value) {
+		return Float.isFinite(value) ? value : 0;
+	}
+
+}
@@ -0,0 +1,251 @@
+package astro.tool.box.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Reads CSV lines from a character stream, splitting them the same way as
+ * {@link CSVParser#parseLine(String)}.
+ *
+ * Each line is copied into a reused buffer and split into field slices
+ * (offset and length), so that only the current line is held in memory. Field
+ * values are created on request only, which allows callers to materialize just
+ * the columns they need.
+ */
+public class CSVReader implements Closeable {
+
+	private static final char SEPARATOR = Constants.SPLIT_CHAR.charAt(0);
+	private static final char QUOTE = '"';
+	private static final int BUFFER_SIZE = 8192;
+
+	private final Reader reader;
+
+	private final char[] buffer = new char[BUFFER_SIZE];
+
+	private int position;
+
+	private int limit;
+
+	private char[] line = new char[1024];
+
+	private int lineLength;
+
+	private int[] fieldStarts = new int[64];
+
+	private int[] fieldEnds = new int[64];
+
+	private boolean[] fieldQuoted = new boolean[64];
+
+	private int fieldCount;
+
+	private final StringBuilder field = new StringBuilder();
+
+	public CSVReader(Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Read the next line and split it into fields
+	 *
+	 * @return false, if the end of the stream has been reached
+	 * @throws IOException
+	 */
+	public boolean nextLine() throws IOException {
+		int ch = read();
+		if (ch == -1) {
+			return false;
+		}
+		lineLength = 0;
+		fieldCount = 0;
+		int fieldStart = 0;
+		boolean quoted = false;
+		boolean inQuotes = false;
+		for (; ch != -1; ch = read()) {
+			if (ch == '\n') {
+				break;
+			}
+			if (ch == '\r') {
+				if (peek() == '\n') {
+					position++;
+				}
+				break;
+			}
+			if (ch == QUOTE) {
+				inQuotes = !inQuotes;
+				quoted = true;
+			} else if (ch == SEPARATOR && !inQuotes) {
+				addField(fieldStart, lineLength, quoted);
+				fieldStart = lineLength + 1;
+				quoted = false;
+			}
+			if (lineLength == line.length) {
+				line = Arrays.copyOf(line, line.length * 2);
+			}
+			line[lineLength++] = (char) ch;
+		}
+		if (lineLength > 0) {
+			addField(fieldStart, lineLength, quoted);
+		}
+		return true;
+	}
+
+	/**
+	 * @return the number of fields of the current line
+	 */
+	public int getFieldCount() {
+		return fieldCount;
+	}
+
+	/**
+	 * Get a field of the current line
+	 *
+	 * @param index
+	 * @return the trimmed field value, without enclosing quotes
+	 */
+	public String getField(int index) {
+		int start = fieldStarts[index];
+		int end = fieldEnds[index];
+		if (fieldQuoted[index]) {
+			return unquote(start, end);
+		}
+		while (start < end && line[start] <= ' ') {
+			start++;
+		}
+		while (end > start && line[end - 1] <= ' ') {
+			end--;
+		}
+		return new String(line, start, end - start);
+	}
+
+	/**
+	 * Get all fields of the current line
+	 *
+	 * @return the field values
+	 */
+	public String[] getFields() {
+		String[] values = new String[fieldCount];
+		for (int i = 0; i < fieldCount; i++) {
+			values[i] = getField(i);
+		}
+		return values;
+	}
+
+	/**
+	 * Get the requested fields of the current line
+	 *
+	 * @param columns (indexes of the requested fields)
+	 * @return the field values, with an empty string for fields not requested
+	 */
+	public String[] getFields(BitSet columns) {
+		String[] values = new String[fieldCount];
+		for (int i = 0; i < fieldCount; i++) {
+			values[i] = columns.get(i) ? getField(i) : "";
+		}
+		return values;
+	}
+
+	/**
+	 * Read the next line
+	 *
+	 * @return the values of the line or null, if the end of the stream has been
+	 *         reached
+	 * @throws IOException
+	 */
+	public String[] readLine() throws IOException {
+		return nextLine() ? getFields() : null;
+	}
+
+	/**
+	 * Skip the next line
+	 *
+	 * @throws IOException
+	 */
+	public void skipLine() throws IOException {
+		int ch;
+		while ((ch = read()) != -1) {
+			if (ch == '\n') {
+				return;
+			}
+			if (ch == '\r') {
+				if (peek() == '\n') {
+					position++;
+				}
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	private void addField(int start, int end, boolean quoted) {
+		if (fieldCount == fieldStarts.length) {
+			int capacity = fieldCount * 2;
+			fieldStarts = Arrays.copyOf(fieldStarts, capacity);
+			fieldEnds = Arrays.copyOf(fieldEnds, capacity);
+			fieldQuoted = Arrays.copyOf(fieldQuoted, capacity);
+		}
+		fieldStarts[fieldCount] = start;
+		fieldEnds[fieldCount] = end;
+		fieldQuoted[fieldCount] = quoted;
+		fieldCount++;
+	}
+
+	private String unquote(int start, int end) {
+		field.setLength(0);
+		boolean inQuotes = false;
+		boolean startCollectChar = false;
+		for (int i = start; i < end; i++) {
+			char ch = line[i];
+			if (inQuotes) {
+				startCollectChar = true;
+				if (ch == QUOTE) {
+					inQuotes = false;
+				} else {
+					field.append(ch);
+				}
+			} else if (ch == QUOTE) {
+				inQuotes = true;
+				if (startCollectChar) {
+					field.append(QUOTE);
+				}
+			} else {
+				field.append(ch);
+			}
+		}
+		return field.toString().trim();
+	}
+
+	private int read() throws IOException {
+		if (position == limit && !fill()) {
+			return -1;
+		}
+		return buffer[position++];
+	}
+
+	private int peek() throws IOException {
+		if (position == limit && !fill()) {
+			return -1;
+		}
+		return buffer[position];
+	}
+
+	private boolean fill() throws IOException {
+		int count;
+		do {
+			count = reader.read(buffer, 0, buffer.length);
+		} while (count == 0);
+		if (count == -1) {
+			return false;
+		}
+		position = 0;
+		limit = count;
+		return true;
+	}
+
+}
@@ -0,0 +1,323 @@
+package astro.tool.box.util;
+
+import static astro.tool.box.function.AstrometricFunctions.calculateAngularDistance;
+import static astro.tool.box.main.ToolboxHelper.USER_HOME;
+import static astro.tool.box.main.ToolboxHelper.writeErrorLog;
+import static astro.tool.box.tab.SettingsTab.CATALOG_CACHE_SIZE;
+import static astro.tool.box.tab.SettingsTab.getUserSetting;
+import static astro.tool.box.util.Constants.LINE_SEP;
+import static astro.tool.box.util.Constants.SPLIT_CHAR;
+import static astro.tool.box.util.Constants.SPLIT_CHAR_REPLACEMENT;
+import static astro.tool.box.util.ConversionFactors.DEG_ARCSEC;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import astro.tool.box.catalog.SimbadCatalogEntry;
+import astro.tool.box.container.NumberPair;
+
+/**
+ * Disk cache for cone search responses, shared by all catalog queries of the
+ * application.
+ *
+ * Responses are stored as received (CSV) in files named after the SHA-256 hash
+ * of the query URL. Each cached response also records the cone it covers, so
+ * that a smaller cone inside a cached one can be answered from the cached
+ * response by filtering on angular distance. The cache is bounded in size and
+ * evicts the least recently used responses first.
+ */
+public class CatalogCache {
+
+	public static final String CACHE_DIR = USER_HOME + "/AstroToolBoxCache/catalogs";
+
+	public static final int DEFAULT_CACHE_SIZE = 100; // MB
+
+	private static final String INDEX_FILE_NAME = "index.csv";
+
+	private static final long DEFAULT_TIME_TO_LIVE = TimeUnit.DAYS.toMillis(30);
+
+	private static final Map<String, Long> TIME_TO_LIVE = new HashMap<>();
+
+	static {
+		// Catalogs which are regularly updated
+		TIME_TO_LIVE.put(SimbadCatalogEntry.CATALOG_NAME, TimeUnit.DAYS.toMillis(1));
+	}
+
+	private final Path cacheDir;
+
+	private final Path indexFile;
+
+	// Access ordered, the eldest entry is the least recently used one
+	private final LinkedHashMap<String, CachedCone> cones = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long cacheSize;
+
+	public CatalogCache() {
+		this(CACHE_DIR);
+	}
+
+	public CatalogCache(String cacheDir) {
+		this.cacheDir = Paths.get(cacheDir);
+		this.indexFile = this.cacheDir.resolve(INDEX_FILE_NAME);
+		loadIndex();
+	}
+
+	/**
+	 * Get the cached response of a query URL
+	 *
+	 * @param url
+	 * @return the file containing the cached response or null, if the URL has not
+	 *         been cached yet or the response has expired
+	 */
+	public Path getResponseFile(String url) {
+		if (!isEnabled()) {
+			return null;
+		}
+		synchronized (this) {
+			CachedCone cone = cones.get(createKey(url));
+			if (cone == null || isExpired(cone)) {
+				return null;
+			}
+			return cacheDir.resolve(cone.key);
+		}
+	}
+
+	/**
+	 * Get a cached response covering the given cone
+	 *
+	 * @param scope  (catalog and its query parameters)
+	 * @param ra     (deg)
+	 * @param dec    (deg)
+	 * @param radius (arcsec)
+	 * @return the file containing the cached response of the smallest cone
+	 *         containing the given cone or null, if there is none
+	 */
+	public Path getSupersetResponseFile(String scope, double ra, double dec, double radius) {
+		if (!isEnabled()) {
+			return null;
+		}
+		CachedCone bestCone = null;
+		synchronized (this) {
+			NumberPair center = new NumberPair(ra, dec);
+			for (CachedCone cone : cones.values()) {
+				if (!cone.scope.equals(scope) || cone.radius < radius || isExpired(cone)) {
+					continue;
+				}
+				double distance = calculateAngularDistance(center, new NumberPair(cone.ra, cone.dec), DEG_ARCSEC);
+				if (distance + radius <= cone.radius && (bestCone == null || cone.radius < bestCone.radius)) {
+					bestCone = cone;
+				}
+			}
+			if (bestCone != null) {
+				// Mark as recently used
+				cones.get(bestCone.key);
+			}
+		}
+		return bestCone == null ? null : cacheDir.resolve(bestCone.key);
+	}
+
+	/**
+	 * Create a temporary file to write a response to, which is then stored with
+	 * {@link #putResponseFile}
+	 *
+	 * @return the temporary file or null, if the cache is disabled
+	 */
+	public Path createResponseFile() {
+		if (!isEnabled()) {
+			return null;
+		}
+		try {
+			Files.createDirectories(cacheDir);
+			return Files.createTempFile(cacheDir, "response", ".tmp");
+		} catch (IOException ex) {
+			writeErrorLog(ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Store the response of a cone search, moving the response file into the
+	 * cache
+	 *
+	 * @param url          (query URL)
+	 * @param scope        (catalog and its query parameters)
+	 * @param ra           (deg)
+	 * @param dec          (deg)
+	 * @param radius       (arcsec)
+	 * @param responseFile (created by {@link #createResponseFile})
+	 */
+	public void putResponseFile(String url, String scope, double ra, double dec, double radius, Path responseFile) {
+		String key = createKey(url);
+		synchronized (this) {
+			CachedCone cone;
+			try {
+				long size = Files.size(responseFile);
+				if (size == 0) {
+					return;
+				}
+				cone = new CachedCone(key, scope, ra, dec, radius, System.currentTimeMillis(), size);
+				Files.move(responseFile, cacheDir.resolve(key), StandardCopyOption.REPLACE_EXISTING);
+			} catch (IOException ex) {
+				writeErrorLog(ex);
+				return;
+			}
+			CachedCone previous = cones.put(key, cone);
+			if (previous != null) {
+				cacheSize -= previous.size;
+			}
+			cacheSize += cone.size;
+			evictEntries();
+			saveIndex();
+		}
+	}
+
+	public synchronized void clear() {
+		cones.values().forEach(cone -> deleteFile(cone.key));
+		cones.clear();
+		cacheSize = 0;
+		saveIndex();
+	}
+
+	private boolean isEnabled() {
+		return getMaxCacheSize() > 0;
+	}
+
+	private long getMaxCacheSize() {
+		try {
+			long cacheSizeMB = Long.parseLong(getUserSetting(CATALOG_CACHE_SIZE, String.valueOf(DEFAULT_CACHE_SIZE)));
+			return cacheSizeMB * 1024 * 1024;
+		} catch (NumberFormatException ex) {
+			return DEFAULT_CACHE_SIZE * 1024 * 1024;
+		}
+	}
+
+	private boolean isExpired(CachedCone cone) {
+		String catalogName = cone.scope.split("\\|")[0];
+		long timeToLive = TIME_TO_LIVE.getOrDefault(catalogName, DEFAULT_TIME_TO_LIVE);
+		return System.currentTimeMillis() - cone.created > timeToLive;
+	}
+
+	private void evictEntries() {
+		long maxCacheSize = getMaxCacheSize();
+		Iterator<CachedCone> iterator = cones.values().iterator();
+		while (iterator.hasNext()) {
+			CachedCone cone = iterator.next();
+			if (cacheSize <= maxCacheSize && !isExpired(cone)) {
+				continue;
+			}
+			deleteFile(cone.key);
+			cacheSize -= cone.size;
+			iterator.remove();
+		}
+	}
+
+	private void deleteFile(String key) {
+		try {
+			Files.deleteIfExists(cacheDir.resolve(key));
+		} catch (IOException ex) {
+			writeErrorLog(ex);
+		}
+	}
+
+	private void loadIndex() {
+		// Responses left incomplete by a previous session
+		try (DirectoryStream<Path> tempFiles = Files.newDirectoryStream(cacheDir, "*.tmp")) {
+			for (Path tempFile : tempFiles) {
+				Files.deleteIfExists(tempFile);
+			}
+		} catch (IOException ex) {
+		}
+		if (!Files.exists(indexFile)) {
+			return;
+		}
+		try {
+			for (String line : Files.readAllLines(indexFile, StandardCharsets.UTF_8)) {
+				String[] values = line.split(SPLIT_CHAR);
+				if (values.length != 7) {
+					continue;
+				}
+				CachedCone cone = new CachedCone(values[0], values[1], Double.parseDouble(values[2]),
+						Double.parseDouble(values[3]), Double.parseDouble(values[4]), Long.parseLong(values[5]),
+						Long.parseLong(values[6]));
+				if (Files.exists(cacheDir.resolve(cone.key))) {
+					cones.put(cone.key, cone);
+					cacheSize += cone.size;
+				}
+			}
+		} catch (IOException | NumberFormatException ex) {
+			writeErrorLog(ex);
+		}
+	}
+
+	private void saveIndex() {
+		List<String> lines = new ArrayList<>();
+		cones.values().forEach(cone -> {
+			lines.add(String.join(SPLIT_CHAR, cone.key, cone.scope.replace(SPLIT_CHAR, SPLIT_CHAR_REPLACEMENT),
+					String.valueOf(cone.ra), String.valueOf(cone.dec), String.valueOf(cone.radius),
+					String.valueOf(cone.created), String.valueOf(cone.size)));
+		});
+		try {
+			Files.createDirectories(cacheDir);
+			Files.write(indexFile, String.join(LINE_SEP, lines).getBytes(StandardCharsets.UTF_8));
+		} catch (IOException ex) {
+			writeErrorLog(ex);
+		}
+	}
+
+	private static String createKey(String url) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] hash = digest.digest(url.getBytes(StandardCharsets.UTF_8));
+			StringBuilder key = new StringBuilder();
+			for (byte b : hash) {
+				key.append(String.format("%02x", b));
+			}
+			return key.toString();
+		} catch (NoSuchAlgorithmException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private static class CachedCone {
+
+		private final String key;
+
+		private final String scope;
+
+		private final double ra;
+
+		private final double dec;
+
+		private final double radius;
+
+		private final long created;
+
+		private final long size;
+
+		private CachedCone(String key, String scope, double ra, double dec, double radius, long created, long size) {
+			this.key = key;
+			this.scope = scope;
+			this.ra = ra;
+			this.dec = dec;
+			this.radius = radius;
+			this.created = created;
+			this.size = size;
+		}
+
+	}
+
+}
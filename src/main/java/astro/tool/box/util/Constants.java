@@ -32,6 +32,9 @@ public class Constants {
 
 	public static final String VIZIER_TAP_URL = VIZIER_BASE_URL + TAP_URL_PARAMS;
 
+	// Table uploads are posted over https, to the host the VizieR TAP service redirects to
+	public static final String VIZIER_UPLOAD_URL = "https://tapvizier.cds.unistra.fr/TAPVizieR/tap";
+
 	public static final String SIMBAD_BASE_URL = "https://simbad.u-strasbg.fr/simbad/sim-tap" + TAP_URL_PARAMS;
 
 	public static final String SIMBAD_MIRROR_URL = "https://simbad.cfa.harvard.edu/simbad/sim-tap" + TAP_URL_PARAMS;
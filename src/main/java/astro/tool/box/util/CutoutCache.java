@@ -0,0 +1,225 @@
+package astro.tool.box.util;
+
+import static astro.tool.box.main.ToolboxHelper.USER_HOME;
+import static astro.tool.box.main.ToolboxHelper.writeErrorLog;
+import static astro.tool.box.tab.SettingsTab.CUTOUT_CACHE_SIZE;
+import static astro.tool.box.tab.SettingsTab.getUserSetting;
+import static astro.tool.box.util.Constants.LINE_SEP;
+import static astro.tool.box.util.Constants.SPLIT_CHAR;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * Disk cache for FITS cutouts, shared by all sessions of the application.
+ *
+ * Cutouts are stored as received in files named after the SHA-256 hash of the
+ * survey, band, epoch, position and size they were requested for. The cache is
+ * bounded in size and evicts the least recently used cutouts first.
+ */
+public class CutoutCache {
+
+	public static final String CACHE_DIR = USER_HOME + "/AstroToolBoxCache/cutouts";
+
+	public static final int DEFAULT_CACHE_SIZE = 500; // MB
+
+	private static final String INDEX_FILE_NAME = "index.csv";
+
+	private final Path cacheDir;
+
+	private final Path indexFile;
+
+	// Access ordered, the eldest entry is the least recently used one
+	private final LinkedHashMap<String, Long> cutouts = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long cacheSize;
+
+	public CutoutCache() {
+		this(CACHE_DIR);
+	}
+
+	public CutoutCache(String cacheDir) {
+		this.cacheDir = Paths.get(cacheDir);
+		this.indexFile = this.cacheDir.resolve(INDEX_FILE_NAME);
+		loadIndex();
+	}
+
+	/**
+	 * Get a cached cutout
+	 *
+	 * @param survey (survey or data release)
+	 * @param band
+	 * @param epoch
+	 * @param ra     (deg)
+	 * @param dec    (deg)
+	 * @param size   (arcsec)
+	 * @return the FITS file content or null, if the cutout has not been cached yet
+	 */
+	public byte[] getCutout(String survey, int band, int epoch, double ra, double dec, int size) {
+		if (!isEnabled()) {
+			return null;
+		}
+		String key = createKey(survey, band, epoch, ra, dec, size);
+		synchronized (this) {
+			if (cutouts.get(key) == null) {
+				return null;
+			}
+		}
+		try {
+			return Files.readAllBytes(cacheDir.resolve(key));
+		} catch (IOException ex) {
+			synchronized (this) {
+				Long cutoutSize = cutouts.remove(key);
+				if (cutoutSize != null) {
+					cacheSize -= cutoutSize;
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Store a cutout
+	 *
+	 * @param survey (survey or data release)
+	 * @param band
+	 * @param epoch
+	 * @param ra     (deg)
+	 * @param dec    (deg)
+	 * @param size   (arcsec)
+	 * @param cutout (FITS file content)
+	 */
+	public void putCutout(String survey, int band, int epoch, double ra, double dec, int size, byte[] cutout) {
+		if (!isEnabled() || cutout.length == 0) {
+			return;
+		}
+		String key = createKey(survey, band, epoch, ra, dec, size);
+		try {
+			// Written aside first, so that concurrent readers never see a partial file
+			Files.createDirectories(cacheDir);
+			Path tempFile = Files.createTempFile(cacheDir, "cutout", ".tmp");
+			Files.write(tempFile, cutout);
+			Files.move(tempFile, cacheDir.resolve(key), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException ex) {
+			writeErrorLog(ex);
+			return;
+		}
+		synchronized (this) {
+			Long previous = cutouts.put(key, (long) cutout.length);
+			if (previous != null) {
+				cacheSize -= previous;
+			}
+			cacheSize += cutout.length;
+			evictEntries();
+			saveIndex();
+		}
+	}
+
+	public synchronized void clear() {
+		cutouts.keySet().forEach(this::deleteFile);
+		cutouts.clear();
+		cacheSize = 0;
+		saveIndex();
+	}
+
+	private boolean isEnabled() {
+		return getMaxCacheSize() > 0;
+	}
+
+	private long getMaxCacheSize() {
+		try {
+			long cacheSizeMB = Long.parseLong(getUserSetting(CUTOUT_CACHE_SIZE, String.valueOf(DEFAULT_CACHE_SIZE)));
+			return cacheSizeMB * 1024 * 1024;
+		} catch (NumberFormatException ex) {
+			return DEFAULT_CACHE_SIZE * 1024 * 1024;
+		}
+	}
+
+	private void evictEntries() {
+		long maxCacheSize = getMaxCacheSize();
+		Iterator<Entry<String, Long>> iterator = cutouts.entrySet().iterator();
+		while (cacheSize > maxCacheSize && iterator.hasNext()) {
+			Entry<String, Long> cutout = iterator.next();
+			deleteFile(cutout.getKey());
+			cacheSize -= cutout.getValue();
+			iterator.remove();
+		}
+	}
+
+	private void deleteFile(String key) {
+		try {
+			Files.deleteIfExists(cacheDir.resolve(key));
+		} catch (IOException ex) {
+			writeErrorLog(ex);
+		}
+	}
+
+	private void loadIndex() {
+		// Cutouts left incomplete by a previous session
+		try (DirectoryStream<Path> tempFiles = Files.newDirectoryStream(cacheDir, "*.tmp")) {
+			for (Path tempFile : tempFiles) {
+				Files.deleteIfExists(tempFile);
+			}
+		} catch (IOException ex) {
+		}
+		if (!Files.exists(indexFile)) {
+			return;
+		}
+		try {
+			for (String line : Files.readAllLines(indexFile, StandardCharsets.UTF_8)) {
+				String[] values = line.split(SPLIT_CHAR);
+				if (values.length != 2) {
+					continue;
+				}
+				String key = values[0];
+				long size = Long.parseLong(values[1]);
+				if (Files.exists(cacheDir.resolve(key))) {
+					cutouts.put(key, size);
+					cacheSize += size;
+				}
+			}
+		} catch (IOException | NumberFormatException ex) {
+			writeErrorLog(ex);
+		}
+	}
+
+	private void saveIndex() {
+		List<String> lines = new ArrayList<>();
+		cutouts.forEach((key, size) -> lines.add(key + SPLIT_CHAR + size));
+		try {
+			Files.createDirectories(cacheDir);
+			Files.write(indexFile, String.join(LINE_SEP, lines).getBytes(StandardCharsets.UTF_8));
+		} catch (IOException ex) {
+			writeErrorLog(ex);
+		}
+	}
+
+	private static String createKey(String survey, int band, int epoch, double ra, double dec, int size) {
+		String cutout = String.join("|", survey, String.valueOf(band), String.valueOf(epoch), String.valueOf(ra),
+				String.valueOf(dec), String.valueOf(size));
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] hash = digest.digest(cutout.getBytes(StandardCharsets.UTF_8));
+			StringBuilder key = new StringBuilder();
+			for (byte b : hash) {
+				key.append(String.format("%02x", b));
+			}
+			return key.toString();
+		} catch (NoSuchAlgorithmException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+}
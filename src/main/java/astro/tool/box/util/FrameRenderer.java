@@ -0,0 +1,149 @@
+package astro.tool.box.util;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import astro.tool.box.container.FloatImage;
+
+/**
+ * Renders flipbook images into the int raster of an RGB image.
+ *
+ * The pixel values are clipped to the contrast limits and scaled to 8 bit
+ * levels, rounded like Color(float, float, float). Large images are rendered in
+ * parallel tiles of rows, in the pool of the calling thread.
+ */
+public class FrameRenderer {
+
+	private static final int TILE_ROWS = 64;
+	private static final int MIN_TILED_PIXELS = 512 * 512;
+
+	/**
+	 * Render a gray image
+	 *
+	 * @param floatImage
+	 * @param width      (of the rendered image)
+	 * @param height     (of the rendered image)
+	 * @param minValue   (black, white if inverted)
+	 * @param maxValue   (white, black if inverted)
+	 * @param invert
+	 * @return the rendered image
+	 */
+	public static BufferedImage createImage(FloatImage floatImage, int width, int height, float minValue,
+			float maxValue, boolean invert) {
+		float[] values = floatImage.getValues();
+		int imageWidth = floatImage.getWidth();
+
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		float scale = 1 / (maxValue - minValue);
+		int rows = min(height, floatImage.getHeight());
+		int columns = min(width, imageWidth);
+		forEachRow(rows, columns, i -> {
+			int offset = i * width;
+			int valueOffset = i * imageWidth;
+			for (int j = 0; j < columns; j++) {
+				int level = toColorLevel(processPixel(values[valueOffset + j], minValue, maxValue, scale, invert));
+				pixels[offset + j] = level << 16 | level << 8 | level;
+			}
+		});
+
+		return image;
+	}
+
+	/**
+	 * Render a color image, with W1 in red, W2 in blue and their mean in green
+	 *
+	 * @param imageW1
+	 * @param imageW2
+	 * @param width    (of the rendered image)
+	 * @param height   (of the rendered image)
+	 * @param minValue (black, white if inverted)
+	 * @param maxValue (white, black if inverted)
+	 * @param invert   (also swaps red and blue)
+	 * @return the rendered image
+	 */
+	public static BufferedImage createColorImage(FloatImage imageW1, FloatImage imageW2, int width, int height,
+			float minValue, float maxValue, boolean invert) {
+		float[] valuesW1 = imageW1.getValues();
+		float[] valuesW2 = imageW2.getValues();
+		int widthW1 = imageW1.getWidth();
+		int widthW2 = imageW2.getWidth();
+
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		float scale = 1 / (maxValue - minValue);
+		int rows = min(height, min(imageW1.getHeight(), imageW2.getHeight()));
+		int columns = min(width, min(widthW1, widthW2));
+		forEachRow(rows, columns, i -> {
+			int offset = i * width;
+			for (int j = 0; j < columns; j++) {
+				float red = processPixel(valuesW1[i * widthW1 + j], minValue, maxValue, scale, invert);
+				float blue = processPixel(valuesW2[i * widthW2 + j], minValue, maxValue, scale, invert);
+				float green = (red + blue) / 2;
+				if (invert) {
+					float swap = red;
+					red = blue;
+					blue = swap;
+				}
+				pixels[offset + j] = toColorLevel(red) << 16 | toColorLevel(green) << 8 | toColorLevel(blue);
+			}
+		});
+
+		return image;
+	}
+
+	/**
+	 * Process the rows of an image, in parallel tiles of rows for large fields of
+	 * view
+	 *
+	 * @param rows
+	 * @param columns
+	 * @param rowProcessor (called with the row index)
+	 */
+	private static void forEachRow(int rows, int columns, IntConsumer rowProcessor) {
+		if (rows * columns < MIN_TILED_PIXELS) {
+			for (int i = 0; i < rows; i++) {
+				rowProcessor.accept(i);
+			}
+			return;
+		}
+		int tileCount = (rows + TILE_ROWS - 1) / TILE_ROWS;
+		IntStream.range(0, tileCount).parallel().forEach(tile -> {
+			int lastRow = min(rows, (tile + 1) * TILE_ROWS);
+			for (int i = tile * TILE_ROWS; i < lastRow; i++) {
+				rowProcessor.accept(i);
+			}
+		});
+	}
+
+	/**
+	 * Normalize a pixel value to a color component
+	 *
+	 * @param value
+	 * @param minVal (lower reference value)
+	 * @param maxVal (upper reference value)
+	 * @param scale  (1 / (maxVal - minVal))
+	 * @param invert
+	 * @return the color component (0-1)
+	 */
+	private static float processPixel(float value, float minVal, float maxVal, float scale, boolean invert) {
+		value = max(value, minVal);
+		value = min(value, maxVal);
+		value = (value - minVal) * scale;
+		return invert ? value : 1 - value;
+	}
+
+	/**
+	 * Convert a color component to an 8 bit level, rounding like
+	 * {@link java.awt.Color#Color(float, float, float)}
+	 */
+	private static int toColorLevel(float component) {
+		return (int) (component * 255 + 0.5f);
+	}
+
+}
@@ -0,0 +1,47 @@
+package astro.tool.box.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Shares requests which are in progress, so that identical requests made at
+ * the same time (e.g. by different tabs for the same target) are sent only
+ * once.
+ *
+ * A request is forgotten as soon as it has completed, results are not cached.
+ *
+ * @param <T> (result type)
+ */
+public class InFlightRequests<T> {
+
+	private final Map<String, CompletableFuture<T>> requests = new ConcurrentHashMap<>();
+
+	/**
+	 * Send a request, unless the same request is already in progress
+	 *
+	 * @param key      (identifies the request, e.g. its URL)
+	 * @param request
+	 * @param executor (runs the request)
+	 * @return the result of the request in progress or of the new request
+	 */
+	public CompletableFuture<T> send(String key, Supplier<T> request, Executor executor) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		CompletableFuture<T> inFlight = requests.putIfAbsent(key, future);
+		if (inFlight != null) {
+			return inFlight;
+		}
+		CompletableFuture.supplyAsync(request, executor).whenComplete((result, ex) -> {
+			requests.remove(key, future);
+			if (ex == null) {
+				future.complete(result);
+			} else {
+				future.completeExceptionally(ex);
+			}
+		});
+		return future;
+	}
+
+}
@@ -4,6 +4,7 @@ import static astro.tool.box.main.ToolboxHelper.showWarnDialog;
 import static astro.tool.box.main.ToolboxHelper.writeErrorLog;
 import static astro.tool.box.tab.SettingsTab.PROXY_ADDRESS;
 import static astro.tool.box.tab.SettingsTab.PROXY_PORT;
+import static astro.tool.box.tab.SettingsTab.READ_TIMEOUT;
 import static astro.tool.box.tab.SettingsTab.USE_PROXY;
 import static astro.tool.box.tab.SettingsTab.USE_SIMBAD_MIRROR;
 import static astro.tool.box.tab.SettingsTab.getUserSetting;
@@ -16,23 +17,44 @@ import static astro.tool.box.util.Constants.SIMBAD_MIRROR_URL;
 import static astro.tool.box.util.Constants.SPLIT_CHAR;
 import static astro.tool.box.util.Constants.SPLIT_CHAR_REPLACEMENT;
 import static astro.tool.box.util.Constants.VIZIER_TAP_URL;
+import static astro.tool.box.util.MiscUtils.addRow;
 
 import java.io.BufferedReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.io.StringReader;
-import java.net.HttpURLConnection;
+import java.io.UncheckedIOException;
 import java.net.InetSocketAddress;
-import java.net.Proxy;
-import java.net.URL;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import astro.tool.box.catalog.CatalogEntry;
 import astro.tool.box.catalog.SdssCatalogEntry;
+import astro.tool.box.container.NumberPair;
 import astro.tool.box.exception.ADQLException;
 import astro.tool.box.tab.AdqlQueryTab;
 
@@ -40,6 +62,17 @@ public class ServiceHelper {
 
 	public static final String SERVICE_NOT_AVAILABLE = "%s is currently inaccessible!";
 
+	public static final int DEFAULT_READ_TIMEOUT = 60; // s
+
+	private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+	// A synchronous crossmatch returns its headers only when the join is done
+	private static final Duration UPLOAD_TIMEOUT = Duration.ofMinutes(5);
+
+	private static final String ILLEGAL_URI_CHARS = "\"<>[]{}|\\^`";
+
+	private static HttpClient httpClient;
+
 	public static String createSimbadUrl(double degRA, double degDE, double degRadius) {
 		return getSimbadBaseUrl()
 				+ "SELECT%20DISTINCT%20main_id,%20otype_longname,%20sp_type,%20ra,%20dec,%20plx_value,%20plx_err,%20pmra,%20pmdec,%20rvz_radvel,%20rvz_redshift,%20rvz_type,%20U,%20B,%20V,%20R,%20I,%20G,%20J,%20H,%20K,%20u_,%20g_,%20r_,%20i_,%20z_%20,%27.%27%20FROM%20basic%20AS%20b,%20otypedef%20AS%20o%20LEFT%20JOIN%20allfluxes%20ON%20oid%20=%20oidref%20WHERE%20b.otype=%20o.otype%20AND%20otype_txt%20<>%20%27err%27%20AND%201=CONTAINS(POINT(%27ICRS%27,%20ra,%20dec),%20CIRCLE(%27ICRS%27,%20"
@@ -58,6 +91,22 @@ public class ServiceHelper {
 				+ degRadius + "))";
 	}
 
+	public static String createVizieRUploadQuery(String tableName, String raColName, String decColName,
+			double degRadius, String targetTable) {
+		StringBuilder query = new StringBuilder();
+		addRow(query, "SELECT *");
+		addRow(query, "FROM   \"" + tableName + "\"");
+		addUploadJoin(query, raColName, decColName, degRadius, targetTable);
+		return query.toString();
+	}
+
+	public static void addUploadJoin(StringBuilder query, String raColName, String decColName, double degRadius,
+			String targetTable) {
+		addRow(query, "JOIN   " + targetTable + " AS t");
+		addRow(query, "ON     1=CONTAINS(POINT('ICRS', " + raColName + ", " + decColName
+				+ "), CIRCLE('ICRS', t.target_ra, t.target_dec, " + degRadius + "))");
+	}
+
 	public static String createIrsaUrl(double degRA, double degDE, double degRadius, String catalogId) {
 		return IRSA_BASE_URL + "?table=" + catalogId + "&RA=" + degRA + "&DEC=" + degDE + "&SR=" + degRadius
 				+ "&format=csv";
@@ -73,61 +122,405 @@ public class ServiceHelper {
 				+ "&limit=0&format=csv&imgparams=objid,run,rerun,camcol,field,obj,ra,dec,raErr,decErr,type,clean,mjd,specObjID,u,g,r,i,z,Err_u,Err_g,Err_r,Err_i,Err_z";
 	}
 
-	public static HttpURLConnection establishHttpConnection(String url) throws IOException {
-		Proxy webProxy = null;
-		boolean useProxy = Boolean.parseBoolean(getUserSetting(USE_PROXY));
-		if (useProxy) {
-			String proxyAddress = getUserSetting(PROXY_ADDRESS);
-			int proxyPort = Integer.parseInt(getUserSetting(PROXY_PORT));
-			if (!proxyAddress.isEmpty() && proxyPort != 0) {
-				webProxy = new Proxy(Proxy.Type.HTTP, new InetSocketAddress(proxyAddress, proxyPort));
+	/**
+	 * Get the HTTP client shared by all service requests
+	 *
+	 * The client keeps connections alive per host and negotiates HTTP/2 with
+	 * services supporting it. It is created with the current proxy settings.
+	 *
+	 * @return the HTTP client
+	 */
+	public static synchronized HttpClient getHttpClient() {
+		if (httpClient == null) {
+			HttpClient.Builder builder = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2)
+					.connectTimeout(CONNECT_TIMEOUT).followRedirects(HttpClient.Redirect.NORMAL);
+			boolean useProxy = Boolean.parseBoolean(getUserSetting(USE_PROXY));
+			String proxyAddress = getUserSetting(PROXY_ADDRESS, "");
+			String proxyPort = getUserSetting(PROXY_PORT, "0");
+			if (useProxy && !proxyAddress.isEmpty() && !proxyPort.isEmpty() && Integer.parseInt(proxyPort) != 0) {
+				builder.proxy(ProxySelector.of(new InetSocketAddress(proxyAddress, Integer.parseInt(proxyPort))));
+			} else {
+				builder.proxy(HttpClient.Builder.NO_PROXY);
+			}
+			httpClient = builder.build();
+		}
+		return httpClient;
+	}
+
+	/**
+	 * Discard the shared HTTP client, so that changed network settings take effect
+	 */
+	public static synchronized void resetHttpClient() {
+		httpClient = null;
+	}
+
+	/**
+	 * Create a request accepting gzip compressed responses
+	 *
+	 * The read timeout setting bounds the wait for the response headers only, not
+	 * the reading of the response body. A body stream must be closed when done,
+	 * otherwise its pooled connection or HTTP/2 stream stays busy.
+	 *
+	 * @param url
+	 * @return the request builder
+	 */
+	public static HttpRequest.Builder createRequest(String url) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(toUri(url)).timeout(getReadTimeout())
+				.header("Accept-Encoding", "gzip");
+		if (!url.startsWith("https")) {
+			// Avoid HTTP/2 upgrade requests over plain connections
+			builder.version(HttpClient.Version.HTTP_1_1);
+		}
+		return builder;
+	}
+
+	/**
+	 * Send a GET request
+	 *
+	 * @param url
+	 * @return the decompressed response body
+	 * @throws IOException if the request fails or the server returns an error
+	 */
+	public static InputStream openStream(String url) throws IOException {
+		return getResponseBody(sendRequest(createRequest(url).GET().build()));
+	}
+
+	/**
+	 * Send a GET request asynchronously
+	 *
+	 * @param url
+	 * @return the decompressed response body, completed exceptionally with an
+	 *         UncheckedIOException if the server returns an error
+	 */
+	public static CompletableFuture<InputStream> openStreamAsync(String url) {
+		return sendRequestAsync(createRequest(url).GET().build()).thenApply(response -> {
+			try {
+				return getResponseBody(response);
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
 			}
+		});
+	}
+
+	public static HttpResponse<InputStream> sendRequest(HttpRequest request) throws IOException {
+		try {
+			return getHttpClient().send(request, BodyHandlers.ofInputStream());
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Request to " + request.uri() + " interrupted");
 		}
-		HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection(webProxy == null ? Proxy.NO_PROXY : webProxy);
-		connection.setConnectTimeout(10000);
-		return connection;
 	}
 
-	public static String readResponse(HttpURLConnection connection, String serviceProvider) {
-		try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
+	public static CompletableFuture<HttpResponse<InputStream>> sendRequestAsync(HttpRequest request) {
+		return getHttpClient().sendAsync(request, BodyHandlers.ofInputStream());
+	}
+
+	/**
+	 * Get the body of a response
+	 *
+	 * @param response
+	 * @return the decompressed response body
+	 * @throws IOException if the server returned an error
+	 */
+	public static InputStream getResponseBody(HttpResponse<InputStream> response) throws IOException {
+		InputStream body = response.body();
+		if (response.statusCode() >= 400) {
+			body.close();
+			throw new IOException(
+					"Server returned HTTP response code: " + response.statusCode() + " for URL: " + response.uri());
+		}
+		String contentEncoding = response.headers().firstValue("Content-Encoding").orElse("");
+		return contentEncoding.equalsIgnoreCase("gzip") ? new GZIPInputStream(body) : body;
+	}
+
+	private static Duration getReadTimeout() {
+		try {
+			return Duration.ofSeconds(
+					Long.parseLong(getUserSetting(READ_TIMEOUT, String.valueOf(DEFAULT_READ_TIMEOUT))));
+		} catch (NumberFormatException ex) {
+			return Duration.ofSeconds(DEFAULT_READ_TIMEOUT);
+		}
+	}
+
+	/**
+	 * Create a URI from a URL, encoding characters which are accepted by
+	 * {@link java.net.URL} but not by {@link URI}
+	 */
+	private static URI toUri(String url) {
+		try {
+			return new URI(url);
+		} catch (URISyntaxException ex) {
+			StringBuilder encoded = new StringBuilder();
+			for (byte b : url.getBytes(StandardCharsets.UTF_8)) {
+				int c = b & 0xff;
+				if (c > ' ' && c < 0x7f && ILLEGAL_URI_CHARS.indexOf(c) == -1) {
+					encoded.append((char) c);
+				} else {
+					encoded.append('%').append(String.format("%02X", c));
+				}
+			}
+			return URI.create(encoded.toString());
+		}
+	}
+
+	/**
+	 * Send a synchronous TAP query together with a VOTable of targets
+	 * (TAP_UPLOAD)
+	 *
+	 * The response headers are awaited for up to 5 minutes, instead of the read
+	 * timeout setting, as the server runs the whole join first.
+	 *
+	 * @param tapServiceUrl
+	 * @param tableName     (name of the uploaded table, TAP_UPLOAD.tableName)
+	 * @param query         (ADQL)
+	 * @param targets       (deg, deg)
+	 * @param maxRecords    (maximum number of rows returned)
+	 * @return the response containing the CSV result
+	 * @throws IOException
+	 */
+	public static HttpResponse<InputStream> uploadTargets(String tapServiceUrl, String tableName, String query,
+			List<NumberPair> targets, int maxRecords) throws IOException {
+		String boundary = "AstroToolBox" + System.nanoTime();
+		StringBuilder body = new StringBuilder();
+		addFormField(body, boundary, "REQUEST", "doQuery");
+		addFormField(body, boundary, "LANG", "ADQL");
+		addFormField(body, boundary, "FORMAT", "csv");
+		addFormField(body, boundary, "MAXREC", String.valueOf(maxRecords));
+		addFormField(body, boundary, "UPLOAD", tableName + ",param:" + tableName);
+		addFormField(body, boundary, "QUERY", query);
+		body.append("--").append(boundary).append("\r\n");
+		body.append("Content-Disposition: form-data; name=\"").append(tableName).append("\"; filename=\"")
+				.append(tableName).append(".xml\"\r\n");
+		body.append("Content-Type: application/x-votable+xml\r\n\r\n");
+		body.append(createVOTable(tableName, targets)).append("\r\n");
+		body.append("--").append(boundary).append("--\r\n");
+
+		HttpRequest request = createRequest(tapServiceUrl + "/sync").timeout(UPLOAD_TIMEOUT)
+				.header("Content-Type", "multipart/form-data; boundary=" + boundary)
+				.POST(BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8)).build();
+		HttpResponse<InputStream> response = sendRequest(request);
+		if (response.statusCode() != 200) {
+			response.body().close();
+			throw new IOException("TAP upload to " + tapServiceUrl + " failed with HTTP " + response.statusCode());
+		}
+		return response;
+	}
+
+	private static void addFormField(StringBuilder body, String boundary, String name, String value) {
+		body.append("--").append(boundary).append("\r\n");
+		body.append("Content-Disposition: form-data; name=\"").append(name).append("\"\r\n\r\n");
+		body.append(value).append("\r\n");
+	}
+
+	private static String createVOTable(String tableName, List<NumberPair> targets) {
+		StringBuilder votable = new StringBuilder();
+		votable.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>").append(LINE_SEP);
+		votable.append("<VOTABLE version=\"1.3\" xmlns=\"http://www.ivoa.net/xml/VOTable/v1.3\">").append(LINE_SEP);
+		votable.append("<RESOURCE>").append(LINE_SEP);
+		votable.append("<TABLE name=\"").append(tableName).append("\">").append(LINE_SEP);
+		votable.append("<FIELD name=\"target_ra\" datatype=\"double\" unit=\"deg\" ucd=\"pos.eq.ra;meta.main\"/>")
+				.append(LINE_SEP);
+		votable.append("<FIELD name=\"target_dec\" datatype=\"double\" unit=\"deg\" ucd=\"pos.eq.dec;meta.main\"/>")
+				.append(LINE_SEP);
+		votable.append("<DATA><TABLEDATA>").append(LINE_SEP);
+		for (NumberPair target : targets) {
+			votable.append("<TR><TD>").append(target.getX()).append("</TD><TD>").append(target.getY())
+					.append("</TD></TR>").append(LINE_SEP);
+		}
+		votable.append("</TABLEDATA></DATA>").append(LINE_SEP);
+		votable.append("</TABLE>").append(LINE_SEP);
+		votable.append("</RESOURCE>").append(LINE_SEP);
+		votable.append("</VOTABLE>");
+		return votable.toString();
+	}
+
+	public static String readResponse(String url, String serviceProvider) {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(openStream(url)))) {
 			return reader.lines().collect(Collectors.joining(LINE_SEP));
 		} catch (Exception ex) {
-			if (AdqlQueryTab.QUERY_SERVICE.equals(serviceProvider)) {
-				throw new ADQLException(ex);
-			}
-			writeErrorLog(ex);
-			showWarnDialog(null, SERVICE_NOT_AVAILABLE.formatted(serviceProvider));
+			showServiceError(ex, serviceProvider);
 			return "";
 		}
 	}
 
-	public static List<CatalogEntry> transformResponseToCatalogEntries(String response, CatalogEntry catalogEntry)
-			throws IOException {
+	public static void showServiceError(Exception ex, String serviceProvider) {
+		if (AdqlQueryTab.QUERY_SERVICE.equals(serviceProvider)) {
+			throw new ADQLException(ex);
+		}
+		writeErrorLog(ex);
+		showWarnDialog(null, SERVICE_NOT_AVAILABLE.formatted(serviceProvider));
+	}
+
+	/**
+	 * Read the CSV response of a catalog query line by line
+	 *
+	 * @param url
+	 * @param catalogEntry (creates the catalog entries)
+	 * @return the catalog entries or an empty list, if the service is not
+	 *         available
+	 */
+	public static List<CatalogEntry> readCatalogEntries(String url, CatalogEntry catalogEntry) {
 		List<CatalogEntry> entries = new ArrayList<>();
-		try (BufferedReader reader = new BufferedReader(new StringReader(response))) {
+		try {
+			readCatalogEntries(openStream(url), catalogEntry, null, entries::add);
+		} catch (IOException ex) {
+			showServiceError(ex, catalogEntry.getCatalogName());
+			entries.clear();
+		}
+		return entries;
+	}
+
+	/**
+	 * Read the CSV response of a catalog query line by line
+	 *
+	 * @param input        (response body, closed when done)
+	 * @param catalogEntry (creates the catalog entries)
+	 * @param copy         (receives the response as read, may be null)
+	 * @param consumer     (returns false to stop reading)
+	 * @throws IOException
+	 */
+	public static void readCatalogEntries(InputStream input, CatalogEntry catalogEntry, OutputStream copy,
+			Predicate<CatalogEntry> consumer) throws IOException {
+		try (input) {
+			readCatalogEntries(new InputStreamReader(copy == null ? input : new CopyingInputStream(input, copy)),
+					catalogEntry, consumer);
+		}
+	}
+
+	/**
+	 * Read catalog entries from a CSV stream line by line
+	 *
+	 * Only the columns read by the catalog entries are turned into values. They
+	 * are determined from the columns the first entry looks up, and extended if
+	 * a later entry looks up further columns.
+	 *
+	 * @param reader
+	 * @param catalogEntry (creates the catalog entries)
+	 * @param consumer     (returns false to stop reading)
+	 * @throws IOException
+	 */
+	public static void readCatalogEntries(Reader reader, CatalogEntry catalogEntry, Predicate<CatalogEntry> consumer)
+			throws IOException {
+		try (CSVReader csvReader = new CSVReader(reader)) {
 			if (catalogEntry instanceof SdssCatalogEntry) {
-				reader.readLine();
+				csvReader.skipLine();
+			}
+			String[] headers = csvReader.readLine();
+			if (headers == null) {
+				return;
 			}
-			String headerLine = reader.readLine();
-			String[] headers = CSVParser.parseLine(headerLine);
 			Map<String, Integer> columns = new HashMap<>();
 			for (int i = 0; i < headers.length; i++) {
 				columns.put(headers[i], i);
 			}
-			String line;
-			try {
-				while ((line = reader.readLine()) != null) {
-					String[] values = CSVParser.parseLine(line);
-					for (int i = 0; i < values.length; i++) {
-						values[i] = values[i].replace(SPLIT_CHAR, SPLIT_CHAR_REPLACEMENT);
+			BitSet projection = new BitSet(headers.length);
+			ProjectedColumns projectedColumns = new ProjectedColumns(columns, projection);
+			while (csvReader.nextLine()) {
+				CatalogEntry entry = null;
+				if (!projection.isEmpty()) {
+					try {
+						entry = catalogEntry.getInstance(projectedColumns, readValues(csvReader, projection));
+					} catch (RuntimeException ex) {
+						if (!projectedColumns.hasMissingColumns()) {
+							throw ex;
+						}
 					}
-					entries.add(catalogEntry.getInstance(columns, values));
 				}
-			} catch (IOException ex) {
-				throw new RuntimeException(response, ex);
+				if (entry == null || projectedColumns.hasMissingColumns()) {
+					// Looks up columns not read so far
+					entry = catalogEntry.getInstance(projectedColumns, readValues(csvReader, null));
+					projectedColumns.addMissingColumns();
+				}
+				if (!consumer.test(entry)) {
+					return;
+				}
 			}
 		}
+	}
+
+	private static String[] readValues(CSVReader csvReader, BitSet projection) {
+		String[] values = projection == null ? csvReader.getFields() : csvReader.getFields(projection);
+		for (int i = 0; i < values.length; i++) {
+			values[i] = values[i].replace(SPLIT_CHAR, SPLIT_CHAR_REPLACEMENT);
+		}
+		return values;
+	}
+
+	public static List<CatalogEntry> transformResponseToCatalogEntries(String response, CatalogEntry catalogEntry)
+			throws IOException {
+		List<CatalogEntry> entries = new ArrayList<>();
+		readCatalogEntries(new StringReader(response), catalogEntry, entries::add);
 		return entries;
 	}
 
+	/**
+	 * Column map recording lookups of columns outside the projection
+	 */
+	private static class ProjectedColumns extends AbstractMap<String, Integer> {
+
+		private final Map<String, Integer> columns;
+
+		private final BitSet projection;
+
+		private final BitSet missingColumns = new BitSet();
+
+		private ProjectedColumns(Map<String, Integer> columns, BitSet projection) {
+			this.columns = columns;
+			this.projection = projection;
+		}
+
+		@Override
+		public Integer get(Object key) {
+			Integer index = columns.get(key);
+			if (index != null && !projection.get(index)) {
+				missingColumns.set(index);
+			}
+			return index;
+		}
+
+		@Override
+		public Set<Entry<String, Integer>> entrySet() {
+			return columns.entrySet();
+		}
+
+		private boolean hasMissingColumns() {
+			return !missingColumns.isEmpty();
+		}
+
+		private void addMissingColumns() {
+			projection.or(missingColumns);
+			missingColumns.clear();
+		}
+
+	}
+
+	private static class CopyingInputStream extends FilterInputStream {
+
+		private final OutputStream copy;
+
+		private CopyingInputStream(InputStream input, OutputStream copy) {
+			super(input);
+			this.copy = copy;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) {
+				copy.write(b);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int count = super.read(b, off, len);
+			if (count > 0) {
+				copy.write(b, off, count);
+			}
+			return count;
+		}
+
+	}
+
 }
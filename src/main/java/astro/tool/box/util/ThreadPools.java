@@ -0,0 +1,31 @@
+package astro.tool.box.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ThreadPools {
+
+	/**
+	 * Create a bounded thread pool whose threads do not prevent the application
+	 * from exiting
+	 *
+	 * @param name        (thread name prefix)
+	 * @param threadCount (maximum number of concurrent tasks)
+	 * @return the thread pool
+	 */
+	public static ExecutorService createFixedThreadPool(String name, int threadCount) {
+		return Executors.newFixedThreadPool(threadCount, createThreadFactory(name));
+	}
+
+	private static ThreadFactory createThreadFactory(String name) {
+		AtomicInteger threadNumber = new AtomicInteger(1);
+		return (Runnable runnable) -> {
+			Thread thread = new Thread(runnable, name + "-" + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+}